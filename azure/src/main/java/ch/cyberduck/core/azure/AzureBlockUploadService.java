@@ -0,0 +1,331 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.InteroperabilityException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.log4j.Logger;
+import org.bouncycastle.util.encoders.Base64;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.microsoft.azure.storage.AccessCondition;
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.BlockListingFilter;
+import com.microsoft.azure.storage.blob.BlockSearchMode;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+
+/**
+ * Upload file as block blob with blocks staged concurrently using Put Block and committed with Put Block List
+ */
+public class AzureBlockUploadService implements Upload<Void> {
+    private static final Logger log = Logger.getLogger(AzureBlockUploadService.class);
+
+    /**
+     * Maximum number of blocks in a committed blob
+     */
+    public static final int MAXIMUM_BLOCKS = 50000;
+
+    /**
+     * Maximum size of a single block
+     */
+    public static final long MAXIMUM_BLOCK_SIZE = 100L * 1024L * 1024L;
+
+    private final AzureSession session;
+    private final OperationContext context;
+
+    private final PathContainerService containerService
+        = new AzurePathContainerService();
+
+    private final Long blocksize;
+    private final Integer concurrency;
+
+    public AzureBlockUploadService(final AzureSession session, final OperationContext context) {
+        this(session, context, PreferencesFactory.get().getLong("azure.upload.blockblob.size"),
+            PreferencesFactory.get().getInteger("azure.upload.blockblob.concurrency"));
+    }
+
+    public AzureBlockUploadService(final AzureSession session, final OperationContext context, final Long blocksize, final Integer concurrency) {
+        this.session = session;
+        this.context = context;
+        this.blocksize = blocksize;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @return Blocks already staged for file that can be skipped when resuming upload
+     */
+    @Override
+    public Write.Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
+        final List<BlockEntry> staged = this.find(file, length);
+        if(staged.isEmpty()) {
+            return Write.notfound;
+        }
+        long size = 0L;
+        for(BlockEntry block : staged) {
+            size += block.getSize();
+        }
+        return new Write.Append(size);
+    }
+
+    @Override
+    public Void upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                       final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        final ThreadPool pool = ThreadPoolFactory.get("multipart", concurrency);
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                .getBlockBlobReference(containerService.getKey(file));
+            // Full size of file
+            final long size = status.getLength() + status.getOffset();
+            final long length = this.blocksize(size);
+            final List<BlockEntry> blocks = new ArrayList<BlockEntry>();
+            long offset = 0L;
+            if(status.isAppend()) {
+                for(BlockEntry block : this.find(file, size)) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Skip staged block %s with size %d", block.getId(), block.getSize()));
+                    }
+                    blocks.add(new BlockEntry(block.getId(), BlockSearchMode.UNCOMMITTED));
+                    offset += block.getSize();
+                }
+                if(offset != status.getOffset()) {
+                    // Committing a block list with content missing or duplicated would corrupt the blob
+                    log.warn(String.format("Staged %d bytes for %s differ from offset %d. Restart upload from beginning",
+                        offset, file, status.getOffset()));
+                    blocks.clear();
+                    offset = 0L;
+                    status.append(false).setLength(size);
+                }
+            }
+            final List<Future<BlockEntry>> futures = new ArrayList<Future<BlockEntry>>();
+            for(int blockNumber = blocks.size() + 1; offset < size; blockNumber++) {
+                final long remaining = Math.min(length, size - offset);
+                // Submit to queue
+                futures.add(this.submit(pool, file, blob, local, throttle, listener, status, blockNumber, offset, remaining, length));
+                offset += remaining;
+            }
+            for(Future<BlockEntry> future : futures) {
+                try {
+                    blocks.add(future.get());
+                }
+                catch(InterruptedException e) {
+                    log.error("Block upload failed with interrupt failure");
+                    status.setCanceled();
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Block upload failed with execution failure %s", e.getMessage()));
+                    if(e.getCause() instanceof BackgroundException) {
+                        throw (BackgroundException) e.getCause();
+                    }
+                    throw new BackgroundException(e.getCause());
+                }
+            }
+            AzureWriteFeature.configure(blob, status);
+            final BlobRequestOptions options = new BlobRequestOptions();
+            options.setStoreBlobContentMD5(false);
+            blob.commitBlockList(blocks, AccessCondition.generateEmptyCondition(), options, context);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Committed block list for %s with %d blocks", file, blocks.size()));
+            }
+            // Mark parent status as complete
+            status.setComplete();
+            return null;
+        }
+        catch(StorageException e) {
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+        finally {
+            // Cancel future tasks
+            pool.shutdown(false);
+        }
+    }
+
+    /**
+     * @param size Full size of file
+     * @return Block size respecting maximum number of blocks for blob
+     */
+    protected long blocksize(final long size) {
+        return Math.min(MAXIMUM_BLOCK_SIZE, Math.max(blocksize, (size + MAXIMUM_BLOCKS - 1) / MAXIMUM_BLOCKS));
+    }
+
+    /**
+     * Identifiers have equal length for all blocks of a blob and include the block size to not reuse blocks staged
+     * with a different layout when resuming.
+     *
+     * @param blockNumber Index of block starting at 1
+     * @param length      Block size of layout
+     * @return Base64 encoded block identifier
+     */
+    protected static String id(final int blockNumber, final long length) {
+        return Base64.toBase64String(String.format("%05d-%016x", blockNumber, length).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Find blocks staged in a previous attempt matching the layout from the beginning of the file
+     *
+     * @param size Full size of file
+     * @return Contiguous list of uncommitted blocks from first block
+     */
+    protected List<BlockEntry> find(final Path file, final long size) throws BackgroundException {
+        final List<BlockEntry> staged = new ArrayList<BlockEntry>();
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                .getBlockBlobReference(containerService.getKey(file));
+            final Map<String, BlockEntry> uncommitted = new HashMap<String, BlockEntry>();
+            for(BlockEntry block : blob.downloadBlockList(BlockListingFilter.UNCOMMITTED,
+                AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context)) {
+                uncommitted.put(block.getId(), block);
+            }
+            final long length = this.blocksize(size);
+            long offset = 0L;
+            for(int blockNumber = 1; offset < size; blockNumber++) {
+                final BlockEntry block = uncommitted.get(id(blockNumber, length));
+                final long expected = Math.min(length, size - offset);
+                if(null == block || block.getSize() != expected) {
+                    break;
+                }
+                staged.add(block);
+                offset += expected;
+            }
+            if(offset == size && !staged.isEmpty()) {
+                // Upload at least last block to commit block list
+                staged.remove(staged.size() - 1);
+            }
+        }
+        catch(StorageException e) {
+            final BackgroundException failure = new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+            if(failure instanceof NotfoundException || failure instanceof InteroperabilityException) {
+                // No uncommitted blocks or blob of different type
+                return staged;
+            }
+            throw failure;
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Found %d staged blocks for %s", staged.size(), file));
+        }
+        return staged;
+    }
+
+    private Future<BlockEntry> submit(final ThreadPool pool, final Path file, final CloudBlockBlob blob, final Local local,
+                                      final BandwidthThrottle throttle, final StreamListener listener,
+                                      final TransferStatus overall, final int blockNumber, final long offset, final long length,
+                                      final long blocksize) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit block %d of %s to queue with offset %d and length %d", blockNumber, file, offset, length));
+        }
+        return pool.execute(new DefaultRetryCallable<BlockEntry>(new BackgroundExceptionCallable<BlockEntry>() {
+            @Override
+            public BlockEntry call() throws BackgroundException {
+                if(overall.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                final String id = id(blockNumber, blocksize);
+                final AtomicLong sent = new AtomicLong();
+                final InputStream in = StreamCopier.skip(local.getInputStream(), offset);
+                try {
+                    // Progress is reported per block read from local file
+                    final InputStream block = new ProxyInputStream(new ThrottledInputStream(new BoundedInputStream(in, length), throttle)) {
+                        @Override
+                        protected void beforeRead(final int n) throws IOException {
+                            if(overall.isCanceled()) {
+                                throw new IOException(new ConnectionCanceledException());
+                            }
+                        }
+
+                        @Override
+                        protected void afterRead(final int n) {
+                            if(n > 0) {
+                                sent.addAndGet(n);
+                                overall.progress(n);
+                                listener.sent(n);
+                            }
+                        }
+                    };
+                    blob.uploadBlock(id, block, length, AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), AzureSession.copy(context));
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Staged block %d of %s with id %s", blockNumber, file, id));
+                    }
+                    return new BlockEntry(id, BlockSearchMode.UNCOMMITTED);
+                }
+                catch(StorageException | IOException e) {
+                    // Discard sent bytes if there is an error reply
+                    overall.progress(-sent.get());
+                    listener.sent(-sent.get());
+                    if(overall.isCanceled()) {
+                        throw new ConnectionCanceledException(e);
+                    }
+                    if(e instanceof StorageException) {
+                        throw new AzureExceptionMappingService().map("Upload {0} failed", (StorageException) e, file);
+                    }
+                    throw new DefaultIOExceptionMappingService().map("Upload {0} failed", (IOException) e, file);
+                }
+                finally {
+                    IOUtils.closeQuietly(in);
+                }
+            }
+        }, overall));
+    }
+
+    @Override
+    public Upload<Void> withWriter(final Write<Void> writer) {
+        // Blocks are staged with requests independent of writer
+        return this;
+    }
+}
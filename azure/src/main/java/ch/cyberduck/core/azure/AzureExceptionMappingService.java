@@ -30,6 +30,7 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 
 import java.net.UnknownHostException;
 
+import com.microsoft.azure.storage.StorageErrorCodeStrings;
 import com.microsoft.azure.storage.StorageException;
 
 public class AzureExceptionMappingService extends AbstractExceptionMappingService<StorageException> {
@@ -52,6 +53,12 @@ public class AzureExceptionMappingService extends AbstractExceptionMappingServic
             case 411:
             case 412:
                 return new InteroperabilityException(buffer.toString(), e);
+            case 409:
+                if(StorageErrorCodeStrings.INVALID_BLOB_TYPE.equals(e.getErrorCode())) {
+                    // Operation not supported for existing blob of different type
+                    return new InteroperabilityException(buffer.toString(), e);
+                }
+                break;
             case 500:
                 // InternalError
                 // OperationTimedOut
@@ -55,6 +55,11 @@ public class AzureReadFeature implements Read {
     private final PathContainerService containerService
             = new AzurePathContainerService();
 
+    /**
+     * Minimum number of bytes buffered by blob input stream
+     */
+    private static final int MINIMUM_READ_SIZE = 16 * 1024;
+
     public AzureReadFeature(final AzureSession session, final OperationContext context) {
         this.session = session;
         this.context = context;
@@ -65,6 +70,11 @@ public class AzureReadFeature implements Read {
         return true;
     }
 
+    @Override
+    public boolean concurrent(final Path file) {
+        return true;
+    }
+
     @Override
     public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
@@ -72,7 +82,13 @@ public class AzureReadFeature implements Read {
                     .getBlobReferenceFromServer(containerService.getKey(file));
             final BlobRequestOptions options = new BlobRequestOptions();
             options.setConcurrentRequestCount(1);
-            final BlobInputStream in = blob.openInputStream(AccessCondition.generateEmptyCondition(), options, context);
+            if(status.isAppend() && status.getLength() > 0) {
+                // Divide range into equal reads of at most the default size to not fetch past the end of the range
+                final long reads = (status.getLength() + blob.getStreamMinimumReadSizeInBytes() - 1) / blob.getStreamMinimumReadSizeInBytes();
+                blob.setStreamMinimumReadSizeInBytes((int) Math.max(MINIMUM_READ_SIZE, (status.getLength() + reads - 1) / reads));
+            }
+            // Context not shared with concurrent reads of ranges
+            final BlobInputStream in = blob.openInputStream(AccessCondition.generateEmptyCondition(), options, AzureSession.copy(context));
             if(status.isAppend()) {
                 try {
                     return StreamCopier.skip(in, status.getOffset());
@@ -37,6 +37,7 @@ import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Directory;
+import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Headers;
 import ch.cyberduck.core.features.Home;
@@ -45,9 +46,11 @@ import ch.cyberduck.core.features.Metadata;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Touch;
+import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.DisabledX509HostnameVerifier;
 import ch.cyberduck.core.proxy.Proxy;
+import ch.cyberduck.core.shared.ConcurrentRangeDownloadFeature;
 import ch.cyberduck.core.ssl.CustomTrustSSLProtocolSocketFactory;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
@@ -189,6 +192,22 @@ public class AzureSession extends SSLSession<CloudBlobClient> {
         context.getSendingRequestEventHandler().removeListener(listener);
     }
 
+    /**
+     * Operation context collects request results and is not safe to share with concurrent requests
+     *
+     * @param context Context of session
+     * @return New context with same headers, proxy and event listeners for a single request
+     */
+    protected static OperationContext copy(final OperationContext context) {
+        final OperationContext copy = new OperationContext();
+        copy.setUserHeaders(context.getUserHeaders());
+        copy.setProxy(context.getProxy());
+        copy.setSendingRequestEventHandler(context.getSendingRequestEventHandler());
+        copy.setLoggingEnabled(context.isLoggingEnabled());
+        copy.setLogger(context.getLogger());
+        return copy;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> T _getFeature(final Class<T> type) {
@@ -198,9 +217,15 @@ public class AzureSession extends SSLSession<CloudBlobClient> {
         if(type == Read.class) {
             return (T) new AzureReadFeature(this, context);
         }
+        if(type == Download.class) {
+            return (T) new ConcurrentRangeDownloadFeature(this.getFeature(Read.class));
+        }
         if(type == Write.class) {
             return (T) new AzureWriteFeature(this, context);
         }
+        if(type == Upload.class) {
+            return (T) new AzureThresholdUploadService(this, context);
+        }
         if(type == Directory.class) {
             return (T) new AzureDirectoryFeature(this, context);
         }
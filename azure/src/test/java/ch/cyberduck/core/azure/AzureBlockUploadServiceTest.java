@@ -0,0 +1,108 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.DisabledProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LoginConnectionService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import com.microsoft.azure.storage.OperationContext;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class AzureBlockUploadServiceTest {
+
+    @Test
+    public void testUploadMultipleBlocks() throws Exception {
+        final OperationContext context
+            = new OperationContext();
+        final Host host = new Host(new AzureProtocol(), "kahy9boj3eib.blob.core.windows.net", new Credentials(
+            System.getProperties().getProperty("azure.account"), System.getProperties().getProperty("azure.key")
+        ));
+        final AzureSession session = new AzureSession(host);
+        new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+            new DisabledPasswordStore(), new DisabledProgressListener()).connect(session, PathCache.empty(), new DisabledCancelCallback());
+        final Path container = new Path("cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final String name = UUID.randomUUID().toString();
+        final Path test = new Path(container, name, EnumSet.of(Path.Type.file));
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), name);
+        final byte[] content = RandomUtils.nextBytes(2 * 1024 * 1024 + 1);
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(content, out);
+        out.close();
+        final TransferStatus status = new TransferStatus();
+        status.setLength(content.length);
+        status.setMime("text/plain");
+        final AzureBlockUploadService service = new AzureBlockUploadService(session, context, 1024L * 1024L, 2);
+        service.upload(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+            new DisabledStreamListener(), status, new DisabledConnectionCallback());
+        assertEquals(content.length, status.getOffset(), 0L);
+        assertTrue(status.isComplete());
+        assertTrue(new AzureFindFeature(session, context).find(test));
+        assertEquals(content.length, new AzureAttributesFinderFeature(session, context).find(test).getSize());
+        assertEquals("text/plain", new AzureMetadataFeature(session, context).getMetadata(test).get("Content-Type"));
+        final byte[] buffer = new byte[content.length];
+        final InputStream in = new AzureReadFeature(session, context).read(test, new TransferStatus(), new DisabledConnectionCallback());
+        IOUtils.readFully(in, buffer);
+        in.close();
+        assertArrayEquals(content, buffer);
+        new AzureDeleteFeature(session, context).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+        session.close();
+    }
+
+    @Test
+    public void testBlockIdentifierLength() {
+        assertEquals(AzureBlockUploadService.id(1, 4L * 1024L * 1024L).length(),
+            AzureBlockUploadService.id(AzureBlockUploadService.MAXIMUM_BLOCKS, AzureBlockUploadService.MAXIMUM_BLOCK_SIZE).length());
+        assertNotEquals(AzureBlockUploadService.id(1, 4L * 1024L * 1024L), AzureBlockUploadService.id(1, 8L * 1024L * 1024L));
+    }
+
+    @Test
+    public void testBlocksize() {
+        final AzureBlockUploadService service = new AzureBlockUploadService(new AzureSession(new Host(new AzureProtocol())),
+            new OperationContext(), 4L * 1024L * 1024L, 1);
+        assertEquals(4L * 1024L * 1024L, service.blocksize(1024L));
+        assertEquals(4L * 1024L * 1024L + 1, service.blocksize(AzureBlockUploadService.MAXIMUM_BLOCKS * 4L * 1024L * 1024L + 1));
+        assertEquals(AzureBlockUploadService.MAXIMUM_BLOCK_SIZE, service.blocksize(Long.MAX_VALUE / 2));
+    }
+}
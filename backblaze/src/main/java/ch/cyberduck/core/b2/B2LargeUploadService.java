@@ -19,33 +19,43 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ChecksumException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.ConcurrentChecksumCompute;
+import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.ForkJoinThreadPool;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
+import org.apache.commons.codec.binary.Hex;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -133,7 +143,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
             // Full size of file
             final long size = status.getLength() + status.getOffset();
             // Submit file segments for concurrent upload
-            final List<Future<B2UploadPartResponse>> parts = new ArrayList<Future<B2UploadPartResponse>>();
+            final List<TransferStatus> segments = new ArrayList<TransferStatus>();
             long remaining = status.getLength();
             long offset = 0;
             for(int partNumber = 1; remaining > 0; partNumber++) {
@@ -155,15 +165,26 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                 }
                 if(!skip) {
                     final Long length = Math.min(Math.max((size / B2LargeUploadService.MAXIMUM_UPLOAD_PARTS), partSize), remaining);
-                    // Submit to queue
-                    parts.add(this.submit(pool, file, local, throttle, listener, status, partNumber, offset, length, callback));
-                    if(log.isDebugEnabled()) {
-                        log.debug(String.format("Part %s submitted with size %d and offset %d", partNumber, length, offset));
-                    }
+                    final TransferStatus segment = new TransferStatus().length(length).skip(offset);
+                    segment.setPart(partNumber);
+                    segments.add(segment);
                     remaining -= length;
                     offset += length;
                 }
             }
+            final List<Future<Checksum>> precomputed = this.checksum(file, local, segments);
+            // Checksum of parts calculated while uploading by part number
+            final Map<Integer, Checksum> digests = new ConcurrentHashMap<>();
+            final List<Future<B2UploadPartResponse>> parts = new ArrayList<Future<B2UploadPartResponse>>();
+            for(int i = 0; i < segments.size(); i++) {
+                final TransferStatus segment = segments.get(i);
+                // Submit to queue
+                parts.add(this.submit(pool, file, local, throttle, listener, status,
+                    segment.getPart(), segment.getOffset(), segment.getLength(), precomputed.get(i), digests, callback));
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Part %s submitted with size %d and offset %d", segment.getPart(), segment.getLength(), segment.getOffset()));
+                }
+            }
             try {
                 for(Future<B2UploadPartResponse> f : parts) {
                     completed.add(f.get());
@@ -183,6 +204,12 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
             }
             finally {
                 pool.shutdown(false);
+                // Discard pending checksum calculations
+                for(Future<Checksum> pending : precomputed) {
+                    if(null != pending) {
+                        pending.cancel(true);
+                    }
+                }
             }
             completed.sort(new Comparator<B2UploadPartResponse>() {
                 @Override
@@ -192,7 +219,8 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
             });
             final List<String> checksums = new ArrayList<String>();
             for(B2UploadPartResponse part : completed) {
-                checksums.add(part.getContentSha1());
+                // SHA-1 calculated while uploading when sent as hex digits at end of part
+                checksums.add(digests.containsKey(part.getPartNumber()) ? digests.get(part.getPartNumber()).hash : part.getContentSha1());
             }
             final B2FinishLargeFileResponse response = session.getClient().finishLargeFileUpload(fileid, checksums.toArray(new String[checksums.size()]));
             if(log.isInfoEnabled()) {
@@ -210,11 +238,27 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
         }
     }
 
+    /**
+     * Calculate checksums of parts in order using all processors. Parts are uploaded as soon as their checksum is
+     * available.
+     *
+     * @return Pending checksum for each segment or null if to be calculated when uploading part
+     */
+    private List<Future<Checksum>> checksum(final Path file, final Local local, final List<TransferStatus> segments) throws BackgroundException {
+        // Checksum of encrypted content depends on nonces of part
+        if(!inline && !file.getType().contains(Path.Type.encrypted)) {
+            return new ConcurrentChecksumCompute(writer.checksum(file)).submit(local, segments);
+        }
+        return Collections.nCopies(segments.size(), null);
+    }
+
     private Future<B2UploadPartResponse> submit(final ThreadPool pool, final Path file, final Local local,
                                                 final BandwidthThrottle throttle, final StreamListener listener,
                                                 final TransferStatus overall,
                                                 final int partNumber,
-                                                final Long offset, final Long length, final ConnectionCallback callback) {
+                                                final Long offset, final Long length, final Future<Checksum> checksum,
+                                                final Map<Integer, Checksum> digests,
+                                                final ConnectionCallback callback) {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, file, offset, length));
         }
@@ -229,10 +273,19 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                     .skip(offset);
                 status.setHeader(overall.getHeader());
                 status.setNonces(overall.getNonces());
-                status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
+                if(null != checksum) {
+                    status.setChecksum(ForkJoinThreadPool.get(checksum));
+                }
+                else if(!inline) {
+                    status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
+                }
+                else if(!file.getType().contains(Path.Type.encrypted)) {
+                    // Append SHA-1 calculated while uploading to the end of the part
+                    status.setChecksum(B2WriteFeature.HEX_DIGITS_AT_END);
+                }
                 status.setSegment(true);
                 status.setPart(partNumber);
-                return (B2UploadPartResponse) B2LargeUploadService.super.upload(file, local, throttle, listener, status, overall, new StreamProgress() {
+                final B2UploadPartResponse response = (B2UploadPartResponse) B2LargeUploadService.super.upload(file, local, throttle, listener, status, overall, new StreamProgress() {
                     @Override
                     public void progress(final long bytes) {
                         status.progress(bytes);
@@ -245,10 +298,85 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                         status.setComplete();
                     }
                 }, callback);
+                if(inline && Checksum.NONE != status.getChecksum()) {
+                    digests.put(partNumber, status.getChecksum());
+                }
+                return response;
             }
         }, overall));
     }
 
+    @Override
+    public boolean inline(final Path file, final TransferStatus status) {
+        return inline;
+    }
+
+    @Override
+    protected MessageDigest digest() throws IOException {
+        if(inline) {
+            return this.digest("SHA1");
+        }
+        return null;
+    }
+
+    /**
+     * Append SHA-1 of part as hex digits to the end of the request body when uploading with inline checksum
+     */
+    @Override
+    protected StatusOutputStream<BaseB2Response> decorate(final StatusOutputStream<BaseB2Response> proxy, final TransferStatus status,
+                                                          final MessageDigest digest) throws IOException {
+        if(null == digest || !B2WriteFeature.HEX_DIGITS_AT_END.equals(status.getChecksum())) {
+            return proxy;
+        }
+        return new StatusOutputStream<BaseB2Response>(proxy) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    // Keep digest for verification with checksum returned
+                    final String hex = Hex.encodeHexString(((MessageDigest) digest.clone()).digest());
+                    out.write(hex.getBytes(StandardCharsets.US_ASCII));
+                    status.setChecksum(Checksum.parse(hex));
+                }
+                catch(CloneNotSupportedException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+                super.close();
+            }
+
+            @Override
+            public BaseB2Response getStatus() throws BackgroundException {
+                return proxy.getStatus();
+            }
+        };
+    }
+
+    @Override
+    protected void post(final Path file, final MessageDigest digest, final BaseB2Response response) throws BackgroundException {
+        this.verify(file, digest, Checksum.parse(((B2UploadPartResponse) response).getContentSha1()));
+    }
+
+    @Override
+    protected void verify(final Path file, final MessageDigest digest, final Checksum checksum) throws ChecksumException {
+        if(null == digest) {
+            log.debug(String.format("Digest verification disabled for file %s", file));
+            return;
+        }
+        if(file.getType().contains(Path.Type.encrypted)) {
+            log.warn(String.format("Skip checksum verification for %s with client side encryption enabled", file));
+            return;
+        }
+        if(Checksum.NONE == checksum) {
+            log.warn(String.format("Missing contentSha1 in response for %s", file));
+            return;
+        }
+        final String expected = Hex.encodeHexString(digest.digest());
+        if(!checksum.equals(Checksum.parse(expected))) {
+            throw new ChecksumException(MessageFormat.format(LocaleFactory.localizedString("Upload {0} failed", "Error"), file.getName()),
+                MessageFormat.format("Mismatch between SHA-1 hash {0} of uploaded data and contentSha1 {1} returned by the server",
+                    expected, checksum.hash));
+        }
+    }
+
     @Override
     public Upload<BaseB2Response> withWriter(final Write<BaseB2Response> writer) {
         this.writer = writer;
@@ -66,4 +66,9 @@ public class B2ReadFeature implements Read {
     public boolean offset(final Path file) {
         return true;
     }
+
+    @Override
+    public boolean concurrent(final Path file) {
+        return true;
+    }
 }
@@ -23,8 +23,10 @@ import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.UrlProvider;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.*;
+import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.http.HttpSession;
 import ch.cyberduck.core.proxy.Proxy;
+import ch.cyberduck.core.shared.ConcurrentRangeDownloadFeature;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.ssl.ThreadLocalHostnameDelegatingTrustManager;
@@ -100,6 +102,9 @@ public class B2Session extends HttpSession<B2ApiClient> {
         if(type == Read.class) {
             return (T) new B2ReadFeature(this, fileid);
         }
+        if(type == Download.class) {
+            return (T) new ConcurrentRangeDownloadFeature(this.getFeature(Read.class));
+        }
         if(type == Upload.class) {
             return (T) new B2ThresholdUploadService(this, fileid);
         }
@@ -30,8 +30,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
@@ -49,16 +47,6 @@ public class B2SingleUploadService extends HttpUploadFeature<BaseB2Response, Mes
         this.writer = writer;
     }
 
-    @Override
-    protected InputStream decorate(final InputStream in, final MessageDigest digest) throws IOException {
-        if(null == digest) {
-            return super.decorate(in, null);
-        }
-        else {
-            return new DigestInputStream(super.decorate(in, digest), digest);
-        }
-    }
-
     @Override
     protected MessageDigest digest() throws IOException {
         MessageDigest digest = null;
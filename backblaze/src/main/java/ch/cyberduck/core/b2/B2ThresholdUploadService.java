@@ -67,6 +67,15 @@ public class B2ThresholdUploadService implements Upload<BaseB2Response> {
         }
     }
 
+    @Override
+    public boolean inline(final Path file, final TransferStatus status) {
+        if(this.threshold(status.getLength())) {
+            return new B2LargeUploadService(session, fileid, writer, PreferencesFactory.get().getLong("b2.upload.largeobject.size"),
+                    PreferencesFactory.get().getInteger("b2.upload.largeobject.concurrency")).inline(file, status);
+        }
+        return new B2SingleUploadService(writer).inline(file, status);
+    }
+
     @Override
     public Upload<BaseB2Response> withWriter(final Write<BaseB2Response> writer) {
         this.writer = writer;
@@ -72,6 +72,16 @@ public class B2WriteFeature extends AbstractHttpWriteFeature<BaseB2Response> imp
 
     private final Preferences preferences = PreferencesFactory.get();
 
+    /**
+     * SHA-1 of content is appended as 40 hex digits to the request body
+     */
+    public static final Checksum HEX_DIGITS_AT_END = new Checksum(HashAlgorithm.sha1, "hex_digits_at_end");
+
+    /**
+     * Number of hex digits of SHA-1 appended to the request body
+     */
+    private static final int HEX_DIGITS_LENGTH = 40;
+
     public B2WriteFeature(final B2Session session, final B2FileidProvider fileid) {
         this(session, fileid, new DefaultFindFeature(session), new DefaultAttributesFinderFeature(session));
     }
@@ -98,7 +108,8 @@ public class B2WriteFeature extends AbstractHttpWriteFeature<BaseB2Response> imp
                     if(status.isSegment()) {
                         final B2GetUploadPartUrlResponse uploadUrl
                             = session.getClient().getUploadPartUrl(fileid.getFileid(file, new DisabledListProgressListener()));
-                        return session.getClient().uploadLargeFilePart(uploadUrl, status.getPart(), entity, checksum.hash);
+                        return session.getClient().uploadLargeFilePart(uploadUrl, status.getPart(), entity,
+                            Checksum.NONE == checksum ? "do_not_verify" : checksum.hash);
                     }
                     else {
                         final B2GetUploadUrlResponse uploadUrl;
@@ -142,6 +153,9 @@ public class B2WriteFeature extends AbstractHttpWriteFeature<BaseB2Response> imp
 
             @Override
             public long getContentLength() {
+                if(HEX_DIGITS_AT_END.equals(status.getChecksum())) {
+                    return status.getLength() + HEX_DIGITS_LENGTH;
+                }
                 return status.getLength();
             }
         };
@@ -93,6 +93,43 @@ public class B2LargeUploadServiceTest extends AbstractB2Test {
         local.delete();
     }
 
+    @Test
+    public void testUploadInlineChecksum() throws Exception {
+        final Path bucket = new Path("test-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path test = new Path(bucket, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final int length = 100 * 1024 * 1024 + 1;
+        final byte[] content = RandomUtils.nextBytes(length);
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(content, out);
+        out.close();
+        final TransferStatus status = new TransferStatus();
+        status.setLength(content.length);
+        final B2FileidProvider fileid = new B2FileidProvider(session).withCache(cache);
+        PreferencesFactory.get().setProperty("queue.upload.checksum.inline", true);
+        try {
+            final B2LargeUploadService upload = new B2LargeUploadService(session, fileid, new B2WriteFeature(session, fileid),
+                PreferencesFactory.get().getLong("b2.upload.largeobject.size"),
+                PreferencesFactory.get().getInteger("b2.upload.largeobject.concurrency"));
+            // Parts sent with SHA-1 as hex digits at end of body and verified with contentSha1 returned
+            upload.upload(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(),
+                status, new DisabledConnectionCallback());
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.upload.checksum.inline");
+        }
+        assertTrue(status.isComplete());
+        assertEquals(content.length, status.getOffset());
+        final InputStream in = new B2ReadFeature(session, fileid).read(test, new TransferStatus(), new DisabledConnectionCallback());
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length);
+        new StreamCopier(status, status).transfer(in, buffer);
+        in.close();
+        buffer.close();
+        assertArrayEquals(content, buffer.toByteArray());
+        new B2DeleteFeature(session, fileid).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+    }
+
     @Test
     public void testAppendNoPartCompleted() throws Exception {
         final Path bucket = new Path("test-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
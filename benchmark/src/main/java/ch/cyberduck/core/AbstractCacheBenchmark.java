@@ -0,0 +1,80 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reverse lookup of a file by reference in a cache populated with the given number of folders and entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AbstractCacheBenchmark {
+
+    @Param({"100", "10000"})
+    private int folders;
+
+    @Param({"100"})
+    private int entries;
+
+    private PathCache cache;
+
+    private CacheReference<Path>[] references;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        cache = new PathCache(Integer.MAX_VALUE);
+        references = new CacheReference[folders];
+        for(int i = 0; i < folders; i++) {
+            final Path directory = new Path(String.format("/d%d", i), EnumSet.of(Path.Type.directory));
+            final AttributedList<Path> list = new AttributedList<>();
+            for(int j = 0; j < entries; j++) {
+                list.add(new Path(directory, String.format("f%d", j), EnumSet.of(Path.Type.file)));
+            }
+            cache.put(directory, list);
+            references[i] = new DefaultPathPredicate(list.get(entries - 1));
+        }
+    }
+
+    @Benchmark
+    public Path lookup() {
+        return cache.lookup(references[ThreadLocalRandom.current().nextInt(folders)]);
+    }
+
+    @Benchmark
+    public Path lookupMissing() {
+        return cache.lookup(new DefaultPathPredicate(new Path("/missing", EnumSet.of(Path.Type.file))));
+    }
+}
@@ -0,0 +1,78 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.ui.comparator.FilenameComparator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AttributedListBenchmark {
+
+    @Param({"1000", "100000"})
+    private int entries;
+
+    private AttributedList<Path> list;
+
+    @Setup
+    public void setup() {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        list = new AttributedList<>();
+        for(int i = 0; i < entries; i++) {
+            list.add(new Path(directory, String.format("f%d", i), EnumSet.of(i % 2 == 0 ? Path.Type.file : Path.Type.directory)));
+        }
+    }
+
+    @Benchmark
+    public Path find() {
+        final Path file = list.get(ThreadLocalRandom.current().nextInt(entries));
+        return list.find(new SimplePathPredicate(file));
+    }
+
+    @Benchmark
+    public AttributedList<Path> filter() {
+        return list.filter(new NullFilter<Path>() {
+            @Override
+            public boolean accept(final Path file) {
+                return file.isFile();
+            }
+        });
+    }
+
+    @Benchmark
+    public AttributedList<Path> sort() {
+        return list.filter(new FilenameComparator(true));
+    }
+}
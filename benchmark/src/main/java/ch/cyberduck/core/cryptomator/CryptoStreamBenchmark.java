@@ -0,0 +1,102 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.cryptomator.random.FastSecureRandomProvider;
+import ch.cyberduck.core.cryptomator.random.RandomNonceGenerator;
+import ch.cyberduck.core.io.VoidStatusOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.cryptomator.cryptolib.api.Cryptor;
+import org.cryptomator.cryptolib.api.FileHeader;
+import org.cryptomator.cryptolib.v1.Version1CryptorModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypt and decrypt in memory content with a cryptor created without a vault.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CryptoStreamBenchmark {
+
+    @Param({"1048576", "16777216"})
+    private int length;
+
+    @Param({"32768"})
+    private int chunksize;
+
+    private Cryptor cryptor;
+    private FileHeader header;
+
+    private byte[] cleartext;
+    private byte[] ciphertext;
+
+    @Setup
+    public void setup() throws IOException {
+        cryptor = new Version1CryptorModule().provideCryptorProvider(
+            FastSecureRandomProvider.get().provide()
+        ).createNew();
+        header = cryptor.fileHeaderCryptor().create();
+        cleartext = RandomUtils.nextBytes(length);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(length);
+        this.write(out);
+        ciphertext = out.toByteArray();
+    }
+
+    private void write(final OutputStream out) throws IOException {
+        final CryptoOutputStream<Void> stream = new CryptoOutputStream<>(new VoidStatusOutputStream(out),
+            cryptor, header, new RandomNonceGenerator(), 0);
+        for(int offset = 0; offset < length; offset += chunksize) {
+            stream.write(cleartext, offset, Math.min(chunksize, length - offset));
+        }
+        stream.close();
+    }
+
+    @Benchmark
+    public void encrypt() throws IOException {
+        this.write(new NullOutputStream());
+    }
+
+    @Benchmark
+    public long decrypt() throws IOException {
+        final CryptoInputStream stream = new CryptoInputStream(new ByteArrayInputStream(ciphertext), cryptor, header, 0);
+        final long copied = IOUtils.copyLarge(stream, new NullOutputStream(), new byte[chunksize]);
+        stream.close();
+        return copied;
+    }
+}
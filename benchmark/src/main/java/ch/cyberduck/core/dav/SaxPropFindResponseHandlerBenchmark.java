@@ -0,0 +1,80 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.github.sardine.model.Multistatus;
+
+/**
+ * Parse a synthetic `207 Multi-Status` reply to a `PROPFIND` request with the given number of response elements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SaxPropFindResponseHandlerBenchmark {
+
+    @Param({"1000", "100000"})
+    private int entries;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() {
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?><D:multistatus xmlns:D=\"DAV:\">");
+        for(int i = 0; i < entries; i++) {
+            xml.append("<D:response><D:href>/folder/file").append(i).append(".txt</D:href><D:propstat><D:prop>")
+                .append("<D:getcontentlength>").append(i).append("</D:getcontentlength>")
+                .append("<D:getcontenttype>text/plain</D:getcontenttype>")
+                .append("<D:getlastmodified>Fri, 10 May 2019 13:02:00 GMT</D:getlastmodified>")
+                .append("<D:creationdate>2019-05-10T13:02:00Z</D:creationdate>")
+                .append("<D:getetag>\"").append(Integer.toHexString(i)).append("\"</D:getetag>")
+                .append("<D:resourcetype/>")
+                .append("</D:prop><D:status>HTTP/1.1 200 OK</D:status></D:propstat></D:response>");
+        }
+        xml.append("</D:multistatus>");
+        content = xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Multistatus handleResponse() throws IOException {
+        final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_MULTI_STATUS, "Multi-Status");
+        response.setEntity(new ByteArrayEntity(content));
+        return new SaxPropFindResponseHandler().handleResponse(response);
+    }
+}
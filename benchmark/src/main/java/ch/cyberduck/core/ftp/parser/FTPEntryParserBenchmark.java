@@ -0,0 +1,104 @@
+package ch.cyberduck.core.ftp.parser;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.ftp.FTPParserSelector;
+import ch.cyberduck.core.ftp.list.FTPInvalidListException;
+import ch.cyberduck.core.ftp.list.FTPListResponseReader;
+import ch.cyberduck.core.ftp.list.FTPMlsdListResponseReader;
+
+import org.apache.commons.net.ftp.FTPFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse synthetic directory listing replies as returned on the data connection for `LIST` and `MLSD`.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FTPEntryParserBenchmark {
+
+    @Param({"1000", "100000"})
+    private int entries;
+
+    @Param({"UNIX", "Windows_NT"})
+    private String system;
+
+    private final Path directory = new Path("/", EnumSet.of(Path.Type.directory));
+
+    private List<String> list;
+    private List<String> mlsd;
+
+    @Setup
+    public void setup() {
+        list = new ArrayList<>(entries);
+        mlsd = new ArrayList<>(entries);
+        for(int i = 0; i < entries; i++) {
+            switch(system) {
+                case "Windows_NT":
+                    list.add(String.format("05-10-19  01:02PM %20d file%d.txt", i, i));
+                    break;
+                default:
+                    list.add(String.format("-rw-r--r--   1 ftp      ftp      %10d Mar 15  2004 file%d.txt", i, i));
+                    break;
+            }
+            mlsd.add(String.format("Type=file;Size=%d;Modify=20190510130200;Perm=adfrw; file%d.txt", i, i));
+        }
+    }
+
+    @Benchmark
+    public void parseFTPEntry(final Blackhole blackhole) {
+        final CompositeFileEntryParser parser = new FTPParserSelector().getParser(system);
+        for(String line : list) {
+            final FTPFile parsed = parser.parseFTPEntry(line);
+            blackhole.consume(parsed);
+        }
+    }
+
+    @Benchmark
+    public AttributedList<Path> readList() throws FTPInvalidListException {
+        return new FTPListResponseReader(new FTPParserSelector().getParser(system))
+            .read(directory, list, new DisabledListProgressListener());
+    }
+
+    @Benchmark
+    public AttributedList<Path> readMlsd() throws FTPInvalidListException {
+        return new FTPMlsdListResponseReader()
+            .read(directory, mlsd, new DisabledListProgressListener());
+    }
+}
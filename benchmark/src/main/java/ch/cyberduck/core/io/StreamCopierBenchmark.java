@@ -0,0 +1,78 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copy from an in memory buffer to a discarding stream to measure the overhead of the copy loop including progress
+ * and listener notifications.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreamCopierBenchmark {
+
+    @Param({"1048576", "67108864"})
+    private int length;
+
+    @Param({"8192", "32768", "131072"})
+    private int chunksize;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() {
+        content = RandomUtils.nextBytes(length);
+    }
+
+    @Benchmark
+    public TransferStatus transfer() throws BackgroundException {
+        final TransferStatus status = new TransferStatus().length(length);
+        new StreamCopier(status, status).withChunksize(chunksize)
+            .transfer(new ByteArrayInputStream(content), new NullOutputStream());
+        return status;
+    }
+
+    @Benchmark
+    public TransferStatus transferWithOffsetAndLimit() throws BackgroundException {
+        final TransferStatus status = new TransferStatus().length(length / 2);
+        new StreamCopier(status, status).withChunksize(chunksize).withOffset((long) length / 4).withLimit((long) length / 2)
+            .transfer(new ByteArrayInputStream(content), new NullOutputStream());
+        return status;
+    }
+}
@@ -398,10 +398,10 @@ public class Terminal {
         }
         final DeleteWorker worker;
         if(StringUtils.containsAny(remote.getName(), '*')) {
-            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, new DownloadGlobFilter(remote.getName()), progress);
+            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, new DownloadGlobFilter(remote.getName()), progress, session);
         }
         else {
-            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, progress);
+            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, new NullFilter<>(), progress, session);
         }
         final SessionBackgroundAction<List<Path>> action = new TerminalBackgroundAction<List<Path>>(controller, session, worker);
         if(!this.execute(action)) {
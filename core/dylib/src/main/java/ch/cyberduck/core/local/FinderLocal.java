@@ -41,9 +41,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public class FinderLocal extends Local {
     private static final Logger log = Logger.getLogger(FinderLocal.class);
@@ -212,6 +215,39 @@ public class FinderLocal extends Local {
         }
     }
 
+    @Override
+    public OutputStream getOutputStream(final long position) throws AccessDeniedException {
+        final NSURL resolved;
+        try {
+            resolved = this.lock(this.exists());
+            if(null == resolved) {
+                return super.getOutputStream(position);
+            }
+        }
+        catch(LocalAccessDeniedException e) {
+            log.warn(String.format("Failure obtaining lock for %s. %s", this, e.getMessage()));
+            return super.getOutputStream(position);
+        }
+        try {
+            final FileChannel channel = FileChannel.open(Paths.get(resolved.path()), StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            channel.position(position);
+            return new ProxyOutputStream(Channels.newOutputStream(channel)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    }
+                    finally {
+                        release(resolved);
+                    }
+                }
+            };
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
     /**
      * @param interactive Prompt to resolve bookmark of file outside of sandbox with choose panel
      */
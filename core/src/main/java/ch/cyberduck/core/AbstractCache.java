@@ -23,34 +23,65 @@ import ch.cyberduck.core.cache.LRUCache;
 import org.apache.log4j.Logger;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 
 public abstract class AbstractCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = Logger.getLogger(AbstractCache.class);
 
     private final LRUCache<T, AttributedList<T>> impl;
 
+    /**
+     * Reverse index from reference of a cached item to the directory listing containing it
+     */
+    private final Map<CacheReference<?>, IndexEntry<T>> index
+        = new ConcurrentHashMap<>();
+
+    /**
+     * Listener updating index for cached directory listings by reference of the parent
+     */
+    private final Map<T, Indexer> indexed
+        = new ConcurrentHashMap<>();
+
     public AbstractCache(int size) {
+        final RemovalListener<T, AttributedList<T>> listener = new RemovalListener<T, AttributedList<T>>() {
+            @Override
+            public void onRemoval(final RemovalNotification<T, AttributedList<T>> notification) {
+                if(notification.wasEvicted() && null != notification.getKey()) {
+                    // Explicit removals and replacements are handled when updating the cache
+                    final Indexer indexer = indexed.get(notification.getKey());
+                    if(null != indexer && indexer.list == notification.getValue()) {
+                        if(indexed.remove(notification.getKey(), indexer)) {
+                            indexer.unindex();
+                        }
+                    }
+                }
+            }
+        };
         if(size == Integer.MAX_VALUE) {
             // Unlimited
-            impl = LRUCache.build();
+            impl = LRUCache.build(listener, -1L);
         }
         else {
             // Will inflate to the given size
-            impl = LRUCache.build(size);
+            impl = LRUCache.build(listener, size);
         }
     }
 
+    /**
+     * @param reference Must be equal to the reference returned by {@link #reference(Referenceable)} for the item
+     * @return Null if no cached directory listing contains the item
+     */
     @Override
     public T lookup(final CacheReference<T> reference) {
-        for(AttributedList<T> entry : impl.asMap().values()) {
-            final T f = entry.find(reference);
-            if(null == f) {
-                continue;
-            }
-            return f;
+        final IndexEntry<T> entry = index.get(reference);
+        if(null == entry) {
+            log.warn(String.format("Lookup failed for %s in cache", reference));
+            return null;
         }
-        log.warn(String.format("Lookup failed for %s in cache", reference));
-        return null;
+        return entry.item;
     }
 
     @Override
@@ -85,6 +116,12 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
     public AttributedList<T> remove(final T reference) {
         final AttributedList<T> removed = impl.get(reference);
         impl.remove(reference);
+        if(null != reference) {
+            final Indexer indexer = indexed.remove(reference);
+            if(null != indexer) {
+                indexer.unindex();
+            }
+        }
         if(null == removed) {
             // Not previously in cache
             return AttributedList.emptyList();
@@ -123,6 +160,24 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         }
         final AttributedList<T> replaced = impl.get(reference);
         impl.put(reference, children);
+        if(null != reference) {
+            final Indexer previous = indexed.get(reference);
+            if(null == previous || previous.list != children) {
+                final Indexer replaced;
+                if(null == children) {
+                    replaced = indexed.remove(reference);
+                }
+                else {
+                    final Indexer indexer = new Indexer(children);
+                    replaced = indexed.put(reference, indexer);
+                    indexer.index();
+                }
+                if(null != replaced) {
+                    replaced.unindex();
+                }
+            }
+            // Children appended to a listing already cached are indexed when added
+        }
         if(null == replaced) {
             // Not previously in cache
             return AttributedList.emptyList();
@@ -169,13 +224,88 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
             log.info(String.format("Clear cache %s", this));
         }
         impl.clear();
+        for(Indexer indexer : indexed.values()) {
+            indexer.unindex();
+        }
+        indexed.clear();
+        index.clear();
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Cache{");
         sb.append("size=").append(impl.size());
+        sb.append(", index=").append(index.size());
         sb.append('}');
         return sb.toString();
     }
+
+    /**
+     * Update index when items are added to or removed from a cached directory listing
+     */
+    private final class Indexer implements AttributedList.Listener<T> {
+        private final AttributedList<T> list;
+        /**
+         * Listing no longer cached
+         */
+        private boolean removed;
+
+        public Indexer(final AttributedList<T> list) {
+            this.list = list;
+        }
+
+        /**
+         * Index all items and start listening for changes
+         */
+        public synchronized void index() {
+            list.addListener(this);
+            for(T item : list) {
+                this.added(item);
+            }
+        }
+
+        /**
+         * Stop listening for changes and drop all items still pointing to this listing
+         */
+        public synchronized void unindex() {
+            removed = true;
+            list.removeListener(this);
+            for(T item : list) {
+                this.drop(item);
+            }
+        }
+
+        @Override
+        public synchronized void added(final T item) {
+            if(removed) {
+                return;
+            }
+            index.put(reference(item), new IndexEntry<>(this, item));
+        }
+
+        @Override
+        public synchronized void removed(final T item) {
+            if(removed) {
+                return;
+            }
+            this.drop(item);
+        }
+
+        /**
+         * Only drop references still pointing to this list as items may have been indexed with a newer listing
+         */
+        private void drop(final T item) {
+            index.computeIfPresent(reference(item), (reference, entry) -> entry.indexer == this ? null : entry);
+        }
+    }
+
+    private static final class IndexEntry<T extends Referenceable> {
+        private final AttributedList.Listener<T> indexer;
+        private final T item;
+
+        public IndexEntry(final AttributedList.Listener<T> indexer, final T item) {
+            this.indexer = indexer;
+            this.item = item;
+        }
+    }
 }
@@ -26,7 +26,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Predicate;
 
 /**
@@ -50,6 +52,11 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         public boolean addAll(final Iterable c) {
             throw new UnsupportedOperationException();
         }
+
+        @Override
+        public void addListener(final Listener listener) {
+            // Never modified
+        }
     };
 
     private final List<E> impl
@@ -61,6 +68,12 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     private final AttributedListAttributes<E> attributes
         = new AttributedListAttributes<E>().withTimestamp(System.currentTimeMillis());
 
+    /**
+     * Notified of items added to or removed from the list
+     */
+    private final Set<Listener<E>> listeners
+        = new CopyOnWriteArraySet<>();
+
     /**
      * Initialize an attributed list with default attributes
      */
@@ -92,11 +105,16 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     public boolean add(final E e) {
-        return impl.add(e);
+        if(impl.add(e)) {
+            this.added(e);
+            return true;
+        }
+        return false;
     }
 
     public void add(final int index, final E e) {
         impl.add(index, e);
+        this.added(e);
     }
 
     public boolean addAll(final Iterable<? extends E> c) {
@@ -119,7 +137,9 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     public void set(final int i, final E e) {
-        impl.set(i, e);
+        final E previous = impl.set(i, e);
+        this.removed(previous);
+        this.added(e);
     }
 
     @Override
@@ -186,7 +206,13 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      * Clear the list and all references.
      */
     public void clear() {
-        impl.clear();
+        if(listeners.isEmpty()) {
+            impl.clear();
+            return;
+        }
+        for(E e : impl) {
+            this.remove(e);
+        }
     }
 
     public boolean isEmpty() {
@@ -220,15 +246,51 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     public void remove(final int index) {
-        impl.remove(index);
+        this.removed(impl.remove(index));
     }
 
     public boolean remove(final E e) {
-        return impl.remove(e);
+        if(impl.remove(e)) {
+            this.removed(e);
+            return true;
+        }
+        return false;
     }
 
     public boolean removeAll(final java.util.Collection<E> e) {
-        return impl.removeAll(e);
+        if(listeners.isEmpty()) {
+            return impl.removeAll(e);
+        }
+        boolean modified = false;
+        for(E item : impl) {
+            if(e.contains(item)) {
+                modified |= this.remove(item);
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * @param listener Notified of items added to or removed from this list
+     */
+    public void addListener(final Listener<E> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(final Listener<E> listener) {
+        listeners.remove(listener);
+    }
+
+    private void added(final E e) {
+        for(Listener<E> listener : listeners) {
+            listener.added(e);
+        }
+    }
+
+    private void removed(final E e) {
+        for(Listener<E> listener : listeners) {
+            listener.removed(e);
+        }
     }
 
     @Override
@@ -247,4 +309,10 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     public int hashCode() {
         return Objects.hash(impl);
     }
+
+    public interface Listener<E extends Referenceable> {
+        void added(E item);
+
+        void removed(E item);
+    }
 }
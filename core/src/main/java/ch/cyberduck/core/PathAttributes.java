@@ -199,6 +199,42 @@ public class PathAttributes extends Attributes implements Serializable {
         if(StringUtils.isNotBlank(storageClass)) {
             dict.setStringForKey(storageClass, "Storage Class");
         }
+        if(accessed != -1) {
+            dict.setStringForKey(String.valueOf(accessed), "Accessed");
+        }
+        if(created != -1) {
+            dict.setStringForKey(String.valueOf(created), "Created");
+        }
+        if(StringUtils.isNotBlank(owner)) {
+            dict.setStringForKey(owner, "Owner");
+        }
+        if(StringUtils.isNotBlank(group)) {
+            dict.setStringForKey(group, "Group");
+        }
+        if(StringUtils.isNotBlank(etag)) {
+            dict.setStringForKey(etag, "ETag");
+        }
+        if(encryption != Encryption.Algorithm.NONE) {
+            dict.setStringForKey(encryption.toString(), "Encryption");
+        }
+        if(StringUtils.isNotBlank(displayname)) {
+            dict.setStringForKey(displayname, "Display Name");
+        }
+        if(!metadata.isEmpty()) {
+            dict.setMapForKey(metadata, "Metadata");
+        }
+        if(!custom.isEmpty()) {
+            dict.setMapForKey(custom, "Custom");
+        }
+        if(StringUtils.isNotBlank(directoryId)) {
+            dict.setStringForKey(directoryId, "Directory Id");
+        }
+        if(decrypted != null) {
+            dict.setObjectForKey(this.detach(decrypted), "Decrypted");
+        }
+        if(encrypted != null) {
+            dict.setObjectForKey(this.detach(encrypted), "Encrypted");
+        }
         if(vault != null) {
             if(vault.attributes() == this) {
                 log.debug(String.format("Skip serializing vault attribute %s to avoid recursion", vault));
@@ -210,6 +246,16 @@ public class PathAttributes extends Attributes implements Serializable {
         return dict.getSerialized();
     }
 
+    /**
+     * @return Copy of referenced path without its own decrypted and encrypted references pointing back
+     */
+    private Path detach(final Path reference) {
+        final PathAttributes attributes = new PathAttributes(reference.attributes());
+        attributes.setDecrypted(null);
+        attributes.setEncrypted(null);
+        return new Path(reference.getAbsolute(), reference.getType(), attributes);
+    }
+
     /**
      * @return length the size of file in bytes.
      */
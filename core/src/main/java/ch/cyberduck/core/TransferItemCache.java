@@ -17,14 +17,108 @@ package ch.cyberduck.core;
  * Bug fixes, suggestions and comments should be sent to feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.serializer.Deserializer;
+import ch.cyberduck.core.serializer.Serializer;
+import ch.cyberduck.core.serializer.TransferItemDictionary;
 import ch.cyberduck.core.transfer.TransferItem;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.dd.plist.BinaryPropertyListParser;
+import com.dd.plist.BinaryPropertyListWriter;
+import com.dd.plist.NSArray;
+import com.dd.plist.NSDictionary;
+import com.dd.plist.NSObject;
+import com.dd.plist.PropertyListFormatException;
+
+/**
+ * Directory listings for a transfer. Least recently used listings are written to a file in the application support
+ * directory once the number of items kept on heap exceeds the threshold and read back when requested again. Items of
+ * listings written to disk are found with {@link #lookup(CacheReference)} by loading their listing. Use
+ * {@link #read(TransferItem)} to fail on error reading a listing back.
+ */
 public class TransferItemCache extends AbstractCache<TransferItem> {
+    private static final Logger log = Logger.getLogger(TransferItemCache.class);
 
     private static final TransferItem NULL_KEY = new TransferItem(null);
 
+    private static final String EXTENSION = "cyberducktransfercache";
+
+    /**
+     * Maximum number of items in listings kept on heap
+     */
+    private final long threshold;
+    private final Local folder;
+
+    /**
+     * Number of items for listings kept on heap in order of access
+     */
+    private final LinkedHashMap<TransferItem, Integer> resident
+        = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Location of listings written to disk
+     */
+    private final Map<TransferItem, Segment> spilled
+        = new HashMap<>();
+    /**
+     * Parent listing written to disk by reference of item
+     */
+    private final Map<CacheReference<?>, TransferItem> parents
+        = new HashMap<>();
+
+    /**
+     * Total number of items in listings kept on heap
+     */
+    private long count;
+    /**
+     * Number of bytes in file for listings read back or abandoned
+     */
+    private long garbage;
+
+    private Local file;
+    private RandomAccessFile store;
+    /**
+     * Lock on file held while in use to tell from files left by caches not closed
+     */
+    private FileLock lock;
+
     public TransferItemCache(final int size) {
+        this(size, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param threshold Maximum number of items in listings kept on heap
+     */
+    public TransferItemCache(final int size, final long threshold) {
+        this(size, threshold, LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Cache"));
+    }
+
+    /**
+     * @param threshold Maximum number of items in listings kept on heap
+     * @param folder    Directory to create file for listings written to disk
+     */
+    public TransferItemCache(final int size, final long threshold, final Local folder) {
         super(size);
+        this.threshold = threshold;
+        this.folder = folder;
+        this.purge();
     }
 
     @Override
@@ -32,18 +126,363 @@ public class TransferItemCache extends AbstractCache<TransferItem> {
         return new DefaultPathPredicate(object.remote);
     }
 
+    /**
+     * @return Null if not found or failure reading listing containing item from disk
+     */
+    @Override
+    public synchronized TransferItem lookup(final CacheReference<TransferItem> reference) {
+        final TransferItem parent = parents.get(reference);
+        if(null != parent && spilled.containsKey(parent)) {
+            // Load listing containing item
+            try {
+                this.read(parent);
+            }
+            catch(BackgroundException e) {
+                log.error(String.format("Failure looking up %s. %s", reference, e.getMessage()));
+                return null;
+            }
+        }
+        return super.lookup(reference);
+    }
+
+    @Override
+    public synchronized boolean containsKey(final TransferItem key) {
+        final TransferItem reference = null == key ? NULL_KEY : key;
+        return super.containsKey(reference) || spilled.containsKey(reference);
+    }
+
+    @Override
+    public synchronized boolean isCached(final TransferItem key) {
+        return this.containsKey(key);
+    }
+
+    /**
+     * @return Empty list if not cached or failure reading listing from disk. The listing is kept on disk to fail
+     * again with {@link #read(TransferItem)}.
+     */
+    @Override
+    public synchronized AttributedList<TransferItem> get(final TransferItem key) {
+        try {
+            return this.read(key);
+        }
+        catch(BackgroundException e) {
+            log.error(String.format("Failure reading listing for %s. %s", key, e.getMessage()));
+            return AttributedList.emptyList();
+        }
+    }
+
+    /**
+     * @param key Directory
+     * @return Cached directory listing. Empty if none is cached
+     * @throws BackgroundException Failure reading listing written to disk
+     */
+    public synchronized AttributedList<TransferItem> read(final TransferItem key) throws BackgroundException {
+        final TransferItem reference = null == key ? NULL_KEY : key;
+        final Segment segment = spilled.get(reference);
+        if(null != segment) {
+            final AttributedList<TransferItem> children = this.load(reference, segment);
+            this.put(reference, children);
+            this.restore(children);
+            return children;
+        }
+        // Update order of access
+        resident.get(reference);
+        return super.get(reference);
+    }
+
+    @Override
+    public synchronized AttributedList<TransferItem> put(final TransferItem key, final AttributedList<TransferItem> children) {
+        final TransferItem reference = null == key ? NULL_KEY : key;
+        // Abandon previous listing written to disk
+        this.discard(spilled.remove(reference));
+        final AttributedList<TransferItem> replaced = super.put(reference, children);
+        final Integer previous = resident.put(reference, null == children ? 0 : children.size());
+        if(null != previous) {
+            count -= previous;
+        }
+        count += null == children ? 0 : children.size();
+        if(count > threshold) {
+            this.spill();
+        }
+        return replaced;
+    }
+
+    /**
+     * @return Empty list if not cached or failure reading listing from disk
+     */
+    @Override
+    public synchronized AttributedList<TransferItem> remove(final TransferItem key) {
+        final TransferItem reference = null == key ? NULL_KEY : key;
+        final Segment segment = spilled.get(reference);
+        if(null != segment) {
+            AttributedList<TransferItem> children;
+            try {
+                children = this.load(reference, segment);
+            }
+            catch(BackgroundException e) {
+                log.error(String.format("Failure reading listing for %s. %s", reference, e.getMessage()));
+                children = AttributedList.emptyList();
+            }
+            this.discard(spilled.remove(reference));
+            this.restore(children);
+            return children;
+        }
+        final Integer previous = resident.remove(reference);
+        if(null != previous) {
+            count -= previous;
+        }
+        return super.remove(reference);
+    }
+
     @Override
-    public boolean containsKey(final TransferItem key) {
-        return super.containsKey(null == key ? NULL_KEY : key);
+    public synchronized long size() {
+        return super.size() + spilled.size();
     }
 
     @Override
-    public AttributedList<TransferItem> get(final TransferItem key) {
-        return super.get(null == key ? NULL_KEY : key);
+    public synchronized boolean isEmpty() {
+        return super.isEmpty() && spilled.isEmpty();
     }
 
     @Override
-    public AttributedList<TransferItem> put(final TransferItem key, final AttributedList<TransferItem> children) {
-        return super.put(null == key ? NULL_KEY : key, children);
+    public synchronized void clear() {
+        super.clear();
+        resident.clear();
+        spilled.clear();
+        parents.clear();
+        count = 0L;
+        garbage = 0L;
+        this.close();
+    }
+
+    /**
+     * Write least recently used listings to disk until below threshold. The most recently used listing is always
+     * kept on heap.
+     */
+    private void spill() {
+        final Iterator<Map.Entry<TransferItem, Integer>> iter = resident.entrySet().iterator();
+        while(count > threshold && resident.size() > 1) {
+            final Map.Entry<TransferItem, Integer> eldest = iter.next();
+            final TransferItem reference = eldest.getKey();
+            if(super.containsKey(reference)) {
+                final AttributedList<TransferItem> children = super.get(reference);
+                try {
+                    spilled.put(reference, this.write(children));
+                }
+                catch(IOException | AccessDeniedException e) {
+                    log.warn(String.format("Failure writing listing for %s to disk. %s", reference, e.getMessage()));
+                    return;
+                }
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Moved listing with %d items for %s to disk", children.size(), reference));
+                }
+                for(TransferItem child : children) {
+                    parents.put(this.reference(child), reference);
+                }
+                super.remove(reference);
+            }
+            count -= eldest.getValue();
+            iter.remove();
+        }
+    }
+
+    /**
+     * Drop references to parent on disk for items of loaded listing
+     */
+    private void restore(final AttributedList<TransferItem> children) {
+        for(TransferItem child : children) {
+            parents.remove(this.reference(child));
+        }
+    }
+
+    /**
+     * Account for space of listing no longer referenced. Delete file when no listing is left and rewrite when more
+     * than half of the file is garbage.
+     */
+    private void discard(final Segment segment) {
+        if(null == segment) {
+            return;
+        }
+        garbage += segment.length;
+        if(spilled.isEmpty()) {
+            this.close();
+            garbage = 0L;
+            return;
+        }
+        try {
+            if(garbage > store.length() / 2) {
+                this.compact();
+            }
+        }
+        catch(IOException | AccessDeniedException e) {
+            log.warn(String.format("Failure compacting file %s. %s", file, e.getMessage()));
+        }
+    }
+
+    /**
+     * Copy listings still written to disk to new file
+     */
+    private void compact() throws IOException, AccessDeniedException {
+        final Local previous = file;
+        final RandomAccessFile source = store;
+        final Local target = LocalFactory.get(folder, String.format("%s.%s", UUID.randomUUID().toString(), EXTENSION));
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Compact file %s with %d bytes garbage to %s", previous, garbage, target));
+        }
+        final RandomAccessFile out = new RandomAccessFile(target.getAbsolute(), "rw");
+        final Map<TransferItem, Segment> moved = new HashMap<>();
+        final FileLock locked;
+        try {
+            locked = out.getChannel().tryLock();
+            for(Map.Entry<TransferItem, Segment> entry : spilled.entrySet()) {
+                final byte[] data = new byte[entry.getValue().length];
+                source.seek(entry.getValue().offset);
+                source.readFully(data);
+                moved.put(entry.getKey(), new Segment(out.getFilePointer(), data.length));
+                out.write(data);
+            }
+        }
+        catch(IOException e) {
+            IOUtils.closeQuietly(out);
+            try {
+                target.delete();
+            }
+            catch(NotfoundException f) {
+                log.warn(String.format("Failure deleting file %s. %s", target, f.getMessage()));
+            }
+            throw e;
+        }
+        spilled.putAll(moved);
+        this.close();
+        file = target;
+        store = out;
+        lock = locked;
+        garbage = 0L;
+    }
+
+    private Segment write(final AttributedList<TransferItem> children) throws IOException, AccessDeniedException {
+        final NSArray array = new NSArray(children.size());
+        int i = 0;
+        for(TransferItem item : children) {
+            final Serializer dict = SerializerFactory.get();
+            dict.setObjectForKey(item, "Item");
+            array.setValue(i++, dict.<NSDictionary>getSerialized());
+        }
+        final byte[] data = BinaryPropertyListWriter.writeToArray(array);
+        if(null == store) {
+            if(!folder.exists()) {
+                folder.mkdir();
+            }
+            file = LocalFactory.get(folder, String.format("%s.%s", UUID.randomUUID().toString(), EXTENSION));
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Create file %s for listings", file));
+            }
+            store = new RandomAccessFile(file.getAbsolute(), "rw");
+            lock = store.getChannel().tryLock();
+        }
+        final long offset = store.length();
+        store.seek(offset);
+        store.write(data);
+        return new Segment(offset, data.length);
+    }
+
+    /**
+     * @throws LocalAccessDeniedException Reading listing from disk
+     */
+    private AttributedList<TransferItem> load(final TransferItem reference, final Segment segment) throws LocalAccessDeniedException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Load listing for %s from disk", reference));
+        }
+        final AttributedList<TransferItem> children = new AttributedList<>();
+        try {
+            final byte[] data = new byte[segment.length];
+            store.seek(segment.offset);
+            store.readFully(data);
+            final NSObject[] array = ((NSArray) BinaryPropertyListParser.parse(data)).getArray();
+            final TransferItemDictionary items = new TransferItemDictionary();
+            for(NSObject object : array) {
+                final Deserializer dict = DeserializerFactory.get(object);
+                children.add(items.deserialize(dict.objectForKey("Item")));
+            }
+        }
+        catch(IOException | PropertyListFormatException e) {
+            log.error(String.format("Failure reading listing for %s from disk. %s", reference, e.getMessage()));
+            throw new LocalAccessDeniedException(String.format("Failure reading listing for %s from disk", reference.remote), e);
+        }
+        return children;
+    }
+
+    /**
+     * Delete files left by caches not closed. Files of caches in use are locked.
+     */
+    private void purge() {
+        if(!folder.exists()) {
+            return;
+        }
+        final AttributedList<Local> files;
+        try {
+            files = folder.list();
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure listing folder %s. %s", folder, e.getMessage()));
+            return;
+        }
+        for(Local f : files) {
+            if(!StringUtils.endsWith(f.getName(), String.format(".%s", EXTENSION))) {
+                continue;
+            }
+            try (RandomAccessFile in = new RandomAccessFile(f.getAbsolute(), "rw")) {
+                final FileLock test = in.getChannel().tryLock();
+                if(null == test) {
+                    // In use by other process
+                    continue;
+                }
+                test.release();
+            }
+            catch(OverlappingFileLockException e) {
+                // In use by other cache
+                continue;
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure checking file %s. %s", f, e.getMessage()));
+                continue;
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Delete stale file %s", f));
+            }
+            try {
+                f.delete();
+            }
+            catch(AccessDeniedException | NotfoundException e) {
+                log.warn(String.format("Failure deleting file %s. %s", f, e.getMessage()));
+            }
+        }
+    }
+
+    private void close() {
+        if(null == store) {
+            return;
+        }
+        // Releases lock
+        IOUtils.closeQuietly(store);
+        store = null;
+        lock = null;
+        try {
+            file.delete();
+        }
+        catch(AccessDeniedException | NotfoundException e) {
+            log.warn(String.format("Failure deleting file %s. %s", file, e.getMessage()));
+        }
+        file = null;
+    }
+
+    private static final class Segment {
+        private final long offset;
+        private final int length;
+
+        public Segment(final long offset, final int length) {
+            this.offset = offset;
+            this.length = length;
+        }
     }
 }
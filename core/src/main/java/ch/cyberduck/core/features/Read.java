@@ -36,4 +36,12 @@ public interface Read {
      * @return True if read with offset is supported
      */
     boolean offset(Path file) throws BackgroundException;
+
+    /**
+     * @param file File
+     * @return True if ranges of file can be read concurrently using the same connection
+     */
+    default boolean concurrent(Path file) throws BackgroundException {
+        return false;
+    }
 }
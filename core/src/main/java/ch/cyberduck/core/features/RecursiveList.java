@@ -0,0 +1,38 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import java.util.Map;
+
+/**
+ * List a directory tree with a single request
+ */
+public interface RecursiveList {
+
+    /**
+     * @param directory Directory to list
+     * @param listener  Notified with the listing of the parent directory for every file received
+     * @return Listings of directory and all its subdirectories including empty ones
+     * @throws ch.cyberduck.core.exception.AccessDeniedException     Server refuses recursive listing
+     * @throws ch.cyberduck.core.exception.InteroperabilityException Server refuses recursive listing or not supported for directory
+     */
+    Map<Path, AttributedList<Path>> tree(Path directory, ListProgressListener listener) throws BackgroundException;
+}
@@ -32,4 +32,13 @@ public interface Upload<Reply> {
     Write.Append append(Path file, Long length, Cache<Path> cache) throws BackgroundException;
 
     Upload<Reply> withWriter(Write<Reply> writer);
+
+    /**
+     * @param file   File
+     * @param status Transfer status with length of file
+     * @return True if checksum is calculated while uploading and verified with the reply
+     */
+    default boolean inline(Path file, TransferStatus status) {
+        return false;
+    }
 }
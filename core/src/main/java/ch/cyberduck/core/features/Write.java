@@ -54,6 +54,14 @@ public interface Write<Reply> {
      */
     boolean random();
 
+    /**
+     * @param file File
+     * @return True if segments of file can be written concurrently at their offset using multiple connections
+     */
+    default boolean segments(Path file) throws BackgroundException {
+        return false;
+    }
+
     default ChecksumCompute checksum(Path file) {
         return new DisabledChecksumCompute();
     }
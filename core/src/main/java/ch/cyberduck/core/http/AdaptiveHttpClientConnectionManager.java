@@ -0,0 +1,230 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.threading.ScheduledThreadPool;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Connection pool with the maximum number of connections per route sized from the number of concurrent requests.
+ * A route grows when all its connections are leased and further requests are waiting. It shrinks back to the
+ * configured minimum when the time spent waiting for a connection is low and connections are left idle. The lease
+ * wait time only drives shrinking as growing is triggered by demand alone. Idle and expired connections are closed on
+ * a background schedule.
+ */
+public class AdaptiveHttpClientConnectionManager extends PoolingHttpClientConnectionManager {
+    private static final Logger log = Logger.getLogger(AdaptiveHttpClientConnectionManager.class);
+
+    /**
+     * Shared among all pools to not require a thread per connection manager
+     */
+    private static final ScheduledThreadPool scheduler = new ScheduledThreadPool();
+
+    /**
+     * Weight of latest sample in moving average of lease wait time
+     */
+    private static final double ALPHA = 0.2d;
+
+    private final int minimum;
+    private final int maximum;
+    private final long threshold;
+    private final long idle;
+
+    private final ScheduledFuture<?> eviction;
+
+    /**
+     * Moving average of lease wait time in nanoseconds per route
+     */
+    private final Map<HttpRoute, Double> latency = new ConcurrentHashMap<>();
+
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong wait = new AtomicLong();
+    private final AtomicLong slowest = new AtomicLong();
+
+    /**
+     * @param registry  Socket factories
+     * @param minimum   Initial and minimum number of connections per route
+     * @param maximum   Maximum number of connections per route
+     * @param threshold Lease wait time in milliseconds below which a route is allowed to shrink
+     * @param idle      Seconds after which idle connections are closed
+     */
+    public AdaptiveHttpClientConnectionManager(final Registry<ConnectionSocketFactory> registry,
+                                               final int minimum, final int maximum, final long threshold, final long idle) {
+        super(registry);
+        this.minimum = Math.max(1, minimum);
+        this.maximum = Math.max(this.minimum, maximum);
+        this.threshold = TimeUnit.MILLISECONDS.toNanos(threshold);
+        this.idle = idle;
+        this.setDefaultMaxPerRoute(this.minimum);
+        this.eviction = scheduler.repeat(new Runnable() {
+            @Override
+            public void run() {
+                evict();
+            }
+        }, Math.max(1L, idle / 2), TimeUnit.SECONDS);
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(final HttpRoute route, final Object state) {
+        this.grow(route);
+        final long start = System.nanoTime();
+        final ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(final long timeout, final TimeUnit tunit) throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                final HttpClientConnection connection = request.get(timeout, tunit);
+                // Failed and timed out requests not counted
+                lease(route, System.nanoTime() - start);
+                return connection;
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    /**
+     * Raise maximum for route when no connection is available for request
+     */
+    private void grow(final HttpRoute route) {
+        final PoolStats stats = this.getStats(route);
+        if(stats.getAvailable() > 0) {
+            return;
+        }
+        // Including this request
+        final int demand = stats.getLeased() + stats.getPending() + 1;
+        if(demand > stats.getMax() && stats.getMax() < maximum) {
+            final int max = Math.min(demand, maximum);
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Increase maximum connections for route %s to %d", route, max));
+            }
+            this.setMaxPerRoute(route, max);
+        }
+    }
+
+    private void lease(final HttpRoute route, final long time) {
+        leases.incrementAndGet();
+        wait.addAndGet(time);
+        long current;
+        do {
+            current = slowest.get();
+        }
+        while(time > current && !slowest.compareAndSet(current, time));
+        latency.merge(route, (double) time, new BiFunction<Double, Double, Double>() {
+            @Override
+            public Double apply(final Double average, final Double sample) {
+                return ALPHA * sample + (1d - ALPHA) * average;
+            }
+        });
+    }
+
+    /**
+     * Close idle connections and shrink routes no longer waiting for connections
+     */
+    protected void evict() {
+        this.closeExpiredConnections();
+        this.closeIdleConnections(idle, TimeUnit.SECONDS);
+        for(HttpRoute route : latency.keySet()) {
+            final PoolStats stats = this.getStats(route);
+            if(stats.getLeased() + stats.getAvailable() + stats.getPending() == 0) {
+                // Pool of route without connections is purged after closing idle connections. Drop its state as well
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Remove route %s without connections", route));
+                }
+                latency.remove(route);
+                if(stats.getMax() > minimum) {
+                    this.setMaxPerRoute(route, minimum);
+                }
+                continue;
+            }
+            if(stats.getMax() <= minimum || stats.getPending() > 0) {
+                continue;
+            }
+            final Double average = latency.get(route);
+            if(null != average && average > threshold) {
+                continue;
+            }
+            final int max = Math.max(minimum, stats.getLeased());
+            if(max < stats.getMax()) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Decrease maximum connections for route %s to %d", route, max));
+                }
+                this.setMaxPerRoute(route, max);
+            }
+        }
+    }
+
+    /**
+     * @return Number of connections leased from pool
+     */
+    public long getLeaseCount() {
+        return leases.get();
+    }
+
+    /**
+     * @return Total time waited for connections to become available
+     */
+    public long getLeaseWaitTime(final TimeUnit unit) {
+        return unit.convert(wait.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return Longest time waited for a single connection
+     */
+    public long getMaximumLeaseWaitTime(final TimeUnit unit) {
+        return unit.convert(slowest.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return Moving average of time waited for connection to route or zero if no connection has been leased
+     */
+    public long getAverageLeaseWaitTime(final HttpRoute route, final TimeUnit unit) {
+        final Double average = latency.get(route);
+        if(null == average) {
+            return 0L;
+        }
+        return unit.convert(average.longValue(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        eviction.cancel(false);
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Leased %d connections waiting %dms in total and %dms at most",
+                this.getLeaseCount(), this.getLeaseWaitTime(TimeUnit.MILLISECONDS), this.getMaximumLeaseWaitTime(TimeUnit.MILLISECONDS)));
+        }
+        super.shutdown();
+    }
+}
@@ -242,9 +242,17 @@ public class HttpConnectionPoolBuilder {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Setup connection pool with registry %s", registry));
         }
-        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry);
+        final PoolingHttpClientConnectionManager manager;
+        if(preferences.getBoolean("http.connections.route.adaptive")) {
+            manager = new AdaptiveHttpClientConnectionManager(registry,
+                preferences.getInteger("http.connections.route"), preferences.getInteger("http.connections.route.maximum"),
+                preferences.getLong("http.connections.route.threshold"), preferences.getLong("http.connections.idle"));
+        }
+        else {
+            manager = new PoolingHttpClientConnectionManager(registry);
+            manager.setDefaultMaxPerRoute(preferences.getInteger("http.connections.route"));
+        }
         manager.setMaxTotal(preferences.getInteger("http.connections.total"));
-        manager.setDefaultMaxPerRoute(preferences.getInteger("http.connections.route"));
         manager.setValidateAfterInactivity(5000);
         return manager;
     }
@@ -35,6 +35,7 @@ import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
 import ch.cyberduck.core.io.ThrottledOutputStream;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.codec.binary.Hex;
@@ -43,7 +44,9 @@ import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 
 public class HttpUploadFeature<Reply, Digest> implements Upload<Reply> {
@@ -51,6 +54,13 @@ public class HttpUploadFeature<Reply, Digest> implements Upload<Reply> {
 
     private Write<Reply> writer;
 
+    /**
+     * Calculate checksum of segments while uploading and compare with checksum returned instead of reading segment
+     * in advance
+     */
+    protected final boolean inline
+        = PreferencesFactory.get().getBoolean("queue.upload.checksum.inline");
+
     public HttpUploadFeature(final Write<Reply> writer) {
         this.writer = writer;
     }
@@ -73,7 +83,7 @@ public class HttpUploadFeature<Reply, Digest> implements Upload<Reply> {
             final Digest digest = this.digest();
             // Wrap with digest stream if available
             final InputStream in = this.decorate(local.getInputStream(), digest);
-            final StatusOutputStream<Reply> out = writer.write(file, status, callback);
+            final StatusOutputStream<Reply> out = this.decorate(writer.write(file, status, callback), status, digest);
             new StreamCopier(cancel, progress)
                     .withOffset(status.getOffset())
                     .withLimit(status.getLength())
@@ -91,14 +101,43 @@ public class HttpUploadFeature<Reply, Digest> implements Upload<Reply> {
         }
     }
 
+    /**
+     * @param in     Stream of local file
+     * @param digest Digest to update with bytes read or null
+     */
     protected InputStream decorate(final InputStream in, final Digest digest) throws IOException {
+        if(digest instanceof MessageDigest) {
+            return new DigestInputStream(in, (MessageDigest) digest);
+        }
         return in;
     }
 
+    /**
+     * @param out    Stream to remote file
+     * @param status Transfer status of file or segment
+     * @param digest Digest updated with bytes read or null
+     */
+    protected StatusOutputStream<Reply> decorate(final StatusOutputStream<Reply> out, final TransferStatus status, final Digest digest) throws IOException {
+        return out;
+    }
+
     protected Digest digest() throws IOException {
         return null;
     }
 
+    /**
+     * @param algorithm Name of digest algorithm
+     * @return New digest instance
+     */
+    protected MessageDigest digest(final String algorithm) throws IOException {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        }
+        catch(NoSuchAlgorithmException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
     protected void post(final Path file, final Digest digest, final Reply response) throws BackgroundException {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Received response %s", response));
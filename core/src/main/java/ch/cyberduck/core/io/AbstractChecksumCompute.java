@@ -18,15 +18,18 @@ package ch.cyberduck.core.io;
  * feedback@cyberduck.io
  */
 
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.log4j.Logger;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -35,6 +38,79 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 public abstract class AbstractChecksumCompute implements ChecksumCompute {
+    private static final Logger log = Logger.getLogger(AbstractChecksumCompute.class);
+
+    private final ChecksumCache cache;
+    /**
+     * Minimum number of bytes to read from file with memory mapped channel
+     */
+    private final long threshold;
+
+    public AbstractChecksumCompute() {
+        this(PreferencesFactory.get().getBoolean("local.checksum.cache.enable") ? ChecksumCache.defaultCache() : null);
+    }
+
+    /**
+     * @param cache Checksums of unchanged files or null to always read file
+     */
+    public AbstractChecksumCompute(final ChecksumCache cache) {
+        this(cache, PreferencesFactory.get().getLong("local.checksum.mmap.threshold"));
+    }
+
+    /**
+     * @param cache     Checksums of unchanged files or null to always read file
+     * @param threshold Minimum number of bytes to read from file with memory mapped channel
+     */
+    public AbstractChecksumCompute(final ChecksumCache cache, final long threshold) {
+        this.cache = cache;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return Algorithm of checksum calculated or null if result depends on other input than file contents
+     */
+    protected HashAlgorithm algorithm() {
+        return null;
+    }
+
+    @Override
+    public Checksum compute(final Local file, final TransferStatus status) throws BackgroundException {
+        final HashAlgorithm algorithm = this.algorithm();
+        if(null == cache || null == algorithm || status.getOffset() > 0) {
+            return this.read(file, status);
+        }
+        final ChecksumCache.Fingerprint fingerprint = ChecksumCache.Fingerprint.of(file);
+        if(null == fingerprint || status.getLength() > 0 && status.getLength() < fingerprint.getSize()) {
+            // Checksum for segment of file only
+            return this.read(file, status);
+        }
+        final Checksum cached = cache.get(fingerprint, algorithm);
+        if(Checksum.NONE != cached) {
+            return cached;
+        }
+        final Checksum checksum = this.read(file, status);
+        if(fingerprint.equals(ChecksumCache.Fingerprint.of(file))) {
+            cache.put(fingerprint, checksum);
+        }
+        else {
+            log.warn(String.format("File %s modified while calculating checksum", file));
+        }
+        return checksum;
+    }
+
+    /**
+     * Read file from disk
+     */
+    protected Checksum read(final Local file, final TransferStatus status) throws BackgroundException {
+        final HashAlgorithm algorithm = this.algorithm();
+        if(null != algorithm) {
+            final long length = status.getLength() > 0 ? status.getLength() : file.attributes().getSize() - status.getOffset();
+            if(length >= threshold) {
+                return new MappedChecksumCompute().compute(file, algorithm, status.getOffset(), status.getLength() > 0 ? status.getLength() : -1L);
+            }
+        }
+        return this.compute(file.getInputStream(), status);
+    }
 
     @Override
     public Checksum compute(final String data, final TransferStatus status) throws ChecksumException {
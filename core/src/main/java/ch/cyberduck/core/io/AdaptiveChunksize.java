@@ -0,0 +1,109 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grow chunk size when reads fill the buffer quickly and shrink on slow or short reads within bounds
+ */
+public final class AdaptiveChunksize {
+    private static final Logger log = Logger.getLogger(AdaptiveChunksize.class);
+
+    /**
+     * Consecutive full reads faster than this grow the chunk size
+     */
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(50L);
+    /**
+     * Reads slower than this shrink the chunk size to keep progress and cancel responsive
+     */
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500L);
+
+    private static final int THRESHOLD = 4;
+
+    private final int minimum;
+    private final int maximum;
+
+    private int chunksize;
+
+    private int fast;
+    private int shortread;
+
+    public AdaptiveChunksize(final int initial, final int minimum, final int maximum) {
+        this.minimum = Math.min(minimum, initial);
+        this.maximum = Math.max(maximum, initial);
+        this.chunksize = initial;
+    }
+
+    public int get() {
+        return chunksize;
+    }
+
+    /**
+     * @param requested Number of bytes requested from stream
+     * @param read      Number of bytes returned
+     * @param nanos     Time spent reading and writing the chunk
+     * @return New chunk size
+     */
+    public int update(final int requested, final int read, final long nanos) {
+        if(requested < chunksize) {
+            // Limited by remaining length
+            return chunksize;
+        }
+        if(nanos > SLOW) {
+            fast = 0;
+            return this.resize(chunksize / 2);
+        }
+        if(read == requested) {
+            shortread = 0;
+            if(nanos < FAST) {
+                if(++fast >= THRESHOLD) {
+                    fast = 0;
+                    return this.resize(chunksize * 2);
+                }
+            }
+            else {
+                fast = 0;
+            }
+        }
+        else {
+            fast = 0;
+            if(read < requested / 4) {
+                if(++shortread >= THRESHOLD) {
+                    shortread = 0;
+                    return this.resize(chunksize / 2);
+                }
+            }
+            else {
+                shortread = 0;
+            }
+        }
+        return chunksize;
+    }
+
+    private int resize(final int size) {
+        final int resized = Math.max(minimum, Math.min(maximum, size));
+        if(resized != chunksize) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Change chunk size from %d to %d", chunksize, resized));
+            }
+            chunksize = resized;
+        }
+        return chunksize;
+    }
+}
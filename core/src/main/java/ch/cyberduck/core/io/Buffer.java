@@ -35,6 +35,15 @@ public interface Buffer {
      */
     int read(byte[] buffer, Long offset) throws IOException;
 
+    /**
+     * @param buffer Buffer to read into
+     * @param off    Start offset in buffer
+     * @param len    Maximum number of bytes to read
+     * @param offset Position in buffer to read from
+     * @return Length read. -1 when there is no more data
+     */
+    int read(byte[] buffer, int off, int len, Long offset) throws IOException;
+
     /**
      * @return Current length of buffer
      */
@@ -15,6 +15,8 @@ package ch.cyberduck.core.io;
  * GNU General Public License for more details.
  */
 
+import org.apache.commons.io.IOUtils;
+
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -35,11 +37,14 @@ public class BufferInputStream extends InputStream {
 
     @Override
     public int read(final byte[] bytes, final int off, final int len) throws IOException {
-        final byte[] chunk = new byte[len];
-        final int read = buffer.read(chunk, offset);
+        final long remaining = buffer.length() - offset;
+        if(remaining <= 0) {
+            return IOUtils.EOF;
+        }
+        // Read directly into target no more than requested and available
+        final int read = buffer.read(bytes, off, (int) Math.min(len, remaining), offset);
         if(read > 0) {
             offset += read;
-            System.arraycopy(chunk, 0, bytes, off, read);
         }
         return read;
     }
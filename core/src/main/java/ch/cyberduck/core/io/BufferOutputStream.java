@@ -54,9 +54,14 @@ public class BufferOutputStream extends ProxyOutputStream {
         if(log.isLoggable(Level.FINE)) {
             log.fine(String.format("Buffer %d bytes at offset %d", len, offset));
         }
-        final byte[] chunk = new byte[len];
-        System.arraycopy(bytes, off, chunk, 0, len);
-        buffer.write(chunk, offset);
+        if(0 == off && bytes.length == len) {
+            buffer.write(bytes, offset);
+        }
+        else {
+            final byte[] chunk = new byte[len];
+            System.arraycopy(bytes, off, chunk, 0, len);
+            buffer.write(chunk, offset);
+        }
         super.write(bytes, off, len);
     }
 
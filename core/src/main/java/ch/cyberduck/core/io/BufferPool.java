@@ -0,0 +1,210 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * Pool of byte arrays in power of two size classes to reuse buffers across transfers
+ */
+public final class BufferPool {
+    private static final Logger log = Logger.getLogger(BufferPool.class);
+
+    private static final BufferPool DEFAULT = new BufferPool(
+        PreferencesFactory.get().getInteger("connection.buffer.pool.size"));
+
+    public static BufferPool get() {
+        return DEFAULT;
+    }
+
+    /**
+     * Size classes from 1 byte up to 1 GiB
+     */
+    private static final int CLASSES = 31;
+
+    private final Queue<byte[]>[] pool;
+    private final AtomicInteger[] counts;
+
+    /**
+     * Maximum number of idle buffers retained per size class
+     */
+    private final int capacity;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Buffers handed out and not yet released. Weak keys compare by identity and do not retain buffers never released.
+     */
+    private final Set<byte[]> leased = Collections.newSetFromMap(new MapMaker().weakKeys().<byte[], Boolean>makeMap());
+
+    /**
+     * Buffers handed out while debug logging is enabled and not yet released
+     */
+    private final Map<byte[], Leak> tracked = new MapMaker().weakKeys().makeMap();
+    private final Set<Leak> outstanding = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<byte[]> collected = new ReferenceQueue<>();
+
+    @SuppressWarnings("unchecked")
+    public BufferPool(final int capacity) {
+        this.capacity = capacity;
+        this.pool = new Queue[CLASSES];
+        this.counts = new AtomicInteger[CLASSES];
+        for(int i = 0; i < CLASSES; i++) {
+            pool[i] = new ConcurrentLinkedQueue<>();
+            counts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * @param size Minimum length of buffer
+     * @return Buffer with length of size rounded up to the next power of two
+     */
+    public byte[] acquire(final int size) {
+        final int index = index(size);
+        byte[] buffer = pool[index].poll();
+        if(null == buffer) {
+            misses.incrementAndGet();
+            buffer = new byte[1 << index];
+        }
+        else {
+            hits.incrementAndGet();
+            counts[index].decrementAndGet();
+        }
+        leased.add(buffer);
+        if(log.isDebugEnabled()) {
+            this.track(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Return buffer to pool. The caller must not access the buffer afterwards.
+     *
+     * @param buffer Buffer previously obtained with {@link #acquire(int)}. Ignored if not currently leased from this
+     *               pool.
+     */
+    public void release(final byte[] buffer) {
+        if(null == buffer) {
+            return;
+        }
+        if(!leased.remove(buffer)) {
+            log.warn(String.format("Reject release of buffer with %d bytes not leased from pool", buffer.length));
+            return;
+        }
+        final Leak leak = tracked.remove(buffer);
+        if(leak != null) {
+            outstanding.remove(leak);
+            leak.clear();
+        }
+        final int index = index(buffer.length);
+        if(counts[index].incrementAndGet() > capacity) {
+            // Discard
+            counts[index].decrementAndGet();
+            return;
+        }
+        pool[index].offer(buffer);
+    }
+
+    private void track(final byte[] buffer) {
+        Reference<? extends byte[]> reference;
+        while((reference = collected.poll()) != null) {
+            if(outstanding.remove(reference)) {
+                log.error(String.format("Buffer of %d bytes not returned to pool before garbage collection", ((Leak) reference).length),
+                    ((Leak) reference).allocation);
+            }
+        }
+        final Leak leak = new Leak(buffer, collected);
+        outstanding.add(leak);
+        tracked.put(buffer, leak);
+    }
+
+    /**
+     * @return Number of buffers acquired and not yet released while debug logging was enabled
+     */
+    public int getOutstanding() {
+        return outstanding.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return Fraction of acquisitions served from a pooled buffer
+     */
+    public double getHitRate() {
+        final long hits = this.hits.get();
+        final long total = hits + misses.get();
+        if(0 == total) {
+            return 0d;
+        }
+        return (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BufferPool{");
+        sb.append("capacity=").append(capacity);
+        sb.append(", hits=").append(hits);
+        sb.append(", misses=").append(misses);
+        sb.append(", outstanding=").append(outstanding.size());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static final class Leak extends PhantomReference<byte[]> {
+        private final int length;
+        private final Exception allocation;
+
+        Leak(final byte[] buffer, final ReferenceQueue<byte[]> queue) {
+            super(buffer, queue);
+            this.length = buffer.length;
+            this.allocation = new Exception("Allocation");
+        }
+    }
+
+    private static int index(final int size) {
+        if(size <= 1) {
+            return 0;
+        }
+        final int index = 32 - Integer.numberOfLeadingZeros(size - 1);
+        if(index >= CLASSES) {
+            throw new IllegalArgumentException(String.format("Buffer size %d exceeds maximum", size));
+        }
+        return index;
+    }
+}
@@ -15,6 +15,8 @@ package ch.cyberduck.core.io;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.NullOutputStream;
 import org.apache.log4j.Logger;
@@ -45,7 +47,14 @@ public class BufferSegmentingOutputStream extends SegmentingOutputStream {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Copy buffer %s to output %s", buffer, proxy));
         }
-        IOUtils.copy(new BufferInputStream(buffer), proxy);
+        final BufferPool pool = BufferPool.get();
+        final byte[] chunk = pool.acquire(PreferencesFactory.get().getInteger("connection.chunksize"));
+        try {
+            IOUtils.copyLarge(new BufferInputStream(buffer), proxy, chunk);
+        }
+        finally {
+            pool.release(chunk);
+        }
         // Re-use buffer
         buffer.truncate(0L);
     }
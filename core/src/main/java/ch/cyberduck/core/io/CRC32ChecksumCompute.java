@@ -27,6 +27,11 @@ import java.util.zip.CRC32;
 
 public class CRC32ChecksumCompute extends AbstractChecksumCompute {
 
+    @Override
+    protected HashAlgorithm algorithm() {
+        return HashAlgorithm.crc32;
+    }
+
     @Override
     public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
         final InputStream normalized = this.normalize(in, status);
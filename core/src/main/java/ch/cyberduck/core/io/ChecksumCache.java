@@ -0,0 +1,325 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Checksums of local files kept in the application support directory. An entry is only returned as long as size,
+ * modification date and file key (inode) of the file are unchanged since the checksum was calculated. Entries are
+ * appended to a journal read on first use which is rewritten once it contains more obsolete than current lines.
+ */
+public final class ChecksumCache {
+    private static final Logger log = Logger.getLogger(ChecksumCache.class);
+
+    private static final ChecksumCache DEFAULT_CACHE = new ChecksumCache(
+        LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Checksums"),
+        PreferencesFactory.get().getInteger("local.checksum.cache.size")
+    );
+
+    public static ChecksumCache defaultCache() {
+        return DEFAULT_CACHE;
+    }
+
+    private static final char SEPARATOR = '\t';
+
+    private final Local file;
+    /**
+     * Maximum number of entries
+     */
+    private final int size;
+
+    /**
+     * Entries in order of access keyed by algorithm and absolute path
+     */
+    private Map<String, Entry> entries;
+    /**
+     * Number of lines in journal
+     */
+    private int lines;
+    private Writer journal;
+
+    public ChecksumCache(final Local file, final int size) {
+        this.file = file;
+        this.size = size;
+    }
+
+    /**
+     * @return Checksum previously calculated for file with identical attributes or Checksum.NONE
+     */
+    public synchronized Checksum get(final Fingerprint fingerprint, final HashAlgorithm algorithm) {
+        if(null == fingerprint) {
+            return Checksum.NONE;
+        }
+        final Entry entry = this.entries().get(this.key(fingerprint.path, algorithm));
+        if(null == entry) {
+            return Checksum.NONE;
+        }
+        if(!entry.fingerprint.equals(fingerprint)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Ignore checksum %s for modified file %s", entry.checksum, fingerprint.path));
+            }
+            return Checksum.NONE;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Return cached checksum %s for %s", entry.checksum, fingerprint.path));
+        }
+        return entry.checksum;
+    }
+
+    /**
+     * @param fingerprint File attributes obtained before calculating the checksum
+     */
+    public synchronized void put(final Fingerprint fingerprint, final Checksum checksum) {
+        if(null == fingerprint || Checksum.NONE == checksum || null == checksum.algorithm) {
+            return;
+        }
+        if(StringUtils.contains(fingerprint.path, '\n') || StringUtils.contains(fingerprint.path, '\r')) {
+            return;
+        }
+        final Entry entry = new Entry(fingerprint, checksum);
+        final Map<String, Entry> entries = this.entries();
+        entries.put(this.key(fingerprint.path, checksum.algorithm), entry);
+        try {
+            if(lines > Math.max(size, entries.size() * 2)) {
+                this.compact();
+            }
+            else {
+                this.append(entry);
+            }
+        }
+        catch(IOException | AccessDeniedException e) {
+            log.warn(String.format("Failure saving checksum to %s. %s", file.getAbsolute(), e.getMessage()));
+        }
+    }
+
+    public synchronized void clear() {
+        IOUtils.closeQuietly(journal);
+        journal = null;
+        entries = null;
+        lines = 0;
+        if(file.exists()) {
+            try {
+                file.delete();
+            }
+            catch(AccessDeniedException | NotfoundException e) {
+                log.warn(String.format("Failure deleting %s. %s", file.getAbsolute(), e.getMessage()));
+            }
+        }
+    }
+
+    private String key(final String path, final HashAlgorithm algorithm) {
+        return String.format("%s%c%s", algorithm.name(), SEPARATOR, path);
+    }
+
+    private Map<String, Entry> entries() {
+        if(null == entries) {
+            entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                    return this.size() > size;
+                }
+            };
+            if(file.exists()) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while((line = reader.readLine()) != null) {
+                        lines++;
+                        final Entry entry = Entry.parse(line);
+                        if(null == entry) {
+                            log.warn(String.format("Ignore invalid line %s in %s", line, file.getAbsolute()));
+                            continue;
+                        }
+                        entries.put(this.key(entry.fingerprint.path, entry.checksum.algorithm), entry);
+                    }
+                }
+                catch(IOException | AccessDeniedException e) {
+                    log.warn(String.format("Failure reading checksums from %s. %s", file.getAbsolute(), e.getMessage()));
+                }
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Read %d checksums from %s", entries.size(), file.getAbsolute()));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private Writer journal(final boolean append) throws IOException, AccessDeniedException {
+        if(null == journal) {
+            new DefaultLocalDirectoryFeature().mkdir(file.getParent());
+            journal = new BufferedWriter(new OutputStreamWriter(file.getOutputStream(append), StandardCharsets.UTF_8));
+        }
+        return journal;
+    }
+
+    private void append(final Entry entry) throws IOException, AccessDeniedException {
+        final Writer writer = this.journal(true);
+        writer.write(entry.toString());
+        writer.write('\n');
+        writer.flush();
+        lines++;
+    }
+
+    /**
+     * Rewrite journal with current entries only
+     */
+    private void compact() throws IOException, AccessDeniedException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Rewrite %s with %d checksums", file.getAbsolute(), entries.size()));
+        }
+        IOUtils.closeQuietly(journal);
+        journal = null;
+        lines = 0;
+        final Writer writer = this.journal(false);
+        for(Entry entry : entries.values()) {
+            writer.write(entry.toString());
+            writer.write('\n');
+            lines++;
+        }
+        writer.flush();
+    }
+
+    /**
+     * Identity of local file
+     */
+    public static final class Fingerprint {
+        private final String path;
+        private final long size;
+        private final long modified;
+        private final String key;
+
+        public Fingerprint(final String path, final long size, final long modified, final String key) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.key = key;
+        }
+
+        /**
+         * @return Null if attributes cannot be read
+         */
+        public static Fingerprint of(final Local file) {
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(Paths.get(file.getAbsolute()), BasicFileAttributes.class);
+                if(!attributes.isRegularFile()) {
+                    return null;
+                }
+                return new Fingerprint(file.getAbsolute(), attributes.size(), attributes.lastModifiedTime().toMillis(),
+                    null == attributes.fileKey() ? StringUtils.EMPTY : attributes.fileKey().toString());
+            }
+            catch(IOException | InvalidPathException e) {
+                log.warn(String.format("Failure reading attributes of %s. %s", file.getAbsolute(), e.getMessage()));
+                return null;
+            }
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Fingerprint that = (Fingerprint) o;
+            return size == that.size &&
+                modified == that.modified &&
+                Objects.equals(path, that.path) &&
+                Objects.equals(key, that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, modified, key);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Fingerprint{");
+            sb.append("path='").append(path).append('\'');
+            sb.append(", size=").append(size);
+            sb.append(", modified=").append(modified);
+            sb.append(", key='").append(key).append('\'');
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    private static final class Entry {
+        private final Fingerprint fingerprint;
+        private final Checksum checksum;
+
+        public Entry(final Fingerprint fingerprint, final Checksum checksum) {
+            this.fingerprint = fingerprint;
+            this.checksum = checksum;
+        }
+
+        /**
+         * @return Null for malformed line
+         */
+        private static Entry parse(final String line) {
+            final String[] fields = StringUtils.splitPreserveAllTokens(line, SEPARATOR);
+            if(fields.length < 6) {
+                return null;
+            }
+            try {
+                final HashAlgorithm algorithm = HashAlgorithm.valueOf(fields[0]);
+                // Path is last field and may contain separator
+                final String path = StringUtils.substring(line, StringUtils.ordinalIndexOf(line, String.valueOf(SEPARATOR), 5) + 1);
+                return new Entry(new Fingerprint(path, Long.parseLong(fields[2]), Long.parseLong(fields[3]), fields[4]),
+                    new Checksum(algorithm, fields[1]));
+            }
+            catch(IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return StringUtils.join(new Object[]{checksum.algorithm.name(), checksum.hash,
+                fingerprint.size, fingerprint.modified, fingerprint.key, fingerprint.path}, SEPARATOR);
+        }
+    }
+}
@@ -18,6 +18,8 @@ package ch.cyberduck.core.io;
  * dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ChecksumException;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -32,4 +34,12 @@ public interface ChecksumCompute {
     Checksum compute(InputStream in, TransferStatus status) throws ChecksumException;
 
     Checksum compute(String data, TransferStatus status) throws ChecksumException;
+
+    /**
+     * @param file Local file to read
+     * @return Calculated fingerprint or previously calculated fingerprint if file is unchanged
+     */
+    default Checksum compute(Local file, TransferStatus status) throws BackgroundException {
+        return this.compute(file.getInputStream(), status);
+    }
 }
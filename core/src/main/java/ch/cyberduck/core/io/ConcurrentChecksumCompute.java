@@ -0,0 +1,120 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ForkJoinThreadPool;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calculate checksums for segments of a file in parallel on a work stealing pool sized to the number of processors
+ * by default.
+ */
+public class ConcurrentChecksumCompute {
+    private static final Logger log = Logger.getLogger(ConcurrentChecksumCompute.class);
+
+    private final ChecksumCompute compute;
+    private final int concurrency;
+
+    public ConcurrentChecksumCompute(final ChecksumCompute compute) {
+        this(compute, PreferencesFactory.get().getInteger("local.checksum.concurrency"));
+    }
+
+    public ConcurrentChecksumCompute(final ChecksumCompute compute, final int concurrency) {
+        this.compute = compute;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * @param file     File to read
+     * @param segments Offset and length of segments
+     * @return Checksums in order of segments given
+     */
+    public List<Checksum> compute(final Local file, final List<TransferStatus> segments) throws BackgroundException {
+        final List<Future<Checksum>> futures = this.submit(file, segments);
+        final List<Checksum> checksums = new ArrayList<>(futures.size());
+        try {
+            for(Future<Checksum> future : futures) {
+                checksums.add(ForkJoinThreadPool.get(future));
+            }
+        }
+        finally {
+            for(Future<Checksum> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * Schedule calculation of checksums in order of segments to allow uploading the first segments while checksums
+     * for remaining segments are calculated
+     *
+     * @param file     File to read
+     * @param segments Offset and length of segments
+     * @return Pending checksums in order of segments given. Obtain result with {@link ForkJoinThreadPool#get(Future)}
+     */
+    public List<Future<Checksum>> submit(final Local file, final List<TransferStatus> segments) {
+        if(segments.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Calculate checksum for %d segments of %s with %d threads", segments.size(), file, concurrency));
+        }
+        final ForkJoinThreadPool pool = new ForkJoinThreadPool("checksum", Math.min(concurrency, segments.size()));
+        try {
+            final List<Future<Checksum>> futures = new ArrayList<>(segments.size());
+            for(TransferStatus segment : segments) {
+                futures.add(pool.submit(new SegmentTask(file, segment)));
+            }
+            return futures;
+        }
+        finally {
+            // Complete submitted tasks and terminate threads when idle
+            pool.shutdown(true);
+        }
+    }
+
+    private final class SegmentTask extends RecursiveTask<Checksum> {
+        private final Local file;
+        private final TransferStatus segment;
+
+        public SegmentTask(final Local file, final TransferStatus segment) {
+            this.file = file;
+            this.segment = segment;
+        }
+
+        @Override
+        protected Checksum compute() {
+            try {
+                return compute.compute(file, segment);
+            }
+            catch(BackgroundException e) {
+                throw new ForkJoinThreadPool.Failure(e);
+            }
+        }
+    }
+}
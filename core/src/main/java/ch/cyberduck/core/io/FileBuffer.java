@@ -57,21 +57,26 @@ public class FileBuffer implements Buffer {
 
     @Override
     public synchronized int read(final byte[] chunk, final Long offset) throws IOException {
+        return this.read(chunk, 0, chunk.length, offset);
+    }
+
+    @Override
+    public synchronized int read(final byte[] chunk, final int off, final int len, final Long offset) throws IOException {
         final RandomAccessFile file = random();
         if(offset < file.length()) {
             file.seek(offset);
-            if(chunk.length + offset > file.length()) {
-                return file.read(chunk, 0, (int) (file.length() - offset));
+            if(len + offset > file.length()) {
+                return file.read(chunk, off, (int) (file.length() - offset));
             }
             else {
-                return file.read(chunk, 0, chunk.length);
+                return file.read(chunk, off, len);
             }
         }
         else {
             final NullInputStream nullStream = new NullInputStream(length);
             if(nullStream.available() > 0) {
                 nullStream.skip(offset);
-                return nullStream.read(chunk, 0, chunk.length);
+                return nullStream.read(chunk, off, len);
             }
             else {
                 return IOUtils.EOF;
@@ -0,0 +1,100 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class FileChannelInputStream extends InputStream implements FileChannelStream {
+
+    private final FileChannel channel;
+    private long markPosition = 0L;
+
+    public FileChannelInputStream(final FileChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public FileChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[1]);
+        final int bytesRead = channel.read(buffer);
+        if(bytesRead > 0) {
+            buffer.position(0);
+            return buffer.get() & 0xFF;
+        }
+        else {
+            return -1;
+        }
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(b);
+        buffer.position(off);
+        buffer.limit(off + len);
+        final int bytesRead = channel.read(buffer);
+        if(bytesRead > 0) {
+            return bytesRead;
+        }
+        else {
+            return -1;
+        }
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        if(n <= 0) {
+            return 0L;
+        }
+        final long position = channel.position();
+        // Do not move beyond end of file
+        channel.position(Math.min(channel.size(), position + n));
+        return channel.position() - position;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(final int readlimit) {
+        try {
+            markPosition = channel.position();
+        }
+        catch(final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void reset() throws IOException {
+        channel.position(markPosition);
+        markPosition = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
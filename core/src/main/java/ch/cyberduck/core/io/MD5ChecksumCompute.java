@@ -27,6 +27,11 @@ import java.io.InputStream;
 
 public class MD5ChecksumCompute extends AbstractChecksumCompute {
 
+    @Override
+    protected HashAlgorithm algorithm() {
+        return HashAlgorithm.md5;
+    }
+
     @Override
     public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
         return new Checksum(HashAlgorithm.md5, Hex.encodeHexString(this.digest("MD5",
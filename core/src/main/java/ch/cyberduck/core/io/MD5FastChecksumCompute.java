@@ -34,6 +34,11 @@ public class MD5FastChecksumCompute extends AbstractChecksumCompute {
         MD5.initNativeLibrary(true);
     }
 
+    @Override
+    protected HashAlgorithm algorithm() {
+        return HashAlgorithm.md5;
+    }
+
     @Override
     public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
         return new Checksum(HashAlgorithm.md5, Hex.encodeHexString(this.digest("MD5",
@@ -0,0 +1,161 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Factory;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocaleFactory;
+import ch.cyberduck.core.exception.ChecksumException;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32;
+
+/**
+ * Calculate checksum of file segment by mapping the file in windows into memory instead of copying to a heap buffer.
+ * On Windows the file is read into a direct buffer instead as mapped files cannot be deleted until unmapped by the
+ * garbage collector.
+ */
+public class MappedChecksumCompute {
+    private static final Logger log = Logger.getLogger(MappedChecksumCompute.class);
+
+    /**
+     * Size of region mapped at once
+     */
+    private static final long WINDOW = 64L * 1024L * 1024L;
+
+    private final boolean map;
+
+    public MappedChecksumCompute() {
+        this(Factory.Platform.getDefault() != Factory.Platform.Name.windows);
+    }
+
+    /**
+     * @param map Map file into memory or read into direct buffer
+     */
+    public MappedChecksumCompute(final boolean map) {
+        this.map = map;
+    }
+
+    /**
+     * @param offset Position in file to start reading from
+     * @param length Number of bytes to read. Read to end of file if negative.
+     */
+    public Checksum compute(final Local file, final HashAlgorithm algorithm, final long offset, final long length) throws ChecksumException {
+        final Update update;
+        switch(algorithm) {
+            case crc32:
+                update = new CRC32Update();
+                break;
+            case md5:
+                update = new DigestUpdate("MD5");
+                break;
+            case sha1:
+                update = new DigestUpdate("SHA-1");
+                break;
+            case sha256:
+                update = new DigestUpdate("SHA-256");
+                break;
+            case sha512:
+                update = new DigestUpdate("SHA-512");
+                break;
+            default:
+                throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"),
+                    String.format("Unsupported algorithm %s", algorithm));
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Calculate %s checksum for %s with offset %d and length %d", algorithm, file, offset, length));
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(file.getAbsolute()), StandardOpenOption.READ)) {
+            final long limit = length < 0 ? channel.size() : Math.min(channel.size(), offset + length);
+            if(map) {
+                for(long position = offset; position < limit; position += WINDOW) {
+                    update.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, limit - position)));
+                }
+            }
+            else {
+                final ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+                long position = offset;
+                while(position < limit) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), limit - position));
+                    final int read = channel.read(buffer, position);
+                    if(read == -1) {
+                        break;
+                    }
+                    position += read;
+                    buffer.flip();
+                    update.update(buffer);
+                }
+            }
+        }
+        catch(IOException e) {
+            throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
+        }
+        return new Checksum(algorithm, update.hash());
+    }
+
+    private interface Update {
+        void update(ByteBuffer buffer);
+
+        String hash();
+    }
+
+    private static final class DigestUpdate implements Update {
+        private final MessageDigest digest;
+
+        public DigestUpdate(final String algorithm) throws ChecksumException {
+            try {
+                this.digest = MessageDigest.getInstance(algorithm);
+            }
+            catch(NoSuchAlgorithmException e) {
+                throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void update(final ByteBuffer buffer) {
+            digest.update(buffer);
+        }
+
+        @Override
+        public String hash() {
+            return Hex.encodeHexString(digest.digest());
+        }
+    }
+
+    private static final class CRC32Update implements Update {
+        private final CRC32 crc32 = new CRC32();
+
+        @Override
+        public void update(final ByteBuffer buffer) {
+            crc32.update(buffer);
+        }
+
+        @Override
+        public String hash() {
+            return Long.toHexString(crc32.getValue());
+        }
+    }
+}
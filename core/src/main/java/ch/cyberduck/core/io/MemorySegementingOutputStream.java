@@ -20,7 +20,6 @@ import org.apache.log4j.Logger;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MemorySegementingOutputStream extends SegmentingOutputStream {
@@ -51,14 +50,13 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
         buffer.reset();
         for(int offset = 0; offset < content.length; offset += threshold) {
             int len = Math.min(threshold, content.length - offset);
-            final byte[] bytes = Arrays.copyOfRange(content, offset, offset + len);
             if(len < threshold) {
                 // Write to start of buffer
-                this.write(bytes);
+                this.write(content, offset, len);
             }
             else {
-                // Write out
-                proxy.write(bytes);
+                // Write out segment without copying
+                proxy.write(content, offset, len);
             }
         }
     }
@@ -27,6 +27,11 @@ import java.io.InputStream;
 
 public class SHA1ChecksumCompute extends AbstractChecksumCompute {
 
+    @Override
+    protected HashAlgorithm algorithm() {
+        return HashAlgorithm.sha1;
+    }
+
     @Override
     public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
         return new Checksum(HashAlgorithm.sha1, Hex.encodeHexString(this.digest("SHA-1",
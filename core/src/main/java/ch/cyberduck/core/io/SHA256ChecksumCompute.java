@@ -27,6 +27,11 @@ import java.io.InputStream;
 
 public class SHA256ChecksumCompute extends AbstractChecksumCompute {
 
+    @Override
+    protected HashAlgorithm algorithm() {
+        return HashAlgorithm.sha256;
+    }
+
     @Override
     public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
         return new Checksum(HashAlgorithm.sha256, Hex.encodeHexString(this.digest("SHA-256",
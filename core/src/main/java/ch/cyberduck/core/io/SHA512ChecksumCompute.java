@@ -24,6 +24,11 @@ import java.io.InputStream;
 
 public class SHA512ChecksumCompute extends AbstractChecksumCompute {
 
+    @Override
+    protected HashAlgorithm algorithm() {
+        return HashAlgorithm.sha512;
+    }
+
     @Override
     public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
         return new Checksum(HashAlgorithm.sha512, Hex.encodeHexString(this.digest("SHA-512",
@@ -21,6 +21,7 @@ import ch.cyberduck.core.BytecountStreamListener;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.log4j.Logger;
@@ -28,6 +29,7 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 
 public final class StreamCopier {
     private static final Logger log = Logger.getLogger(StreamCopier.class);
@@ -36,14 +38,29 @@ public final class StreamCopier {
 
     private final StreamProgress progress;
 
+    private final Preferences preferences
+            = PreferencesFactory.get();
+
     private BytecountStreamListener listener
             = new BytecountStreamListener(new DisabledStreamListener());
 
     /**
-     * Buffer size
+     * Initial buffer size
      */
     private Integer chunksize
-            = PreferencesFactory.get().getInteger("connection.chunksize");
+            = preferences.getInteger("connection.chunksize");
+
+    /**
+     * Adjust buffer size to observed throughput within bounds unless a fixed chunk size is set
+     */
+    private boolean adaptive
+            = preferences.getBoolean("connection.chunksize.adaptive");
+
+    /**
+     * Number of bytes to transfer at once between file channels
+     */
+    private final Long channelsize
+            = preferences.getLong("connection.chunksize.channel");
 
     private Long offset = 0L;
 
@@ -54,8 +71,12 @@ public final class StreamCopier {
         this.progress = progress;
     }
 
+    /**
+     * @param chunksize Fixed buffer size
+     */
     public StreamCopier withChunksize(final Integer chunksize) {
         this.chunksize = chunksize;
+        this.adaptive = false;
         return this;
     }
 
@@ -79,7 +100,8 @@ public final class StreamCopier {
     }
 
     /**
-     * Updates the current number of bytes transferred in the status reference.
+     * Updates the current number of bytes transferred in the status reference. Copies directly between the
+     * underlying channels without a buffer if both streams are backed by a file channel.
      *
      * @param in  The stream to read from
      * @param out The stream to write to
@@ -87,42 +109,13 @@ public final class StreamCopier {
     public void transfer(final InputStream in, final OutputStream out) throws BackgroundException {
         try {
             try {
-                if(offset > 0) {
-                    skip(in, offset);
+                final FileChannel source = in instanceof FileChannelStream ? ((FileChannelStream) in).getChannel() : null;
+                final FileChannel target = out instanceof FileChannelStream ? ((FileChannelStream) out).getChannel() : null;
+                if(null != source && null != target) {
+                    this.transfer(source, target);
                 }
-                final byte[] buffer = new byte[chunksize];
-                long total = 0;
-                int len = chunksize;
-                if(limit > 0 && limit < chunksize) {
-                    // Cast will work because chunk size is int
-                    len = limit.intValue();
-                }
-                while(len > 0 && !cancel.isCanceled()) {
-                    final int read = in.read(buffer, 0, len);
-                    if(-1 == read) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("End of file reached with %d bytes read from stream", total));
-                        }
-                        progress.setComplete();
-                        break;
-                    }
-                    else {
-                        listener.recv(read);
-                        out.write(buffer, 0, read);
-                        progress.progress(read);
-                        listener.sent(read);
-                        total += read;
-                    }
-                    if(limit > 0) {
-                        // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
-                        len = (int) Math.min(limit - total, chunksize);
-                    }
-                    if(limit == total) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Limit %d reached reading from stream", limit));
-                        }
-                        progress.setComplete();
-                    }
+                else {
+                    this.copy(in, out);
                 }
                 final StreamCloser c = new DefaultStreamCloser();
                 c.close(out);
@@ -149,6 +142,106 @@ public final class StreamCopier {
         }
     }
 
+    private void copy(final InputStream in, final OutputStream out) throws IOException, BackgroundException {
+        if(offset > 0) {
+            skip(in, offset);
+        }
+        final AdaptiveChunksize size = adaptive ? new AdaptiveChunksize(chunksize,
+                preferences.getInteger("connection.chunksize.minimum"), preferences.getInteger("connection.chunksize.maximum"))
+                : new AdaptiveChunksize(chunksize, chunksize, chunksize);
+        final BufferPool pool = BufferPool.get();
+        byte[] buffer = pool.acquire(size.get());
+        try {
+            long total = 0;
+            int len = size.get();
+            if(limit > 0 && limit < len) {
+                // Cast will work because chunk size is int
+                len = limit.intValue();
+            }
+            while(len > 0 && !cancel.isCanceled()) {
+                final long start = System.nanoTime();
+                final int read = in.read(buffer, 0, len);
+                if(-1 == read) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                    }
+                    progress.setComplete();
+                    break;
+                }
+                else {
+                    listener.recv(read);
+                    out.write(buffer, 0, read);
+                    progress.progress(read);
+                    listener.sent(read);
+                    total += read;
+                }
+                final int next = size.update(len, read, System.nanoTime() - start);
+                if(next > buffer.length) {
+                    pool.release(buffer);
+                    buffer = pool.acquire(next);
+                }
+                len = next;
+                if(limit > 0) {
+                    // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
+                    len = (int) Math.min(limit - total, next);
+                }
+                if(limit == total) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Limit %d reached reading from stream", limit));
+                    }
+                    progress.setComplete();
+                }
+            }
+        }
+        finally {
+            pool.release(buffer);
+        }
+    }
+
+    /**
+     * Transfer between channels with progress reported for every segment of at most {@link #channelsize} bytes
+     */
+    private void transfer(final FileChannel source, final FileChannel target) throws IOException {
+        long position = source.position();
+        if(offset > 0) {
+            if(position + offset > source.size()) {
+                throw new IOResumeException(String.format("Skipped %d bytes instead of %d",
+                        source.size() - position, offset));
+            }
+            position += offset;
+        }
+        long total = 0;
+        while(!cancel.isCanceled()) {
+            long len = channelsize;
+            if(limit > 0) {
+                len = Math.min(limit - total, channelsize);
+                if(len == 0) {
+                    break;
+                }
+            }
+            final long transferred = source.transferTo(position, len, target);
+            if(0 == transferred && position >= source.size()) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes transferred from channel", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            listener.recv(transferred);
+            progress.progress(transferred);
+            listener.sent(transferred);
+            position += transferred;
+            total += transferred;
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached transferring from channel", limit));
+                }
+                progress.setComplete();
+            }
+        }
+        source.position(position);
+    }
+
     public static InputStream skip(final InputStream in, final long offset) throws BackgroundException {
         try {
             long skipped = in.skip(offset);
@@ -22,8 +22,9 @@ import org.apache.commons.io.input.ProxyInputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 
-public class ThrottledInputStream extends ProxyInputStream {
+public class ThrottledInputStream extends ProxyInputStream implements FileChannelStream {
 
     /**
      * The delegate.
@@ -41,6 +42,19 @@ public class ThrottledInputStream extends ProxyInputStream {
         this.throttle = throttle;
     }
 
+    /**
+     * @return Null if bandwidth is limited
+     */
+    @Override
+    public FileChannel getChannel() {
+        if(throttle.getRate() == BandwidthThrottle.UNLIMITED) {
+            if(delegate instanceof FileChannelStream) {
+                return ((FileChannelStream) delegate).getChannel();
+            }
+        }
+        return null;
+    }
+
     /**
      * Read an array of bytes from this InputStream.
      *
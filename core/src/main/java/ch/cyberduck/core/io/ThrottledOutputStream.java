@@ -21,8 +21,9 @@ import org.apache.commons.io.output.ProxyOutputStream;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 
-public class ThrottledOutputStream extends ProxyOutputStream {
+public class ThrottledOutputStream extends ProxyOutputStream implements FileChannelStream {
 
     /**
      * The delegate.
@@ -45,6 +46,19 @@ public class ThrottledOutputStream extends ProxyOutputStream {
         this.throttle = throttle;
     }
 
+    /**
+     * @return Null if bandwidth is limited
+     */
+    @Override
+    public FileChannel getChannel() {
+        if(throttle.getRate() == BandwidthThrottle.UNLIMITED) {
+            if(delegate instanceof FileChannelStream) {
+                return ((FileChannelStream) delegate).getChannel();
+            }
+        }
+        return null;
+    }
+
     /**
      * Write a single byte to the delegate stream, possibly blocking if
      * necessary to ensure that throughput doesn't exceed the limits.
@@ -16,12 +16,21 @@ package ch.cyberduck.core.io;
  */
 
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 
-public class VoidStatusOutputStream extends StatusOutputStream<Void> {
+public class VoidStatusOutputStream extends StatusOutputStream<Void> implements FileChannelStream {
     public VoidStatusOutputStream(final OutputStream proxy) {
         super(proxy);
     }
 
+    @Override
+    public FileChannel getChannel() {
+        if(out instanceof FileChannelStream) {
+            return ((FileChannelStream) out).getChannel();
+        }
+        return null;
+    }
+
     @Override
     public Void getStatus() {
         return null;
@@ -294,6 +294,14 @@ public abstract class Preferences implements Locales {
         this.setDefault("local.normalize.tilde", String.valueOf(true));
         this.setDefault("local.delimiter", File.separator);
         this.setDefault("local.temporaryfiles.shortening.threshold", String.valueOf(240));
+        // Reuse checksums of local files with unchanged size, modification date and file key
+        this.setDefault("local.checksum.cache.enable", String.valueOf(true));
+        // Maximum number of checksums saved
+        this.setDefault("local.checksum.cache.size", String.valueOf(100000));
+        // Read files of at least this size with memory mapped channel when calculating checksum
+        this.setDefault("local.checksum.mmap.threshold", String.valueOf(16L * 1024L * 1024L));
+        // Number of threads to calculate checksums for segments of files
+        this.setDefault("local.checksum.concurrency", String.valueOf(Runtime.getRuntime().availableProcessors()));
 
         this.setDefault("application.name", "Cyberduck");
         this.setDefault("application.container.name", "duck");
@@ -325,6 +333,14 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("browser.list.limit.directory", String.valueOf(5000));
         this.setDefault("browser.list.limit.container", String.valueOf(100));
+        /*
+          Maximum number of concurrent directory listings for recursive operations given a connection pool
+         */
+        this.setDefault("browser.list.concurrency", String.valueOf(5));
+        /*
+          List directory trees for recursive operations with a single request if supported by protocol
+         */
+        this.setDefault("browser.list.recursive", String.valueOf(true));
 
         this.setDefault("info.toolbar.selected", String.valueOf(0));
         this.setDefault("preferences.toolbar.selected", String.valueOf(0));
@@ -470,6 +486,14 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.upload.file.redundancy.change", String.valueOf(true));
 
         this.setDefault("queue.upload.checksum.calculate", String.valueOf(false));
+        // Calculate checksum while uploading and verify with the checksum returned by the server instead of reading the file in advance
+        this.setDefault("queue.upload.checksum.inline", String.valueOf(false));
+
+        // Segmented concurrent uploads writing parts at their offset in the remote file. Disabled by default as
+        // servers may only accept sequential writes to a file
+        this.setDefault("queue.upload.segments", String.valueOf(false));
+        this.setDefault("queue.upload.segments.threshold", String.valueOf(10L * 1024L * 1024L));
+        this.setDefault("queue.upload.segments.size", String.valueOf(5L * 1024L * 1024L));
 
         this.setDefault("queue.upload.skip.enable", String.valueOf(true));
         this.setDefault("queue.upload.skip.regex.default",
@@ -518,6 +542,13 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.download.segments", String.valueOf(true));
         this.setDefault("queue.download.segments.threshold", String.valueOf(10L * 1024L * 1024L));
         this.setDefault("queue.download.segments.size", String.valueOf(5L * 1024L * 1024L));
+        // Write segments at offset in target file with no temporary segment files to concatenate
+        this.setDefault("queue.download.segments.inplace", String.valueOf(true));
+        // Read files larger than segments threshold in concurrent ranges with a single connection when supported by
+        // protocol. Initial range size and concurrency adjusted to latency of range requests.
+        this.setDefault("queue.download.ranges", String.valueOf(true));
+        this.setDefault("queue.download.ranges.size", String.valueOf(4L * 1024L * 1024L));
+        this.setDefault("queue.download.ranges.concurrency", String.valueOf(4));
 
         /*
           Open completed downloads
@@ -576,6 +607,14 @@ public abstract class Preferences implements Locales {
             options.append(20).append(",");
             this.setDefault("queue.connections.options", options.toString());
         }
+        /*
+          List and filter files concurrently with transfer instead of preparing the complete tree in advance
+         */
+        this.setDefault("queue.transfer.pipeline", String.valueOf(false));
+        // Maximum number of prepared files waiting for transfer
+        this.setDefault("queue.transfer.pipeline.size", String.valueOf(1000));
+        // Maximum number of files in directory listings kept in memory before writing least recently used listings to disk
+        this.setDefault("queue.transfer.cache.threshold", String.valueOf(100000));
 
         /*
           While downloading, update the icon of the downloaded file as a progress indicator
@@ -602,6 +641,15 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("http.connections.route", String.valueOf(10));
         this.setDefault("http.connections.reuse", String.valueOf(true));
+        /*
+          Grow connections per route up to maximum while requests wait for a connection
+         */
+        this.setDefault("http.connections.route.adaptive", String.valueOf(true));
+        this.setDefault("http.connections.route.maximum", String.valueOf(32));
+        // Shrink route when average wait for a connection in milliseconds is below
+        this.setDefault("http.connections.route.threshold", String.valueOf(50));
+        // Close connections idle for seconds
+        this.setDefault("http.connections.idle", String.valueOf(30));
         /*
           Total number of connections in the pool
          */
@@ -623,6 +671,10 @@ public abstract class Preferences implements Locales {
         this.setDefault("ftp.parser.multiline.strict", String.valueOf(false));
         this.setDefault("ftp.parser.reply.strict", String.valueOf(false));
         this.setDefault("ftp.parser.mlsd.perm.enable", String.valueOf(false));
+        /*
+          Number of entries parsed from listing before notifying listener
+         */
+        this.setDefault("ftp.listing.chunksize", String.valueOf(1000));
 
         /*
           Send LIST -a
@@ -682,6 +734,10 @@ public abstract class Preferences implements Locales {
 
         this.setDefault("s3.listing.chunksize", String.valueOf(1000));
         this.setDefault("s3.listing.concurrency", String.valueOf(25));
+        /*
+          Split recursive listings into partitions of keyspace listed concurrently
+         */
+        this.setDefault("s3.listing.partitioned", String.valueOf(true));
 
         this.setDefault("s3.upload.multipart", String.valueOf(true));
         this.setDefault("s3.upload.multipart.concurrency", String.valueOf(10));
@@ -695,6 +751,11 @@ public abstract class Preferences implements Locales {
         // Must be a multiple of org.cryptomator.cryptolib.v1.Constants.PAYLOAD_SIZE when using Cryptomator Vaults
         this.setDefault("s3.upload.multipart.size", String.valueOf(10L * 1024L * 1024L)); // 10MB
         this.setDefault("s3.copy.multipart.size", String.valueOf(100L * 1024L * 1024L)); // 100MB
+        /*
+          Maximum number of concurrent part copies. Part size and concurrency are adjusted to latency of part copies.
+         */
+        this.setDefault("s3.copy.multipart.concurrency", String.valueOf(20));
+        this.setDefault("s3.copy.multipart.resume", String.valueOf(true));
 
         this.setDefault("s3.upload.expect-continue", String.valueOf(true));
 
@@ -728,10 +789,21 @@ public abstract class Preferences implements Locales {
         this.setDefault("s3.lifecycle.delete.options", "1 7 10 30 60 180 360 720");
 
         this.setDefault("s3.delete.multiple.partition", String.valueOf(1000));
+        // Number of concurrent delete requests with partitions of keys
+        this.setDefault("s3.delete.multiple.concurrency", String.valueOf(5));
+        // Retry partitions of keys rejected with SlowDown with exponential backoff starting at the given delay in milliseconds
+        this.setDefault("s3.delete.multiple.slowdown.retry", String.valueOf(5));
+        this.setDefault("s3.delete.multiple.slowdown.delay", String.valueOf(1000));
 
         this.setDefault("azure.metadata.default", StringUtils.EMPTY);
         this.setDefault("azure.listing.chunksize", String.valueOf(1000));
         this.setDefault("azure.upload.md5", String.valueOf(false));
+        // Upload files larger than threshold as block blob with blocks staged concurrently instead of append blob.
+        // Set to false to create append blobs for all new files
+        this.setDefault("azure.upload.blockblob", String.valueOf(true));
+        this.setDefault("azure.upload.blockblob.threshold", String.valueOf(100L * 1024L * 1024L));
+        this.setDefault("azure.upload.blockblob.size", String.valueOf(8L * 1024L * 1024L));
+        this.setDefault("azure.upload.blockblob.concurrency", String.valueOf(8));
 
         // Legacy authentication
 //        this.setDefault("openstack.authentication.context", "/v1.0");
@@ -760,6 +832,8 @@ public abstract class Preferences implements Locales {
         this.setDefault("googledrive.list.limit", String.valueOf(1000));
         this.setDefault("googledrive.teamdrive.enable", String.valueOf(true));
         this.setDefault("googledrive.delete.trash", String.valueOf(true));
+        // Maximum number of batch requests executed at the same time. Requests of other callers are queued for the next batch
+        this.setDefault("googledrive.batch.concurrency", String.valueOf(2));
 
         this.setDefault("b2.bucket.acl.default", "allPrivate");
         this.setDefault("b2.listing.chunksize", String.valueOf(1000));
@@ -811,6 +885,10 @@ public abstract class Preferences implements Locales {
         this.setDefault("webdav.redirect.HEAD.follow", String.valueOf(true));
         this.setDefault("webdav.redirect.PUT.follow", String.valueOf(false));
         this.setDefault("webdav.redirect.PROPFIND.follow", String.valueOf(true));
+        /*
+          List directory trees with Depth infinity PROPFIND
+         */
+        this.setDefault("webdav.list.recursive", String.valueOf(true));
 
         this.setDefault("webdav.metadata.default", StringUtils.EMPTY);
 
@@ -957,10 +1035,24 @@ public abstract class Preferences implements Locales {
           Transfer read buffer size
          */
         this.setDefault("connection.chunksize", String.valueOf(32768));
+        /*
+          Grow and shrink transfer read buffer within bounds depending on throughput
+         */
+        this.setDefault("connection.chunksize.adaptive", String.valueOf(true));
+        this.setDefault("connection.chunksize.minimum", String.valueOf(8192));
+        this.setDefault("connection.chunksize.maximum", String.valueOf(4194304));
+        /*
+          Segment size when copying between file channels without buffer
+         */
+        this.setDefault("connection.chunksize.channel", String.valueOf(8388608));
         /*
           Buffer size for wrapped buffered streams
          */
         this.setDefault("connection.buffer", String.valueOf(8192));
+        /*
+          Maximum number of idle buffers retained per size class for reuse across transfers
+         */
+        this.setDefault("connection.buffer.pool.size", String.valueOf(16));
         /*
           SO_SNDBUF
          */
@@ -1011,6 +1103,18 @@ public abstract class Preferences implements Locales {
 
         this.setDefault("sftp.read.maxunconfirmed", String.valueOf(64));
         this.setDefault("sftp.write.maxunconfirmed", String.valueOf(64));
+        /*
+          Resize number of unconfirmed requests from measured bandwidth-delay product
+         */
+        this.setDefault("sftp.window.adaptive", String.valueOf(true));
+        /*
+          Maximum number of bytes requested but not yet confirmed
+         */
+        this.setDefault("sftp.window.bytes.max", String.valueOf(64 * 1024 * 1024));
+        /*
+          Maximum length of single read or write request if server advertises larger limits
+         */
+        this.setDefault("sftp.request.length.max", String.valueOf(256 * 1024));
 
         this.setDefault("archive.default", "tar.gz");
 
@@ -21,10 +21,12 @@ package ch.cyberduck.core.serializer;
 import ch.cyberduck.core.DescriptiveUrl;
 import ch.cyberduck.core.DeserializerFactory;
 import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.features.Encryption;
 import ch.cyberduck.core.io.Checksum;
 
 import java.net.URI;
 import java.util.Collections;
+import java.util.Map;
 
 public class PathAttributesDictionary {
 
@@ -71,9 +73,44 @@ public class PathAttributesDictionary {
         if(duplicateObj != null) {
             attributes.setDuplicate(Boolean.valueOf(duplicateObj));
         }
-        attributes.setMetadata(Collections.emptyMap());
+        final Map<String, String> metadataObj = dict.mapForKey("Metadata");
+        if(metadataObj != null) {
+            attributes.setMetadata(metadataObj);
+        }
+        else {
+            attributes.setMetadata(Collections.emptyMap());
+        }
+        final Map<String, String> customObj = dict.mapForKey("Custom");
+        if(customObj != null) {
+            attributes.setCustom(customObj);
+        }
         attributes.setRegion(dict.stringForKey("Region"));
         attributes.setStorageClass(dict.stringForKey("Storage Class"));
+        final String accessedObj = dict.stringForKey("Accessed");
+        if(accessedObj != null) {
+            attributes.setAccessedDate(Long.parseLong(accessedObj));
+        }
+        final String createdObj = dict.stringForKey("Created");
+        if(createdObj != null) {
+            attributes.setCreationDate(Long.parseLong(createdObj));
+        }
+        attributes.setOwner(dict.stringForKey("Owner"));
+        attributes.setGroup(dict.stringForKey("Group"));
+        attributes.setETag(dict.stringForKey("ETag"));
+        final String encryptionObj = dict.stringForKey("Encryption");
+        if(encryptionObj != null) {
+            attributes.setEncryption(Encryption.Algorithm.fromString(encryptionObj));
+        }
+        attributes.setDisplayname(dict.stringForKey("Display Name"));
+        attributes.setDirectoryId(dict.stringForKey("Directory Id"));
+        final Object decryptedObj = dict.objectForKey("Decrypted");
+        if(decryptedObj != null) {
+            attributes.setDecrypted(new PathDictionary(deserializer).deserialize(decryptedObj));
+        }
+        final Object encryptedObj = dict.objectForKey("Encrypted");
+        if(encryptedObj != null) {
+            attributes.setEncrypted(new PathDictionary(deserializer).deserialize(encryptedObj));
+        }
         final Object vaultObj = dict.objectForKey("Vault");
         if(vaultObj != null) {
             attributes.setVault(new PathDictionary().deserialize(vaultObj));
@@ -0,0 +1,253 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.Download;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.IOResumeException;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.StreamProgress;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.transfer.download.SegmentMap;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Download file with concurrent range requests sharing the connection pool of the session. Each range is written
+ * straight to its offset in the target file. An incomplete download is marked with a segment map and discarded on
+ * resume. Falls back to a single request for readers not supporting concurrent
+ * ranges and for segments already split by the transfer.
+ */
+public class ConcurrentRangeDownloadFeature implements Download {
+    private static final Logger log = Logger.getLogger(ConcurrentRangeDownloadFeature.class);
+
+    /**
+     * Maximum factor by which the number of concurrent range requests grows from the initial concurrency
+     */
+    private static final int GROWTH = 2;
+
+    private final Preferences preferences
+        = PreferencesFactory.get();
+
+    private Read reader;
+
+    /**
+     * Folder to keep segment maps of incomplete downloads in
+     */
+    private Local folder = LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Segments");
+
+    public ConcurrentRangeDownloadFeature(final Read reader) {
+        this.reader = reader;
+    }
+
+    public ConcurrentRangeDownloadFeature withSegmentsFolder(final Local folder) {
+        this.folder = folder;
+        return this;
+    }
+
+    @Override
+    public void download(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                         final TransferStatus status, final ConnectionCallback connectionCallback, final PasswordCallback passwordCallback) throws BackgroundException {
+        if(!this.concurrent(file, status)) {
+            new DefaultDownloadFeature(reader).download(file, local, throttle, listener, status, connectionCallback, passwordCallback);
+            return;
+        }
+        final int concurrency = preferences.getInteger("queue.download.ranges.concurrency");
+        // Allow to grow from initial concurrency by a small factor only to not use up connections shared with other transfers
+        final int limit = concurrency * GROWTH;
+        final ConcurrentRangeWindow window = new ConcurrentRangeWindow(status.getLength(),
+            preferences.getLong("queue.download.ranges.size"), concurrency, limit);
+        final ThreadPool pool = ThreadPoolFactory.get("range", limit);
+        try {
+            if(!status.isAppend() && !status.isInplace()) {
+                // Create or truncate target file before writing ranges at their offset
+                try {
+                    local.getOutputStream(false).close();
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map("Download {0} failed", e, file);
+                }
+            }
+            // Ranges complete out of order and the size of the target file does not reflect the content received. Keep
+            // a segment map until all ranges are written to discard the partial file when resuming the transfer.
+            final SegmentMap map = new SegmentMap(folder, local);
+            map.create(status.getLength(), 0);
+            final Deque<Future<Void>> pending = new ArrayDeque<Future<Void>>();
+            final long end = status.getOffset() + status.getLength();
+            long offset = status.getOffset();
+            while(offset < end || !pending.isEmpty()) {
+                while(offset < end && pending.size() < window.concurrency()) {
+                    final long length = Math.min(window.size(), end - offset);
+                    // Submit to queue
+                    pending.add(this.submit(pool, file, local, throttle, listener, status, window, offset, length, connectionCallback));
+                    offset += length;
+                }
+                // Wait for oldest range
+                try {
+                    pending.remove().get();
+                }
+                catch(InterruptedException e) {
+                    log.error("Range download failed with interrupt failure");
+                    status.setCanceled();
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Range download failed with execution failure %s", e.getMessage()));
+                    if(e.getCause() instanceof BackgroundException) {
+                        throw (BackgroundException) e.getCause();
+                    }
+                    throw new BackgroundException(e.getCause());
+                }
+            }
+            map.delete();
+            // Mark parent status as complete
+            status.setComplete();
+        }
+        finally {
+            // Cancel future tasks
+            pool.shutdown(false);
+        }
+    }
+
+    /**
+     * @return True if file is downloaded in concurrent ranges
+     */
+    protected boolean concurrent(final Path file, final TransferStatus status) throws BackgroundException {
+        if(!preferences.getBoolean("queue.download.ranges")) {
+            return false;
+        }
+        if(status.isSegment()) {
+            // Range already read concurrently with other segments
+            return false;
+        }
+        if(status.getLength() < preferences.getLong("queue.download.segments.threshold")
+            || status.getLength() <= preferences.getLong("queue.download.ranges.size")) {
+            return false;
+        }
+        return reader.offset(file) && reader.concurrent(file);
+    }
+
+    private Future<Void> submit(final ThreadPool pool, final Path file, final Local local,
+                                final BandwidthThrottle throttle, final StreamListener listener,
+                                final TransferStatus overall, final ConcurrentRangeWindow window,
+                                final long offset, final long length, final ConnectionCallback callback) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit range of %s to queue with offset %d and length %d", file, offset, length));
+        }
+        return pool.execute(new DefaultRetryCallable<Void>(new BackgroundExceptionCallable<Void>() {
+            @Override
+            public Void call() throws BackgroundException {
+                if(overall.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                final TransferStatus status = new TransferStatus()
+                    .skip(offset)
+                    .length(length)
+                    .append(true)
+                    .withChecksum(overall.getChecksum());
+                final long start = System.nanoTime();
+                final AtomicLong received = new AtomicLong();
+                try {
+                    final InputStream in = reader.read(file, status, callback);
+                    if(Checksum.NONE == status.getChecksum()) {
+                        // Checksum verification of file disabled by reader
+                        overall.setChecksum(Checksum.NONE);
+                    }
+                    final OutputStream out;
+                    try {
+                        out = local.getOutputStream(offset);
+                    }
+                    catch(BackgroundException e) {
+                        IOUtils.closeQuietly(in);
+                        throw e;
+                    }
+                    new StreamCopier(overall, new StreamProgress() {
+                        @Override
+                        public void progress(final long bytes) {
+                            status.progress(bytes);
+                            received.addAndGet(bytes);
+                            overall.progress(bytes);
+                        }
+
+                        @Override
+                        public void setComplete() {
+                            status.setComplete();
+                        }
+                    })
+                        .withOffset(0L)
+                        .withLimit(length)
+                        .withListener(listener)
+                        .transfer(new ThrottledInputStream(in, throttle), out);
+                    if(received.get() < length) {
+                        throw new DefaultIOExceptionMappingService().map(new IOResumeException(
+                            String.format("Received %d bytes instead of %d at offset %d", received.get(), length, offset)));
+                    }
+                }
+                catch(BackgroundException e) {
+                    // Discard received bytes in overall progress as range is read again on retry
+                    overall.progress(-received.get());
+                    listener.recv(-received.get());
+                    if(!overall.isCanceled()) {
+                        window.failure();
+                    }
+                    throw e;
+                }
+                window.success(length, System.nanoTime() - start);
+                return null;
+            }
+        }, overall));
+    }
+
+    @Override
+    public boolean offset(final Path file) throws BackgroundException {
+        return reader.offset(file);
+    }
+
+    @Override
+    public Download withReader(final Read reader) {
+        this.reader = reader;
+        return this;
+    }
+}
@@ -0,0 +1,114 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Range size and number of concurrent range requests adjusted to observed latency of range reads. Ranges completing
+ * quickly are dominated by request overhead and the range size is doubled. Ranges taking too long are costly to
+ * repeat on failure and the range size is halved. Another concurrent request is added as long as the aggregate
+ * throughput keeps increasing and concurrency is halved on failure.
+ */
+public class ConcurrentRangeWindow {
+    private static final Logger log = Logger.getLogger(ConcurrentRangeWindow.class);
+
+    /**
+     * Maximum size of a range request
+     */
+    public static final long MAXIMUM_RANGE_SIZE = 256L * 1024L * 1024L;
+
+    private static final long LOWER_LATENCY = TimeUnit.SECONDS.toNanos(1L);
+    private static final long UPPER_LATENCY = TimeUnit.SECONDS.toNanos(10L);
+
+    /**
+     * Minimum relative increase of aggregate throughput to add another concurrent request
+     */
+    private static final double GAIN = 0.1d;
+
+    private final long minimum;
+    private final int limit;
+
+    private long size;
+    private int concurrency;
+
+    /**
+     * Highest aggregate throughput observed in bytes per nanosecond
+     */
+    private double throughput;
+
+    /**
+     * @param length      Number of bytes to read
+     * @param size        Initial and minimum range size
+     * @param concurrency Initial number of concurrent range requests
+     * @param limit       Maximum number of concurrent range requests
+     */
+    public ConcurrentRangeWindow(final long length, final long size, final int concurrency, final int limit) {
+        this.minimum = Math.max(1L, Math.min(size, MAXIMUM_RANGE_SIZE));
+        this.limit = Math.max(1, limit);
+        this.size = this.minimum;
+        // No more concurrent requests than ranges
+        this.concurrency = (int) Math.max(1, Math.min(Math.min(concurrency, this.limit), (length + this.size - 1) / this.size));
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized int concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @param length Length of range read
+     * @param time   Nanoseconds elapsed for range request including reading the response
+     */
+    public synchronized void success(final long length, final long time) {
+        if(length < size) {
+            // Last range or range size changed since submitted
+            return;
+        }
+        final double sample = (double) length / Math.max(1L, time) * concurrency;
+        if(sample > throughput * (1d + GAIN)) {
+            throughput = sample;
+            concurrency = Math.min(concurrency + 1, limit);
+        }
+        if(time < LOWER_LATENCY) {
+            size = Math.min(size * 2, MAXIMUM_RANGE_SIZE);
+        }
+        else if(time > UPPER_LATENCY) {
+            size = Math.max(size / 2, minimum);
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Adjust range size to %d and concurrency to %d for latency %dms",
+                size, concurrency, TimeUnit.NANOSECONDS.toMillis(time)));
+        }
+    }
+
+    /**
+     * Range request failed
+     */
+    public synchronized void failure() {
+        concurrency = Math.max(1, concurrency / 2);
+        // Probe again for throughput with fewer connections
+        throughput = throughput / 2;
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Reduce concurrency to %d", concurrency));
+        }
+    }
+}
@@ -45,7 +45,14 @@ public class DefaultDownloadFeature implements Download {
     public void download(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                          final TransferStatus status, final ConnectionCallback connectionCallback, final PasswordCallback passwordCallback) throws BackgroundException {
         final InputStream in = reader.read(file, status, connectionCallback);
-        final OutputStream out = local.getOutputStream(status.isAppend());
+        final OutputStream out;
+        if(status.isInplace()) {
+            // Write range at its offset in the target file
+            out = local.getOutputStream(status.getOffset());
+        }
+        else {
+            out = local.getOutputStream(status.isAppend());
+        }
         new StreamCopier(status, status)
                 .withOffset(0L)
                 .withLimit(status.getLength())
@@ -94,7 +94,7 @@ public class ComparisonServiceFilter implements ComparePathFilter {
                     // MD5/ETag Checksum is supported
                     progress.message(MessageFormat.format(LocaleFactory.localizedString("Compute MD5 hash of {0}", "Status"), file.getName()));
                     local.attributes().setChecksum(ChecksumComputeFactory.get(attributes.getChecksum().algorithm)
-                        .compute(local.getInputStream(), new TransferStatus()));
+                        .compute(local, new TransferStatus()));
                     switch(checksum.compare(attributes, local.attributes())) {
                         case equal:
                             // Decision is available
@@ -0,0 +1,138 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Work stealing pool with named threads. Tasks carry checked failures wrapped in {@link Failure} which are rethrown
+ * when invoking a task or waiting for its result.
+ */
+public class ForkJoinThreadPool {
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param prefix Thread name prefix
+     * @param size   Parallelism
+     */
+    public ForkJoinThreadPool(final String prefix, final int size) {
+        final AtomicInteger counter = new AtomicInteger();
+        this.pool = new ForkJoinPool(Math.max(1, size), new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName(String.format("%s-%d", prefix, counter.incrementAndGet()));
+                return thread;
+            }
+        }, new LoggingUncaughtExceptionHandler(), false);
+    }
+
+    /**
+     * Run task and wait for its result
+     *
+     * @throws BackgroundException Failure carried from task
+     */
+    public <T> T invoke(final ForkJoinTask<T> task) throws BackgroundException {
+        try {
+            return pool.invoke(task);
+        }
+        catch(RuntimeException e) {
+            final BackgroundException failure = unwrap(e);
+            if(null == failure) {
+                throw e;
+            }
+            throw failure;
+        }
+    }
+
+    /**
+     * Schedule task for execution
+     *
+     * @return Future to obtain result with {@link #get(Future)}
+     */
+    public <T> ForkJoinTask<T> submit(final ForkJoinTask<T> task) {
+        return pool.submit(task);
+    }
+
+    /**
+     * @param gracefully Complete tasks already submitted or cancel running tasks
+     */
+    public void shutdown(final boolean gracefully) {
+        if(gracefully) {
+            pool.shutdown();
+        }
+        else {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Wait for result of submitted task
+     *
+     * @throws BackgroundException Failure carried from task
+     */
+    public static <T> T get(final Future<T> future) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException | CancellationException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            final BackgroundException failure = unwrap(e);
+            if(null == failure) {
+                throw new BackgroundException(e.getCause());
+            }
+            throw failure;
+        }
+    }
+
+    /**
+     * Exceptions rethrown from another thread are wrapped when joining
+     *
+     * @return Failure carried from task or null
+     */
+    private static BackgroundException unwrap(final Throwable e) {
+        for(Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if(cause instanceof Failure) {
+                return ((Failure) cause).failure;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Carry checked failure through fork join tasks
+     */
+    public static final class Failure extends RuntimeException {
+        private final BackgroundException failure;
+
+        public Failure(final BackgroundException failure) {
+            super(failure);
+            this.failure = failure;
+        }
+    }
+}
@@ -77,6 +77,13 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
      */
     private boolean segment = false;
 
+    /**
+     * Segment is written at its offset to the target file
+     *
+     * @see #offset
+     */
+    private boolean inplace = false;
+
     /**
      * Not accepted
      */
@@ -181,6 +188,7 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
         this.exists = copy.exists;
         this.append = copy.append;
         this.segment = copy.segment;
+        this.inplace = copy.inplace;
         this.segments = copy.segments;
         this.rejected = copy.rejected;
         this.offset.set(copy.offset.get());
@@ -348,6 +356,19 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
         return this;
     }
 
+    public boolean isInplace() {
+        return inplace;
+    }
+
+    public void setInplace(final boolean inplace) {
+        this.inplace = inplace;
+    }
+
+    public TransferStatus inplace(final boolean inplace) {
+        this.inplace = inplace;
+        return this;
+    }
+
     public void setRejected(boolean rejected) {
         this.rejected = rejected;
     }
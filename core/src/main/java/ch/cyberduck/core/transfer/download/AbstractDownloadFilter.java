@@ -36,17 +36,20 @@ import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Download;
+import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.local.ApplicationLauncher;
 import ch.cyberduck.core.local.ApplicationLauncherFactory;
 import ch.cyberduck.core.local.IconService;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
 import ch.cyberduck.core.local.IconServiceFactory;
 import ch.cyberduck.core.local.QuarantineService;
 import ch.cyberduck.core.local.QuarantineServiceFactory;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferPathFilter;
@@ -57,10 +60,14 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AbstractDownloadFilter implements TransferPathFilter {
     private static final Logger log = Logger.getLogger(AbstractDownloadFilter.class);
@@ -85,6 +92,15 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
 
     private DownloadFilterOptions options;
 
+    /**
+     * Directory to save maps of segments written in place
+     */
+    protected Local folder = LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Segments");
+    /**
+     * Segment maps shared by all segments of a file to serialize updates
+     */
+    private final Map<Local, SegmentMap> maps = new ConcurrentHashMap<>();
+
     protected AbstractDownloadFilter(final SymlinkResolver<Path> symlinkResolver, final Session<?> session,
                                      final DownloadFilterOptions options) {
         this.symlinkResolver = symlinkResolver;
@@ -109,6 +125,18 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
         return this;
     }
 
+    public AbstractDownloadFilter withSegmentsFolder(final Local folder) {
+        this.folder = folder;
+        return this;
+    }
+
+    /**
+     * @return Completed segments of download in place
+     */
+    protected SegmentMap map(final Local local) {
+        return maps.computeIfAbsent(local, key -> new SegmentMap(folder, local));
+    }
+
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         final Local volume = local.getVolume();
@@ -200,7 +228,7 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                 if(status.getLength() >= preferences.getLong("queue.download.segments.threshold")
                     && status.getLength() > preferences.getLong("queue.download.segments.size")) {
                     final Download read = session.getFeature(Download.class);
-                    if(read.offset(file)) {
+                    if(read.offset(file) && !this.ranges(file)) {
                         if(log.isInfoEnabled()) {
                             log.info(String.format("Split download %s into segments", local));
                         }
@@ -214,19 +242,24 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                         final List<TransferStatus> segments = new ArrayList<TransferStatus>();
                         final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
                         for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
-                            final Local segmentFile = LocalFactory.get(
-                                segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
-                            boolean skip = false;
                             // Last part can be less than 5 MB. Adjust part size.
                             Long length = Math.min(partsize, remaining);
                             final TransferStatus segmentStatus = new TransferStatus()
                                 .segment(true)
                                 .append(true)
                                 .skip(offset)
-                                .length(length)
-                                .rename(segmentFile);
+                                .length(length);
+                            segmentStatus.setPart(segmentNumber);
+                            if(options.inplace) {
+                                segmentStatus.setInplace(true);
+                            }
+                            else {
+                                final Local segmentFile = LocalFactory.get(
+                                    segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
+                                segmentStatus.rename(segmentFile);
+                            }
                             if(log.isDebugEnabled()) {
-                                log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
+                                log.debug(String.format("Adding status %s for segment %d", segmentStatus, segmentNumber));
                             }
                             segments.add(segmentStatus);
                             remaining -= length;
@@ -243,10 +276,59 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
         return status;
     }
 
+    /**
+     * @return True if file is read in concurrent ranges using a single connection instead of segments
+     */
+    private boolean ranges(final Path file) throws BackgroundException {
+        if(!preferences.getBoolean("queue.download.ranges")) {
+            return false;
+        }
+        final Read reader = session.getFeature(Read.class);
+        if(null == reader) {
+            return false;
+        }
+        if(reader.concurrent(file)) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Skip segments for %s read in concurrent ranges", file));
+            }
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(status.isSegmented() && status.getSegments().iterator().next().isInplace()) {
+            final List<TransferStatus> segments = status.getSegments();
+            for(TransferStatus segment : segments) {
+                // Write to final target which may differ from the file segments were prepared for
+                segment.rename(local);
+            }
+            if(!status.isAppend()) {
+                long length = 0L;
+                for(TransferStatus segment : segments) {
+                    length += segment.getLength();
+                }
+                final Local parent = local.getParent();
+                if(!parent.exists()) {
+                    new DefaultLocalDirectoryFeature().mkdir(parent);
+                }
+                // Mark as incomplete before allocating target to not mistake a zero filled file for a completed download
+                this.map(local).create(length, segments.size());
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Allocate %d bytes for %d segments in %s", length, segments.size(), local));
+                }
+                try (RandomAccessFile target = new RandomAccessFile(local.getAbsolute(), "rw")) {
+                    // Discard previous content
+                    target.setLength(0L);
+                    target.setLength(length);
+                }
+                catch(IOException e) {
+                    throw new LocalAccessDeniedException(e.getMessage(), e);
+                }
+            }
+        }
     }
 
     /**
@@ -260,6 +342,10 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             log.debug(String.format("Complete %s with status %s", file.getAbsolute(), status));
         }
         if(status.isSegment()) {
+            if(status.isInplace() && status.isComplete()) {
+                // Persist for resume
+                this.map(local).mark(status.getPart());
+            }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Skip completion for single segment %s", status));
             }
@@ -267,7 +353,14 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
         }
         else {
             if(status.isComplete()) {//todo check if else
-                if(status.isSegmented()) {
+                if(status.isSegmented() && status.getSegments().iterator().next().isInplace()) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Completed %d segments in file %s", status.getSegments().size(), local));
+                    }
+                    this.map(local).delete();
+                    maps.remove(local);
+                }
+                else if(status.isSegmented()) {
                     // Obtain ordered list of segments to reassemble
                     final List<TransferStatus> segments = status.getSegments();
                     if(log.isInfoEnabled()) {
@@ -369,7 +462,7 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                                 final ChecksumCompute compute = ChecksumComputeFactory.get(checksum.algorithm);
                                 listener.message(MessageFormat.format(LocaleFactory.localizedString("Calculate checksum for {0}", "Status"),
                                     file.getName()));
-                                final Checksum download = compute.compute(local.getInputStream(), new TransferStatus());
+                                final Checksum download = compute.compute(local, new TransferStatus());
                                 if(!checksum.equals(download)) {
                                     throw new ChecksumException(
                                         MessageFormat.format(LocaleFactory.localizedString("Download {0} failed", "Error"), file.getName()),
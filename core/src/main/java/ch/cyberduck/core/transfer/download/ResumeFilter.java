@@ -32,6 +32,9 @@ import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.log4j.Logger;
 
+import java.util.BitSet;
+import java.util.List;
+
 public class ResumeFilter extends AbstractDownloadFilter {
     private static final Logger log = Logger.getLogger(ResumeFilter.class);
 
@@ -56,12 +59,16 @@ public class ResumeFilter extends AbstractDownloadFilter {
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(local.isFile()) {
             if(local.exists()) {
+                if(new SegmentMap(folder, local).exists()) {
+                    // Incomplete download with segments written in place to allocated file
+                    return super.accept(file, local, parent);
+                }
                 // Read remote attributes
                 final PathAttributes attributes = attribute.find(file);
                 if(local.attributes().getSize() == attributes.getSize()) {
                     if(Checksum.NONE != attributes.getChecksum()) {
                         final ChecksumCompute compute = ChecksumComputeFactory.get(attributes.getChecksum().algorithm);
-                        if(compute.compute(local.getInputStream(), parent).equals(attributes.getChecksum())) {
+                        if(compute.compute(local, parent).equals(attributes.getChecksum())) {
                             if(log.isInfoEnabled()) {
                                 log.info(String.format("Skip file %s with checksum %s", file, local.attributes().getChecksum()));
                             }
@@ -87,7 +94,29 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent, progress);
-        if(status.isSegmented()) {
+        if(status.isSegmented() && status.getSegments().iterator().next().isInplace()) {
+            final List<TransferStatus> segments = status.getSegments();
+            final SegmentMap map = this.map(local);
+            if(local.exists() && map.exists()) {
+                long length = 0L;
+                for(TransferStatus segmentStatus : segments) {
+                    length += segmentStatus.getLength();
+                }
+                final BitSet completed = map.read(length, segments.size());
+                for(TransferStatus segmentStatus : segments) {
+                    if(completed.get(segmentStatus.getPart())) {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Skip completed part %s", segmentStatus));
+                        }
+                        segmentStatus.setComplete();
+                        // Recalculate transfer length
+                        status.setAppend(true);
+                        status.setLength(status.getLength() - segmentStatus.getLength());
+                    }
+                }
+            }
+        }
+        else if(status.isSegmented()) {
             for(TransferStatus segmentStatus : status.getSegments()) {
                 final Local segmentFile = segmentStatus.getRename().local;
                 if(segmentFile.exists()) {
@@ -111,7 +140,13 @@ public class ResumeFilter extends AbstractDownloadFilter {
         else {
             if(download.offset(file)) {
                 if(local.isFile()) {
-                    if(local.exists()) {
+                    final SegmentMap map = new SegmentMap(folder, local);
+                    if(map.exists()) {
+                        // Size of allocated file does not reflect downloaded content
+                        log.warn(String.format("Discard segments previously downloaded to %s", local));
+                        map.delete();
+                    }
+                    else if(local.exists()) {
                         if(local.attributes().getSize() > 0) {
                             status.setAppend(true);
                             status.setLength(status.getLength() - local.attributes().getSize());
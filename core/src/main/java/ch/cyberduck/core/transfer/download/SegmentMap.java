@@ -0,0 +1,211 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.BitSet;
+
+/**
+ * Persisted bitmap of completed segments for a download written in place to the target file. Kept in the application
+ * support folder to allow resuming after the application is restarted.
+ */
+public class SegmentMap {
+    private static final Logger log = Logger.getLogger(SegmentMap.class);
+
+    /**
+     * Length of header with total length, number of segments, modification date and number of words
+     */
+    private static final int HEADER = 8 + 4 + 8 + 4;
+
+    /**
+     * Serialize updates from concurrent segment transfers
+     */
+    private final Object lock = new Object();
+
+    private final Local file;
+
+    /**
+     * Modification date of the file segments are read from or 0 if not checked
+     */
+    private final long timestamp;
+
+    public SegmentMap(final Local local) {
+        this(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Segments"), local);
+    }
+
+    /**
+     * @param folder Directory to save segment map in
+     * @param local  Target file segments are written to
+     */
+    public SegmentMap(final Local folder, final Local local) {
+        this(folder, DigestUtils.sha1Hex(local.getAbsolute()), 0L);
+    }
+
+    /**
+     * @param folder    Folder to store map in
+     * @param name      Name of file the map is kept for
+     * @param timestamp Modification date of source file. Completed segments are discarded when changed
+     */
+    protected SegmentMap(final Local folder, final String name, final long timestamp) {
+        this.file = LocalFactory.get(folder, String.format("%s.cyberducksegments", name));
+        this.timestamp = timestamp;
+    }
+
+    public boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Reset to no segments completed
+     *
+     * @param length   Total length of target file
+     * @param segments Number of segments
+     */
+    public void create(final long length, final int segments) throws AccessDeniedException {
+        synchronized(lock) {
+            if(!file.getParent().exists()) {
+                new DefaultLocalDirectoryFeature().mkdir(file.getParent());
+            }
+            this.write(length, segments, timestamp);
+        }
+    }
+
+    /**
+     * @param length   Expected total length of target file
+     * @param segments Expected number of segments
+     * @return Completed segments indexed by part number starting at 1. Empty if the map was written for a different
+     * length, segment count or modification date of the source file.
+     */
+    public BitSet read(final long length, final int segments) throws AccessDeniedException {
+        synchronized(lock) {
+            if(!file.exists()) {
+                return new BitSet();
+            }
+            DataInputStream in = null;
+            try {
+                in = new DataInputStream(file.getInputStream());
+                if(in.readLong() != length || in.readInt() != segments || in.readLong() != timestamp) {
+                    log.warn(String.format("Ignore segment map %s for different length, number of segments or modification date", file));
+                    return new BitSet();
+                }
+                final long[] words = new long[in.readInt()];
+                for(int i = 0; i < words.length; i++) {
+                    words[i] = in.readLong();
+                }
+                return BitSet.valueOf(words);
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure reading segment map %s. %s", file, e.getMessage()));
+                return new BitSet();
+            }
+            finally {
+                IOUtils.closeQuietly(in);
+            }
+        }
+    }
+
+    /**
+     * @param part Part number of completed segment
+     */
+    public void mark(final int part) throws AccessDeniedException {
+        synchronized(lock) {
+            if(!file.exists()) {
+                log.warn(String.format("Missing segment map %s", file));
+                return;
+            }
+            // Byte of big endian word holding the bit for this part
+            final long position = HEADER + (part / 64) * 8L + (7 - (part % 64) / 8);
+            try (RandomAccessFile out = new RandomAccessFile(file.getAbsolute(), "rw")) {
+                if(position >= out.length()) {
+                    log.warn(String.format("Part %d out of range in segment map %s", part, file));
+                    return;
+                }
+                out.seek(position);
+                final int value = out.read();
+                out.seek(position);
+                out.write(value | 1 << (part % 8));
+            }
+            catch(IOException e) {
+                throw new LocalAccessDeniedException(e.getMessage(), e);
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Mark segment %d complete in %s", part, file));
+            }
+        }
+    }
+
+    public void delete() {
+        synchronized(lock) {
+            if(file.exists()) {
+                try {
+                    file.delete();
+                }
+                catch(AccessDeniedException | NotfoundException e) {
+                    log.warn(String.format("Failure deleting segment map %s. %s", file, e.getMessage()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Write header and words for all part numbers with no segment completed
+     */
+    private void write(final long length, final int segments, final long modified) throws AccessDeniedException {
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(file.getOutputStream(false));
+            out.writeLong(length);
+            out.writeInt(segments);
+            out.writeLong(modified);
+            // Part numbers start at 1
+            final int words = segments / 64 + 1;
+            out.writeInt(words);
+            for(int i = 0; i < words; i++) {
+                out.writeLong(0L);
+            }
+            out.flush();
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentMap{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
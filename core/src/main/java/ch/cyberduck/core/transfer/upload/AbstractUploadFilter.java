@@ -20,8 +20,10 @@ package ch.cyberduck.core.transfer.upload;
 import ch.cyberduck.core.Acl;
 import ch.cyberduck.core.AlphanumericRandomStringService;
 import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.DisabledConnectionCallback;
 import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.MappingMimeTypeService;
 import ch.cyberduck.core.Path;
@@ -46,10 +48,12 @@ import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.features.Redundancy;
 import ch.cyberduck.core.features.Timestamp;
 import ch.cyberduck.core.features.UnixPermission;
+import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferOptions;
@@ -59,8 +63,13 @@ import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AbstractUploadFilter implements TransferPathFilter {
     private static final Logger log = Logger.getLogger(AbstractUploadFilter.class);
@@ -68,13 +77,22 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
     private final Preferences preferences
         = PreferencesFactory.get();
 
-    private final Session<?> session;
     private final SymlinkResolver<Local> symlinkResolver;
 
+    protected final Session<?> session;
+
     protected Find find;
     protected AttributesFinder attribute;
     protected Cache<Path> cache = PathCache.empty();
     protected UploadFilterOptions options;
+    /**
+     * Directory to save maps of segments written in place
+     */
+    protected Local folder = LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Segments");
+    /**
+     * Segment maps shared by all segments of a file to serialize updates
+     */
+    private final Map<Path, UploadSegmentMap> maps = new ConcurrentHashMap<>();
 
     public AbstractUploadFilter(final SymlinkResolver<Local> symlinkResolver, final Session<?> session,
                                 final UploadFilterOptions options) {
@@ -106,6 +124,18 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
         return this;
     }
 
+    public AbstractUploadFilter withSegmentsFolder(final Local folder) {
+        this.folder = folder;
+        return this;
+    }
+
+    /**
+     * @return Completed segments of upload in place
+     */
+    protected UploadSegmentMap map(final Path file, final Local local) {
+        return maps.computeIfAbsent(file, key -> new UploadSegmentMap(folder, session.getHost(), file, local));
+    }
+
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(!local.exists()) {
@@ -168,6 +198,46 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
                 }
             }
             status.withMime(new MappingMimeTypeService().getMime(file.getName()));
+            if(options.segments) {
+                // Temporary filename is not known when resuming
+                if(!local.isSymbolicLink() && null == status.getRename().remote) {
+                    if(status.getLength() >= preferences.getLong("queue.upload.segments.threshold")
+                        && status.getLength() > preferences.getLong("queue.upload.segments.size")) {
+                        if(session.getFeature(Write.class).segments(file)) {
+                            if(log.isInfoEnabled()) {
+                                log.info(String.format("Split upload %s into segments", local));
+                            }
+                            long remaining = status.getLength();
+                            long offset = 0;
+                            // Part size from default setting of size divided by maximum number of connections
+                            final long partsize = Math.max(
+                                preferences.getLong("queue.upload.segments.size"),
+                                status.getLength() / preferences.getInteger("queue.connections.limit"));
+                            // Sorted list
+                            final List<TransferStatus> segments = new ArrayList<TransferStatus>();
+                            for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
+                                final long length = Math.min(partsize, remaining);
+                                // File is created before segments are written
+                                final TransferStatus segmentStatus = new TransferStatus()
+                                    .segment(true)
+                                    .inplace(true)
+                                    .exists(true)
+                                    .append(true)
+                                    .skip(offset)
+                                    .length(length);
+                                segmentStatus.setPart(segmentNumber);
+                                if(log.isDebugEnabled()) {
+                                    log.debug(String.format("Adding status %s for segment %d", segmentStatus, segmentNumber));
+                                }
+                                segments.add(segmentStatus);
+                                remaining -= length;
+                                offset += length;
+                            }
+                            status.withSegments(segments);
+                        }
+                    }
+                }
+            }
         }
         if(local.isDirectory()) {
             status.setLength(0L);
@@ -274,13 +344,18 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
             }
         }
         if(options.checksum) {
-            if(local.isFile()) {
+            if(options.inline && session.getFeature(Upload.class).inline(file, status)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Defer checksum calculation for %s to upload", file));
+                }
+            }
+            else if(local.isFile()) {
                 final ChecksumCompute feature = session.getFeature(Write.class).checksum(file);
                 if(feature != null) {
                     progress.message(MessageFormat.format(LocaleFactory.localizedString("Calculate checksum for {0}", "Status"),
                         file.getName()));
                     try {
-                        status.setChecksum(feature.compute(local.getInputStream(), status));
+                        status.setChecksum(feature.compute(local, status));
                     }
                     catch(LocalAccessDeniedException e) {
                         // Ignore failure reading file when in sandbox when we miss a security scoped access bookmark.
@@ -296,7 +371,31 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(status.isSegmented() && status.getSegments().iterator().next().isInplace()) {
+            final List<TransferStatus> segments = status.getSegments();
+            for(TransferStatus segment : segments) {
+                // Write to final target which may differ from the file segments were prepared for
+                segment.rename(file);
+            }
+            if(!status.isAppend()) {
+                long length = 0L;
+                for(TransferStatus segment : segments) {
+                    length += segment.getLength();
+                }
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Create %s for %d segments", file, segments.size()));
+                }
+                // Create or truncate remote file
+                final Write<?> write = session.getFeature(Write.class);
+                try {
+                    write.write(file, new TransferStatus().exists(status.isExists()).length(0L), new DisabledConnectionCallback()).close();
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                this.map(file, local).create(length, segments.size());
+            }
+        }
     }
 
     @Override
@@ -306,7 +405,24 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Complete %s with status %s", file.getAbsolute(), status));
         }
+        if(status.isSegment()) {
+            if(status.isInplace() && status.isComplete()) {
+                // Persist for resume
+                this.map(file, local).mark(status.getPart());
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Skip completion for single segment %s", status));
+            }
+            return;
+        }
         if(status.isComplete()) {
+            if(status.isSegmented() && status.getSegments().iterator().next().isInplace()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Completed %d segments in file %s", status.getSegments().size(), file));
+                }
+                this.map(file, local).delete();
+                maps.remove(file);
+            }
             if(!Permission.EMPTY.equals(status.getPermission())) {
                 final UnixPermission feature = session.getFeature(UnixPermission.class);
                 if(feature != null) {
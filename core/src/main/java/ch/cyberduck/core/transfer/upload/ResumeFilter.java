@@ -34,6 +34,10 @@ import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.log4j.Logger;
 
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
 public class ResumeFilter extends AbstractUploadFilter {
     private static final Logger log = Logger.getLogger(ResumeFilter.class);
 
@@ -67,11 +71,15 @@ public class ResumeFilter extends AbstractUploadFilter {
         if(super.accept(file, local, parent)) {
             if(local.isFile()) {
                 if(parent.isExists()) {
+                    if(this.map(file, local).exists()) {
+                        // Incomplete upload with segments written in place to allocated file
+                        return true;
+                    }
                     final Write.Append append = upload.append(file, local.attributes().getSize(), cache);
                     if(append.size == local.attributes().getSize()) {
                         if(Checksum.NONE != append.checksum) {
                             final ChecksumCompute compute = ChecksumComputeFactory.get(append.checksum.algorithm);
-                            if(compute.compute(local.getInputStream(), parent).equals(append.checksum)) {
+                            if(compute.compute(local, parent).equals(append.checksum)) {
                                 if(log.isInfoEnabled()) {
                                     log.info(String.format("Skip file %s with checksum %s", file, local.attributes().getChecksum()));
                                 }
@@ -98,10 +106,30 @@ public class ResumeFilter extends AbstractUploadFilter {
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent, progress);
         if(file.isFile()) {
+            if(status.isSegmented()) {
+                final UploadSegmentMap map = this.map(file, local);
+                if(parent.isExists() && map.exists()) {
+                    final List<TransferStatus> segments = status.getSegments();
+                    final BitSet completed = map.read(status.getLength(), segments.size());
+                    for(TransferStatus segmentStatus : segments) {
+                        if(completed.get(segmentStatus.getPart())) {
+                            if(log.isInfoEnabled()) {
+                                log.info(String.format("Skip completed part %s", segmentStatus));
+                            }
+                            segmentStatus.setComplete();
+                            // Keep content of segments already written and recalculate transfer length
+                            status.setAppend(true);
+                            status.setLength(status.getLength() - segmentStatus.getLength());
+                        }
+                    }
+                    return status;
+                }
+            }
             if(parent.isExists()) {
                 final Write.Append append = upload.append(file, status.getLength(), cache);
                 if(append.append && append.size < local.attributes().getSize()) {
-                    // Append to existing file
+                    // Append to existing file not uploaded in segments
+                    status.withSegments(Collections.emptyList());
                     status.setAppend(true);
                     status.setLength(status.getLength() - append.size);
                     status.setOffset(append.size);
@@ -43,6 +43,14 @@ public final class UploadFilterOptions {
      * Calculate checksum for file
      */
     public boolean checksum;
+    /**
+     * Calculate checksum while uploading and verify after completion instead of reading file in advance
+     */
+    public boolean inline;
+    /**
+     * Split upload into segments written concurrently at their offset in the remote file
+     */
+    public boolean segments;
 
     public UploadFilterOptions() {
         // Defaults
@@ -55,6 +63,8 @@ public final class UploadFilterOptions {
         encryption = preferences.getBoolean("queue.upload.file.encryption.change");
         redundancy = preferences.getBoolean("queue.upload.file.redundancy.change");
         checksum = preferences.getBoolean("queue.upload.checksum.calculate");
+        inline = preferences.getBoolean("queue.upload.checksum.inline");
+        segments = preferences.getBoolean("queue.upload.segments");
     }
 
     public UploadFilterOptions(final boolean permissions, final boolean timestamp, final boolean temporary) {
@@ -100,6 +110,16 @@ public final class UploadFilterOptions {
         return this;
     }
 
+    public UploadFilterOptions withInline(boolean enabled) {
+        inline = enabled;
+        return this;
+    }
+
+    public UploadFilterOptions withSegments(boolean enabled) {
+        segments = enabled;
+        return this;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("UploadFilterOptions{");
@@ -111,6 +131,8 @@ public final class UploadFilterOptions {
         sb.append(", encryption=").append(encryption);
         sb.append(", redundancy=").append(redundancy);
         sb.append(", checksum=").append(checksum);
+        sb.append(", inline=").append(inline);
+        sb.append(", segments=").append(segments);
         sb.append('}');
         return sb.toString();
     }
@@ -0,0 +1,49 @@
+package ch.cyberduck.core.transfer.upload;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.transfer.download.SegmentMap;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Completed segments of an upload written in place to the remote file. Kept in the application support folder
+ * instead of next to the local file read from.
+ */
+public class UploadSegmentMap extends SegmentMap {
+
+    public UploadSegmentMap(final Host host, final Path file, final Local local) {
+        this(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Segments"), host, file, local);
+    }
+
+    /**
+     * Completed segments are discarded when the local file has been modified since the map was created.
+     *
+     * @param folder Directory to save segment map in
+     */
+    public UploadSegmentMap(final Local folder, final Host host, final Path file, final Local local) {
+        super(folder,
+            DigestUtils.sha1Hex(String.format("%s%s|%s",
+                new HostUrlProvider().withUsername(true).get(host), file.getAbsolute(), local.getAbsolute())),
+            local.attributes().getModificationDate());
+    }
+}
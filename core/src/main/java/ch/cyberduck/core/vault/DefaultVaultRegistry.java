@@ -212,6 +212,9 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
         if(type == Search.class) {
             return (T) new VaultRegistrySearchFeature(session, (Search) proxy, this);
         }
+        if(type == RecursiveList.class) {
+            return (T) new VaultRegistryRecursiveList(session, (RecursiveList) proxy, this);
+        }
         if(type == TransferAcceleration.class) {
             return (T) new VaultRegistryTransferAccelerationFeature<>(session, (TransferAcceleration) proxy, this);
         }
@@ -47,6 +47,11 @@ public class VaultRegistryReadFeature implements Read {
         return registry.find(session, file).getFeature(session, Read.class, proxy).offset(file);
     }
 
+    @Override
+    public boolean concurrent(final Path file) throws BackgroundException {
+        return registry.find(session, file).getFeature(session, Read.class, proxy).concurrent(file);
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("VaultRegistryReadFeature{");
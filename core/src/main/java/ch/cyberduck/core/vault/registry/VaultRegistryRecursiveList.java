@@ -0,0 +1,71 @@
+package ch.cyberduck.core.vault.registry;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.UnsupportedException;
+import ch.cyberduck.core.features.RecursiveList;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
+import ch.cyberduck.core.vault.VaultRegistry;
+
+import java.util.Map;
+
+/**
+ * Refuse recursive listing of trees containing a vault as file names must be decrypted per directory
+ */
+public class VaultRegistryRecursiveList implements RecursiveList {
+
+    private final Session<?> session;
+    private final RecursiveList proxy;
+    private final VaultRegistry registry;
+
+    public VaultRegistryRecursiveList(final Session<?> session, final RecursiveList proxy, final VaultRegistry registry) {
+        this.session = session;
+        this.proxy = proxy;
+        this.registry = registry;
+    }
+
+    @Override
+    public Map<Path, AttributedList<Path>> tree(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        if(registry.find(session, directory).contains(directory)) {
+            throw new UnsupportedException(String.format("Recursive listing of %s in vault", directory));
+        }
+        final Map<Path, AttributedList<Path>> listings = proxy.tree(directory, listener);
+        for(Map.Entry<Path, AttributedList<Path>> listing : listings.entrySet()) {
+            if(registry.contains(listing.getKey())) {
+                throw new UnsupportedException(String.format("Recursive listing of %s with vault %s", directory, listing.getKey()));
+            }
+            for(Path file : listing.getValue()) {
+                if(DefaultVaultRegistry.DEFAULT_MASTERKEY_FILE_NAME.equals(file.getName())) {
+                    throw new UnsupportedException(String.format("Recursive listing of %s with vault %s", directory, listing.getKey()));
+                }
+            }
+        }
+        return listings;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("VaultRegistryRecursiveList{");
+        sb.append("proxy=").append(proxy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -27,6 +27,7 @@ import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.vault.VaultRegistry;
+import ch.cyberduck.core.vault.VaultUnlockCancelException;
 
 public class VaultRegistryUploadFeature<Output> implements Upload<Output> {
 
@@ -51,6 +52,16 @@ public class VaultRegistryUploadFeature<Output> implements Upload<Output> {
         return registry.find(session, file).getFeature(session, Upload.class, proxy).append(file, length, cache);
     }
 
+    @Override
+    public boolean inline(final Path file, final TransferStatus status) {
+        try {
+            return registry.find(session, file).getFeature(session, Upload.class, proxy).inline(file, status);
+        }
+        catch(VaultUnlockCancelException e) {
+            return proxy.inline(file, status);
+        }
+    }
+
     @Override
     public Upload<Output> withWriter(final Write<Output> writer) {
         proxy.withWriter(writer);
@@ -59,6 +59,11 @@ public class VaultRegistryWriteFeature<T> implements Write<T> {
         return proxy.random();
     }
 
+    @Override
+    public boolean segments(final Path file) throws BackgroundException {
+        return registry.find(session, file).getFeature(session, Write.class, proxy).segments(file);
+    }
+
     @Override
     public ChecksumCompute checksum(final Path file) {
         try {
@@ -37,6 +37,9 @@ import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.TransferCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.threading.TransferBackgroundActionState;
 import ch.cyberduck.core.transfer.SynchronizingTransferErrorCallback;
 import ch.cyberduck.core.transfer.Transfer;
@@ -54,10 +57,20 @@ import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private static final Logger log = Logger.getLogger(AbstractTransferWorker.class);
@@ -88,6 +101,26 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private final ProgressListener progress;
     private final StreamListener stream;
 
+    /**
+     * Items with determined transfer status handed over from listing to transfer when pipelined
+     */
+    private volatile BlockingQueue<TransferItem> pipeline;
+
+    /**
+     * Marks end of listing in pipeline
+     */
+    private static final TransferItem EOF = new TransferItem(null, null);
+
+    /**
+     * Pending transfer of directories handed over from listing when pipelined. Contained files wait for completion.
+     */
+    private final Map<TransferItem, Future<TransferStatus>> directories = new ConcurrentHashMap<>();
+
+    /**
+     * Prepare tasks added by the last directory listed when pipelined. Only accessed from listing thread.
+     */
+    private final Deque<TransferCallable> deferred = new ArrayDeque<>();
+
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
                                   final TransferPrompt prompt, final TransferSpeedometer meter,
                                   final TransferErrorCallback error,
@@ -96,7 +129,8 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                   final ConnectionCallback connectionCallback,
                                   final PasswordCallback passwordCallback,
                                   final NotificationService notification) {
-        this(transfer, options, prompt, meter, error, progress, stream, connectionCallback, passwordCallback, notification, new TransferItemCache(Integer.MAX_VALUE));
+        this(transfer, options, prompt, meter, error, progress, stream, connectionCallback, passwordCallback, notification,
+            new TransferItemCache(Integer.MAX_VALUE, PreferencesFactory.get().getLong("queue.transfer.cache.threshold")));
     }
 
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
@@ -182,6 +216,23 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         // No need to implement for single threaded transfer
     }
 
+    /**
+     * Await completion of submitted tasks until no more than the given number is pending
+     *
+     * @param pending Number of tasks allowed to remain in progress
+     */
+    public void await(final int pending) throws BackgroundException {
+        // No need to implement for single threaded transfer
+    }
+
+    /**
+     * @return True if listing and filtering of files can run concurrently with transfers instead of preparing
+     * the complete tree in advance
+     */
+    protected boolean isPipelined() {
+        return false;
+    }
+
     @Override
     public Boolean run() throws BackgroundException {
         final String lock = sleep.lock();
@@ -215,6 +266,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             progress.message(MessageFormat.format(LocaleFactory.localizedString("Prepare {0} ({1})", "Status"), transfer.getName(), action.getTitle()));
             transfer.normalize();
 
+            if(this.isPipelined()) {
+                this.pipeline(source, destination, action);
+                return true;
+            }
             // Calculate information about the files in advance to give progress information
             for(TransferItem next : transfer.getRoots()) {
                 this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
@@ -244,6 +299,221 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         return true;
     }
 
+    /**
+     * List and filter files on a separate thread and transfer in batches as soon as the transfer status is
+     * determined. Memory is bounded by the size of the queue between listing and transfer instead of the size of
+     * the tree.
+     */
+    private void pipeline(final Session<?> source, final Session<?> destination, final TransferAction action) throws BackgroundException {
+        final int size = PreferencesFactory.get().getInteger("queue.transfer.pipeline.size");
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Pipeline transfer %s with queue size %d", transfer, size));
+        }
+        final BlockingQueue<TransferItem> queue = new ArrayBlockingQueue<>(size);
+        pipeline = queue;
+        final ThreadPool producer = ThreadPoolFactory.get("transfer-prepare", 1);
+        final Future<Void> listing = producer.execute(new Callable<Void>() {
+            @Override
+            public Void call() throws BackgroundException {
+                try {
+                    for(TransferItem next : transfer.getRoots()) {
+                        prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+                    }
+                    final Deque<TransferCallable> pending = new ArrayDeque<>();
+                    while(true) {
+                        // Depth first in order of listing with sessions released before descending
+                        while(!deferred.isEmpty()) {
+                            pending.addFirst(deferred.removeLast());
+                        }
+                        final TransferCallable next = pending.pollFirst();
+                        if(null == next) {
+                            break;
+                        }
+                        // Run on listing thread instead of transfer pool. Threads of the transfer pool must not
+                        // block handing over to a full queue only drained after transfers complete
+                        next.call();
+                    }
+                }
+                finally {
+                    try {
+                        if(!handover(queue, EOF)) {
+                            log.warn(String.format("Skip handing over end of listing for %s", transfer));
+                        }
+                    }
+                    catch(InterruptedException e) {
+                        log.warn(String.format("Interrupted handing over end of listing for %s", transfer));
+                    }
+                }
+                return null;
+            }
+        });
+        // Batches with transfers submitted awaiting completion
+        final Deque<Batch> submitted = new ArrayDeque<>();
+        try {
+            meter.reset();
+            final List<TransferItem> batch = new ArrayList<>(size);
+            boolean eof = false;
+            while(!eof) {
+                batch.clear();
+                // Block for next item and add all others already available
+                TransferItem next = queue.take();
+                while(next != null) {
+                    if(next == EOF) {
+                        eof = true;
+                        break;
+                    }
+                    batch.add(next);
+                    if(batch.size() == size) {
+                        break;
+                    }
+                    next = queue.poll();
+                }
+                if(!batch.isEmpty()) {
+                    final Map<TransferItem, TransferStatus> files = new LinkedHashMap<>();
+                    for(TransferItem item : batch) {
+                        final TransferStatus status = table.get(item);
+                        if(status != null) {
+                            files.put(item, status);
+                        }
+                    }
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Transfer batch of %d files", files.size()));
+                    }
+                    transfer.pre(source, destination, files, connectionCallback);
+                    final List<Future<TransferStatus>> futures = new ArrayList<>();
+                    for(TransferItem item : files.keySet()) {
+                        // Files wait for the transfer of their parent directory submitted before
+                        this.parent(item);
+                        this.transfer(item, action, futures);
+                    }
+                    submitted.add(new Batch(files, futures));
+                }
+                // Continue with next batch while transfers are running. Only wait to bound the number of pending tasks
+                this.await(eof ? 0 : size);
+                while(!submitted.isEmpty() && submitted.peekFirst().isDone()) {
+                    final Batch completed = submitted.removeFirst();
+                    transfer.post(source, destination, completed.files, connectionCallback);
+                    // Release status of transferred files
+                    for(TransferItem item : completed.files.keySet()) {
+                        table.remove(item);
+                        directories.remove(item);
+                    }
+                }
+            }
+            // Propagate failure in listing
+            listing.get();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new DefaultExceptionMappingService().map(e.getCause());
+        }
+        finally {
+            // Cancel transfers still pending on failure and await the running ones. Tasks must not see the
+            // pipeline cleared and recurse into directories from the cache
+            for(Batch batch : submitted) {
+                batch.cancel();
+            }
+            for(Batch batch : submitted) {
+                batch.await();
+            }
+            // Stop listing blocked handing over to queue no longer consumed
+            pipeline = null;
+            queue.clear();
+            producer.shutdown(false);
+            directories.clear();
+        }
+    }
+
+    /**
+     * Hand over item from listing to transfer. Blocks while the queue is full.
+     *
+     * @return False if transfer no longer consumes from queue
+     */
+    private boolean handover(final BlockingQueue<TransferItem> queue, final TransferItem item) throws InterruptedException {
+        while(!queue.offer(item, 1L, TimeUnit.SECONDS)) {
+            if(pipeline != queue || this.isCanceled()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Wait on the consuming thread for the pending transfer of the parent directory handed over from listing before
+     * instead of blocking threads of the transfer pool
+     */
+    private void parent(final TransferItem item) throws InterruptedException {
+        final Future<TransferStatus> parent = directories.get(
+            new TransferItem(item.remote.getParent(), null == item.local ? null : item.local.getParent()));
+        if(null == parent) {
+            return;
+        }
+        try {
+            parent.get();
+        }
+        catch(ExecutionException e) {
+            log.warn(String.format("Failure transferring parent directory of %s. %s", item, e.getCause()));
+        }
+    }
+
+    /**
+     * Files of pipelined transfer with submitted tasks
+     */
+    private static final class Batch {
+        private final Map<TransferItem, TransferStatus> files;
+        private final List<Future<TransferStatus>> futures;
+
+        private Batch(final Map<TransferItem, TransferStatus> files, final List<Future<TransferStatus>> futures) {
+            this.files = files;
+            this.futures = futures;
+        }
+
+        private boolean isDone() {
+            for(Future<TransferStatus> f : futures) {
+                if(!f.isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Mark files canceled. Tasks not yet started fail immediately and running transfers are interrupted.
+         */
+        private void cancel() {
+            for(TransferStatus status : files.values()) {
+                status.setCanceled();
+                for(TransferStatus segment : status.getSegments()) {
+                    segment.setCanceled();
+                }
+            }
+        }
+
+        /**
+         * Wait for all tasks to return regardless of failure
+         */
+        private void await() {
+            for(Future<TransferStatus> f : futures) {
+                try {
+                    f.get();
+                }
+                catch(InterruptedException e) {
+                    log.warn(String.format("Interrupted awaiting %s", f));
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                catch(ExecutionException | CancellationException e) {
+                    // Failure already handled
+                }
+            }
+        }
+    }
+
     /**
      * To be called before any file is actually transferred
      *
@@ -258,7 +528,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             throw new TransferCanceledException();
         }
         if(prompt.isSelected(new TransferItem(file, local))) {
-            return this.submit(new RetryTransferCallable() {
+            final TransferCallable callable = new RetryTransferCallable() {
                 @Override
                 public TransferStatus call() throws BackgroundException {
                     if(parent.isCanceled()) {
@@ -296,13 +566,27 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             transfer.addSize(status.getLength() + status.getOffset());
                             // Add skipped bytes
                             transfer.addTransferred(status.getOffset());
+                            final BlockingQueue<TransferItem> queue = pipeline;
+                            if(queue != null) {
+                                // Hand over for transfer while listing continues. Blocks when queue is full
+                                try {
+                                    if(!handover(queue, new TransferItem(file, local))) {
+                                        throw new ConnectionCanceledException();
+                                    }
+                                }
+                                catch(InterruptedException e) {
+                                    throw new ConnectionCanceledException(e);
+                                }
+                            }
                             // Recursive
                             if(file.isDirectory()) {
                                 final List<TransferItem> children;
                                 // Call recursively for all children
                                 children = transfer.list(source, file, local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
-                                // Put into cache for later reference when transferring
-                                cache.put(item, new AttributedList<TransferItem>(children));
+                                if(null == queue) {
+                                    // Put into cache for later reference when transferring
+                                    cache.put(item, new AttributedList<TransferItem>(children));
+                                }
                                 // Call recursively
                                 for(TransferItem f : children) {
                                     // Change download path relative to parent local folder
@@ -351,7 +635,13 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                     sb.append('}');
                     return sb.toString();
                 }
-            });
+            };
+            if(pipeline != null) {
+                // Defer to listing thread
+                deferred.add(callable);
+                return null;
+            }
+            return this.submit(callable);
         }
         else {
             log.info(String.format("Skip unchecked file %s for transfer %s", file, this));
@@ -364,6 +654,16 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
      * @param action Transfer action for existing files
      */
     public Future<TransferStatus> transfer(final TransferItem item, final TransferAction action) throws BackgroundException {
+        return this.transfer(item, action, new ArrayList<Future<TransferStatus>>());
+    }
+
+    /**
+     * @param item      File to transfer
+     * @param action    Transfer action for existing files
+     * @param submitted Adds all tasks submitted for the file
+     */
+    private Future<TransferStatus> transfer(final TransferItem item, final TransferAction action,
+                                            final List<Future<TransferStatus>> submitted) throws BackgroundException {
         if(this.isCanceled()) {
             throw new TransferCanceledException();
         }
@@ -376,7 +676,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                 if(segment.isComplete()) {
                     continue;
                 }
-                this.submit(new RetryTransferCallable() {
+                // Range of segment to repeat on failure
+                final long skip = segment.getOffset();
+                final long length = segment.getLength();
+                final Future<TransferStatus> future = this.submit(new RetryTransferCallable() {
                     @Override
                     public TransferStatus call() throws BackgroundException {
                         if(status.isCanceled()) {
@@ -385,12 +688,20 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         // Transfer
                         // Do transfer with retry
                         this.retry(segment);
-                        // Recursive
-                        if(item.remote.isDirectory()) {
+                        // Recursive unless contained files are handed over from listing
+                        if(item.remote.isDirectory() && null == pipeline) {
                             if(!cache.isCached(item)) {
                                 log.warn(String.format("Missing entry for %s in cache", item));
                             }
-                            for(TransferItem f : cache.get(item)) {
+                            final AttributedList<TransferItem> children;
+                            if(cache instanceof TransferItemCache) {
+                                // Do not silently skip contained files on failure reading listing from disk
+                                children = ((TransferItemCache) cache).read(item);
+                            }
+                            else {
+                                children = cache.get(item);
+                            }
+                            for(TransferItem f : children) {
                                 // Recursive
                                 transfer(f, action);
                             }
@@ -436,6 +747,16 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             release(d, Connection.destination, e);
                             log.warn(String.format("Failure transferring %s. %s", item, e.getDetail()));
                             if(this.retry(e, progress, new TransferBackgroundActionState(status))) {
+                                if(segment.isSegment() && segment.isInplace()) {
+                                    // Transfer status of file describes all segments. Bytes counted in progress may not
+                                    // have been acknowledged by the server. Rewrite the whole range of the segment
+                                    log.info(String.format("Retry segment %s of %s", segment, item));
+                                    transfer.addTransferred(skip - segment.getOffset());
+                                    this.retry(segment
+                                        .length(length)
+                                        .skip(skip));
+                                    return;
+                                }
                                 final Session<?> source = borrow(Connection.source);
                                 final Session<?> destination = borrow(Connection.destination);
                                 try {
@@ -491,8 +812,12 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         return sb.toString();
                     }
                 });
+                submitted.add(future);
+                if(pipeline != null && item.remote.isDirectory()) {
+                    directories.put(item, future);
+                }
             }
-            return this.submit(new TransferCallable() {
+            final Future<TransferStatus> future = this.submit(new TransferCallable() {
                 @Override
                 public TransferStatus call() throws BackgroundException {
                     if(status.isCanceled()) {
@@ -541,6 +866,8 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                     return sb.toString();
                 }
             });
+            submitted.add(future);
+            return future;
         }
         else {
             log.warn(String.format("Skip file %s with unknown transfer status", item));
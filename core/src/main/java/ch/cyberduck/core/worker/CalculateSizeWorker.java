@@ -19,17 +19,23 @@ package ch.cyberduck.core.worker;
  * dkocher@cyberduck.ch
  */
 
-import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.LocaleFactory;
+import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.threading.BackgroundActionState;
 
 import java.text.MessageFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 public abstract class CalculateSizeWorker extends Worker<Long> {
 
@@ -40,17 +46,53 @@ public abstract class CalculateSizeWorker extends Worker<Long> {
 
     private final ProgressListener listener;
 
+    /**
+     * Pool to borrow additional connections from to list directories concurrently or null to list with the session
+     * of the worker only
+     */
+    private final SessionPool pool;
+
     public CalculateSizeWorker(final List<Path> files, final ProgressListener listener) {
+        this(files, listener, null);
+    }
+
+    public CalculateSizeWorker(final List<Path> files, final ProgressListener listener, final SessionPool pool) {
         this.files = files;
         this.listener = listener;
+        this.pool = pool;
     }
 
     private Long total = 0L;
 
     @Override
     public Long run(final Session<?> session) throws BackgroundException {
+        final BackgroundActionState state = new BackgroundActionState() {
+            @Override
+            public boolean isCanceled() {
+                return CalculateSizeWorker.this.isCanceled();
+            }
+
+            @Override
+            public boolean isRunning() {
+                return true;
+            }
+        };
+        final ConcurrentTreeWalker walker = null == pool ?
+            new ConcurrentTreeWalker(new SessionPool.SingleSessionPool(session), state, 1) :
+            new ConcurrentTreeWalker(pool, state);
+        final Map<Path, AttributedList<Path>> listings = walker.walk(files, new Filter<Path>() {
+            @Override
+            public boolean accept(final Path file) {
+                return file.isDirectory();
+            }
+
+            @Override
+            public Pattern toPattern() {
+                return Pattern.compile(".*");
+            }
+        }, new NullFilter<>(), new WorkerListProgressListener(this, listener));
         for(Path next : files) {
-            next.attributes().setSize(this.calculateSize(session, next));
+            next.attributes().setSize(this.calculateSize(listings, next));
         }
         return total;
     }
@@ -59,10 +101,11 @@ public abstract class CalculateSizeWorker extends Worker<Long> {
      * Calculates recursively the size of this path if a directory
      * Potentially lengthy operation
      *
-     * @param p Directory or file
+     * @param listings Directory listings
+     * @param p        Directory or file
      * @return The size of the file or the sum of all containing files if a directory
      */
-    private long calculateSize(final Session<?> session, final Path p) throws BackgroundException {
+    private long calculateSize(final Map<Path, AttributedList<Path>> listings, final Path p) throws BackgroundException {
         long size = 0;
         if(this.isCanceled()) {
             throw new ConnectionCanceledException();
@@ -70,8 +113,10 @@ public abstract class CalculateSizeWorker extends Worker<Long> {
         listener.message(MessageFormat.format(LocaleFactory.localizedString("Getting size of {0}", "Status"),
                 p.getName()));
         if(p.isDirectory()) {
-            for(Path next : session.getFeature(ListService.class).list(p, new WorkerListProgressListener(this, listener))) {
-                size += this.calculateSize(session, next);
+            if(listings.containsKey(p)) {
+                for(Path next : listings.get(p)) {
+                    size += this.calculateSize(listings, next);
+                }
             }
         }
         else if(p.isFile()) {
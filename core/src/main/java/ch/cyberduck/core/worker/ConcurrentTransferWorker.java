@@ -58,6 +58,7 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     // Keep number of submited tasks
     private final AtomicInteger size = new AtomicInteger();
     private final ThreadPool pool;
+    private final boolean pipeline;
 
     public ConcurrentTransferWorker(final SessionPool source,
                                     final SessionPool destination,
@@ -94,6 +95,14 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
             transfer.getTransferType() == Host.TransferType.newconnection ? 1 : PreferencesFactory.get().getInteger("queue.connections.limit"), priority);
         this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor());
+        // Listing requires a connection in addition to transfers
+        this.pipeline = PreferencesFactory.get().getBoolean("queue.transfer.pipeline")
+            && transfer.getTransferType() != Host.TransferType.newconnection;
+    }
+
+    @Override
+    protected boolean isPipelined() {
+        return pipeline;
     }
 
     @Override
@@ -151,7 +160,12 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
 
     @Override
     public void await() throws BackgroundException {
-        while(size.get() > 0) {
+        this.await(0);
+    }
+
+    @Override
+    public void await(final int pending) throws BackgroundException {
+        while(size.get() > pending) {
             // Repeat until no new entries in queue found
             try {
                 if(log.isInfoEnabled()) {
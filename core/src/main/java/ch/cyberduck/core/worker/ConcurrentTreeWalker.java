@@ -0,0 +1,272 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.InteroperabilityException;
+import ch.cyberduck.core.features.RecursiveList;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.ForkJoinThreadPool;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * List directory trees with up to a given number of concurrent connections borrowed from the session pool. Listings
+ * of subdirectories are forked as separate tasks and picked up by idle threads of a work stealing pool. Results are
+ * collected in the order a sequential depth first traversal would list directories regardless of completion order.
+ * Trees are listed with a single request instead if supported by the session.
+ */
+public class ConcurrentTreeWalker {
+    private static final Logger log = Logger.getLogger(ConcurrentTreeWalker.class);
+
+    private final SessionPool pool;
+    private final BackgroundActionState state;
+    /**
+     * Maximum number of concurrent directory listings
+     */
+    private final int width;
+    /**
+     * Bound concurrent listings as the pool may add threads to compensate for blocked joins
+     */
+    private final Semaphore permits;
+
+    /**
+     * Attempt to list directory tree with a single request
+     */
+    private boolean recursive
+        = PreferencesFactory.get().getBoolean("browser.list.recursive");
+
+    public ConcurrentTreeWalker(final SessionPool pool, final BackgroundActionState state) {
+        this(pool, state, PreferencesFactory.get().getInteger("browser.list.concurrency"));
+    }
+
+    public ConcurrentTreeWalker(final SessionPool pool, final BackgroundActionState state, final int width) {
+        this.pool = pool;
+        this.state = state;
+        this.width = Math.max(1, width);
+        this.permits = new Semaphore(this.width);
+    }
+
+    /**
+     * @param roots    Files and directories to start from
+     * @param descend  Directories to list
+     * @param filter   Filter applied to directory listings
+     * @param listener Notified for every listing
+     * @return Filtered directory listings of all directories matching the descend filter in depth first order
+     */
+    public Map<Path, AttributedList<Path>> walk(final List<Path> roots, final Filter<Path> descend, final Filter<Path> filter,
+                                                final ListProgressListener listener) throws BackgroundException {
+        final Map<Path, AttributedList<Path>> result = new LinkedHashMap<>();
+        final ForkJoinThreadPool executor = new ForkJoinThreadPool("walk", width);
+        try {
+            for(Path root : roots) {
+                if(state.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                if(!descend.accept(root)) {
+                    continue;
+                }
+                if(recursive) {
+                    final Map<Path, AttributedList<Path>> tree = this.tree(root, listener);
+                    if(tree != null) {
+                        this.collect(root, tree, descend, filter, result);
+                        continue;
+                    }
+                }
+                final Node node = executor.invoke(new ListTask(root, descend, filter, listener));
+                node.collect(result);
+            }
+        }
+        finally {
+            executor.shutdown(false);
+        }
+        return result;
+    }
+
+    public ConcurrentTreeWalker withRecursive(final boolean recursive) {
+        this.recursive = recursive;
+        return this;
+    }
+
+    /**
+     * @return Listings of all directories in tree or null if not supported by session
+     */
+    private Map<Path, AttributedList<Path>> tree(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final Session<?> session = pool.borrow(state);
+        BackgroundException failure = null;
+        try {
+            final RecursiveList feature = session.getFeature(RecursiveList.class);
+            if(null == feature) {
+                recursive = false;
+                return null;
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("List tree %s with %s", directory, session));
+            }
+            return feature.tree(directory, listener);
+        }
+        catch(AccessDeniedException | InteroperabilityException e) {
+            log.warn(String.format("Failure listing tree %s. Fallback to listing directories. %s", directory, e.getDetail()));
+            recursive = false;
+            return null;
+        }
+        catch(BackgroundException e) {
+            failure = e;
+            throw e;
+        }
+        finally {
+            pool.release(session, failure);
+        }
+    }
+
+    /**
+     * Add filtered listings of directories matching the descend filter in depth first order
+     */
+    private void collect(final Path root, final Map<Path, AttributedList<Path>> tree, final Filter<Path> descend,
+                         final Filter<Path> filter, final Map<Path, AttributedList<Path>> result) {
+        final Deque<Path> stack = new ArrayDeque<>();
+        stack.push(root);
+        while(!stack.isEmpty()) {
+            final Path directory = stack.pop();
+            final AttributedList<Path> children = tree.containsKey(directory) ? tree.get(directory).filter(filter) : new AttributedList<>();
+            result.put(directory, children);
+            // Push in reverse order to visit subdirectories in order of listing
+            final List<Path> subdirectories = new ArrayList<>();
+            for(Path child : children) {
+                if(descend.accept(child)) {
+                    subdirectories.add(child);
+                }
+            }
+            for(int i = subdirectories.size() - 1; i >= 0; i--) {
+                stack.push(subdirectories.get(i));
+            }
+        }
+    }
+
+    private AttributedList<Path> list(final Path directory, final Filter<Path> filter, final ListProgressListener listener) throws BackgroundException {
+        try {
+            permits.acquire();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        final Session<?> session;
+        try {
+            session = pool.borrow(state);
+        }
+        catch(BackgroundException e) {
+            permits.release();
+            throw e;
+        }
+        BackgroundException failure = null;
+        try {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("List %s with %s", directory, session));
+            }
+            return session.getFeature(ListService.class).list(directory, listener).filter(filter);
+        }
+        catch(BackgroundException e) {
+            failure = e;
+            throw e;
+        }
+        finally {
+            pool.release(session, failure);
+            permits.release();
+        }
+    }
+
+    private final class ListTask extends RecursiveTask<Node> {
+        private final Path directory;
+        private final Filter<Path> descend;
+        private final Filter<Path> filter;
+        private final ListProgressListener listener;
+
+        public ListTask(final Path directory, final Filter<Path> descend, final Filter<Path> filter,
+                        final ListProgressListener listener) {
+            this.directory = directory;
+            this.descend = descend;
+            this.filter = filter;
+            this.listener = listener;
+        }
+
+        @Override
+        protected Node compute() {
+            final AttributedList<Path> children;
+            try {
+                if(state.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                children = list(directory, filter, listener);
+            }
+            catch(BackgroundException e) {
+                throw new ForkJoinThreadPool.Failure(e);
+            }
+            final List<ListTask> tasks = new ArrayList<>();
+            for(Path child : children) {
+                if(descend.accept(child)) {
+                    final ListTask task = new ListTask(child, descend, filter, listener);
+                    task.fork();
+                    tasks.add(task);
+                }
+            }
+            // Join in reverse order of forking to run tasks not stolen by other threads in place
+            final Node[] nodes = new Node[tasks.size()];
+            for(int i = tasks.size() - 1; i >= 0; i--) {
+                nodes[i] = tasks.get(i).join();
+            }
+            return new Node(directory, children, Arrays.asList(nodes));
+        }
+    }
+
+    private static final class Node {
+        private final Path directory;
+        private final AttributedList<Path> children;
+        private final List<Node> nodes;
+
+        public Node(final Path directory, final AttributedList<Path> children, final List<Node> nodes) {
+            this.directory = directory;
+            this.children = children;
+            this.nodes = nodes;
+        }
+
+        private void collect(final Map<Path, AttributedList<Path>> result) {
+            result.put(directory, children);
+            for(Node node : nodes) {
+                node.collect(result);
+            }
+        }
+    }
+}
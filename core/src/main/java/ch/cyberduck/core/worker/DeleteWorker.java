@@ -18,11 +18,10 @@ package ch.cyberduck.core.worker;
  * dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.Host;
-import ch.cyberduck.core.ListProgressListener;
-import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.NullFilter;
@@ -32,6 +31,8 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.ui.browser.PathReloadFinder;
 
 import org.apache.log4j.Logger;
@@ -41,8 +42,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 public class DeleteWorker extends Worker<List<Path>> {
 
@@ -56,29 +59,56 @@ public class DeleteWorker extends Worker<List<Path>> {
     private final Cache<Path> cache;
     private final ProgressListener listener;
     private final Filter<Path> filter;
+    /**
+     * Pool to borrow additional connections from to list directories concurrently or null to list with the session
+     * of the worker only
+     */
+    private final SessionPool pool;
 
     public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final ProgressListener listener) {
         this(prompt, files, cache, new NullFilter<Path>(), listener);
     }
 
     public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener) {
+        this(prompt, files, cache, filter, listener, null);
+    }
+
+    public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener,
+                        final SessionPool pool) {
         this.files = files;
         this.prompt = prompt;
         this.cache = cache;
         this.listener = listener;
         this.filter = filter;
+        this.pool = pool;
     }
 
     @Override
     public List<Path> run(final Session<?> session) throws BackgroundException {
         final Delete delete = session.getFeature(Delete.class);
-        final ListService list = session.getFeature(ListService.class);
+        final Map<Path, AttributedList<Path>> listings;
+        if(delete.isRecursive()) {
+            listings = Collections.emptyMap();
+        }
+        else {
+            listings = this.walk(session).walk(files, new Filter<Path>() {
+                @Override
+                public boolean accept(final Path file) {
+                    return file.isDirectory() && !file.isSymbolicLink();
+                }
+
+                @Override
+                public Pattern toPattern() {
+                    return Pattern.compile(".*");
+                }
+            }, filter, new WorkerListProgressListener(this, listener));
+        }
         final List<Path> recursive = new ArrayList<Path>();
         for(Path file : files) {
             if(this.isCanceled()) {
                 throw new ConnectionCanceledException();
             }
-            recursive.addAll(this.compile(session.getHost(), delete, list, new WorkerListProgressListener(this, listener), file));
+            recursive.addAll(this.compile(session.getHost(), listings, file));
         }
         delete.delete(recursive, prompt, new Delete.Callback() {
             @Override
@@ -90,7 +120,28 @@ public class DeleteWorker extends Worker<List<Path>> {
         return recursive;
     }
 
-    protected Set<Path> compile(final Host host, final Delete delete, final ListService list, final ListProgressListener listener, final Path file) throws BackgroundException {
+    private ConcurrentTreeWalker walk(final Session<?> session) {
+        final BackgroundActionState state = new BackgroundActionState() {
+            @Override
+            public boolean isCanceled() {
+                return DeleteWorker.this.isCanceled();
+            }
+
+            @Override
+            public boolean isRunning() {
+                return true;
+            }
+        };
+        if(null == pool) {
+            return new ConcurrentTreeWalker(new SessionPool.SingleSessionPool(session), state, 1);
+        }
+        return new ConcurrentTreeWalker(pool, state);
+    }
+
+    /**
+     * @param listings Directory listings of directories not deleted recursively by the protocol
+     */
+    protected Set<Path> compile(final Host host, final Map<Path, AttributedList<Path>> listings, final Path file) throws BackgroundException {
         // Compile recursive list
         final Set<Path> recursive = new LinkedHashSet<>();
         if(file.isFile() || file.isSymbolicLink()) {
@@ -108,12 +159,12 @@ public class DeleteWorker extends Worker<List<Path>> {
             recursive.add(copy);
         }
         else if(file.isDirectory()) {
-            if(!delete.isRecursive()) {
-                for(Path child : list.list(file, listener).filter(filter)) {
+            if(listings.containsKey(file)) {
+                for(Path child : listings.get(file)) {
                     if(this.isCanceled()) {
                         throw new ConnectionCanceledException();
                     }
-                    recursive.addAll(this.compile(host, delete, list, listener, child));
+                    recursive.addAll(this.compile(host, listings, child));
                 }
             }
             // Add parent after children
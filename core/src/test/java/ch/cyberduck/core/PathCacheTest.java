@@ -2,6 +2,7 @@ package ch.cyberduck.core;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.EnumSet;
 
 import static org.junit.Assert.*;
@@ -23,6 +24,81 @@ public class PathCacheTest {
         assertNotNull(cache.lookup(new DefaultPathPredicate(file2)));
     }
 
+    @Test
+    public void testLookupIndex() {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final Path directory = new Path("/p", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(directory, "name", EnumSet.of(Path.Type.file));
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+        cache.put(directory, new AttributedList<>(Collections.singletonList(file)));
+        assertSame(file, cache.lookup(new DefaultPathPredicate(file)));
+        final Path replacement = new Path(directory, "name2", EnumSet.of(Path.Type.file));
+        cache.put(directory, new AttributedList<>(Collections.singletonList(replacement)));
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+        assertSame(replacement, cache.lookup(new DefaultPathPredicate(replacement)));
+        cache.remove(directory);
+        assertNull(cache.lookup(new DefaultPathPredicate(replacement)));
+        cache.put(directory, new AttributedList<>(Collections.singletonList(file)));
+        cache.clear();
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+    }
+
+    @Test
+    public void testLookupIndexModifiedInPlace() {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final Path directory = new Path("/p", EnumSet.of(Path.Type.directory));
+        final Path file1 = new Path(directory, "name1", EnumSet.of(Path.Type.file));
+        final AttributedList<Path> list = new AttributedList<>(Collections.singletonList(file1));
+        cache.put(directory, list);
+        // Chunk appended to cached listing
+        final Path file2 = new Path(directory, "name2", EnumSet.of(Path.Type.file));
+        list.add(file2);
+        cache.put(directory, list);
+        assertSame(file1, cache.lookup(new DefaultPathPredicate(file1)));
+        assertSame(file2, cache.lookup(new DefaultPathPredicate(file2)));
+        list.remove(file1);
+        assertNull(cache.lookup(new DefaultPathPredicate(file1)));
+        assertSame(file2, cache.lookup(new DefaultPathPredicate(file2)));
+        final Path file3 = new Path(directory, "name3", EnumSet.of(Path.Type.file));
+        list.set(0, file3);
+        assertNull(cache.lookup(new DefaultPathPredicate(file2)));
+        assertSame(file3, cache.lookup(new DefaultPathPredicate(file3)));
+        list.add(0, file1);
+        cache.put(directory, list);
+        assertSame(file1, cache.lookup(new DefaultPathPredicate(file1)));
+        assertSame(file3, cache.lookup(new DefaultPathPredicate(file3)));
+        cache.remove(directory);
+        assertNull(cache.lookup(new DefaultPathPredicate(file1)));
+        assertNull(cache.lookup(new DefaultPathPredicate(file3)));
+    }
+
+    @Test
+    public void testLookupAppendedAfterPut() {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final Path directory = new Path("/p", EnumSet.of(Path.Type.directory));
+        final Path file1 = new Path(directory, "name1", EnumSet.of(Path.Type.file));
+        final AttributedList<Path> list = new AttributedList<>(Collections.singletonList(file1));
+        cache.put(directory, list);
+        final Path file2 = new Path(directory, "name2", EnumSet.of(Path.Type.file));
+        assertNull(cache.lookup(new DefaultPathPredicate(file2)));
+        list.add(file2);
+        assertSame(file2, cache.lookup(new DefaultPathPredicate(file2)));
+        assertSame(file1, cache.lookup(new DefaultPathPredicate(file1)));
+    }
+
+    @Test
+    public void testLookupIndexEviction() {
+        final PathCache cache = new PathCache(1);
+        final Path directory1 = new Path("/p1", EnumSet.of(Path.Type.directory));
+        final Path file1 = new Path(directory1, "name", EnumSet.of(Path.Type.file));
+        cache.put(directory1, new AttributedList<>(Collections.singletonList(file1)));
+        final Path directory2 = new Path("/p2", EnumSet.of(Path.Type.directory));
+        final Path file2 = new Path(directory2, "name", EnumSet.of(Path.Type.file));
+        cache.put(directory2, new AttributedList<>(Collections.singletonList(file2)));
+        assertEquals(cache.isCached(directory1), null != cache.lookup(new DefaultPathPredicate(file1)));
+        assertEquals(cache.isCached(directory2), null != cache.lookup(new DefaultPathPredicate(file2)));
+    }
+
     @Test
     public void testIsEmpty() {
         final PathCache cache = new PathCache(1);
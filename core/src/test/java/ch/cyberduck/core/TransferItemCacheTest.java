@@ -0,0 +1,193 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.features.Encryption;
+import ch.cyberduck.core.local.DefaultLocalTouchFeature;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferItem;
+
+import org.junit.Test;
+
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class TransferItemCacheTest {
+
+    @Test
+    public void testSpill() throws Exception {
+        final Local folder = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferItemCache cache = new TransferItemCache(Integer.MAX_VALUE, 2L, folder);
+        final TransferItem a = new TransferItem(new Path("/a", EnumSet.of(Path.Type.directory)), new Local("/l/a"));
+        final TransferItem b = new TransferItem(new Path("/b", EnumSet.of(Path.Type.directory)), new Local("/l/b"));
+        final AttributedList<TransferItem> list = new AttributedList<>();
+        final Path file = new Path("/a/f", EnumSet.of(Path.Type.file));
+        file.attributes().setSize(3L);
+        file.attributes().setVersionId("v");
+        list.add(new TransferItem(file, new Local("/l/a/f")));
+        list.add(new TransferItem(new Path("/a/g", EnumSet.of(Path.Type.file))));
+        cache.put(a, list);
+        cache.put(b, new AttributedList<>(list));
+        // Listing for a written to disk
+        assertEquals(1L, cache.asMap().size());
+        assertTrue(folder.exists());
+        assertEquals(2L, cache.size());
+        assertTrue(cache.containsKey(a));
+        assertTrue(cache.isCached(b));
+        final AttributedList<TransferItem> loaded = cache.get(a);
+        assertEquals(list, loaded);
+        assertEquals(3L, loaded.get(0).remote.attributes().getSize());
+        assertEquals("v", loaded.get(0).remote.attributes().getVersionId());
+        assertEquals(new Local("/l/a/f"), loaded.get(0).local);
+        assertNull(loaded.get(1).local);
+        // Listing for b written to disk
+        assertEquals(1L, cache.asMap().size());
+        assertTrue(cache.asMap().containsKey(a));
+        assertEquals(list, cache.remove(b));
+        assertFalse(cache.containsKey(b));
+        assertEquals(1L, cache.size());
+        // File deleted with no listing left on disk
+        assertEquals(0, folder.list().size());
+        cache.clear();
+        assertTrue(cache.isEmpty());
+        assertEquals(0, folder.list().size());
+        folder.delete();
+    }
+
+    @Test
+    public void testLoadFailure() throws Exception {
+        final Local folder = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferItemCache cache = new TransferItemCache(Integer.MAX_VALUE, 0L, folder);
+        final TransferItem a = new TransferItem(new Path("/a", EnumSet.of(Path.Type.directory)), new Local("/l/a"));
+        final TransferItem b = new TransferItem(new Path("/b", EnumSet.of(Path.Type.directory)), new Local("/l/b"));
+        final AttributedList<TransferItem> list = new AttributedList<>();
+        list.add(new TransferItem(new Path("/a/f", EnumSet.of(Path.Type.file)), new Local("/l/a/f")));
+        cache.put(a, list);
+        cache.put(b, new AttributedList<>());
+        assertEquals(1, folder.list().size());
+        // Truncate file with listing for a
+        final RandomAccessFile file = new RandomAccessFile(folder.list().get(0).getAbsolute(), "rw");
+        file.setLength(0L);
+        file.close();
+        try {
+            cache.read(a);
+            fail();
+        }
+        catch(LocalAccessDeniedException e) {
+            //
+        }
+        assertTrue(cache.get(a).isEmpty());
+        // Listing not dropped
+        assertTrue(cache.containsKey(a));
+        assertTrue(cache.isCached(a));
+        cache.clear();
+        folder.delete();
+    }
+
+    @Test
+    public void testPurge() throws Exception {
+        final Local folder = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferItemCache cache = new TransferItemCache(Integer.MAX_VALUE, 0L, folder);
+        cache.put(new TransferItem(new Path("/a", EnumSet.of(Path.Type.directory))),
+            new AttributedList<>(Collections.singletonList(new TransferItem(new Path("/a/f", EnumSet.of(Path.Type.file))))));
+        cache.put(new TransferItem(new Path("/b", EnumSet.of(Path.Type.directory))), new AttributedList<>());
+        assertEquals(1, folder.list().size());
+        // Left from cache not closed
+        final Local stale = new Local(folder, String.format("%s.cyberducktransfercache", UUID.randomUUID().toString()));
+        new DefaultLocalTouchFeature().touch(stale);
+        assertEquals(2, folder.list().size());
+        new TransferItemCache(Integer.MAX_VALUE, 0L, folder);
+        assertFalse(stale.exists());
+        // File of cache in use kept
+        assertEquals(1, folder.list().size());
+        cache.clear();
+        folder.delete();
+    }
+
+    @Test
+    public void testSpillAttributes() throws Exception {
+        final Local folder = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferItemCache cache = new TransferItemCache(Integer.MAX_VALUE, 0L, folder);
+        final TransferItem a = new TransferItem(new Path("/a", EnumSet.of(Path.Type.directory)), new Local("/l/a"));
+        final TransferItem b = new TransferItem(new Path("/b", EnumSet.of(Path.Type.directory)), new Local("/l/b"));
+        final Path file = new Path("/a/f", EnumSet.of(Path.Type.file));
+        file.attributes().setETag("e");
+        file.attributes().setEncryption(new Encryption.Algorithm("aws:kms", "k"));
+        file.attributes().setMetadata(Collections.singletonMap("Content-Type", "text/plain"));
+        file.attributes().setCustom(Collections.singletonMap("KEY_ENCRYPTED", "{}"));
+        file.attributes().setDirectoryId("d");
+        file.attributes().setOwner("o");
+        file.attributes().setGroup("g");
+        file.attributes().setCreationDate(1L);
+        file.attributes().setAccessedDate(2L);
+        final Path encrypted = new Path("/a/d/AA/BBBB/f.c9r", EnumSet.of(Path.Type.file, Path.Type.encrypted));
+        encrypted.attributes().setVersionId("ve");
+        encrypted.attributes().setDecrypted(file);
+        file.attributes().setEncrypted(encrypted);
+        final Path raw = new Path("/a/d/AA/BBBB/g.c9r", EnumSet.of(Path.Type.file, Path.Type.encrypted));
+        final Path decrypted = new Path("/a/g", EnumSet.of(Path.Type.file, Path.Type.decrypted));
+        decrypted.attributes().setSize(3L);
+        raw.attributes().setDecrypted(decrypted);
+        final AttributedList<TransferItem> list = new AttributedList<>();
+        list.add(new TransferItem(file, new Local("/l/a/f")));
+        list.add(new TransferItem(raw, new Local("/l/a/g")));
+        cache.put(a, list);
+        cache.put(b, new AttributedList<>());
+        // Listing for a written to disk
+        assertFalse(cache.asMap().containsKey(a));
+        // Found by loading listing from disk
+        final CacheReference reference = cache.reference(new TransferItem(file));
+        final TransferItem found = cache.lookup(reference);
+        assertNotNull(found);
+        assertTrue(cache.asMap().containsKey(a));
+        final PathAttributes attributes = found.remote.attributes();
+        assertEquals("e", attributes.getETag());
+        assertEquals(new Encryption.Algorithm("aws:kms", "k"), attributes.getEncryption());
+        assertEquals(Collections.singletonMap("Content-Type", "text/plain"), attributes.getMetadata());
+        assertEquals(Collections.singletonMap("KEY_ENCRYPTED", "{}"), attributes.getCustom());
+        assertEquals("d", attributes.getDirectoryId());
+        assertEquals("o", attributes.getOwner());
+        assertEquals("g", attributes.getGroup());
+        assertEquals(1L, attributes.getCreationDate());
+        assertEquals(2L, attributes.getAccessedDate());
+        assertEquals(encrypted, attributes.getEncrypted());
+        assertEquals("ve", attributes.getEncrypted().attributes().getVersionId());
+        // Reference back to file not serialized
+        assertNull(attributes.getEncrypted().attributes().getDecrypted());
+        final CacheReference other = cache.reference(new TransferItem(raw));
+        final PathAttributes references = cache.lookup(other).remote.attributes();
+        assertEquals(decrypted, references.getDecrypted());
+        assertEquals(3L, references.getDecrypted().attributes().getSize());
+        cache.clear();
+        folder.delete();
+    }
+
+    @Test
+    public void testNoSpill() {
+        final TransferItemCache cache = new TransferItemCache(Integer.MAX_VALUE);
+        final AttributedList<TransferItem> list = new AttributedList<>();
+        list.add(new TransferItem(new Path("/a/f", EnumSet.of(Path.Type.file))));
+        cache.put(null, list);
+        cache.put(new TransferItem(new Path("/a", EnumSet.of(Path.Type.directory))), list);
+        assertEquals(2L, cache.asMap().size());
+        assertSame(list, cache.get(null));
+    }
+}
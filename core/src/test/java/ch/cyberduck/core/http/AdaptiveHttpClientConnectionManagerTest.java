@@ -0,0 +1,100 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdaptiveHttpClientConnectionManagerTest {
+
+    @Test
+    public void testGrowAndShrink() throws Exception {
+        final AdaptiveHttpClientConnectionManager manager = new AdaptiveHttpClientConnectionManager(
+            RegistryBuilder.<ConnectionSocketFactory>create().register("http", PlainConnectionSocketFactory.getSocketFactory()).build(),
+            2, 4, 1000L, 30L);
+        final HttpRoute route = new HttpRoute(new HttpHost("localhost", 80));
+        final List<HttpClientConnection> connections = new ArrayList<>();
+        for(int i = 0; i < 6; i++) {
+            final ConnectionRequest request = manager.requestConnection(route, null);
+            if(i < 4) {
+                connections.add(request.get(1L, TimeUnit.SECONDS));
+            }
+            else {
+                request.cancel();
+            }
+        }
+        assertEquals(4, manager.getMaxPerRoute(route));
+        assertEquals(4, manager.getStats(route).getLeased());
+        assertEquals(4L, manager.getLeaseCount());
+        for(HttpClientConnection connection : connections) {
+            manager.releaseConnection(connection, null, 0L, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(manager.getAverageLeaseWaitTime(route, TimeUnit.NANOSECONDS) > 0L);
+        manager.evict();
+        assertEquals(2, manager.getMaxPerRoute(route));
+        // Lease wait time of route without connections removed
+        assertEquals(0L, manager.getAverageLeaseWaitTime(route, TimeUnit.NANOSECONDS));
+        manager.shutdown();
+    }
+
+    @Test
+    public void testKeepMinimum() throws Exception {
+        final AdaptiveHttpClientConnectionManager manager = new AdaptiveHttpClientConnectionManager(
+            RegistryBuilder.<ConnectionSocketFactory>create().register("http", PlainConnectionSocketFactory.getSocketFactory()).build(),
+            2, 4, 1000L, 30L);
+        final HttpRoute route = new HttpRoute(new HttpHost("localhost", 80));
+        final HttpClientConnection connection = manager.requestConnection(route, null).get(1L, TimeUnit.SECONDS);
+        assertEquals(2, manager.getMaxPerRoute(route));
+        manager.releaseConnection(connection, null, 0L, TimeUnit.MILLISECONDS);
+        manager.evict();
+        assertEquals(2, manager.getMaxPerRoute(route));
+        manager.shutdown();
+    }
+
+    @Test
+    public void testTimeoutNotCounted() throws Exception {
+        final AdaptiveHttpClientConnectionManager manager = new AdaptiveHttpClientConnectionManager(
+            RegistryBuilder.<ConnectionSocketFactory>create().register("http", PlainConnectionSocketFactory.getSocketFactory()).build(),
+            1, 1, 1000L, 30L);
+        final HttpRoute route = new HttpRoute(new HttpHost("localhost", 80));
+        final HttpClientConnection connection = manager.requestConnection(route, null).get(1L, TimeUnit.SECONDS);
+        try {
+            manager.requestConnection(route, null).get(10L, TimeUnit.MILLISECONDS);
+            fail();
+        }
+        catch(ConnectionPoolTimeoutException e) {
+            //
+        }
+        assertEquals(1L, manager.getLeaseCount());
+        manager.releaseConnection(connection, null, 0L, TimeUnit.MILLISECONDS);
+        manager.shutdown();
+    }
+}
@@ -0,0 +1,64 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveChunksizeTest {
+
+    @Test
+    public void testGrowFastFullReads() {
+        final AdaptiveChunksize size = new AdaptiveChunksize(32768, 8192, 65536);
+        for(int i = 0; i < 3; i++) {
+            assertEquals(32768, size.update(32768, 32768, 1L));
+        }
+        assertEquals(65536, size.update(32768, 32768, 1L));
+        for(int i = 0; i < 8; i++) {
+            size.update(65536, 65536, 1L);
+        }
+        assertEquals(65536, size.get());
+    }
+
+    @Test
+    public void testShrinkSlowReads() {
+        final AdaptiveChunksize size = new AdaptiveChunksize(32768, 8192, 65536);
+        assertEquals(16384, size.update(32768, 32768, TimeUnit.SECONDS.toNanos(1L)));
+        assertEquals(8192, size.update(16384, 16384, TimeUnit.SECONDS.toNanos(1L)));
+        assertEquals(8192, size.update(8192, 8192, TimeUnit.SECONDS.toNanos(1L)));
+    }
+
+    @Test
+    public void testShrinkShortReads() {
+        final AdaptiveChunksize size = new AdaptiveChunksize(32768, 8192, 65536);
+        for(int i = 0; i < 3; i++) {
+            assertEquals(32768, size.update(32768, 1024, 1L));
+        }
+        assertEquals(16384, size.update(32768, 1024, 1L));
+    }
+
+    @Test
+    public void testFixed() {
+        final AdaptiveChunksize size = new AdaptiveChunksize(32768, 32768, 32768);
+        for(int i = 0; i < 8; i++) {
+            assertEquals(32768, size.update(32768, 32768, 1L));
+        }
+        assertEquals(32768, size.update(32768, 32768, TimeUnit.SECONDS.toNanos(1L)));
+    }
+}
@@ -0,0 +1,107 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testAcquireRoundUp() {
+        final BufferPool pool = new BufferPool(1);
+        assertEquals(1, pool.acquire(0).length);
+        assertEquals(32768, pool.acquire(32768).length);
+        assertEquals(65536, pool.acquire(32769).length);
+    }
+
+    @Test
+    public void testReuse() {
+        final BufferPool pool = new BufferPool(1);
+        final byte[] buffer = pool.acquire(32768);
+        pool.release(buffer);
+        assertSame(buffer, pool.acquire(32768));
+        assertNotSame(buffer, pool.acquire(32768));
+    }
+
+    @Test
+    public void testCapacity() {
+        final BufferPool pool = new BufferPool(1);
+        final byte[] first = pool.acquire(1024);
+        final byte[] second = pool.acquire(1024);
+        pool.release(first);
+        pool.release(second);
+        assertSame(first, pool.acquire(1024));
+        assertNotSame(second, pool.acquire(1024));
+    }
+
+    @Test
+    public void testReleaseForeign() {
+        final BufferPool pool = new BufferPool(1);
+        pool.release(new byte[1000]);
+        assertEquals(1024, pool.acquire(1000).length);
+    }
+
+    @Test
+    public void testReleaseForeignPowerOfTwo() {
+        final BufferPool pool = new BufferPool(1);
+        final byte[] foreign = new byte[1024];
+        pool.release(foreign);
+        assertNotSame(foreign, pool.acquire(1024));
+    }
+
+    @Test
+    public void testReleaseTwice() {
+        final BufferPool pool = new BufferPool(2);
+        final byte[] buffer = pool.acquire(1024);
+        pool.release(buffer);
+        pool.release(buffer);
+        assertSame(buffer, pool.acquire(1024));
+        // Not handed out twice
+        assertNotSame(buffer, pool.acquire(1024));
+    }
+
+    @Test
+    public void testHitRate() {
+        final BufferPool pool = new BufferPool(1);
+        assertEquals(0d, pool.getHitRate(), 0d);
+        pool.release(pool.acquire(1024));
+        pool.release(pool.acquire(1024));
+        assertEquals(1L, pool.getHits());
+        assertEquals(1L, pool.getMisses());
+        assertEquals(0.5d, pool.getHitRate(), 0d);
+    }
+
+    @Test
+    public void testTrackOutstanding() {
+        final Logger logger = Logger.getLogger(BufferPool.class);
+        final Level level = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        try {
+            final BufferPool pool = new BufferPool(1);
+            final byte[] buffer = pool.acquire(1024);
+            assertEquals(1, pool.getOutstanding());
+            pool.release(buffer);
+            assertEquals(0, pool.getOutstanding());
+        }
+        finally {
+            logger.setLevel(level);
+        }
+    }
+}
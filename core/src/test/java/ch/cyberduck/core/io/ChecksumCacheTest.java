@@ -0,0 +1,95 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ChecksumCacheTest {
+
+    @Test
+    public void testCompute() throws Exception {
+        final Local store = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final Local file = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        this.write(file, "input");
+        final AtomicInteger count = new AtomicInteger();
+        final SHA256ChecksumCompute delegate = new SHA256ChecksumCompute();
+        final ChecksumCompute compute = new AbstractChecksumCompute(new ChecksumCache(store, 10)) {
+            @Override
+            protected HashAlgorithm algorithm() {
+                return HashAlgorithm.sha256;
+            }
+
+            @Override
+            public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
+                count.incrementAndGet();
+                return delegate.compute(in, status);
+            }
+        };
+        final Checksum expected = new Checksum(HashAlgorithm.sha256, "c96c6d5be8d08a12e7b5cdc1b207fa6b2430974c86803d8891675e76fd992c20");
+        assertEquals(expected, compute.compute(file, new TransferStatus()));
+        assertEquals(expected, compute.compute(file, new TransferStatus().length(5L)));
+        assertEquals(1, count.get());
+        // Segment of file
+        compute.compute(file, new TransferStatus().skip(1L));
+        assertEquals(2, count.get());
+        // Read from journal
+        assertEquals(expected, new ChecksumCache(store, 10).get(ChecksumCache.Fingerprint.of(file), HashAlgorithm.sha256));
+        assertEquals(Checksum.NONE, new ChecksumCache(store, 10).get(ChecksumCache.Fingerprint.of(file), HashAlgorithm.md5));
+        this.write(file, "inputs");
+        assertNotEquals(expected, compute.compute(file, new TransferStatus()));
+        assertEquals(3, count.get());
+        assertEquals(Checksum.NONE, new ChecksumCache(store, 10).get(null, HashAlgorithm.sha256));
+        file.delete();
+        store.delete();
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        final Local store = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final ChecksumCache cache = new ChecksumCache(store, 2);
+        for(int i = 0; i < 10; i++) {
+            cache.put(new ChecksumCache.Fingerprint(String.format("/f%d", i % 3), 1L, i, "k"), new Checksum(HashAlgorithm.md5, String.valueOf(i)));
+        }
+        final ChecksumCache reloaded = new ChecksumCache(store, 2);
+        assertEquals(new Checksum(HashAlgorithm.md5, "9"), reloaded.get(new ChecksumCache.Fingerprint("/f0", 1L, 9L, "k"), HashAlgorithm.md5));
+        assertEquals(new Checksum(HashAlgorithm.md5, "8"), reloaded.get(new ChecksumCache.Fingerprint("/f2", 1L, 8L, "k"), HashAlgorithm.md5));
+        // Evicted
+        assertEquals(Checksum.NONE, reloaded.get(new ChecksumCache.Fingerprint("/f1", 1L, 7L, "k"), HashAlgorithm.md5));
+        assertTrue(IOUtils.readLines(store.getInputStream(), StandardCharsets.UTF_8).size() <= 4);
+        reloaded.clear();
+        assertFalse(store.exists());
+    }
+
+    private void write(final Local file, final String content) throws Exception {
+        try (OutputStream out = file.getOutputStream(false)) {
+            IOUtils.write(content, out, StandardCharsets.UTF_8);
+        }
+    }
+}
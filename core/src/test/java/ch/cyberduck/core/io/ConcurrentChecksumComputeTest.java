@@ -0,0 +1,97 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ForkJoinThreadPool;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConcurrentChecksumComputeTest {
+
+    @Test
+    public void testCompute() throws Exception {
+        final Local file = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(1000 * 7 + 1);
+        try (OutputStream out = file.getOutputStream(false)) {
+            IOUtils.write(content, out);
+        }
+        final List<TransferStatus> segments = new ArrayList<>();
+        for(long offset = 0; offset < content.length; offset += 1000) {
+            segments.add(new TransferStatus().skip(offset).length(Math.min(1000L, content.length - offset)));
+        }
+        final List<Checksum> checksums = new ConcurrentChecksumCompute(new SHA1ChecksumCompute(), 3).compute(file, segments);
+        assertEquals(8, checksums.size());
+        for(int i = 0; i < segments.size(); i++) {
+            assertEquals(new SHA1ChecksumCompute().compute(new ByteArrayInputStream(content), segments.get(i)), checksums.get(i));
+        }
+        file.delete();
+    }
+
+    @Test
+    public void testSubmit() throws Exception {
+        final List<TransferStatus> segments = new ArrayList<>();
+        for(int i = 0; i < 4; i++) {
+            segments.add(new TransferStatus().skip(i).length(1L));
+        }
+        final List<Future<Checksum>> futures = new ConcurrentChecksumCompute(new SHA1ChecksumCompute(), 2).submit(
+            new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString()) {
+                @Override
+                public InputStream getInputStream() {
+                    return new ByteArrayInputStream(new byte[]{0, 1, 2, 3});
+                }
+            }, segments);
+        assertEquals(4, futures.size());
+        for(int i = 0; i < segments.size(); i++) {
+            assertEquals(new SHA1ChecksumCompute().compute(new ByteArrayInputStream(new byte[]{(byte) i}), new TransferStatus()),
+                ForkJoinThreadPool.get(futures.get(i)));
+        }
+    }
+
+    @Test(expected = ChecksumException.class)
+    public void testFailure() throws Exception {
+        final List<TransferStatus> segments = new ArrayList<>();
+        for(int i = 0; i < 4; i++) {
+            segments.add(new TransferStatus().skip(i).length(1L));
+        }
+        new ConcurrentChecksumCompute(new AbstractChecksumCompute(null) {
+            @Override
+            public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
+                throw new ChecksumException("f", "f");
+            }
+        }, 2).compute(new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString()) {
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(new byte[4]);
+            }
+        }, segments);
+    }
+}
@@ -19,6 +19,8 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 public class FileBufferTest {
@@ -73,6 +75,19 @@ public class FileBufferTest {
         assertEquals(100L, buffer.length(), 0L);
     }
 
+    @Test
+    public void testReadRange() throws Exception {
+        final FileBuffer buffer = new FileBuffer();
+        final byte[] chunk = RandomUtils.nextBytes(100);
+        buffer.write(chunk, 0L);
+        final byte[] read = new byte[64];
+        // Bounded to length requested
+        assertEquals(10, buffer.read(read, 4, 10, 50L));
+        assertArrayEquals(Arrays.copyOfRange(chunk, 50, 60), Arrays.copyOfRange(read, 4, 14));
+        assertEquals(0, read[14]);
+        buffer.close();
+    }
+
     @Test
     public void testSplit() throws Exception {
         final FileBuffer buffer = new FileBuffer();
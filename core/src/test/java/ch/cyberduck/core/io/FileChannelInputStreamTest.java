@@ -0,0 +1,50 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertEquals;
+
+public class FileChannelInputStreamTest {
+
+    @Test
+    public void testSkip() throws Exception {
+        final File file = File.createTempFile("source", null);
+        Files.write(file.toPath(), RandomUtils.nextBytes(10));
+        final FileChannelInputStream in = new FileChannelInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+        try {
+            assertEquals(0L, in.skip(0L));
+            assertEquals(4L, in.skip(4L));
+            assertEquals(4L, in.getChannel().position());
+            // Clamped to end of file
+            assertEquals(6L, in.skip(100L));
+            assertEquals(0L, in.skip(1L));
+            assertEquals(-1, in.read());
+        }
+        finally {
+            in.close();
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedChecksumComputeTest {
+
+    @Test
+    public void testCompute() throws Exception {
+        final Local file = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(1024 * 1024 + 3);
+        try (OutputStream out = file.getOutputStream(false)) {
+            IOUtils.write(content, out);
+        }
+        for(boolean map : new boolean[]{true, false}) {
+            final MappedChecksumCompute compute = new MappedChecksumCompute(map);
+            assertEquals(new SHA256ChecksumCompute().compute(new ByteArrayInputStream(content), new TransferStatus()),
+                compute.compute(file, HashAlgorithm.sha256, 0L, -1L));
+            assertEquals(new CRC32ChecksumCompute().compute(new ByteArrayInputStream(content), new TransferStatus()),
+                compute.compute(file, HashAlgorithm.crc32, 0L, -1L));
+            assertEquals(new SHA1ChecksumCompute().compute(new ByteArrayInputStream(content), new TransferStatus().skip(5L).length(1000L)),
+                compute.compute(file, HashAlgorithm.sha1, 5L, 1000L));
+        }
+        // Mapped read when exceeding threshold
+        assertEquals(new SHA512ChecksumCompute().compute(new ByteArrayInputStream(content), new TransferStatus()),
+            new AbstractChecksumCompute(null, 1L) {
+                @Override
+                protected HashAlgorithm algorithm() {
+                    return HashAlgorithm.sha512;
+                }
+
+                @Override
+                public Checksum compute(final InputStream in, final TransferStatus status) {
+                    throw new UnsupportedOperationException();
+                }
+            }.compute(file, new TransferStatus()));
+        file.delete();
+    }
+}
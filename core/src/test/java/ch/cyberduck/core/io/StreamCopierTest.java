@@ -7,14 +7,21 @@ import ch.cyberduck.core.transfer.TransferStatus;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.NullInputStream;
 import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
 import org.apache.commons.text.RandomStringGenerator;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.*;
 
@@ -35,7 +42,7 @@ public class StreamCopierTest {
     @Test
     public void testTransferUnknownLength() throws Exception {
         final TransferStatus status = new TransferStatus();
-        new StreamCopier(status, status).withListener(new StreamListener() {
+        new StreamCopier(status, status).withChunksize(32768).withListener(new StreamListener() {
             long sent;
             long received;
 
@@ -87,6 +94,21 @@ public class StreamCopierTest {
         assertEquals(5L, status.getOffset(), 0L);
     }
 
+    @Test
+    public void testTransferAdaptiveChunksize() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        final AtomicLong max = new AtomicLong();
+        new StreamCopier(status, status).withListener(new DisabledStreamListener() {
+            @Override
+            public void sent(final long bytes) {
+                max.set(Math.max(max.get(), bytes));
+            }
+        }).transfer(new NullInputStream(10485760L), new NullOutputStream());
+        assertTrue(status.isComplete());
+        assertEquals(10485760L, status.getOffset(), 0L);
+        assertTrue(max.get() > 32768L);
+    }
+
     @Test
     public void testTransferFixedLength() throws Exception {
         final TransferStatus status = new TransferStatus().length(432768L);
@@ -127,6 +149,27 @@ public class StreamCopierTest {
         }
     }
 
+    @Test
+    public void testTransferFileChannel() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(39865);
+        final File source = File.createTempFile("source", null);
+        final File target = File.createTempFile("target", null);
+        try {
+            Files.write(source.toPath(), content);
+            final TransferStatus status = new TransferStatus();
+            new StreamCopier(status, status).withOffset(10L).withLimit(20000L).transfer(
+                new FileChannelInputStream(FileChannel.open(source.toPath(), StandardOpenOption.READ)),
+                new FileChannelOutputStream(FileChannel.open(target.toPath(), StandardOpenOption.WRITE)));
+            assertEquals(20000L, status.getOffset(), 0L);
+            assertTrue(status.isComplete());
+            assertArrayEquals(Arrays.copyOfRange(content, 10, 20010), Files.readAllBytes(target.toPath()));
+        }
+        finally {
+            source.delete();
+            target.delete();
+        }
+    }
+
     @Test
     public void testTransferInterrupt() throws Exception {
         final TransferStatus status = new TransferStatus();
@@ -7,9 +7,11 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
+import java.io.OutputStream;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -201,6 +203,19 @@ public class LocalTest {
         l.delete();
     }
 
+    @Test
+    public void testOpenOutputStreamPosition() throws Exception {
+        Local l = new TestLocal(String.format("%s/%s", System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random()));
+        final OutputStream second = l.getOutputStream(3L);
+        second.write(new byte[]{4, 5, 6});
+        second.close();
+        final OutputStream first = l.getOutputStream(0L);
+        first.write(new byte[]{1, 2, 3});
+        first.close();
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6}, IOUtils.toByteArray(l.getInputStream()));
+        l.delete();
+    }
+
     @Test
     public void testNormalize() {
         assertEquals(StringUtils.removeEnd(System.getProperty("java.io.tmpdir"),
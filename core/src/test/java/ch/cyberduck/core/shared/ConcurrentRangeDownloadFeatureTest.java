@@ -0,0 +1,163 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.DisabledProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.transfer.download.DownloadFilterOptions;
+import ch.cyberduck.core.transfer.download.ResumeFilter;
+import ch.cyberduck.core.transfer.download.SegmentMap;
+import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentRangeDownloadFeatureTest {
+
+    @Test
+    public void testDownloadRanges() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(30 * 1024 * 1024 + 1);
+        final AtomicInteger requests = new AtomicInteger();
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final TransferStatus status = new TransferStatus().length(content.length);
+        new ConcurrentRangeDownloadFeature(new RangeReadFeature(content, requests, true)).download(
+            new Path("/f", EnumSet.of(Path.Type.file)), local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+            new DisabledStreamListener(), status, new DisabledConnectionCallback(), new DisabledPasswordCallback());
+        assertTrue(status.isComplete());
+        assertEquals(content.length, status.getOffset());
+        assertTrue(requests.get() > 1);
+        final InputStream in = local.getInputStream();
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        in.close();
+        local.delete();
+    }
+
+    @Test
+    public void testDownloadSingleRequest() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(30 * 1024 * 1024 + 1);
+        final AtomicInteger requests = new AtomicInteger();
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final TransferStatus status = new TransferStatus().length(content.length);
+        new ConcurrentRangeDownloadFeature(new RangeReadFeature(content, requests, false)).download(
+            new Path("/f", EnumSet.of(Path.Type.file)), local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+            new DisabledStreamListener(), status, new DisabledConnectionCallback(), new DisabledPasswordCallback());
+        assertTrue(status.isComplete());
+        assertEquals(1, requests.get());
+        final InputStream in = local.getInputStream();
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        in.close();
+        local.delete();
+    }
+
+    @Test
+    public void testResumeAfterFailedRange() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(30 * 1024 * 1024 + 1);
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        file.attributes().setSize(content.length);
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final TransferStatus status = new TransferStatus().length(content.length);
+        try {
+            new ConcurrentRangeDownloadFeature(new RangeReadFeature(content, new AtomicInteger(), true) {
+                @Override
+                public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+                    if(status.getOffset() > 0L && status.getOffset() + status.getLength() < content.length) {
+                        // Fail ranges in the middle of the file
+                        throw new NotfoundException(file.getAbsolute());
+                    }
+                    return super.read(file, status, callback);
+                }
+            }).withSegmentsFolder(folder).download(file, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+                new DisabledStreamListener(), status, new DisabledConnectionCallback(), new DisabledPasswordCallback());
+            fail();
+        }
+        catch(NotfoundException e) {
+            // Expected
+        }
+        assertFalse(status.isComplete());
+        final SegmentMap map = new SegmentMap(folder, local);
+        assertTrue(map.exists());
+        // No sidecar next to partial file
+        assertFalse(new Local(System.getProperty("java.io.tmpdir"), String.format("%s.cyberducksegments", local.getName())).exists());
+        final NullSession session = new NullSession(new Host(new TestProtocol()));
+        final ResumeFilter filter = new ResumeFilter(new DisabledDownloadSymlinkResolver(), session,
+            new DownloadFilterOptions(), new ConcurrentRangeDownloadFeature(new RangeReadFeature(content, new AtomicInteger(), true)).withSegmentsFolder(folder));
+        filter.withSegmentsFolder(folder);
+        // Not skipped regardless of size of partial file
+        assertTrue(filter.accept(file, local, new TransferStatus()));
+        final TransferStatus resume = filter.prepare(file, local, new TransferStatus(), new DisabledProgressListener());
+        // Discard partial file with holes
+        assertFalse(resume.isAppend());
+        assertEquals(0L, resume.getOffset());
+        assertEquals(content.length, resume.getLength());
+        assertFalse(map.exists());
+        local.delete();
+        folder.delete();
+    }
+
+    private static class RangeReadFeature implements Read {
+        private final byte[] content;
+        private final AtomicInteger requests;
+        private final boolean concurrent;
+
+        public RangeReadFeature(final byte[] content, final AtomicInteger requests, final boolean concurrent) {
+            this.content = content;
+            this.requests = requests;
+            this.concurrent = concurrent;
+        }
+
+        @Override
+        public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+            requests.incrementAndGet();
+            if(status.isAppend()) {
+                return new ByteArrayInputStream(content, (int) status.getOffset(), (int) status.getLength());
+            }
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public boolean offset(final Path file) {
+            return true;
+        }
+
+        @Override
+        public boolean concurrent(final Path file) {
+            return concurrent;
+        }
+    }
+}
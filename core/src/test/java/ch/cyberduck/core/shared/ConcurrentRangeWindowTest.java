@@ -0,0 +1,80 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConcurrentRangeWindowTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @Test
+    public void testConcurrencyFromLength() {
+        assertEquals(4, new ConcurrentRangeWindow(100 * MB, 4 * MB, 4, 10).concurrency());
+        assertEquals(3, new ConcurrentRangeWindow(10 * MB, 4 * MB, 4, 10).concurrency());
+        assertEquals(2, new ConcurrentRangeWindow(100 * MB, 4 * MB, 4, 2).concurrency());
+        assertEquals(1, new ConcurrentRangeWindow(0L, 4 * MB, 4, 10).concurrency());
+    }
+
+    @Test
+    public void testGrowWhileThroughputIncreases() {
+        final ConcurrentRangeWindow window = new ConcurrentRangeWindow(1024 * MB, 4 * MB, 2, 4);
+        window.success(4 * MB, TimeUnit.MILLISECONDS.toNanos(500L));
+        assertEquals(8 * MB, window.size());
+        assertEquals(3, window.concurrency());
+        // Throughput per range kept with more concurrent requests
+        window.success(8 * MB, TimeUnit.SECONDS.toNanos(1L));
+        assertEquals(8 * MB, window.size());
+        assertEquals(4, window.concurrency());
+        window.success(8 * MB, TimeUnit.SECONDS.toNanos(1L));
+        assertEquals(4, window.concurrency());
+    }
+
+    @Test
+    public void testKeepConcurrencyWhenSaturated() {
+        final ConcurrentRangeWindow window = new ConcurrentRangeWindow(1024 * MB, 4 * MB, 2, 10);
+        window.success(4 * MB, TimeUnit.SECONDS.toNanos(2L));
+        assertEquals(3, window.concurrency());
+        // Latency grows with concurrency at same aggregate throughput
+        window.success(4 * MB, TimeUnit.SECONDS.toNanos(3L));
+        assertEquals(3, window.concurrency());
+        // Shorter last range ignored
+        window.success(MB, TimeUnit.MILLISECONDS.toNanos(1L));
+        assertEquals(3, window.concurrency());
+        assertEquals(4 * MB, window.size());
+    }
+
+    @Test
+    public void testShrinkOnLatencyAndFailure() {
+        final ConcurrentRangeWindow window = new ConcurrentRangeWindow(1024 * MB, 4 * MB, 4, 10);
+        window.success(4 * MB, TimeUnit.MILLISECONDS.toNanos(100L));
+        window.success(8 * MB, TimeUnit.SECONDS.toNanos(30L));
+        assertEquals(4 * MB, window.size());
+        // Not below initial size
+        window.success(4 * MB, TimeUnit.SECONDS.toNanos(30L));
+        assertEquals(4 * MB, window.size());
+        assertEquals(5, window.concurrency());
+        window.failure();
+        assertEquals(2, window.concurrency());
+        window.failure();
+        window.failure();
+        assertEquals(1, window.concurrency());
+    }
+}
@@ -0,0 +1,77 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.Local;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.*;
+
+public class SegmentMapTest {
+
+    @Test
+    public void testMark() throws Exception {
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final SegmentMap map = new SegmentMap(folder, local);
+        assertFalse(map.exists());
+        assertTrue(map.read(100L, 3).isEmpty());
+        map.create(100L, 3);
+        assertTrue(map.exists());
+        assertFalse(local.exists());
+        map.mark(1);
+        map.mark(3);
+        final BitSet completed = map.read(100L, 3);
+        assertTrue(completed.get(1));
+        assertFalse(completed.get(2));
+        assertTrue(completed.get(3));
+        map.delete();
+        assertFalse(map.exists());
+    }
+
+    @Test
+    public void testMarkBeyondFirstWord() throws Exception {
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final SegmentMap map = new SegmentMap(folder, new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random()));
+        map.create(1000L, 130);
+        map.mark(63);
+        map.mark(64);
+        map.mark(130);
+        final BitSet completed = map.read(1000L, 130);
+        assertEquals(3, completed.cardinality());
+        assertTrue(completed.get(63));
+        assertTrue(completed.get(64));
+        assertTrue(completed.get(130));
+        map.delete();
+    }
+
+    @Test
+    public void testReadMismatch() throws Exception {
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final SegmentMap map = new SegmentMap(folder, local);
+        map.create(100L, 3);
+        map.mark(1);
+        assertTrue(map.read(100L, 3).get(1));
+        assertTrue(map.read(200L, 3).isEmpty());
+        assertTrue(map.read(100L, 4).isEmpty());
+        map.delete();
+    }
+}
@@ -1,10 +1,12 @@
 package ch.cyberduck.core.transfer.upload;
 
+import ch.cyberduck.core.AlphanumericRandomStringService;
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocalAttributes;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
@@ -14,6 +16,7 @@ import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultUploadFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -23,6 +26,7 @@ import org.junit.Test;
 
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.*;
 
@@ -268,4 +272,98 @@ public class ResumeFilterTest {
         assertTrue(f.accept(t, l, new TransferStatus().exists(true)));
         assertFalse(f.prepare(t, l, new TransferStatus().exists(true), new DisabledProgressListener()).isAppend());
     }
+
+    @Test
+    public void testPrepareSegments() throws Exception {
+        final Host host = new Host(new TestProtocol());
+        final NullSession session = new NullSession(host) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Write.class) {
+                    return (T) new NullWriteFeature(this) {
+                        @Override
+                        public boolean segments(final Path file) {
+                            return true;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final Local folder = new Local(PreferencesFactory.get().getProperty("tmp.dir"), new AlphanumericRandomStringService().random());
+        final ResumeFilter f = new ResumeFilter(new DisabledUploadSymlinkResolver(), session,
+            new UploadFilterOptions().withTemporary(false).withSegments(true));
+        f.withSegmentsFolder(folder);
+        final Path t = new Path(new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        final AtomicLong modified = new AtomicLong(1530305150672L);
+        final NullLocal l = new NullLocal(new AlphanumericRandomStringService().random()) {
+            @Override
+            public boolean exists() {
+                return true;
+            }
+
+            @Override
+            public boolean isFile() {
+                return true;
+            }
+
+            @Override
+            public boolean isDirectory() {
+                return false;
+            }
+
+            @Override
+            public boolean isSymbolicLink() {
+                return false;
+            }
+
+            @Override
+            public LocalAttributes attributes() {
+                return new LocalAttributes(this.getAbsolute()) {
+                    @Override
+                    public long getSize() {
+                        return 20L * 1024L * 1024L;
+                    }
+
+                    @Override
+                    public long getModificationDate() {
+                        return modified.get();
+                    }
+                };
+            }
+        };
+        final TransferStatus status = f.prepare(t, l, new TransferStatus().exists(false), new DisabledProgressListener());
+        assertTrue(status.isSegmented());
+        assertEquals(2, status.getSegments().size());
+        final TransferStatus first = status.getSegments().get(0);
+        assertTrue(first.isInplace());
+        assertEquals(0L, first.getOffset());
+        assertEquals(10L * 1024L * 1024L, first.getLength());
+        final TransferStatus second = status.getSegments().get(1);
+        assertEquals(10L * 1024L * 1024L, second.getOffset());
+        assertEquals(10L * 1024L * 1024L, second.getLength());
+        final UploadSegmentMap map = new UploadSegmentMap(folder, host, t, l);
+        map.create(20L * 1024L * 1024L, 2);
+        map.mark(2);
+        try {
+            assertTrue(f.accept(t, l, new TransferStatus().exists(true)));
+            final TransferStatus resume = f.prepare(t, l, new TransferStatus().exists(true), new DisabledProgressListener());
+            assertTrue(resume.isAppend());
+            assertEquals(10L * 1024L * 1024L, resume.getLength());
+            assertFalse(resume.getSegments().get(0).isComplete());
+            assertTrue(resume.getSegments().get(1).isComplete());
+            // Local file changed since segments were written
+            modified.set(1530305150673L);
+            final TransferStatus changed = f.prepare(t, l, new TransferStatus().exists(true), new DisabledProgressListener());
+            assertFalse(changed.isAppend());
+            assertEquals(20L * 1024L * 1024L, changed.getLength());
+            assertFalse(changed.getSegments().get(0).isComplete());
+            assertFalse(changed.getSegments().get(1).isComplete());
+        }
+        finally {
+            map.delete();
+            folder.delete();
+        }
+    }
 }
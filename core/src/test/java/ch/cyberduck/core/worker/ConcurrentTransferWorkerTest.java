@@ -22,6 +22,7 @@ import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.DisabledNotificationService;
 import ch.cyberduck.core.pool.DefaultSessionPool;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
@@ -41,6 +42,7 @@ import ch.cyberduck.core.vault.DefaultVaultRegistry;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
@@ -211,6 +213,90 @@ public class ConcurrentTransferWorkerTest {
         worker.cleanup(true);
     }
 
+    @Test
+    public void testPipeline() throws Exception {
+        final int files = 20;
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final List<Path> transferred = Collections.synchronizedList(new ArrayList<Path>());
+        final Host host = new Host(new TestProtocol(), "test.cyberduck.ch");
+        final Transfer t = new DownloadTransfer(host, Collections.singletonList(new TransferItem(directory, new NullLocal("/d")))) {
+
+            @Override
+            public List<TransferItem> list(final Session<?> session, final Path folder, final Local local, final ListProgressListener listener) {
+                final List<TransferItem> children = new ArrayList<TransferItem>();
+                for(int i = 1; i <= files; i++) {
+                    children.add(new TransferItem(new Path(folder, "t" + i, EnumSet.of(Path.Type.file)), new NullLocal(local, "t" + i)));
+                }
+                return children;
+            }
+
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, final Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) {
+                if(file.isFile()) {
+                    assertTrue(transferred.contains(directory));
+                }
+                transferred.add(file);
+                return file;
+            }
+
+            @Override
+            public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
+                return new AbstractDownloadFilter(new DisabledDownloadSymlinkResolver(), source, null) {
+                    @Override
+                    public boolean accept(final Path file, final Local local, final TransferStatus parent) {
+                        return true;
+                    }
+
+                    @Override
+                    public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) {
+                        return new TransferStatus();
+                    }
+
+                    @Override
+                    public void apply(final Path file, final Local local, final TransferStatus status, final ProgressListener listener) {
+                        //
+                    }
+
+                    @Override
+                    public void complete(final Path file, final Local local, final TransferOptions options, final TransferStatus status, final ProgressListener listener) {
+                        assertTrue(transferred.contains(file));
+                    }
+                };
+            }
+        };
+        final LoginConnectionService connection = new TestLoginConnectionService();
+        final DefaultSessionPool pool = new DefaultSessionPool(connection, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+            new DefaultVaultRegistry(new DisabledPasswordCallback()),
+            PathCache.empty(), new DisabledTranscriptListener(), host);
+        PreferencesFactory.get().setProperty("queue.transfer.pipeline", true);
+        PreferencesFactory.get().setProperty("queue.transfer.pipeline.size", 5);
+        try {
+            final ConcurrentTransferWorker worker = new ConcurrentTransferWorker(
+                pool, SessionPool.DISCONNECTED, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    return TransferAction.overwrite;
+                }
+            }, new DisabledTransferErrorCallback(),
+                new DisabledLoginCallback(), new DisabledPasswordCallback(), new DisabledProgressListener(), new DisabledStreamListener(), new DisabledNotificationService()
+            );
+            pool.withMaxTotal(3);
+            assertTrue(worker.run());
+            assertEquals(files + 1, transferred.size());
+            for(int i = 1; i <= files; i++) {
+                assertTrue(transferred.contains(new Path(directory, "t" + i, EnumSet.of(Path.Type.file))));
+            }
+            worker.cleanup(true);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.transfer.pipeline");
+            PreferencesFactory.get().deleteProperty("queue.transfer.pipeline.size");
+        }
+    }
+
     @Test
     public void testBorrowTimeoutNoSessionAvailable() throws Exception {
         final Host host = new Host(new TestProtocol(), "localhost", new Credentials("u", "p"));
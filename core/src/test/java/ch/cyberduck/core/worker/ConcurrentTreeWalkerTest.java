@@ -0,0 +1,201 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.NullFilter;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.RecursiveList;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.threading.BackgroundActionState;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentTreeWalkerTest {
+
+    private final Filter<Path> directories = new Filter<Path>() {
+        @Override
+        public boolean accept(final Path file) {
+            return file.isDirectory();
+        }
+
+        @Override
+        public Pattern toPattern() {
+            return Pattern.compile(".*");
+        }
+    };
+
+    @Test
+    public void testWalkOrder() throws Exception {
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) throws BackgroundException {
+                max.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    // Complete listings of later directories first
+                    Thread.sleep(50L / (1 + file.getName().length()));
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+                finally {
+                    concurrent.decrementAndGet();
+                }
+                if(file.getAbsolute().split("/").length > 4) {
+                    return AttributedList.emptyList();
+                }
+                final List<Path> children = new ArrayList<>();
+                for(String name : Arrays.asList("a", "bb", "ccc")) {
+                    children.add(new Path(file, name, EnumSet.of(Path.Type.directory)));
+                }
+                children.add(new Path(file, "f", EnumSet.of(Path.Type.file)));
+                return new AttributedList<>(children);
+            }
+        };
+        final Path root = new Path("/r", EnumSet.of(Path.Type.directory));
+        final Map<Path, AttributedList<Path>> concurrent3 = new ConcurrentTreeWalker(new SessionPool.SingleSessionPool(session),
+            BackgroundActionState.running, 3).walk(Collections.singletonList(root), directories, new NullFilter<>(), new DisabledListProgressListener());
+        assertTrue(max.get() <= 3);
+        final Map<Path, AttributedList<Path>> sequential = new ConcurrentTreeWalker(new SessionPool.SingleSessionPool(session),
+            BackgroundActionState.running, 1).walk(Collections.singletonList(root), directories, new NullFilter<>(), new DisabledListProgressListener());
+        assertEquals(1 + 3 + 9 + 27, sequential.size());
+        assertEquals(new ArrayList<>(sequential.keySet()), new ArrayList<>(concurrent3.keySet()));
+        final List<Path> order = new ArrayList<>(sequential.keySet());
+        assertEquals(root, order.get(0));
+        assertEquals(new Path("/r/a", EnumSet.of(Path.Type.directory)), order.get(1));
+        assertEquals(new Path("/r/a/a", EnumSet.of(Path.Type.directory)), order.get(2));
+        assertEquals(new Path("/r/a/a/a", EnumSet.of(Path.Type.directory)), order.get(3));
+        assertEquals(new Path("/r/ccc/ccc/ccc", EnumSet.of(Path.Type.directory)), order.get(order.size() - 1));
+    }
+
+    @Test(expected = NotfoundException.class)
+    public void testFailure() throws Exception {
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) throws BackgroundException {
+                if(file.getName().equals("b")) {
+                    throw new NotfoundException(file.getAbsolute());
+                }
+                if(file.getAbsolute().length() > 6) {
+                    return AttributedList.emptyList();
+                }
+                return new AttributedList<>(Arrays.asList(
+                    new Path(file, "a", EnumSet.of(Path.Type.directory)),
+                    new Path(file, "b", EnumSet.of(Path.Type.directory))));
+            }
+        };
+        new ConcurrentTreeWalker(new SessionPool.SingleSessionPool(session), BackgroundActionState.running, 2)
+            .walk(Collections.singletonList(new Path("/r", EnumSet.of(Path.Type.directory))), directories, new NullFilter<>(), new DisabledListProgressListener());
+    }
+
+    @Test
+    public void testRecursive() throws Exception {
+        final Path root = new Path("/r", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(root, "a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path(root, "b", EnumSet.of(Path.Type.directory));
+        final Path e = new Path(a, "e", EnumSet.of(Path.Type.directory));
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                fail();
+                return null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == RecursiveList.class) {
+                    return (T) new RecursiveList() {
+                        @Override
+                        public Map<Path, AttributedList<Path>> tree(final Path directory, final ListProgressListener listener) {
+                            final Map<Path, AttributedList<Path>> tree = new HashMap<>();
+                            tree.put(root, new AttributedList<>(Arrays.asList(a, b, new Path(root, "f", EnumSet.of(Path.Type.file)))));
+                            tree.put(a, new AttributedList<>(Collections.singletonList(e)));
+                            tree.put(b, new AttributedList<>());
+                            tree.put(e, new AttributedList<>());
+                            return tree;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final Map<Path, AttributedList<Path>> listings = new ConcurrentTreeWalker(new SessionPool.SingleSessionPool(session),
+            BackgroundActionState.running, 2).withRecursive(true)
+            .walk(Collections.singletonList(root), directories, new NullFilter<>(), new DisabledListProgressListener());
+        assertEquals(Arrays.asList(root, a, e, b), new ArrayList<>(listings.keySet()));
+        assertEquals(3, listings.get(root).size());
+    }
+
+    @Test
+    public void testRecursiveRefused() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                if(file.getAbsolute().length() > 4) {
+                    return AttributedList.emptyList();
+                }
+                return new AttributedList<>(Collections.singletonList(new Path(file, "a", EnumSet.of(Path.Type.directory))));
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == RecursiveList.class) {
+                    return (T) new RecursiveList() {
+                        @Override
+                        public Map<Path, AttributedList<Path>> tree(final Path directory, final ListProgressListener listener) throws BackgroundException {
+                            count.incrementAndGet();
+                            throw new AccessDeniedException(directory.getAbsolute());
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final Map<Path, AttributedList<Path>> listings = new ConcurrentTreeWalker(new SessionPool.SingleSessionPool(session),
+            BackgroundActionState.running, 2).withRecursive(true)
+            .walk(Arrays.asList(new Path("/r", EnumSet.of(Path.Type.directory)), new Path("/s", EnumSet.of(Path.Type.directory))),
+                directories, new NullFilter<>(), new DisabledListProgressListener());
+        assertEquals(6, listings.size());
+        // Not attempted again after refusal
+        assertEquals(1, count.get());
+    }
+}
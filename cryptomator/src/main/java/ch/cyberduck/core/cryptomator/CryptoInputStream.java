@@ -15,6 +15,8 @@ package ch.cyberduck.core.cryptomator;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.io.BufferPool;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.ProxyInputStream;
 import org.cryptomator.cryptolib.api.CryptoException;
@@ -33,6 +35,11 @@ public class CryptoInputStream extends ProxyInputStream {
 
     private ByteBuffer buffer = ByteBuffer.allocate(0);
 
+    /**
+     * Reused for every ciphertext chunk read from proxy
+     */
+    private byte[] ciphertext;
+
     /**
      * Position proxy content cryptor
      */
@@ -79,14 +86,26 @@ public class CryptoInputStream extends ProxyInputStream {
         return IOUtils.skip(this, len);
     }
 
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        }
+        finally {
+            BufferPool.get().release(ciphertext);
+            ciphertext = null;
+        }
+    }
+
     private int readNextChunk() throws IOException {
-        final ByteBuffer ciphertextBuf = ByteBuffer.allocate(chunkSize);
-        final int read = IOUtils.read(proxy, ciphertextBuf.array());
+        if(null == ciphertext) {
+            ciphertext = BufferPool.get().acquire(chunkSize);
+        }
+        final int read = IOUtils.read(proxy, ciphertext, 0, chunkSize);
         if(read == 0) {
             return IOUtils.EOF;
         }
-        ciphertextBuf.position(read);
-        ciphertextBuf.flip();
+        final ByteBuffer ciphertextBuf = ByteBuffer.wrap(ciphertext, 0, read).slice();
         try {
             buffer = cryptor.fileContentCryptor().decryptChunk(ciphertextBuf, chunkIndexOffset++, header, true);
         }
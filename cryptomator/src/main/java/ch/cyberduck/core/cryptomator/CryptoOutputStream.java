@@ -28,7 +28,6 @@ import org.cryptomator.cryptolib.api.FileHeader;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 
 public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
@@ -81,10 +80,10 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
             try {
-                for(int chunkOffset = off; chunkOffset < len; chunkOffset += chunksize) {
-                    int chunkLen = Math.min(chunksize, len - chunkOffset);
+                for(int chunkOffset = off; chunkOffset < off + len; chunkOffset += chunksize) {
+                    int chunkLen = Math.min(chunksize, off + len - chunkOffset);
                     final ByteBuffer encryptedChunk = cryptor.fileContentCryptor().encryptChunk(
-                            ByteBuffer.wrap(Arrays.copyOfRange(b, chunkOffset, chunkOffset + chunkLen)),
+                            ByteBuffer.wrap(b, chunkOffset, chunkLen).slice(),
                             chunkIndexOffset++, header, nonces.next());
                     super.write(encryptedChunk.array());
                 }
@@ -174,17 +174,43 @@ public class FTPClient extends FTPSClient {
     }
 
     public List<String> list(final FTPCmd command, final String pathname) throws IOException {
+        final List<String> results = new ArrayList<String>();
+        this.list(command, pathname, new LineListener() {
+            @Override
+            public void line(final String line) {
+                results.add(line);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Read listing from data connection passing each line to listener as received
+     *
+     * @param listener Callback for each line. Failure aborts the data transfer.
+     */
+    public void list(final FTPCmd command, final String pathname, final LineListener listener) throws IOException {
         this.pret(command, pathname);
 
         Socket socket = _openDataConnection_(command, pathname);
 
         BufferedReader reader = new BufferedReader(
                 new InputStreamReader(socket.getInputStream(), getControlEncoding()));
-        ArrayList<String> results = new ArrayList<String>();
         String line;
         while((line = reader.readLine()) != null) {
             _commandSupport_.fireReplyReceived(-1, line);
-            results.add(line);
+            try {
+                listener.line(line);
+            }
+            catch(IOException e) {
+                log.warn(String.format("Abort data transfer after failure %s", e.getMessage()));
+                socket.close();
+                // Read reply for aborted transfer to keep control connection in sync
+                if(!this.completePendingCommand()) {
+                    log.warn(String.format("Unexpected reply %s for aborted transfer", this.getReplyString()));
+                }
+                throw e;
+            }
         }
 
         reader.close();
@@ -193,7 +219,10 @@ public class FTPClient extends FTPSClient {
         if(!this.completePendingCommand()) {
             throw new FTPException(this.getReplyCode(), this.getReplyString());
         }
-        return results;
+    }
+
+    public interface LineListener {
+        void line(String line) throws IOException;
     }
 
     /**
@@ -0,0 +1,85 @@
+package ch.cyberduck.core.ftp.list;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.ftp.DataConnectionAction;
+import ch.cyberduck.core.ftp.DataConnectionActionExecutor;
+import ch.cyberduck.core.ftp.FTPClient;
+import ch.cyberduck.core.ftp.FTPExceptionMappingService;
+import ch.cyberduck.core.ftp.FTPSession;
+
+import org.apache.commons.net.ftp.FTPCmd;
+
+import java.io.IOException;
+
+/**
+ * Parse listing line by line while received on data connection
+ */
+public class FTPDataConnectionListReader {
+
+    private final FTPSession session;
+    private final FTPDataResponseReader reader;
+
+    public FTPDataConnectionListReader(final FTPSession session, final FTPDataResponseReader reader) {
+        this.session = session;
+        this.reader = reader;
+    }
+
+    public AttributedList<Path> read(final Path directory, final FTPCmd command, final String arg,
+                                     final ListProgressListener listener) throws IOException, BackgroundException {
+        return new DataConnectionActionExecutor(session).data(new DataConnectionAction<AttributedList<Path>>() {
+            @Override
+            public AttributedList<Path> execute() throws BackgroundException {
+                // Start over when retried with fallback connect mode
+                final FTPDataResponseReader.Listing listing = reader.open(directory, listener);
+                try {
+                    session.getClient().list(command, arg, new FTPClient.LineListener() {
+                        @Override
+                        public void line(final String line) throws IOException {
+                            try {
+                                listing.line(line);
+                            }
+                            catch(ConnectionCanceledException e) {
+                                throw new ListCanceled(e);
+                            }
+                        }
+                    });
+                }
+                catch(ListCanceled e) {
+                    throw e.failure;
+                }
+                catch(IOException e) {
+                    throw new FTPExceptionMappingService().map(e);
+                }
+                return listing.close();
+            }
+        }, listener);
+    }
+
+    private static final class ListCanceled extends IOException {
+        private final ConnectionCanceledException failure;
+
+        public ListCanceled(final ConnectionCanceledException failure) {
+            super(failure);
+            this.failure = failure;
+        }
+    }
+}
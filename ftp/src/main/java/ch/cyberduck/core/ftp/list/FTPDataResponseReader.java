@@ -18,10 +18,40 @@ package ch.cyberduck.core.ftp.list;
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 
 import java.util.List;
 
 public interface FTPDataResponseReader {
 
-    AttributedList<Path> read(Path parent, List<String> replies, ListProgressListener listener) throws FTPInvalidListException;
+    default AttributedList<Path> read(final Path parent, final List<String> replies, final ListProgressListener listener) throws BackgroundException {
+        final Listing listing = this.open(parent, listener);
+        for(String line : replies) {
+            listing.line(line);
+        }
+        return listing.close();
+    }
+
+    /**
+     * @param parent   Directory listed
+     * @param listener Notified with entries parsed so far in batches
+     * @return Parser for lines of listing as received
+     */
+    Listing open(Path parent, ListProgressListener listener);
+
+    interface Listing {
+        /**
+         * @param line Line of listing
+         * @throws ConnectionCanceledException Listing canceled by listener
+         */
+        void line(String line) throws ConnectionCanceledException;
+
+        /**
+         * @return All entries parsed
+         * @throws FTPInvalidListException     No line could be parsed
+         * @throws ConnectionCanceledException Listing canceled by listener
+         */
+        AttributedList<Path> close() throws FTPInvalidListException, ConnectionCanceledException;
+    }
 }
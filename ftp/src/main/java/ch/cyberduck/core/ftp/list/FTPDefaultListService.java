@@ -21,8 +21,6 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
-import ch.cyberduck.core.ftp.DataConnectionAction;
-import ch.cyberduck.core.ftp.DataConnectionActionExecutor;
 import ch.cyberduck.core.ftp.FTPClient;
 import ch.cyberduck.core.ftp.FTPException;
 import ch.cyberduck.core.ftp.FTPExceptionMappingService;
@@ -30,19 +28,18 @@ import ch.cyberduck.core.ftp.FTPSession;
 import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
 
 import java.io.IOException;
-import java.util.List;
 
 public class FTPDefaultListService implements ListService {
 
     private final FTPSession session;
     private final FTPListService.Command command;
-    private final FTPDataResponseReader reader;
+    private final FTPDataConnectionListReader reader;
 
     public FTPDefaultListService(final FTPSession session,
                                  final CompositeFileEntryParser parser, final FTPListService.Command command) {
         this.session = session;
         this.command = command;
-        this.reader = new FTPListResponseReader(parser, false);
+        this.reader = new FTPDataConnectionListReader(session, new FTPListResponseReader(parser, false));
     }
 
     @Override
@@ -56,18 +53,7 @@ public class FTPDefaultListService implements ListService {
                 // data connection in type ASCII or type EBCDIC.
                 throw new FTPException(session.getClient().getReplyCode(), session.getClient().getReplyString());
             }
-            final List<String> list = new DataConnectionActionExecutor(session).data(new DataConnectionAction<List<String>>() {
-                @Override
-                public List<String> execute() throws BackgroundException {
-                    try {
-                        return session.getClient().list(command.getCommand(), command.getArg());
-                    }
-                    catch(IOException e) {
-                        throw new FTPExceptionMappingService().map(e);
-                    }
-                }
-            }, listener);
-            return reader.read(directory, list, listener);
+            return reader.read(directory, command.getCommand(), command.getArg(), listener);
         }
         catch(IOException e) {
             throw new FTPExceptionMappingService().map("Listing directory {0} failed", e, directory);
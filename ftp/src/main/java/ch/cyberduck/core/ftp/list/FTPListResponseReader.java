@@ -21,14 +21,18 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.ftp.parser.FTPExtendedFile;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.net.ftp.FTPFile;
 import org.apache.commons.net.ftp.FTPFileEntryParser;
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -37,132 +41,170 @@ public class FTPListResponseReader implements FTPDataResponseReader {
 
     private final FTPFileEntryParser parser;
     private final boolean lenient;
+    /**
+     * Number of entries parsed to notify listener after
+     */
+    private final int chunksize;
 
     public FTPListResponseReader(final FTPFileEntryParser parser) {
         this(parser, false);
     }
 
     public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient) {
+        this(parser, lenient, PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient, final int chunksize) {
         this.parser = parser;
         this.lenient = lenient;
+        this.chunksize = chunksize;
     }
 
     @Override
-    public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener) throws FTPInvalidListException {
-        final AttributedList<Path> children = new AttributedList<Path>();
-        // At least one entry successfully parsed
-        boolean success = false;
-        // Call hook for those implementors which need to perform some action upon the list after it has been created
-        // from the server stream, but before any clients see the list
-        parser.preParse(replies);
-        for(String line : replies) {
-            final FTPFile f = parser.parseFTPEntry(line);
-            if(null == f) {
-                continue;
-            }
-            final String name = f.getName();
-            if(!success) {
-                if(lenient) {
-                    // Workaround for #2410. STAT only returns ls of directory itself
-                    // Workaround for #2434. STAT of symbolic link directory only lists the directory itself.
-                    if(directory.getName().equals(name)) {
-                        log.warn(String.format("Skip %s matching parent directory name", f.getName()));
-                        continue;
-                    }
-                    if(name.contains(String.valueOf(Path.DELIMITER))) {
-                        if(!name.startsWith(directory.getAbsolute() + Path.DELIMITER)) {
-                            // Workaround for #2434.
-                            log.warn(String.format("Skip %s with delimiter in name", name));
-                            continue;
-                        }
+    public Listing open(final Path directory, final ListProgressListener listener) {
+        return new Listing() {
+            private final AttributedList<Path> children = new AttributedList<Path>();
+            // At least one entry successfully parsed
+            private boolean success = false;
+            private boolean header = true;
+
+            @Override
+            public void line(final String line) throws ConnectionCanceledException {
+                if(header) {
+                    header = false;
+                    // Call hook for those implementors which need to perform some action upon the list after it has been created
+                    // from the server stream, but before any clients see the list. Only the first line is available as entries
+                    // are parsed while received. Sufficient for parsers handling a header line or total count only.
+                    final List<String> lines = new ArrayList<String>(Collections.singletonList(line));
+                    parser.preParse(lines);
+                    if(lines.isEmpty()) {
+                        return;
                     }
                 }
-            }
-            success = true;
-            if(name.equals(".") || name.equals("..")) {
-                if(log.isDebugEnabled()) {
-                    log.debug(String.format("Skip %s", f.getName()));
+                final FTPFile f = parser.parseFTPEntry(line);
+                if(null == f) {
+                    return;
                 }
-                continue;
-            }
-            final Path parsed = new Path(directory, PathNormalizer.name(name), f.getType() == FTPFile.DIRECTORY_TYPE ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file));
-            switch(f.getType()) {
-                case FTPFile.SYMBOLIC_LINK_TYPE:
-                    parsed.setType(EnumSet.of(Path.Type.file, Path.Type.symboliclink));
-                    // Symbolic link target may be an absolute or relative path
-                    final String target = f.getLink();
-                    if(StringUtils.isBlank(target)) {
-                        log.warn(String.format("Missing symbolic link target for %s", parsed));
-                        final EnumSet<AbstractPath.Type> type = parsed.getType();
-                        type.remove(AbstractPath.Type.symboliclink);
-                    }
-                    else if(StringUtils.startsWith(target, String.valueOf(Path.DELIMITER))) {
-                        parsed.setSymlinkTarget(new Path(PathNormalizer.normalize(target), EnumSet.of(Path.Type.file)));
-                    }
-                    else if(StringUtils.equals("..", target)) {
-                        parsed.setSymlinkTarget(directory);
-                    }
-                    else if(StringUtils.equals(".", target)) {
-                        parsed.setSymlinkTarget(parsed);
+                final String name = f.getName();
+                if(!success) {
+                    if(lenient) {
+                        // Workaround for #2410. STAT only returns ls of directory itself
+                        // Workaround for #2434. STAT of symbolic link directory only lists the directory itself.
+                        if(directory.getName().equals(name)) {
+                            log.warn(String.format("Skip %s matching parent directory name", f.getName()));
+                            return;
+                        }
+                        if(name.contains(String.valueOf(Path.DELIMITER))) {
+                            if(!name.startsWith(directory.getAbsolute() + Path.DELIMITER)) {
+                                // Workaround for #2434.
+                                log.warn(String.format("Skip %s with delimiter in name", name));
+                                return;
+                            }
+                        }
                     }
-                    else {
-                        parsed.setSymlinkTarget(new Path(directory, target, EnumSet.of(Path.Type.file)));
+                }
+                success = true;
+                if(name.equals(".") || name.equals("..")) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Skip %s", f.getName()));
                     }
-                    break;
-            }
-            if(parsed.isFile()) {
-                parsed.attributes().setSize(f.getSize());
-            }
-            parsed.attributes().setOwner(f.getUser());
-            parsed.attributes().setGroup(f.getGroup());
-            Permission.Action u = Permission.Action.none;
-            if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.READ_PERMISSION)) {
-                u = u.or(Permission.Action.read);
-            }
-            if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.WRITE_PERMISSION)) {
-                u = u.or(Permission.Action.write);
-            }
-            if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
-                u = u.or(Permission.Action.execute);
-            }
-            Permission.Action g = Permission.Action.none;
-            if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.READ_PERMISSION)) {
-                g = g.or(Permission.Action.read);
-            }
-            if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.WRITE_PERMISSION)) {
-                g = g.or(Permission.Action.write);
-            }
-            if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
-                g = g.or(Permission.Action.execute);
-            }
-            Permission.Action o = Permission.Action.none;
-            if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.READ_PERMISSION)) {
-                o = o.or(Permission.Action.read);
-            }
-            if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.WRITE_PERMISSION)) {
-                o = o.or(Permission.Action.write);
-            }
-            if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
-                o = o.or(Permission.Action.execute);
-            }
-            final Permission permission = new Permission(u, g, o);
-            if(f instanceof FTPExtendedFile) {
-                permission.setSetuid(((FTPExtendedFile) f).isSetuid());
-                permission.setSetgid(((FTPExtendedFile) f).isSetgid());
-                permission.setSticky(((FTPExtendedFile) f).isSticky());
-            }
-            if(!Permission.EMPTY.equals(permission)) {
-                parsed.attributes().setPermission(permission);
+                    return;
+                }
+                children.add(FTPListResponseReader.this.parse(directory, f));
+                if(children.size() % chunksize == 0) {
+                    listener.chunk(directory, children);
+                }
             }
-            final Calendar timestamp = f.getTimestamp();
-            if(timestamp != null) {
-                parsed.attributes().setModificationDate(timestamp.getTimeInMillis());
+
+            @Override
+            public AttributedList<Path> close() throws FTPInvalidListException, ConnectionCanceledException {
+                if(!success) {
+                    throw new FTPInvalidListException(children);
+                }
+                if(children.size() % chunksize != 0) {
+                    // Notify with last partial chunk
+                    listener.chunk(directory, children);
+                }
+                return children;
             }
-            children.add(parsed);
+        };
+    }
+
+    protected Path parse(final Path directory, final FTPFile f) {
+        final String name = f.getName();
+        final Path parsed = new Path(directory, PathNormalizer.name(name), f.getType() == FTPFile.DIRECTORY_TYPE ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file));
+        switch(f.getType()) {
+            case FTPFile.SYMBOLIC_LINK_TYPE:
+                parsed.setType(EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+                // Symbolic link target may be an absolute or relative path
+                final String target = f.getLink();
+                if(StringUtils.isBlank(target)) {
+                    log.warn(String.format("Missing symbolic link target for %s", parsed));
+                    final EnumSet<AbstractPath.Type> type = parsed.getType();
+                    type.remove(AbstractPath.Type.symboliclink);
+                }
+                else if(StringUtils.startsWith(target, String.valueOf(Path.DELIMITER))) {
+                    parsed.setSymlinkTarget(new Path(PathNormalizer.normalize(target), EnumSet.of(Path.Type.file)));
+                }
+                else if(StringUtils.equals("..", target)) {
+                    parsed.setSymlinkTarget(directory);
+                }
+                else if(StringUtils.equals(".", target)) {
+                    parsed.setSymlinkTarget(parsed);
+                }
+                else {
+                    parsed.setSymlinkTarget(new Path(directory, target, EnumSet.of(Path.Type.file)));
+                }
+                break;
+        }
+        if(parsed.isFile()) {
+            parsed.attributes().setSize(f.getSize());
+        }
+        parsed.attributes().setOwner(f.getUser());
+        parsed.attributes().setGroup(f.getGroup());
+        Permission.Action u = Permission.Action.none;
+        if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.READ_PERMISSION)) {
+            u = u.or(Permission.Action.read);
+        }
+        if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.WRITE_PERMISSION)) {
+            u = u.or(Permission.Action.write);
+        }
+        if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
+            u = u.or(Permission.Action.execute);
+        }
+        Permission.Action g = Permission.Action.none;
+        if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.READ_PERMISSION)) {
+            g = g.or(Permission.Action.read);
+        }
+        if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.WRITE_PERMISSION)) {
+            g = g.or(Permission.Action.write);
+        }
+        if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
+            g = g.or(Permission.Action.execute);
+        }
+        Permission.Action o = Permission.Action.none;
+        if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.READ_PERMISSION)) {
+            o = o.or(Permission.Action.read);
+        }
+        if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.WRITE_PERMISSION)) {
+            o = o.or(Permission.Action.write);
+        }
+        if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
+            o = o.or(Permission.Action.execute);
+        }
+        final Permission permission = new Permission(u, g, o);
+        if(f instanceof FTPExtendedFile) {
+            permission.setSetuid(((FTPExtendedFile) f).isSetuid());
+            permission.setSetgid(((FTPExtendedFile) f).isSetgid());
+            permission.setSticky(((FTPExtendedFile) f).isSticky());
+        }
+        if(!Permission.EMPTY.equals(permission)) {
+            parsed.attributes().setPermission(permission);
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
+        final Calendar timestamp = f.getTimestamp();
+        if(timestamp != null) {
+            parsed.attributes().setModificationDate(timestamp.getTimeInMillis());
         }
-        return children;
+        return parsed;
     }
 }
@@ -21,8 +21,6 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
-import ch.cyberduck.core.ftp.DataConnectionAction;
-import ch.cyberduck.core.ftp.DataConnectionActionExecutor;
 import ch.cyberduck.core.ftp.FTPClient;
 import ch.cyberduck.core.ftp.FTPException;
 import ch.cyberduck.core.ftp.FTPExceptionMappingService;
@@ -31,16 +29,15 @@ import ch.cyberduck.core.ftp.FTPSession;
 import org.apache.commons.net.ftp.FTPCmd;
 
 import java.io.IOException;
-import java.util.List;
 
 public class FTPMlsdListService implements ListService {
 
     private final FTPSession session;
-    private final FTPDataResponseReader reader;
+    private final FTPDataConnectionListReader reader;
 
     public FTPMlsdListService(final FTPSession session) {
         this.session = session;
-        this.reader = new FTPMlsdListResponseReader();
+        this.reader = new FTPDataConnectionListReader(session, new FTPMlsdListResponseReader());
     }
 
     @Override
@@ -54,18 +51,7 @@ public class FTPMlsdListService implements ListService {
                 // data connection in type ASCII or type EBCDIC.
                 throw new FTPException(session.getClient().getReplyCode(), session.getClient().getReplyString());
             }
-            final List<String> list = new DataConnectionActionExecutor(session).data(new DataConnectionAction<List<String>>() {
-                @Override
-                public List<String> execute() throws BackgroundException {
-                    try {
-                        return session.getClient().list(FTPCmd.MLSD);
-                    }
-                    catch(IOException e) {
-                        throw new FTPExceptionMappingService().map(e);
-                    }
-                }
-            }, listener);
-            return reader.read(directory, list, listener);
+            return reader.read(directory, FTPCmd.MLSD, null, listener);
         }
         catch(IOException e) {
             throw new FTPExceptionMappingService().map("Listing directory {0} failed", e, directory);
@@ -46,21 +46,21 @@ public class CompositeFileEntryParser extends FTPFileEntryParserImpl implements
             if(null != parsed) {
                 return parsed;
             }
-            if(log.isInfoEnabled()) {
-                log.info(String.format("Switching parser implementation because %s failed", current));
-            }
-            current = null;
         }
         for(FTPFileEntryParser parser : parsers) {
+            if(parser == current) {
+                continue;
+            }
             final FTPFile matched = parser.parseFTPEntry(line);
             if(matched != null) {
-                current = parser;
                 if(log.isInfoEnabled()) {
-                    log.info(String.format("Caching %s parser implementation", current));
+                    log.info(String.format("Caching %s parser implementation", parser));
                 }
+                current = parser;
                 return matched;
             }
         }
+        // Keep cached parser for lines no other parser can handle
         log.warn(String.format("Failure parsing line %s", line));
         return null;
     }
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -159,6 +160,25 @@ public class FTPListResponseReaderTest {
         );
     }
 
+    @Test
+    public void testChunkNotification() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final FTPDataResponseReader.Listing listing = new FTPListResponseReader(new FTPParserSelector().getParser("UNIX"), false, 2).open(
+            new Path("/", EnumSet.of(Path.Type.directory)), new DisabledListProgressListener() {
+                @Override
+                public void chunk(final Path parent, AttributedList<Path> list) {
+                    assertEquals(Math.min(2 * count.incrementAndGet(), 5), list.size());
+                }
+            });
+        listing.line("total 5");
+        for(int i = 0; i < 5; i++) {
+            listing.line(String.format("-rw-r--r--    1 ftp      ftp            23 Feb 05 06:51 f%d", i));
+        }
+        assertEquals(2, count.get());
+        assertEquals(5, listing.close().size());
+        assertEquals(3, count.get());
+    }
+
     @Test(expected = FTPInvalidListException.class)
     public void testListNoRead() throws Exception {
         final Path directory = new Path("/sandbox/noread", EnumSet.of(Path.Type.directory));
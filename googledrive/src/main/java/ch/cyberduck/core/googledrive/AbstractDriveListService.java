@@ -34,6 +34,7 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.util.EnumSet;
 
+import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.model.File;
 import com.google.api.services.drive.model.FileList;
 
@@ -74,7 +75,7 @@ public abstract class AbstractDriveListService implements ListService {
             String page = null;
             final String query = this.query(directory, listener);
             do {
-                final FileList list = session.getClient().files().list()
+                final FileList list = this.execute(session.getClient().files().list()
                     // Whether Team Drive items should be included in results
                     .setIncludeTeamDriveItems(true)
                     // Whether the requesting application supports Team Drives
@@ -84,7 +85,7 @@ public abstract class AbstractDriveListService implements ListService {
                     .setOrderBy("name")
                     .setPageToken(page)
                     .setFields(fields)
-                    .setPageSize(pagesize).execute();
+                    .setPageSize(pagesize));
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("Chunk of %d retrieved", list.getFiles().size()));
                 }
@@ -122,6 +123,13 @@ public abstract class AbstractDriveListService implements ListService {
         }
     }
 
+    /**
+     * @param request Request for next page of listing
+     */
+    protected FileList execute(final Drive.Files.List request) throws IOException {
+        return request.execute();
+    }
+
     protected abstract String query(final Path directory, final ListProgressListener listener) throws BackgroundException;
 
     @Override
@@ -20,10 +20,8 @@ import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
-import ch.cyberduck.core.http.DefaultHttpResponseExceptionMappingService;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
-import org.apache.http.client.HttpResponseException;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
@@ -33,7 +31,9 @@ import java.util.List;
 import com.google.api.client.googleapis.batch.BatchRequest;
 import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
 import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
 import com.google.api.services.drive.model.File;
 
 public class DriveBatchDeleteFeature implements Delete {
@@ -108,8 +108,8 @@ public class DriveBatchDeleteFeature implements Delete {
         @Override
         public void onFailure(final GoogleJsonError e, final HttpHeaders responseHeaders) {
             log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
-            failures.add(new DefaultHttpResponseExceptionMappingService().map(
-                new HttpResponseException(e.getCode(), e.getMessage())));
+            failures.add(new DriveExceptionMappingService().map("Cannot delete {0}",
+                new GoogleJsonResponseException(new HttpResponseException.Builder(e.getCode(), e.getMessage(), responseHeaders), e), file));
         }
 
         @Override
@@ -0,0 +1,229 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.drive.DriveRequest;
+
+/**
+ * Coalesce requests of concurrent callers into batch requests. A caller executes all requests pending at that time in a
+ * single batch unless the maximum number of batches is already running. Requests submitted while no further batch can
+ * be started are sent with the next batch. A request without any other pending is executed on its own. A request
+ * missing in the response of a batch fails and is not repeated.
+ */
+public class DriveBatchQueue {
+    private static final Logger log = Logger.getLogger(DriveBatchQueue.class);
+
+    /**
+     * Maximum number of calls in a single batch request
+     */
+    public static final int MAXIMUM_BATCH_SIZE = 100;
+
+    private final DriveSession session;
+    private final int size;
+    private final int concurrency;
+
+    private final LinkedList<Entry<?>> pending = new LinkedList<>();
+
+    /**
+     * Number of batches currently executed
+     */
+    private int running;
+
+    public DriveBatchQueue(final DriveSession session) {
+        this(session, MAXIMUM_BATCH_SIZE, PreferencesFactory.get().getInteger("googledrive.batch.concurrency"));
+    }
+
+    /**
+     * @param size        Maximum number of requests in a batch
+     * @param concurrency Maximum number of batches executed at the same time
+     */
+    public DriveBatchQueue(final DriveSession session, final int size, final int concurrency) {
+        this.session = session;
+        this.size = Math.max(1, Math.min(size, MAXIMUM_BATCH_SIZE));
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * @param request Request to execute with others pending
+     * @return Response of request
+     * @throws IOException Failure executing batch or error response for this request
+     */
+    public <T> T execute(final DriveRequest<T> request) throws IOException {
+        final Entry<T> entry = new Entry<T>(request);
+        synchronized(pending) {
+            pending.add(entry);
+        }
+        boolean interrupted = false;
+        while(!entry.done) {
+            final List<Entry<?>> batch = new ArrayList<>();
+            synchronized(pending) {
+                if(entry.done) {
+                    break;
+                }
+                if(entry.submitted || running >= concurrency) {
+                    try {
+                        pending.wait();
+                    }
+                    catch(InterruptedException e) {
+                        if(!entry.submitted) {
+                            pending.remove(entry);
+                            throw new IOException(new ConnectionCanceledException(e));
+                        }
+                        // Already submitted with batch of another caller
+                        interrupted = true;
+                    }
+                    continue;
+                }
+                running++;
+                final Iterator<Entry<?>> iter = pending.iterator();
+                while(iter.hasNext() && batch.size() < size) {
+                    final Entry<?> next = iter.next();
+                    next.submitted = true;
+                    batch.add(next);
+                    iter.remove();
+                }
+            }
+            try {
+                this.run(batch);
+            }
+            finally {
+                for(Entry<?> e : batch) {
+                    if(!e.done) {
+                        e.failure(new IOException(String.format("No response for request %s", e.request)));
+                    }
+                }
+                synchronized(pending) {
+                    running--;
+                    pending.notifyAll();
+                }
+            }
+        }
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return entry.get();
+    }
+
+    protected void run(final List<Entry<?>> batch) {
+        if(batch.isEmpty()) {
+            return;
+        }
+        if(batch.size() == 1) {
+            batch.get(0).execute();
+            return;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Execute %d requests in batch", batch.size()));
+        }
+        try {
+            final BatchRequest request = session.getClient().batch();
+            for(Entry<?> entry : batch) {
+                entry.queue(request);
+            }
+            request.execute();
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure executing batch. %s", e.getMessage()));
+            for(Entry<?> entry : batch) {
+                if(!entry.done) {
+                    entry.failure(e);
+                }
+            }
+        }
+        for(Entry<?> entry : batch) {
+            if(!entry.done) {
+                // Missing response in batch. Do not repeat request possibly already executed such as a copy
+                log.warn(String.format("Missing response for %s in batch", entry.getRequest()));
+                entry.failure(new IOException(String.format("No response for request %s", entry.getRequest())));
+            }
+        }
+    }
+
+    protected static final class Entry<T> extends JsonBatchCallback<T> {
+        private final DriveRequest<T> request;
+
+        /**
+         * Removed from pending requests to execute with batch
+         */
+        private boolean submitted;
+        private volatile boolean done;
+        private T response;
+        private IOException failure;
+
+        public Entry(final DriveRequest<T> request) {
+            this.request = request;
+        }
+
+        public DriveRequest<T> getRequest() {
+            return request;
+        }
+
+        public void queue(final BatchRequest batch) throws IOException {
+            request.queue(batch, this);
+        }
+
+        public void execute() {
+            try {
+                this.onSuccess(request.execute(), null);
+            }
+            catch(IOException e) {
+                this.failure(e);
+            }
+        }
+
+        @Override
+        public void onSuccess(final T response, final HttpHeaders responseHeaders) {
+            this.response = response;
+            done = true;
+        }
+
+        @Override
+        public void onFailure(final GoogleJsonError e, final HttpHeaders responseHeaders) {
+            // Map with error details of call in batch
+            this.failure(new GoogleJsonResponseException(new HttpResponseException.Builder(e.getCode(), e.getMessage(),
+                null == responseHeaders ? new HttpHeaders() : responseHeaders), e));
+        }
+
+        public void failure(final IOException failure) {
+            this.failure = failure;
+            done = true;
+        }
+
+        public T get() throws IOException {
+            if(null != failure) {
+                throw failure;
+            }
+            return response;
+        }
+    }
+}
@@ -42,10 +42,10 @@ public class DriveCopyFeature implements Copy {
     @Override
     public Path copy(final Path source, final Path target, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
-            final File copy = session.getClient().files().copy(fileid.getFileid(source, new DisabledListProgressListener()), new File()
+            final File copy = session.getBatch().execute(session.getClient().files().copy(fileid.getFileid(source, new DisabledListProgressListener()), new File()
                 .setParents(Collections.singletonList(fileid.getFileid(target.getParent(), new DisabledListProgressListener())))
                 .setName(target.getName()))
-                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")));
             return new Path(target.getParent(), target.getName(), target.getType(),
                     new PathAttributes(target.attributes()).withVersionId(copy.getId()));
         }
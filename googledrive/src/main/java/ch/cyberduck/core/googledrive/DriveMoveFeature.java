@@ -62,26 +62,24 @@ public class DriveMoveFeature implements Move {
                 final File properties = new File();
                 properties.setName(renamed.getName());
                 properties.setMimeType(status.getMime());
-                session.getClient().files().update(id, properties).
-                    setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+                session.getBatch().execute(session.getClient().files().update(id, properties).
+                    setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")));
             }
             // Retrieve the existing parents to remove
             final StringBuilder previousParents = new StringBuilder();
-            final File reference = session.getClient().files().get(id)
+            final File reference = session.getBatch().execute(session.getClient().files().get(id)
                 .setFields("parents")
-                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                .execute();
+                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")));
             for(String parent : reference.getParents()) {
                 previousParents.append(parent);
                 previousParents.append(',');
             }
             // Move the file to the new folder
-            session.getClient().files().update(id, null)
+            session.getBatch().execute(session.getClient().files().update(id, null)
                 .setAddParents(fileid.getFileid(renamed.getParent(), new DisabledListProgressListener()))
                 .setRemoveParents(previousParents.toString())
                 .setFields("id, parents")
-                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                .execute();
+                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")));
             return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
                 new DriveAttributesFinderFeature(session, fileid).find(renamed));
         }
@@ -62,6 +62,12 @@ public class DriveReadFeature implements Read {
         return true;
     }
 
+    @Override
+    public boolean concurrent(final Path file) {
+        // Web link written for placeholder
+        return !file.getType().contains(Path.Type.placeholder);
+    }
+
     @Override
     public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
@@ -25,10 +25,12 @@ import ch.cyberduck.core.UrlProvider;
 import ch.cyberduck.core.UseragentProvider;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.*;
+import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.http.HttpSession;
 import ch.cyberduck.core.oauth.OAuth2ErrorResponseInterceptor;
 import ch.cyberduck.core.oauth.OAuth2RequestInterceptor;
 import ch.cyberduck.core.proxy.Proxy;
+import ch.cyberduck.core.shared.ConcurrentRangeDownloadFeature;
 import ch.cyberduck.core.ssl.ThreadLocalHostnameDelegatingTrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
@@ -59,6 +61,8 @@ public class DriveSession extends HttpSession<Drive> {
 
     private final DriveFileidProvider fileid = new DriveFileidProvider(this);
 
+    private final DriveBatchQueue batch = new DriveBatchQueue(this);
+
     public DriveSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, new ThreadLocalHostnameDelegatingTrustManager(trust, host.getHostname()), key);
     }
@@ -101,6 +105,13 @@ public class DriveSession extends HttpSession<Drive> {
         return transport.getHttpClient();
     }
 
+    /**
+     * @return Queue coalescing metadata requests of concurrent callers
+     */
+    public DriveBatchQueue getBatch() {
+        return batch;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> T _getFeature(Class<T> type) {
@@ -110,6 +121,9 @@ public class DriveSession extends HttpSession<Drive> {
         if(type == Read.class) {
             return (T) new DriveReadFeature(this, fileid);
         }
+        if(type == Download.class) {
+            return (T) new ConcurrentRangeDownloadFeature(this.getFeature(Read.class));
+        }
         if(type == Write.class) {
             return (T) new DriveWriteFeature(this, fileid);
         }
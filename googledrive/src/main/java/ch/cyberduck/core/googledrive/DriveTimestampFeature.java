@@ -42,8 +42,8 @@ public class DriveTimestampFeature extends DefaultTimestampFeature {
             final String fileid = this.fileid.getFileid(file, new DisabledListProgressListener());
             final File properties = new File();
             properties.setModifiedTime(new DateTime(modified));
-            session.getClient().files().update(fileid, properties).setFields("modifiedTime").
-                setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+            session.getBatch().execute(session.getClient().files().update(fileid, properties).setFields("modifiedTime").
+                setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")));
         }
         catch(IOException e) {
             throw new DriveExceptionMappingService().map("Failure to write attributes of {0}", e, file);
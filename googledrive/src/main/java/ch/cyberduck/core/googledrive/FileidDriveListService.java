@@ -22,17 +22,30 @@ import ch.cyberduck.core.exception.BackgroundException;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.FileList;
+
 public class FileidDriveListService extends AbstractDriveListService {
 
+    private final DriveSession session;
     private final DriveFileidProvider provider;
     private final Path file;
 
     public FileidDriveListService(final DriveSession session, final DriveFileidProvider provider, final Path file) {
         super(session, provider, 1);
+        this.session = session;
         this.provider = provider;
         this.file = file;
     }
 
+    @Override
+    protected FileList execute(final Drive.Files.List request) throws IOException {
+        // Lookups of single files by name from concurrent callers are sent in batches
+        return session.getBatch().execute(request);
+    }
+
     @Override
     protected String query(final Path directory, final ListProgressListener listener) throws BackgroundException {
         // Surround with single quotes '. Escape single quotes in queries with \', e.g., 'Valentine\'s Day'.
@@ -0,0 +1,164 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.ssl.DefaultX509KeyManager;
+import ch.cyberduck.core.ssl.DisabledX509TrustManager;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+
+import static org.junit.Assert.*;
+
+public class DriveBatchQueueCoalesceTest {
+
+    private final Drive client = new Drive.Builder(new MockHttpTransport(), new GsonFactory(), null)
+        .setApplicationName("test").build();
+    private final DriveSession session = new DriveSession(new Host(new DriveProtocol()),
+        new DisabledX509TrustManager(), new DefaultX509KeyManager());
+
+    /**
+     * Respond with file of requested identifier after blocking the first batch
+     */
+    private final class BlockingQueue extends DriveBatchQueue {
+        private final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch entered;
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingQueue(final int concurrency) {
+            super(session, MAXIMUM_BATCH_SIZE, concurrency);
+            this.entered = new CountDownLatch(concurrency);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void run(final List<Entry<?>> batch) {
+            batches.add(batch.size());
+            entered.countDown();
+            try {
+                release.await();
+            }
+            catch(InterruptedException e) {
+                fail();
+            }
+            for(Entry entry : batch) {
+                entry.onSuccess(new File().setId(((Drive.Files.Get) entry.getRequest()).getFileId()), null);
+            }
+        }
+    }
+
+    private Thread submit(final DriveBatchQueue queue, final String id, final AtomicReference<Object> result) {
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    result.set(queue.execute(client.files().get(id)));
+                }
+                catch(IOException e) {
+                    result.set(e);
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void await(final Thread thread) throws InterruptedException {
+        while(thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(10L);
+        }
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        final BlockingQueue queue = new BlockingQueue(1);
+        final List<Thread> threads = new ArrayList<>();
+        final List<AtomicReference<Object>> results = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            final AtomicReference<Object> result = new AtomicReference<>();
+            results.add(result);
+            threads.add(this.submit(queue, String.valueOf(i), result));
+            if(i == 0) {
+                assertTrue(queue.entered.await(10L, TimeUnit.SECONDS));
+            }
+        }
+        for(Thread thread : threads.subList(1, threads.size())) {
+            await(thread);
+        }
+        queue.release.countDown();
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        // Requests submitted while first batch was running are sent together
+        assertEquals(2, queue.batches.size());
+        assertEquals(1, queue.batches.get(0).intValue());
+        assertEquals(4, queue.batches.get(1).intValue());
+        for(int i = 0; i < 5; i++) {
+            assertEquals(String.valueOf(i), ((File) results.get(i).get()).getId());
+        }
+    }
+
+    @Test
+    public void testConcurrentBatches() throws Exception {
+        final BlockingQueue queue = new BlockingQueue(2);
+        final AtomicReference<Object> first = new AtomicReference<>();
+        final AtomicReference<Object> second = new AtomicReference<>();
+        final Thread t1 = this.submit(queue, "1", first);
+        final Thread t2 = this.submit(queue, "2", second);
+        // Both batches running at the same time
+        assertTrue(queue.entered.await(10L, TimeUnit.SECONDS));
+        queue.release.countDown();
+        t1.join();
+        t2.join();
+        assertEquals(2, queue.batches.size());
+        assertEquals("1", ((File) first.get()).getId());
+        assertEquals("2", ((File) second.get()).getId());
+    }
+
+    @Test
+    public void testInterruptPending() throws Exception {
+        final BlockingQueue queue = new BlockingQueue(1);
+        final AtomicReference<Object> first = new AtomicReference<>();
+        final AtomicReference<Object> second = new AtomicReference<>();
+        final Thread t1 = this.submit(queue, "1", first);
+        assertTrue(queue.entered.await(10L, TimeUnit.SECONDS));
+        final Thread t2 = this.submit(queue, "2", second);
+        await(t2);
+        t2.interrupt();
+        t2.join();
+        assertTrue(second.get() instanceof IOException);
+        assertTrue(((IOException) second.get()).getCause() instanceof ConnectionCanceledException);
+        queue.release.countDown();
+        t1.join();
+        // Cancelled request not sent with next batch
+        assertEquals(Collections.singletonList(1), queue.batches);
+        assertEquals("1", ((File) first.get()).getId());
+    }
+}
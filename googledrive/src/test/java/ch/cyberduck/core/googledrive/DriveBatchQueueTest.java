@@ -0,0 +1,87 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.services.drive.model.File;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class DriveBatchQueueTest extends AbstractDriveTest {
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        final Path home = DriveHomeFinderService.MYDRIVE_FOLDER;
+        final DriveFileidProvider fileid = new DriveFileidProvider(session).withCache(cache);
+        final List<Path> files = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            final Path test = new Path(home, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+            new DriveTouchFeature(session, fileid).touch(test, new TransferStatus());
+            files.add(test);
+        }
+        final DriveBatchQueue queue = new DriveBatchQueue(session);
+        final ExecutorService executor = Executors.newFixedThreadPool(files.size());
+        final List<Future<File>> futures = new ArrayList<>();
+        for(final Path file : files) {
+            futures.add(executor.submit(new Callable<File>() {
+                @Override
+                public File call() throws Exception {
+                    return queue.execute(session.getClient().files().get(fileid.getFileid(file, new DisabledListProgressListener())).setFields("id,name"));
+                }
+            }));
+        }
+        for(int i = 0; i < files.size(); i++) {
+            final File f = futures.get(i).get();
+            assertEquals(files.get(i).getName(), f.getName());
+            assertEquals(files.get(i).attributes().getVersionId(), f.getId());
+        }
+        executor.shutdown();
+        new DriveBatchDeleteFeature(session, fileid).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
+    @Test
+    public void testFailureMapped() throws Exception {
+        final DriveBatchQueue queue = new DriveBatchQueue(session);
+        try {
+            queue.execute(session.getClient().files().get(UUID.randomUUID().toString()));
+            fail();
+        }
+        catch(GoogleJsonResponseException e) {
+            assertTrue(new DriveExceptionMappingService().map(e) instanceof NotfoundException);
+        }
+    }
+}
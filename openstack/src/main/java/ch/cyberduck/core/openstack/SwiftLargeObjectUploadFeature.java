@@ -31,6 +31,7 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
@@ -212,7 +213,9 @@ public class SwiftLargeObjectUploadFeature extends HttpUploadFeature<StorageObje
                     .skip(offset);
                 status.setHeader(overall.getHeader());
                 status.setNonces(overall.getNonces());
-                status.setChecksum(writer.checksum(segment).compute(local.getInputStream(), status));
+                if(!inline) {
+                    status.setChecksum(writer.checksum(segment).compute(local.getInputStream(), status));
+                }
                 status.setSegment(true);
                 return SwiftLargeObjectUploadFeature.super.upload(
                     segment, local, throttle, listener, status, overall, new StreamProgress() {
@@ -232,6 +235,24 @@ public class SwiftLargeObjectUploadFeature extends HttpUploadFeature<StorageObje
         }, overall));
     }
 
+    @Override
+    public boolean inline(final Path file, final TransferStatus status) {
+        return inline;
+    }
+
+    @Override
+    protected MessageDigest digest() throws IOException {
+        if(inline) {
+            return this.digest("MD5");
+        }
+        return null;
+    }
+
+    @Override
+    protected void post(final Path file, final MessageDigest digest, final StorageObject response) throws BackgroundException {
+        this.verify(file, digest, Checksum.parse(response.getMd5sum()));
+    }
+
     @Override
     public Upload<StorageObject> withWriter(final Write<StorageObject> writer) {
         this.writer = writer;
@@ -89,4 +89,9 @@ public class SwiftReadFeature implements Read {
     public boolean offset(final Path file) {
         return true;
     }
+
+    @Override
+    public boolean concurrent(final Path file) {
+        return true;
+    }
 }
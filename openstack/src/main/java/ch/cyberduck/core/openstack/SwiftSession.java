@@ -35,8 +35,10 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.LoginFailureException;
 import ch.cyberduck.core.features.*;
+import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.http.HttpSession;
 import ch.cyberduck.core.proxy.Proxy;
+import ch.cyberduck.core.shared.ConcurrentRangeDownloadFeature;
 import ch.cyberduck.core.shared.DelegatingSchedulerFeature;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
@@ -142,6 +144,9 @@ public class SwiftSession extends HttpSession<Client> {
         if(type == Read.class) {
             return (T) new SwiftReadFeature(this, regionService);
         }
+        if(type == Download.class) {
+            return (T) new ConcurrentRangeDownloadFeature(this.getFeature(Read.class));
+        }
         if(type == MultipartWrite.class) {
             return (T) new SwiftLargeUploadWriteFeature(this, regionService, new SwiftSegmentService(this, regionService));
         }
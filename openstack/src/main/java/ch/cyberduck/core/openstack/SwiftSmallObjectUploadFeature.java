@@ -28,7 +28,6 @@ import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -45,11 +44,8 @@ public class SwiftSmallObjectUploadFeature extends HttpUploadFeature<StorageObje
     protected InputStream decorate(final InputStream in, final MessageDigest digest) throws IOException {
         if(null == digest) {
             log.warn("MD5 calculation disabled");
-            return super.decorate(in, null);
-        }
-        else {
-            return new DigestInputStream(super.decorate(in, digest), digest);
         }
+        return super.decorate(in, digest);
     }
 
     @Override
@@ -73,22 +73,7 @@ public class SwiftThresholdUploadService implements Upload<StorageObject> {
     @Override
     public StorageObject upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                                 final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final Upload<StorageObject> feature;
-        if(status.getLength() > threshold) {
-            if(!preferences.getBoolean("openstack.upload.largeobject")) {
-                // Disabled by user
-                if(status.getLength() < preferences.getLong("openstack.upload.largeobject.required.threshold")) {
-                    log.warn("Large upload is disabled with property openstack.upload.largeobject");
-                    return new SwiftSmallObjectUploadFeature(writer).upload(file, local, throttle, listener, status, callback);
-                }
-            }
-            feature = new SwiftLargeObjectUploadFeature(session, regionService, writer,
-                    preferences.getLong("openstack.upload.largeobject.size"),
-                    preferences.getInteger("openstack.upload.largeobject.concurrency"));
-        }
-        else {
-            feature = new SwiftSmallObjectUploadFeature(writer);
-        }
+        final Upload<StorageObject> feature = this.feature(status);
         // Previous segments to delete
         final List<Path> segments = new ArrayList<Path>();
         if(preferences.getBoolean("openstack.upload.largeobject.cleanup")) {
@@ -105,6 +90,27 @@ public class SwiftThresholdUploadService implements Upload<StorageObject> {
         return checksum;
     }
 
+    @Override
+    public boolean inline(final Path file, final TransferStatus status) {
+        return this.feature(status).inline(file, status);
+    }
+
+    private Upload<StorageObject> feature(final TransferStatus status) {
+        if(status.getLength() > threshold) {
+            if(!preferences.getBoolean("openstack.upload.largeobject")) {
+                // Disabled by user
+                if(status.getLength() < preferences.getLong("openstack.upload.largeobject.required.threshold")) {
+                    log.warn("Large upload is disabled with property openstack.upload.largeobject");
+                    return new SwiftSmallObjectUploadFeature(writer);
+                }
+            }
+            return new SwiftLargeObjectUploadFeature(session, regionService, writer,
+                    preferences.getLong("openstack.upload.largeobject.size"),
+                    preferences.getInteger("openstack.upload.largeobject.concurrency"));
+        }
+        return new SwiftSmallObjectUploadFeature(writer);
+    }
+
     @Override
     public Upload<StorageObject> withWriter(final Write<StorageObject> writer) {
         this.writer = writer;
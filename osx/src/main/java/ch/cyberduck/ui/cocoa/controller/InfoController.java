@@ -2411,8 +2411,9 @@ public class InfoController extends ToolbarWindowController {
     @Action
     public void calculateSizeButtonClicked(final ID sender) {
         if(this.toggleSizeSettings(false)) {
+            // Stateful pool with a single session is already borrowed by the worker
             controller.background(new WorkerBackgroundAction<Long>(controller, session,
-                new CalculateSizeWorker(files, controller) {
+                new CalculateSizeWorker(files, controller, session.getHost().getProtocol().isStateful() ? null : session) {
                     @Override
                     public void cleanup(final Long size) {
                         setSize(size);
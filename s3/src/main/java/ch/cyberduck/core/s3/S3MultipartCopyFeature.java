@@ -19,10 +19,17 @@ package ch.cyberduck.core.s3;
 
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.InteroperabilityException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
 import ch.cyberduck.core.http.HttpRange;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -36,29 +43,33 @@ import org.jets3t.service.model.MultipartPart;
 import org.jets3t.service.model.MultipartUpload;
 import org.jets3t.service.model.S3Object;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
 public class S3MultipartCopyFeature extends S3CopyFeature {
     private static final Logger log = Logger.getLogger(S3MultipartCopyFeature.class);
 
+    private final Preferences preferences
+        = PreferencesFactory.get();
+
     private final S3Session session;
 
     private final PathContainerService containerService
         = new S3PathContainerService();
 
-    private final ThreadPool pool
-        = ThreadPoolFactory.get("multipart", PreferencesFactory.get().getInteger("s3.upload.multipart.concurrency"));
+    private final S3DefaultMultipartService multipartService;
 
     /**
      * A split smaller than 5M is not allowed
      */
     private final Long partsize
-        = PreferencesFactory.get().getLong("s3.copy.multipart.size");
+        = preferences.getLong("s3.copy.multipart.size");
 
     public S3MultipartCopyFeature(final S3Session session) {
         this(session, new S3AccessControlListFeature(session));
@@ -67,51 +78,70 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
     public S3MultipartCopyFeature(final S3Session session, final S3AccessControlListFeature acl) {
         super(session, acl);
         this.session = session;
+        this.multipartService = new S3DefaultMultipartService(session);
     }
 
     @Override
     protected String copy(final Path source, final S3Object destination, final TransferStatus status) throws BackgroundException {
+        final long size = status.getLength();
+        final S3MultipartCopyWindow window = new S3MultipartCopyWindow(size, partsize,
+            preferences.getInteger("s3.upload.multipart.concurrency"), preferences.getInteger("s3.copy.multipart.concurrency"));
+        final ThreadPool pool = ThreadPoolFactory.get("multipart", preferences.getInteger("s3.copy.multipart.concurrency"));
         try {
             final List<MultipartPart> completed = new ArrayList<MultipartPart>();
-            // ID for the initiated multipart upload.
-            final MultipartUpload multipart = session.getClient().multipartStartUpload(
-                destination.getBucketName(), destination);
-            if(log.isDebugEnabled()) {
-                log.debug(String.format("Multipart upload started for %s with ID %s",
-                    multipart.getObjectKey(), multipart.getUploadId()));
-            }
-            final long size = status.getLength();
-            long remaining = size;
             long offset = 0;
-            final List<Future<MultipartPart>> parts = new ArrayList<Future<MultipartPart>>();
-            for(int partNumber = 1; remaining > 0; partNumber++) {
-                // Last part can be less than 5 MB. Adjust part size.
-                final Long length = Math.min(Math.max((size / S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS), partsize), remaining);
-                // Submit to queue
-                parts.add(this.submit(source, multipart, partNumber, offset, length));
-                remaining -= length;
-                offset += length;
-            }
-            for(Future<MultipartPart> future : parts) {
-                try {
-                    completed.add(future.get());
+            final S3MultipartCopyReference reference = new S3MultipartCopyReference(session.getHost(),
+                containerService.getContainer(source).getName(), containerService.getKey(source),
+                source.attributes().getVersionId(), source.attributes().getETag(),
+                destination.getBucketName(), destination.getKey());
+            MultipartUpload multipart = this.find(reference, destination);
+            if(null == multipart) {
+                // ID for the initiated multipart upload.
+                multipart = session.getClient().multipartStartUpload(
+                    destination.getBucketName(), destination);
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Multipart upload started for %s with ID %s",
+                        multipart.getObjectKey(), multipart.getUploadId()));
                 }
-                catch(InterruptedException e) {
-                    log.error("Part upload failed with interrupt failure");
-                    throw new ConnectionCanceledException(e);
+                if(preferences.getBoolean("s3.copy.multipart.resume")) {
+                    reference.save(multipart.getUploadId());
                 }
-                catch(ExecutionException e) {
-                    log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
-                    if(e.getCause() instanceof BackgroundException) {
-                        throw (BackgroundException) e.getCause();
+            }
+            else {
+                // Continue after parts completed in sequence
+                final List<MultipartPart> parts = multipartService.list(multipart);
+                parts.sort(new MultipartPart.PartNumberComparator());
+                for(MultipartPart part : parts) {
+                    if(part.getPartNumber() != completed.size() + 1 || offset + part.getSize() > size) {
+                        break;
+                    }
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Skip completed part number %d", part.getPartNumber()));
                     }
-                    throw new BackgroundException(e.getCause());
+                    completed.add(part);
+                    offset += part.getSize();
+                }
+            }
+            final Deque<Future<MultipartPart>> parts = new ArrayDeque<Future<MultipartPart>>();
+            for(int partNumber = completed.size() + 1; offset < size; partNumber++) {
+                while(parts.size() >= window.concurrency()) {
+                    // Wait for oldest part to complete
+                    completed.add(this.get(parts.remove()));
                 }
+                // Last part can be less than 5 MB. Adjust part size.
+                final long length = window.length(partNumber, size - offset);
+                // Submit to queue
+                parts.add(this.submit(pool, window, source, multipart, partNumber, offset, length, status));
+                offset += length;
+            }
+            while(!parts.isEmpty()) {
+                completed.add(this.get(parts.remove()));
             }
             // Combining all the given parts into the final object. Processing of a Complete Multipart Upload request
             // could take several minutes to complete. Because a request could fail after the initial 200 OK response
             // has been sent, it is important that you check the response body to determine whether the request succeeded.
             final MultipartCompleted complete = session.getClient().multipartCompleteUpload(multipart, completed);
+            reference.delete();
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Completed multipart upload for %s with checksum %s",
                     complete.getObjectKey(), complete.getEtag()));
@@ -122,20 +152,83 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
             throw new S3ExceptionMappingService().map("Cannot copy {0}", e, source);
         }
         finally {
+            // Cancel future tasks
             pool.shutdown(false);
         }
     }
 
-    private Future<MultipartPart> submit(final Path source,
+    /**
+     * Find pending multipart upload of previous interrupted copy. Only an upload recorded for the same version of
+     * the source is resumed and pending uploads of other copies or uploads to the same key are ignored.
+     *
+     * @return Null if not found
+     */
+    protected MultipartUpload find(final S3MultipartCopyReference reference, final S3Object destination) throws BackgroundException {
+        if(!preferences.getBoolean("s3.copy.multipart.resume")) {
+            return null;
+        }
+        final String id = reference.find();
+        if(null == id) {
+            return null;
+        }
+        final Path target = new Path(new Path(PathNormalizer.normalize(destination.getBucketName()),
+            EnumSet.of(Path.Type.directory, Path.Type.volume)), destination.getKey(), EnumSet.of(Path.Type.file));
+        try {
+            // Sorted with newest upload first
+            for(MultipartUpload upload : multipartService.find(target)) {
+                if(!StringUtils.equals(upload.getObjectKey(), destination.getKey())) {
+                    continue;
+                }
+                if(!StringUtils.equals(upload.getUploadId(), id)) {
+                    continue;
+                }
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Resume copy with multipart upload %s", upload.getUploadId()));
+                }
+                return upload;
+            }
+        }
+        catch(AccessDeniedException | InteroperabilityException e) {
+            log.warn(String.format("Ignore failure listing incomplete multipart uploads. %s", e.getDetail()));
+            return null;
+        }
+        // Upload no longer pending
+        reference.delete();
+        return null;
+    }
+
+    private MultipartPart get(final Future<MultipartPart> future) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            log.error("Part upload failed with interrupt failure");
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+    }
+
+    private Future<MultipartPart> submit(final ThreadPool pool, final S3MultipartCopyWindow window, final Path source,
                                          final MultipartUpload multipart,
-                                         final int partNumber, final long offset, final long length) {
+                                         final int partNumber, final long offset, final long length,
+                                         final TransferStatus overall) {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, source, offset, length));
         }
-        return pool.execute(new Callable<MultipartPart>() {
+        return pool.execute(new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
             @Override
             public MultipartPart call() throws BackgroundException {
+                if(overall.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
                 try {
+                    final long start = System.nanoTime();
                     final HttpRange range = HttpRange.byLength(offset, length);
                     final MultipartPart part = session.getClient().multipartUploadPartCopy(multipart, partNumber,
                         containerService.getContainer(source).getName(), containerService.getKey(source),
@@ -143,16 +236,22 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Received response %s for part number %d", part, partNumber));
                     }
+                    window.success(length, System.nanoTime() - start);
                     // Populate part with response data that is accessible via the object's metadata
                     return new MultipartPart(partNumber,
                         null == part.getLastModified() ? new Date(System.currentTimeMillis()) : part.getLastModified(),
                         null == part.getEtag() ? StringUtils.EMPTY : part.getEtag(),
-                        part.getSize());
+                        length);
                 }
                 catch(S3ServiceException e) {
-                    throw new S3ExceptionMappingService().map("Cannot copy {0}", e, source);
+                    final BackgroundException failure = new S3ExceptionMappingService().map("Cannot copy {0}", e, source);
+                    if(failure instanceof RetriableAccessDeniedException) {
+                        // Slow down
+                        window.throttled();
+                    }
+                    throw failure;
                 }
             }
-        });
+        }, overall));
     }
 }
@@ -0,0 +1,145 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Identifier of a multipart upload initiated to copy a given version of a source object to a destination key. The
+ * listing of pending multipart uploads does not include the source of the copy, so the upload ID is kept in the
+ * application support folder with a name derived from source and destination. Only an upload found here may be
+ * resumed.
+ */
+public class S3MultipartCopyReference {
+    private static final Logger log = Logger.getLogger(S3MultipartCopyReference.class);
+
+    /**
+     * Null if the source version cannot be identified
+     */
+    private final Local file;
+
+    /**
+     * @param host              Bookmark
+     * @param sourceBucket      Bucket of source object
+     * @param sourceKey         Key of source object
+     * @param sourceVersion     Version ID of source object or null
+     * @param sourceETag        ETag of source object or null
+     * @param destinationBucket Bucket of target object
+     * @param destinationKey    Key of target object
+     */
+    public S3MultipartCopyReference(final Host host, final String sourceBucket, final String sourceKey,
+                                    final String sourceVersion, final String sourceETag,
+                                    final String destinationBucket, final String destinationKey) {
+        this(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Multipart"),
+            new HostUrlProvider().withUsername(true).get(host),
+            sourceBucket, sourceKey, sourceVersion, sourceETag, destinationBucket, destinationKey);
+    }
+
+    protected S3MultipartCopyReference(final Local folder, final String url, final String sourceBucket, final String sourceKey,
+                                       final String sourceVersion, final String sourceETag,
+                                       final String destinationBucket, final String destinationKey) {
+        if(StringUtils.isBlank(sourceVersion) && StringUtils.isBlank(sourceETag)) {
+            this.file = null;
+        }
+        else {
+            this.file = LocalFactory.get(folder, DigestUtils.sha1Hex(String.format("%s|%s/%s|%s|%s|%s/%s",
+                url, sourceBucket, sourceKey, StringUtils.defaultString(sourceVersion), StringUtils.defaultString(sourceETag),
+                destinationBucket, destinationKey)));
+        }
+    }
+
+    /**
+     * @return Upload ID of previous copy of the same source version to the same target or null
+     */
+    public String find() {
+        if(null == file || !file.exists()) {
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = file.getInputStream();
+            return StringUtils.trimToNull(IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+        catch(AccessDeniedException | IOException e) {
+            log.warn(String.format("Failure reading multipart upload reference %s. %s", file, e.getMessage()));
+            return null;
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * @param uploadId Upload ID of initiated multipart upload
+     */
+    public void save(final String uploadId) {
+        if(null == file) {
+            // Not allowed to resume without knowing the source version
+            return;
+        }
+        OutputStream out = null;
+        try {
+            if(!file.getParent().exists()) {
+                new DefaultLocalDirectoryFeature().mkdir(file.getParent());
+            }
+            out = file.getOutputStream(false);
+            IOUtils.write(uploadId, out, StandardCharsets.UTF_8);
+        }
+        catch(AccessDeniedException | IOException e) {
+            log.warn(String.format("Failure saving multipart upload reference %s. %s", file, e.getMessage()));
+        }
+        finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    public void delete() {
+        if(null == file || !file.exists()) {
+            return;
+        }
+        try {
+            file.delete();
+        }
+        catch(AccessDeniedException | NotfoundException e) {
+            log.warn(String.format("Failure deleting multipart upload reference %s. %s", file, e.getMessage()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("S3MultipartCopyReference{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
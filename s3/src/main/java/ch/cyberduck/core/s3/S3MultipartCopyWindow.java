@@ -0,0 +1,111 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Part size and number of concurrent part copies adjusted to observed latency of server side part copies. Parts
+ * completing quickly are dominated by request overhead and the part size is doubled. Parts taking too long risk
+ * timeouts and costly retries and the part size is halved. Concurrency is reduced when throttled by the server.
+ */
+public class S3MultipartCopyWindow {
+    private static final Logger log = Logger.getLogger(S3MultipartCopyWindow.class);
+
+    /**
+     * Maximum size of a part copy
+     */
+    public static final long MAXIMUM_PART_SIZE = 5L * 1024L * 1024L * 1024L;
+
+    private static final long LOWER_LATENCY = TimeUnit.SECONDS.toNanos(10L);
+    private static final long UPPER_LATENCY = TimeUnit.SECONDS.toNanos(120L);
+
+    private final long minimum;
+    private final int limit;
+
+    private long partsize;
+    private int concurrency;
+
+    /**
+     * @param size        Size of object to copy
+     * @param minimum     Minimum part size
+     * @param concurrency Initial number of concurrent part copies
+     * @param limit       Maximum number of concurrent part copies
+     */
+    public S3MultipartCopyWindow(final long size, final long minimum, final int concurrency, final int limit) {
+        this.minimum = Math.min(minimum, MAXIMUM_PART_SIZE);
+        this.limit = Math.max(1, limit);
+        this.partsize = Math.min(Math.max(this.minimum, size / (S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS - 1)), MAXIMUM_PART_SIZE);
+        // No more concurrent copies than parts
+        this.concurrency = (int) Math.max(1, Math.min(Math.min(concurrency, this.limit), (size + partsize - 1) / partsize));
+    }
+
+    /**
+     * @param partNumber Part number starting at 1
+     * @param remaining  Number of bytes not yet submitted
+     * @return Length of next part leaving enough part numbers for remaining bytes
+     */
+    public synchronized long length(final int partNumber, final long remaining) {
+        final int parts = Math.max(1, S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS - partNumber + 1);
+        final long required = (remaining + parts - 1) / parts;
+        return Math.min(Math.max(partsize, required), remaining);
+    }
+
+    public synchronized int concurrency() {
+        return concurrency;
+    }
+
+    public synchronized long partsize() {
+        return partsize;
+    }
+
+    /**
+     * @param length Length of part copied
+     * @param time   Nanoseconds elapsed for part copy
+     */
+    public synchronized void success(final long length, final long time) {
+        if(length < partsize) {
+            // Last part or part size changed since submitted
+            return;
+        }
+        if(time < LOWER_LATENCY) {
+            partsize = Math.min(partsize * 2, MAXIMUM_PART_SIZE);
+            concurrency = Math.min(concurrency + 1, limit);
+        }
+        else if(time > UPPER_LATENCY) {
+            partsize = Math.max(partsize / 2, minimum);
+        }
+        else {
+            return;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Adjust part size to %d and concurrency to %d for latency %dms",
+                partsize, concurrency, TimeUnit.NANOSECONDS.toMillis(time)));
+        }
+    }
+
+    /**
+     * Server responded with slow down
+     */
+    public synchronized void throttled() {
+        concurrency = Math.max(1, concurrency / 2);
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Reduce concurrency to %d", concurrency));
+        }
+    }
+}
@@ -22,6 +22,7 @@ import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.Scheme;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ChecksumException;
@@ -31,13 +32,16 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.ConcurrentChecksumCompute;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.ForkJoinThreadPool;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -51,9 +55,11 @@ import org.jets3t.service.model.MultipartUpload;
 import org.jets3t.service.model.S3Object;
 import org.jets3t.service.model.StorageObject;
 
+import java.io.IOException;
 import java.security.MessageDigest;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -133,7 +139,7 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
             try {
                 // Full size of file
                 final long size = status.getLength() + status.getOffset();
-                final List<Future<MultipartPart>> parts = new ArrayList<Future<MultipartPart>>();
+                final List<TransferStatus> segments = new ArrayList<TransferStatus>();
                 long remaining = status.getLength();
                 long offset = 0;
                 for(int partNumber = 1; remaining > 0; partNumber++) {
@@ -156,27 +162,46 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                     if(!skip) {
                         // Last part can be less than 5 MB. Adjust part size.
                         final Long length = Math.min(Math.max((size / (S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS - 1)), partsize), remaining);
-                        // Submit to queue
-                        parts.add(this.submit(pool, file, local, throttle, listener, status, multipart, partNumber, offset, length, callback));
+                        final TransferStatus segment = new TransferStatus().length(length).skip(offset);
+                        segment.setPart(partNumber);
+                        segments.add(segment);
                         remaining -= length;
                         offset += length;
                     }
                 }
-                for(Future<MultipartPart> future : parts) {
-                    try {
-                        completed.add(future.get());
+                final List<Future<Checksum>> checksums = this.checksum(file, local, segments);
+                try {
+                    final List<Future<MultipartPart>> parts = new ArrayList<Future<MultipartPart>>();
+                    for(int i = 0; i < segments.size(); i++) {
+                        final TransferStatus segment = segments.get(i);
+                        // Submit to queue
+                        parts.add(this.submit(pool, file, local, throttle, listener, status, multipart,
+                            segment.getPart(), segment.getOffset(), segment.getLength(), checksums.get(i), callback));
                     }
-                    catch(InterruptedException e) {
-                        log.error("Part upload failed with interrupt failure");
-                        status.setCanceled();
-                        throw new ConnectionCanceledException(e);
+                    for(Future<MultipartPart> future : parts) {
+                        try {
+                            completed.add(future.get());
+                        }
+                        catch(InterruptedException e) {
+                            log.error("Part upload failed with interrupt failure");
+                            status.setCanceled();
+                            throw new ConnectionCanceledException(e);
+                        }
+                        catch(ExecutionException e) {
+                            log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
+                            if(e.getCause() instanceof BackgroundException) {
+                                throw (BackgroundException) e.getCause();
+                            }
+                            throw new BackgroundException(e.getCause());
+                        }
                     }
-                    catch(ExecutionException e) {
-                        log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
-                        if(e.getCause() instanceof BackgroundException) {
-                            throw (BackgroundException) e.getCause();
+                }
+                finally {
+                    // Discard pending checksum calculations
+                    for(Future<Checksum> checksum : checksums) {
+                        if(null != checksum) {
+                            checksum.cancel(true);
                         }
-                        throw new BackgroundException(e.getCause());
                     }
                 }
                 // Combining all the given parts into the final object. Processing of a Complete Multipart Upload request
@@ -232,10 +257,29 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
         }
     }
 
+    /**
+     * Calculate checksums of parts in order using all processors when required for signing requests. Parts are
+     * uploaded as soon as their checksum is available.
+     *
+     * @return Pending checksum for each segment or null if to be calculated when uploading part
+     */
+    private List<Future<Checksum>> checksum(final Path file, final Local local, final List<TransferStatus> segments) throws BackgroundException {
+        if(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256 == session.getSignatureVersion()) {
+            if(!inline || Scheme.https != session.getHost().getProtocol().getScheme()) {
+                // Checksum of encrypted content depends on nonces of part
+                if(!file.getType().contains(Path.Type.encrypted)) {
+                    return new ConcurrentChecksumCompute(writer.checksum(file)).submit(local, segments);
+                }
+            }
+        }
+        return Collections.nCopies(segments.size(), null);
+    }
+
     private Future<MultipartPart> submit(final ThreadPool pool, final Path file, final Local local,
                                          final BandwidthThrottle throttle, final StreamListener listener,
                                          final TransferStatus overall, final MultipartUpload multipart,
-                                         final int partNumber, final long offset, final long length, final ConnectionCallback callback) {
+                                         final int partNumber, final long offset, final long length, final Future<Checksum> checksum,
+                                         final ConnectionCallback callback) {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, file, offset, length));
         }
@@ -256,7 +300,15 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                 status.setNonces(overall.getNonces());
                 switch(session.getSignatureVersion()) {
                     case AWS4HMACSHA256:
-                        status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
+                        if(inline && Scheme.https == session.getHost().getProtocol().getScheme()) {
+                            status.setChecksum(S3WriteFeature.UNSIGNED_PAYLOAD);
+                        }
+                        else if(null != checksum) {
+                            status.setChecksum(ForkJoinThreadPool.get(checksum));
+                        }
+                        else {
+                            status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
+                        }
                         break;
                 }
                 status.setSegment(true);
@@ -287,6 +339,28 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
         }, overall));
     }
 
+    @Override
+    public boolean inline(final Path file, final TransferStatus status) {
+        return inline;
+    }
+
+    @Override
+    protected MessageDigest digest() throws IOException {
+        if(inline) {
+            return this.digest("MD5");
+        }
+        return null;
+    }
+
+    @Override
+    protected void post(final Path file, final MessageDigest digest, final StorageObject part) throws BackgroundException {
+        if(null != part.getServerSideEncryptionAlgorithm()) {
+            log.warn(String.format("Skip checksum verification for %s with server side encryption enabled", file));
+            return;
+        }
+        this.verify(file, digest, Checksum.parse(part.getETag()));
+    }
+
     @Override
     public Upload<StorageObject> withWriter(final Write<StorageObject> writer) {
         this.writer = writer;
@@ -23,12 +23,16 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.collections.Partition;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Versioning;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
 import org.apache.log4j.Logger;
 import org.jets3t.service.ServiceException;
 import org.jets3t.service.model.MultipartUpload;
@@ -40,10 +44,18 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class S3MultipleDeleteFeature implements Delete {
     private static final Logger log = Logger.getLogger(S3MultipleDeleteFeature.class);
 
+    /**
+     * Error code when exceeding the request rate
+     */
+    private static final String SLOW_DOWN = "SlowDown";
+
     private final S3Session session;
 
     private final PathContainerService containerService
@@ -53,26 +65,43 @@ public class S3MultipleDeleteFeature implements Delete {
 
     private final Versioning versioningService;
 
+    /**
+     * Maximum number of concurrent requests
+     */
+    private final int concurrency;
+    /**
+     * Number of retries and initial delay in milliseconds for requests throttled by the server
+     */
+    private final int retry;
+    private final long backoff;
+
     public S3MultipleDeleteFeature(final S3Session session) {
         this(session, new S3DefaultMultipartService(session));
     }
 
     public S3MultipleDeleteFeature(final S3Session session, final S3MultipartService multipartService) {
+        this(session, multipartService, PreferencesFactory.get().getInteger("s3.delete.multiple.concurrency"));
+    }
+
+    public S3MultipleDeleteFeature(final S3Session session, final S3MultipartService multipartService, final int concurrency) {
         this.session = session;
         this.multipartService = multipartService;
         this.versioningService = session.getFeature(Versioning.class);
+        this.concurrency = concurrency;
+        this.retry = PreferencesFactory.get().getInteger("s3.delete.multiple.slowdown.retry");
+        this.backoff = PreferencesFactory.get().getLong("s3.delete.multiple.slowdown.delay");
     }
 
     public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
-        final Map<Path, List<ObjectKeyAndVersion>> map = new HashMap<Path, List<ObjectKeyAndVersion>>();
+        final Map<Path, List<Path>> map = new HashMap<Path, List<Path>>();
         final List<Path> containers = new ArrayList<Path>();
         for(Path file : files) {
             if(containerService.isContainer(file)) {
                 containers.add(file);
                 continue;
             }
-            callback.delete(file);
             if(file.getType().contains(Path.Type.upload)) {
+                callback.delete(file);
                 // In-progress multipart upload
                 try {
                     multipartService.delete(new MultipartUpload(file.attributes().getVersionId(),
@@ -84,22 +113,20 @@ public class S3MultipleDeleteFeature implements Delete {
             }
             else {
                 final Path container = containerService.getContainer(file);
-                final List<ObjectKeyAndVersion> keys = new ArrayList<ObjectKeyAndVersion>();
                 // Always returning 204 even if the key does not exist. Does not return 404 for non-existing keys
-                keys.add(new ObjectKeyAndVersion(containerService.getKey(file), file.attributes().getVersionId()));
                 if(map.containsKey(container)) {
-                    map.get(container).addAll(keys);
+                    map.get(container).add(file);
                 }
                 else {
+                    final List<Path> keys = new ArrayList<Path>();
+                    keys.add(file);
                     map.put(container, keys);
                 }
             }
         }
         // Iterate over all containers and delete list of keys
-        for(Map.Entry<Path, List<ObjectKeyAndVersion>> entry : map.entrySet()) {
-            final Path container = entry.getKey();
-            final List<ObjectKeyAndVersion> keys = entry.getValue();
-            this.delete(container, keys, prompt);
+        for(Map.Entry<Path, List<Path>> entry : map.entrySet()) {
+            this.delete(entry.getKey(), entry.getValue(), prompt, callback);
         }
         for(Path file : containers) {
             callback.delete(file);
@@ -122,13 +149,32 @@ public class S3MultipleDeleteFeature implements Delete {
      * @throws ch.cyberduck.core.exception.ConnectionCanceledException Authentication canceled for MFA delete
      */
     public void delete(final Path container, final List<ObjectKeyAndVersion> keys, final PasswordCallback prompt)
+        throws BackgroundException {
+        final List<Path> files = new ArrayList<Path>();
+        for(ObjectKeyAndVersion key : keys) {
+            final Path file = new Path(container, key.getKey(), EnumSet.of(Path.Type.file));
+            file.attributes().setVersionId(key.getVersion());
+            files.add(file);
+        }
+        this.delete(container, files, prompt, new DisabledCallback());
+    }
+
+    /**
+     * Delete keys in partitions of up to 1000 keys with multiple concurrent requests
+     *
+     * @param container Bucket
+     * @param files     Files in bucket
+     * @param prompt    Password input
+     * @param callback  Notified for every file after the request containing its key completed
+     */
+    protected void delete(final Path container, final List<Path> files, final PasswordCallback prompt, final Callback callback)
         throws BackgroundException {
         try {
             if(versioningService != null
                 && versioningService.getConfiguration(container).isMultifactor()) {
                 final Credentials factor = versioningService.getToken(StringUtils.EMPTY, prompt);
                 final MultipleDeleteResult result = session.getClient().deleteMultipleObjectsWithMFA(container.getName(),
-                    keys.toArray(new ObjectKeyAndVersion[keys.size()]),
+                    this.toKeys(files),
                     factor.getUsername(),
                     factor.getPassword(),
                     // Only include errors in response
@@ -146,33 +192,123 @@ public class S3MultipleDeleteFeature implements Delete {
                             new Path(container, error.getKey(), EnumSet.of(Path.Type.file)));
                     }
                 }
+                for(Path file : files) {
+                    callback.delete(file);
+                }
+                return;
             }
-            else {
-                // Request contains a list of up to 1000 keys that you want to delete
-                for(List<ObjectKeyAndVersion> partition : new Partition<ObjectKeyAndVersion>(keys, PreferencesFactory.get().getInteger("s3.delete.multiple.partition"))) {
-                    final MultipleDeleteResult result = session.getClient().deleteMultipleObjects(container.getName(),
-                        partition.toArray(new ObjectKeyAndVersion[partition.size()]),
-                        // Only include errors in response
-                        true);
-                    if(result.hasErrors()) {
-                        for(MultipleDeleteResult.ErrorResult error : result.getErrorResults()) {
-                            if(StringUtils.equals("ObjectNotFound", error.getErrorCode())) {
-                                // Ignore failure deleting placeholder
-                                continue;
-                            }
-                            final ServiceException failure = new ServiceException();
-                            failure.setErrorCode(error.getErrorCode());
-                            failure.setErrorMessage(error.getMessage());
-                            throw new S3ExceptionMappingService().map("Cannot delete {0}", failure,
-                                new Path(container, error.getKey(), EnumSet.of(Path.Type.file)));
+        }
+        catch(ServiceException e) {
+            throw new S3ExceptionMappingService().map("Cannot delete {0}", e, container);
+        }
+        // Request contains a list of up to 1000 keys that you want to delete
+        final Partition<Path> partitions = new Partition<Path>(files, PreferencesFactory.get().getInteger("s3.delete.multiple.partition"));
+        if(partitions.size() == 1) {
+            this.delete(container, partitions.get(0), callback);
+            return;
+        }
+        final ThreadPool pool = ThreadPoolFactory.get("delete", concurrency);
+        try {
+            final List<Future<Void>> batches = new ArrayList<Future<Void>>();
+            for(final List<Path> partition : partitions) {
+                batches.add(pool.execute(new Callable<Void>() {
+                    @Override
+                    public Void call() throws BackgroundException {
+                        delete(container, partition, callback);
+                        return null;
+                    }
+                }));
+            }
+            for(Future<Void> batch : batches) {
+                try {
+                    batch.get();
+                }
+                catch(InterruptedException e) {
+                    log.error("Delete failed with interrupt failure");
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Delete failed with execution failure %s", e.getMessage()));
+                    if(e.getCause() instanceof BackgroundException) {
+                        throw (BackgroundException) e.getCause();
+                    }
+                    throw new BackgroundException(e.getCause());
+                }
+            }
+        }
+        finally {
+            // Cancel pending requests
+            pool.shutdown(false);
+        }
+    }
+
+    /**
+     * Single multiple object delete request. Keys rejected with SlowDown are retried with exponential backoff.
+     */
+    private void delete(final Path container, final List<Path> files, final Callback callback) throws BackgroundException {
+        ObjectKeyAndVersion[] keys = this.toKeys(files);
+        long delay = backoff;
+        for(int attempt = 0; ; attempt++) {
+            ServiceException failure;
+            try {
+                final MultipleDeleteResult result = session.getClient().deleteMultipleObjects(container.getName(),
+                    keys,
+                    // Only include errors in response
+                    true);
+                final List<ObjectKeyAndVersion> throttled = new ArrayList<ObjectKeyAndVersion>();
+                failure = null;
+                if(result.hasErrors()) {
+                    for(MultipleDeleteResult.ErrorResult error : result.getErrorResults()) {
+                        if(StringUtils.equals("ObjectNotFound", error.getErrorCode())) {
+                            // Ignore failure deleting placeholder
+                            continue;
+                        }
+                        failure = new ServiceException();
+                        failure.setErrorCode(error.getErrorCode());
+                        failure.setErrorMessage(error.getMessage());
+                        if(StringUtils.equals(SLOW_DOWN, error.getErrorCode())) {
+                            throttled.add(new ObjectKeyAndVersion(error.getKey(), error.getVersion()));
+                            continue;
                         }
+                        throw new S3ExceptionMappingService().map("Cannot delete {0}", failure,
+                            new Path(container, error.getKey(), EnumSet.of(Path.Type.file)));
                     }
                 }
+                if(throttled.isEmpty()) {
+                    break;
+                }
+                keys = throttled.toArray(new ObjectKeyAndVersion[throttled.size()]);
+            }
+            catch(ServiceException e) {
+                if(!StringUtils.equals(SLOW_DOWN, e.getErrorCode()) && e.getResponseCode() != HttpStatus.SC_SERVICE_UNAVAILABLE) {
+                    throw new S3ExceptionMappingService().map("Cannot delete {0}", e, container);
+                }
+                failure = e;
+            }
+            if(attempt >= retry) {
+                throw new S3ExceptionMappingService().map("Cannot delete {0}", failure, container);
+            }
+            log.warn(String.format("Retry %d keys in %s after %dms for failure %s", keys.length, container, delay, failure.getErrorCode()));
+            try {
+                Thread.sleep(delay);
             }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            delay *= 2;
         }
-        catch(ServiceException e) {
-            throw new S3ExceptionMappingService().map("Cannot delete {0}", e, container);
+        for(Path file : files) {
+            callback.delete(file);
+        }
+    }
+
+    private ObjectKeyAndVersion[] toKeys(final List<Path> files) {
+        final ObjectKeyAndVersion[] keys = new ObjectKeyAndVersion[files.size()];
+        for(int i = 0; i < files.size(); i++) {
+            final Path file = files.get(i);
+            keys[i] = new ObjectKeyAndVersion(containerService.getKey(file), file.attributes().getVersionId());
         }
+        return keys;
     }
 
     @Override
@@ -29,20 +29,37 @@ import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.jets3t.service.ServiceException;
 import org.jets3t.service.StorageObjectsChunk;
 import org.jets3t.service.model.StorageObject;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class S3ObjectListService extends S3AbstractListService implements ListService {
     private static final Logger log = Logger.getLogger(S3ObjectListService.class);
 
+    /**
+     * Characters to sample partition boundaries of flat keyspace with
+     */
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
     private final Preferences preferences
         = PreferencesFactory.get();
 
@@ -52,9 +69,20 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
     private final S3Session session;
     private final S3AttributesFinderFeature attributes;
 
+    /**
+     * Maximum number of partitions listed concurrently for listings without delimiter
+     */
+    private final Integer concurrency;
+
     public S3ObjectListService(final S3Session session) {
+        this(session, PreferencesFactory.get().getBoolean("s3.listing.partitioned") ?
+            PreferencesFactory.get().getInteger("s3.listing.concurrency") : 1);
+    }
+
+    public S3ObjectListService(final S3Session session, final Integer concurrency) {
         this.session = session;
         this.attributes = new S3AttributesFinderFeature(session);
+        this.concurrency = concurrency;
     }
 
     @Override
@@ -87,56 +115,16 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
                 final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
                     PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, delimiter,
                     chunksize, priorLastKey);
-
-                final StorageObject[] objects = chunk.getObjects();
-                for(StorageObject object : objects) {
-                    final String key = PathNormalizer.normalize(object.getKey());
-                    if(String.valueOf(Path.DELIMITER).equals(key)) {
-                        log.warn(String.format("Skipping prefix %s", key));
-                        continue;
-                    }
-                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
-                        // Placeholder object, skip
-                        hasDirectoryPlaceholder = true;
-                        continue;
-                    }
-                    final EnumSet<AbstractPath.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
-                        ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
-                    final Path file;
-                    final PathAttributes attr = attributes.toAttributes(object);
-                    // Copy bucket location
-                    attr.setRegion(bucket.attributes().getRegion());
-                    if(null == delimiter) {
-                        file = new Path(String.format("%s%s", bucket.getAbsolute(), key), types, attr);
-                    }
-                    else {
-                        file = new Path(directory, PathNormalizer.name(key), types, attr);
-                    }
-                    children.add(file);
-                }
-                final String[] prefixes = chunk.getCommonPrefixes();
-                for(String common : prefixes) {
-                    if(String.valueOf(Path.DELIMITER).equals(common)) {
-                        log.warn(String.format("Skipping prefix %s", common));
-                        continue;
-                    }
-                    final String key = PathNormalizer.normalize(common);
-                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
-                        continue;
-                    }
-                    final Path file;
-                    final PathAttributes attributes = new PathAttributes();
-                    if(null == delimiter) {
-                        file = new Path(String.format("%s%s", bucket.getAbsolute(), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                    }
-                    else {
-                        file = new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                    }
-                    attributes.setRegion(bucket.attributes().getRegion());
-                    children.add(file);
+                if(this.parse(directory, bucket, delimiter, chunk, null, children)) {
+                    hasDirectoryPlaceholder = true;
                 }
                 priorLastKey = chunk.getPriorLastKey();
                 listener.chunk(directory, children);
+                if(null == delimiter && null != priorLastKey && concurrency > 1) {
+                    // Continue with remaining keyspace split into partitions listed concurrently
+                    this.list(directory, listener, bucket, prefix, chunksize, chunk, children);
+                    break;
+                }
             }
             while(priorLastKey != null);
             if(!hasDirectoryPlaceholder && children.isEmpty()) {
@@ -148,4 +136,263 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
             throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
         }
     }
+
+    /**
+     * List keys after last key of first chunk in partitions bounded by sampled keys
+     *
+     * @param first First chunk of listing with more keys available
+     */
+    private void list(final Path directory, final ListProgressListener listener, final Path bucket, final String prefix,
+                      final int chunksize, final StorageObjectsChunk first, final AttributedList<Path> children) throws BackgroundException {
+        final ThreadPool pool = ThreadPoolFactory.get("list", concurrency);
+        try {
+            final List<String> boundaries = this.boundaries(pool, bucket, prefix, first);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("List %s in %d partitions", directory, boundaries.size()));
+            }
+            final List<Future<AttributedList<Path>>> partitions = new ArrayList<Future<AttributedList<Path>>>();
+            for(int i = 0; i < boundaries.size(); i++) {
+                // Each partition includes keys greater than its lower and up to its upper boundary
+                partitions.add(this.submit(pool, directory, bucket, prefix, chunksize, boundaries.get(i),
+                    i + 1 < boundaries.size() ? boundaries.get(i + 1) : null));
+            }
+            for(Future<AttributedList<Path>> future : partitions) {
+                // Append in order of partitions regardless of completion order to keep keys sorted
+                children.addAll(this.get(future));
+                listener.chunk(directory, children);
+            }
+        }
+        finally {
+            // Cancel future tasks
+            pool.shutdown(false);
+        }
+    }
+
+    /**
+     * Sample keys to partition keyspace after last key of first chunk. Uses common prefixes if the keys
+     * are organized in folders and otherwise the first key found after each character of an alphabet
+     * appended to the common prefix of keys already listed.
+     *
+     * @return Sorted lower boundaries of partitions starting with last key already listed
+     */
+    protected List<String> boundaries(final ThreadPool pool, final Path bucket, final String prefix, final StorageObjectsChunk first) throws BackgroundException {
+        final String last = first.getPriorLastKey();
+        final TreeSet<String> sampled = new TreeSet<String>(new Comparator<String>() {
+            @Override
+            public int compare(final String a, final String b) {
+                return S3ObjectListService.compare(a, b);
+            }
+        });
+        try {
+            final StorageObjectsChunk folders = session.getClient().listObjectsChunked(
+                PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, String.valueOf(Path.DELIMITER),
+                preferences.getInteger("s3.listing.chunksize"), null);
+            for(String common : folders.getCommonPrefixes()) {
+                if(compare(common, last) > 0) {
+                    sampled.add(common);
+                }
+            }
+        }
+        catch(ServiceException e) {
+            throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, bucket);
+        }
+        if(sampled.size() < 2) {
+            final StorageObject[] objects = first.getObjects();
+            final String common = objects.length == 0 ? prefix :
+                StringUtils.getCommonPrefix(objects[0].getKey(), last);
+            final List<Future<String>> probes = new ArrayList<Future<String>>();
+            for(String candidate : sample(ALPHABET, concurrency)) {
+                if(compare(common + candidate, last) > 0) {
+                    probes.add(this.probe(pool, bucket, prefix, common + candidate));
+                }
+            }
+            for(Future<String> probe : probes) {
+                final String key = this.get(probe);
+                if(null != key) {
+                    sampled.add(key);
+                }
+            }
+        }
+        final List<String> boundaries = new ArrayList<String>();
+        boundaries.add(last);
+        boundaries.addAll(sample(new ArrayList<String>(sampled), concurrency - 1));
+        return boundaries;
+    }
+
+    /**
+     * @return First key greater than marker or null if there is none
+     */
+    private Future<String> probe(final ThreadPool pool, final Path bucket, final String prefix, final String marker) {
+        return pool.execute(new BackgroundExceptionCallable<String>() {
+            @Override
+            public String call() throws BackgroundException {
+                try {
+                    final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+                        PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, null, 1, marker);
+                    if(chunk.getObjects().length == 0) {
+                        return null;
+                    }
+                    return chunk.getObjects()[0].getKey();
+                }
+                catch(ServiceException e) {
+                    throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, bucket);
+                }
+            }
+        });
+    }
+
+    private Future<AttributedList<Path>> submit(final ThreadPool pool, final Path directory,
+                                                final Path bucket, final String prefix, final int chunksize,
+                                                final String lower, final String upper) {
+        return pool.execute(new BackgroundExceptionCallable<AttributedList<Path>>() {
+            @Override
+            public AttributedList<Path> call() throws BackgroundException {
+                final AttributedList<Path> partition = new AttributedList<Path>();
+                String priorLastKey = lower;
+                try {
+                    do {
+                        final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+                            PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, null,
+                            chunksize, priorLastKey);
+                        parse(directory, bucket, null, chunk, upper, partition);
+                        final StorageObject[] objects = chunk.getObjects();
+                        if(null != upper && objects.length > 0 && compare(objects[objects.length - 1].getKey(), upper) >= 0) {
+                            // Reached upper boundary of partition
+                            priorLastKey = null;
+                        }
+                        else {
+                            priorLastKey = chunk.getPriorLastKey();
+                        }
+                    }
+                    while(priorLastKey != null);
+                }
+                catch(ServiceException e) {
+                    throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+                }
+                return partition;
+            }
+        });
+    }
+
+    private <T> T get(final Future<T> future) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            log.error("Listing objects failed with interrupt failure");
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            log.warn(String.format("Listing objects failed with execution failure %s", e.getMessage()));
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+    }
+
+    /**
+     * Add objects and common prefixes of chunk to children
+     *
+     * @param upper Skip keys greater than upper boundary or null
+     * @return True if directory placeholder was found
+     */
+    private boolean parse(final Path directory, final Path bucket, final String delimiter, final StorageObjectsChunk chunk,
+                          final String upper, final AttributedList<Path> children) {
+        boolean found = false;
+        final StorageObject[] objects = chunk.getObjects();
+        for(StorageObject object : objects) {
+            if(null != upper && compare(object.getKey(), upper) > 0) {
+                break;
+            }
+            final String key = PathNormalizer.normalize(object.getKey());
+            if(String.valueOf(Path.DELIMITER).equals(key)) {
+                log.warn(String.format("Skipping prefix %s", key));
+                continue;
+            }
+            if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+                // Placeholder object, skip
+                found = true;
+                continue;
+            }
+            final EnumSet<AbstractPath.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
+                ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
+            final Path file;
+            final PathAttributes attr = attributes.toAttributes(object);
+            // Copy bucket location
+            attr.setRegion(bucket.attributes().getRegion());
+            if(null == delimiter) {
+                file = new Path(String.format("%s%s", bucket.getAbsolute(), key), types, attr);
+            }
+            else {
+                file = new Path(directory, PathNormalizer.name(key), types, attr);
+            }
+            children.add(file);
+        }
+        final String[] prefixes = chunk.getCommonPrefixes();
+        for(String common : prefixes) {
+            if(String.valueOf(Path.DELIMITER).equals(common)) {
+                log.warn(String.format("Skipping prefix %s", common));
+                continue;
+            }
+            final String key = PathNormalizer.normalize(common);
+            if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+                continue;
+            }
+            final Path file;
+            final PathAttributes attributes = new PathAttributes();
+            if(null == delimiter) {
+                file = new Path(String.format("%s%s", bucket.getAbsolute(), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+            }
+            else {
+                file = new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+            }
+            attributes.setRegion(bucket.attributes().getRegion());
+            children.add(file);
+        }
+        return found;
+    }
+
+    /**
+     * @return Evenly spaced elements with a maximum of count
+     */
+    protected static <T> List<T> sample(final List<T> elements, final int count) {
+        if(count <= 0) {
+            return Collections.emptyList();
+        }
+        if(elements.size() <= count) {
+            return elements;
+        }
+        final List<T> sample = new ArrayList<T>(count);
+        for(int i = 0; i < count; i++) {
+            sample.add(elements.get((int) ((long) i * elements.size() / count)));
+        }
+        return sample;
+    }
+
+    private static List<String> sample(final String alphabet, final int count) {
+        final List<String> characters = new ArrayList<String>();
+        for(char c : alphabet.toCharArray()) {
+            characters.add(String.valueOf(c));
+        }
+        return sample(characters, count);
+    }
+
+    /**
+     * Compare keys in order of listing results which is by UTF-8 binary value
+     */
+    protected static int compare(final String a, final String b) {
+        int i = 0;
+        int j = 0;
+        while(i < a.length() && j < b.length()) {
+            final int x = a.codePointAt(i);
+            final int y = b.codePointAt(j);
+            if(x != y) {
+                return Integer.compare(x, y);
+            }
+            i += Character.charCount(x);
+            j += Character.charCount(y);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
 }
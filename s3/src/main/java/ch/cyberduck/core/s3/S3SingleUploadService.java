@@ -20,6 +20,7 @@ package ch.cyberduck.core.s3;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Scheme;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.features.Upload;
@@ -36,7 +37,6 @@ import org.jets3t.service.model.StorageObject;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -59,7 +59,13 @@ public class S3SingleUploadService extends HttpUploadFeature<StorageObject, Mess
         switch(signatureVersion) {
             case AWS4HMACSHA256:
                 if(Checksum.NONE == status.getChecksum()) {
-                    status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
+                    if(PreferencesFactory.get().getBoolean("queue.upload.checksum.inline")
+                        && Scheme.https == session.getHost().getProtocol().getScheme()) {
+                        status.setChecksum(S3WriteFeature.UNSIGNED_PAYLOAD);
+                    }
+                    else {
+                        status.setChecksum(writer.checksum(file).compute(local, status));
+                    }
                 }
                 break;
         }
@@ -80,17 +86,20 @@ public class S3SingleUploadService extends HttpUploadFeature<StorageObject, Mess
     protected InputStream decorate(final InputStream in, final MessageDigest digest) throws IOException {
         if(null == digest) {
             log.warn("MD5 calculation disabled");
-            return super.decorate(in, null);
-        }
-        else {
-            return new DigestInputStream(super.decorate(in, digest), digest);
         }
+        return super.decorate(in, digest);
+    }
+
+    @Override
+    public boolean inline(final Path file, final TransferStatus status) {
+        return inline;
     }
 
     @Override
     protected MessageDigest digest() throws IOException {
         MessageDigest digest = null;
-        if(PreferencesFactory.get().getBoolean("queue.upload.checksum.calculate")) {
+        if(PreferencesFactory.get().getBoolean("queue.upload.checksum.calculate")
+            || PreferencesFactory.get().getBoolean("queue.upload.checksum.inline")) {
             try {
                 digest = MessageDigest.getInstance("MD5");
             }
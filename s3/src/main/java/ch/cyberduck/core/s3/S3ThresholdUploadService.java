@@ -85,6 +85,12 @@ public class S3ThresholdUploadService implements Upload<StorageObject> {
         return new S3SingleUploadService(session, writer).upload(file, local, throttle, listener, status, prompt);
     }
 
+    @Override
+    public boolean inline(final Path file, final TransferStatus status) {
+        // Single and multipart upload both verify the checksum calculated while uploading
+        return new S3SingleUploadService(session, writer).inline(file, status);
+    }
+
     @Override
     public Upload<StorageObject> withWriter(final Write<StorageObject> writer) {
         this.writer = writer;
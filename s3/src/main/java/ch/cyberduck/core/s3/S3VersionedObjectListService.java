@@ -33,6 +33,7 @@ import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 import org.apache.log4j.Logger;
 import org.jets3t.service.ServiceException;
 import org.jets3t.service.StorageObjectsChunk;
@@ -43,7 +44,9 @@ import org.jets3t.service.model.S3Version;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -80,7 +83,8 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
             final String prefix = this.createPrefix(directory);
             final Path bucket = containerService.getContainer(directory);
             final AttributedList<Path> children = new AttributedList<Path>();
-            final List<Future<Path>> folders = new ArrayList<Future<Path>>();
+            // Folders with current objects paged alongside versions
+            final CurrentPrefixes current = new CurrentPrefixes(bucket, prefix);
             String priorLastKey = null;
             String priorLastVersionId = null;
             long revision = 0L;
@@ -131,8 +135,8 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
                     children.add(f);
                     lastKey = key;
                 }
-                final String[] prefixes = chunk.getCommonPrefixes();
-                for(String common : prefixes) {
+                final List<String> prefixes = new ArrayList<String>();
+                for(String common : chunk.getCommonPrefixes()) {
                     if(String.valueOf(Path.DELIMITER).equals(common)) {
                         log.warn(String.format("Skipping prefix %s", common));
                         continue;
@@ -141,29 +145,42 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
                     if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
                         continue;
                     }
-                    folders.add(this.submit(pool, bucket, common));
+                    prefixes.add(common);
+                }
+                // Latest placeholder versions of all folders on this page found with a single request where possible
+                final Map<String, BaseVersionOrDeleteMarker> placeholders = this.placeholders(bucket, prefix, prefixes);
+                final List<Future<Path>> folders = new ArrayList<Future<Path>>();
+                for(String common : prefixes) {
+                    final boolean exists = current.contains(common);
+                    if(placeholders.containsKey(common)) {
+                        folders.add(ConcurrentUtils.constantFuture(this.toPath(bucket, common, placeholders.get(common), exists)));
+                    }
+                    else {
+                        // Folder not reached in listing of placeholders
+                        folders.add(this.submit(pool, bucket, common, exists));
+                    }
+                }
+                for(Future<Path> future : folders) {
+                    try {
+                        children.add(future.get());
+                    }
+                    catch(InterruptedException e) {
+                        log.error("Listing versioned objects failed with interrupt failure");
+                        throw new ConnectionCanceledException(e);
+                    }
+                    catch(ExecutionException e) {
+                        log.warn(String.format("Listing versioned objects failed with execution failure %s", e.getMessage()));
+                        if(e.getCause() instanceof BackgroundException) {
+                            throw (BackgroundException) e.getCause();
+                        }
+                        throw new BackgroundException(e.getCause());
+                    }
                 }
                 priorLastKey = chunk.getNextKeyMarker();
                 priorLastVersionId = chunk.getNextVersionIdMarker();
                 listener.chunk(directory, children);
             }
             while(priorLastKey != null);
-            for(Future<Path> future : folders) {
-                try {
-                    children.add(future.get());
-                }
-                catch(InterruptedException e) {
-                    log.error("Listing versioned objects failed with interrupt failure");
-                    throw new ConnectionCanceledException(e);
-                }
-                catch(ExecutionException e) {
-                    log.warn(String.format("Listing versioned objects failed with execution failure %s", e.getMessage()));
-                    if(e.getCause() instanceof BackgroundException) {
-                        throw (BackgroundException) e.getCause();
-                    }
-                    throw new BackgroundException(e.getCause());
-                }
-            }
             if(!hasDirectoryPlaceholder && children.isEmpty()) {
                 throw new NotfoundException(directory.getAbsolute());
             }
@@ -178,45 +195,138 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
         }
     }
 
-    private Future<Path> submit(final ThreadPool pool, final Path bucket, final String common) {
+    /**
+     * Find placeholders for a page of folders with a single versioned listing starting at the first folder. The
+     * placeholder is the first key of a folder and its latest version is listed first.
+     *
+     * @param prefixes Common prefixes in lexicographic order
+     * @return Latest version of placeholder by prefix or null value if the folder has no placeholder. Missing for
+     * folders not reached in the listing.
+     */
+    private Map<String, BaseVersionOrDeleteMarker> placeholders(final Path bucket, final String prefix,
+                                                                final List<String> prefixes) throws ServiceException {
+        final Map<String, BaseVersionOrDeleteMarker> placeholders = new HashMap<String, BaseVersionOrDeleteMarker>();
+        if(prefixes.isEmpty()) {
+            return placeholders;
+        }
+        final String first = prefixes.get(0);
+        // Start listing after the key preceding the first folder
+        final String marker = String.format("%s%c", first.substring(0, first.length() - 1), first.charAt(first.length() - 1) - 1);
+        final BaseVersionOrDeleteMarker[] items = session.getClient().listVersionedObjectsChunked(
+            bucket.getName(), prefix, null, preferences.getInteger("s3.listing.chunksize"),
+            marker, null, false).getItems();
+        int index = 0;
+        for(String common : prefixes) {
+            while(index < items.length && S3ObjectListService.compare(items[index].getKey(), common) < 0) {
+                index++;
+            }
+            if(index == items.length) {
+                // Remaining folders not reached
+                break;
+            }
+            placeholders.put(common, items[index].getKey().equals(common) ? items[index] : null);
+        }
+        return placeholders;
+    }
+
+    private Future<Path> submit(final ThreadPool pool, final Path bucket, final String common, final boolean exists) {
         return pool.execute(new BackgroundExceptionCallable<Path>() {
             @Override
             public Path call() throws BackgroundException {
-                final PathAttributes attributes = new PathAttributes();
-                attributes.setRegion(bucket.attributes().getRegion());
-                final Path prefix = new Path(String.format("%s%s", bucket.getAbsolute(), PathNormalizer.normalize(common)),
-                    EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
                 try {
                     final VersionOrDeleteMarkersChunk versions = session.getClient().listVersionedObjectsChunked(
                         bucket.getName(), common, null, 1,
                         null, null, false);
+                    BaseVersionOrDeleteMarker placeholder = null;
                     if(versions.getItems().length == 1) {
                         final BaseVersionOrDeleteMarker version = versions.getItems()[0];
                         if(version.getKey().equals(common)) {
-                            attributes.setVersionId("null".equals(version.getVersionId()) ? null : version.getVersionId());
-                            if(version.isDeleteMarker()) {
-                                attributes.setCustom(ImmutableMap.of(KEY_DELETE_MARKER, Boolean.TRUE.toString()));
-                                attributes.setDuplicate(true);
-                            }
-                        }
-                        else {
-                            // no placeholder but objects inside - need to check if all of them are deleted
-                            final StorageObjectsChunk unversioned = session.getClient().listObjectsChunked(bucket.getName(), common,
-                                null, 1, null, false);
-                            if(unversioned.getObjects().length == 0) {
-                                attributes.setDuplicate(true);
-                            }
+                            placeholder = version;
                         }
                     }
+                    return toPath(bucket, common, placeholder, exists);
                 }
                 catch(ServiceException e) {
-                    throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, prefix);
+                    throw new S3ExceptionMappingService().map("Listing directory {0} failed", e,
+                        new Path(String.format("%s%s", bucket.getAbsolute(), PathNormalizer.normalize(common)), EnumSet.of(Path.Type.directory)));
                 }
-                return prefix;
             }
         });
     }
 
+    /**
+     * @param placeholder Latest version of placeholder or null if there is none
+     * @param exists      Folder contains current objects
+     */
+    private Path toPath(final Path bucket, final String common, final BaseVersionOrDeleteMarker placeholder, final boolean exists) {
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setRegion(bucket.attributes().getRegion());
+        if(null != placeholder) {
+            attributes.setVersionId("null".equals(placeholder.getVersionId()) ? null : placeholder.getVersionId());
+            if(placeholder.isDeleteMarker()) {
+                attributes.setCustom(ImmutableMap.of(KEY_DELETE_MARKER, Boolean.TRUE.toString()));
+                attributes.setDuplicate(true);
+            }
+        }
+        else if(!exists) {
+            // No placeholder and all objects in folder deleted
+            attributes.setDuplicate(true);
+        }
+        return new Path(String.format("%s%s", bucket.getAbsolute(), PathNormalizer.normalize(common)),
+            EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+    }
+
+    /**
+     * Common prefixes of current objects read page by page in lexicographic order to match with common
+     * prefixes of versioned listing instead of querying each folder
+     */
+    private final class CurrentPrefixes {
+        private final Path bucket;
+        private final String prefix;
+
+        private String[] page = new String[0];
+        private int index;
+        /**
+         * Null if listing is complete
+         */
+        private String priorLastKey;
+        private boolean started;
+
+        public CurrentPrefixes(final Path bucket, final String prefix) {
+            this.bucket = bucket;
+            this.prefix = prefix;
+        }
+
+        /**
+         * @param common Common prefix in versioned listing. Must be called in lexicographic order.
+         * @return True if there is a current object with given prefix
+         */
+        public boolean contains(final String common) throws ServiceException {
+            while(true) {
+                while(index < page.length) {
+                    final int compare = S3ObjectListService.compare(page[index], common);
+                    if(compare == 0) {
+                        return true;
+                    }
+                    if(compare > 0) {
+                        return false;
+                    }
+                    index++;
+                }
+                if(started && null == priorLastKey) {
+                    return false;
+                }
+                final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+                    bucket.getName(), prefix, String.valueOf(Path.DELIMITER),
+                    preferences.getInteger("s3.listing.chunksize"), priorLastKey);
+                page = chunk.getCommonPrefixes();
+                index = 0;
+                priorLastKey = chunk.getPriorLastKey();
+                started = true;
+            }
+        }
+    }
+
     @Override
     public ListService withCache(final Cache<Path> cache) {
         return this;
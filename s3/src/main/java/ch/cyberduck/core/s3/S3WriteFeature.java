@@ -58,6 +58,11 @@ import java.util.Map;
 public class S3WriteFeature extends AbstractHttpWriteFeature<StorageObject> implements Write<StorageObject> {
     private static final Logger log = Logger.getLogger(S3WriteFeature.class);
 
+    /**
+     * Payload not included in AWS4 signature. Only allowed with TLS. Integrity is verified with the ETag returned instead.
+     */
+    public static final Checksum UNSIGNED_PAYLOAD = new Checksum(HashAlgorithm.sha256, "UNSIGNED-PAYLOAD");
+
     private final Preferences preferences
         = PreferencesFactory.get();
 
@@ -0,0 +1,64 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.Local;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class S3MultipartCopyReferenceTest {
+
+    private final Local folder = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+
+    @Test
+    public void testSaveFind() {
+        final S3MultipartCopyReference reference = new S3MultipartCopyReference(folder, "s3://h",
+            "b", "source", "v1", "e1", "b", "target");
+        assertNull(reference.find());
+        reference.save("u1");
+        assertEquals("u1", reference.find());
+        assertEquals("u1", new S3MultipartCopyReference(folder, "s3://h",
+            "b", "source", "v1", "e1", "b", "target").find());
+        reference.delete();
+        assertNull(reference.find());
+    }
+
+    @Test
+    public void testDifferentSource() {
+        final S3MultipartCopyReference reference = new S3MultipartCopyReference(folder, "s3://h",
+            "b", "source", "v1", "e1", "b", "target");
+        reference.save("u1");
+        // Modified source
+        assertNull(new S3MultipartCopyReference(folder, "s3://h", "b", "source", "v2", "e2", "b", "target").find());
+        assertNull(new S3MultipartCopyReference(folder, "s3://h", "b", "source", "v1", "e2", "b", "target").find());
+        // Other source
+        assertNull(new S3MultipartCopyReference(folder, "s3://h", "b", "other", "v1", "e1", "b", "target").find());
+        // Other target
+        assertNull(new S3MultipartCopyReference(folder, "s3://h", "b", "source", "v1", "e1", "b", "other").find());
+        reference.delete();
+    }
+
+    @Test
+    public void testUnknownSourceVersion() {
+        final S3MultipartCopyReference reference = new S3MultipartCopyReference(folder, "s3://h",
+            "b", "source", null, null, "b", "target");
+        reference.save("u1");
+        assertNull(reference.find());
+    }
+}
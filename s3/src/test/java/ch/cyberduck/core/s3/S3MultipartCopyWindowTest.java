@@ -0,0 +1,65 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class S3MultipartCopyWindowTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @Test
+    public void testPartSizeFromObjectSize() {
+        assertEquals(100 * MB, new S3MultipartCopyWindow(6 * 1024 * MB, 100 * MB, 10, 20).partsize());
+        // 10 TB requires larger parts than minimum to stay within part limit
+        final long size = 10L * 1024L * 1024L * MB;
+        final S3MultipartCopyWindow window = new S3MultipartCopyWindow(size, 100 * MB, 10, 20);
+        assertEquals(size / 9999, window.partsize());
+        assertEquals(10, window.concurrency());
+        assertEquals(2, new S3MultipartCopyWindow(150 * MB, 100 * MB, 10, 20).concurrency());
+    }
+
+    @Test
+    public void testLength() {
+        final S3MultipartCopyWindow window = new S3MultipartCopyWindow(1024 * MB, 100 * MB, 10, 20);
+        assertEquals(100 * MB, window.length(1, 1024 * MB));
+        assertEquals(24 * MB, window.length(11, 24 * MB));
+        // Few part numbers left
+        assertEquals(512 * MB, window.length(9999, 1024 * MB));
+    }
+
+    @Test
+    public void testAdjust() {
+        final S3MultipartCopyWindow window = new S3MultipartCopyWindow(100 * 1024 * MB, 100 * MB, 10, 12);
+        window.success(100 * MB, TimeUnit.SECONDS.toNanos(1L));
+        assertEquals(200 * MB, window.partsize());
+        assertEquals(11, window.concurrency());
+        window.success(200 * MB, TimeUnit.SECONDS.toNanos(30L));
+        assertEquals(200 * MB, window.partsize());
+        window.success(200 * MB, TimeUnit.SECONDS.toNanos(1L));
+        window.success(400 * MB, TimeUnit.SECONDS.toNanos(1L));
+        assertEquals(800 * MB, window.partsize());
+        assertEquals(12, window.concurrency());
+        window.success(800 * MB, TimeUnit.SECONDS.toNanos(300L));
+        assertEquals(400 * MB, window.partsize());
+        window.throttled();
+        assertEquals(6, window.concurrency());
+    }
+}
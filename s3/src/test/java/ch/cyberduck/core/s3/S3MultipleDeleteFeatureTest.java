@@ -23,6 +23,7 @@ import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
@@ -37,7 +38,9 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -108,6 +111,35 @@ public class S3MultipleDeleteFeatureTest extends AbstractS3Test {
         new S3MultipleDeleteFeature(session).delete(container, keys, new DisabledLoginCallback());
     }
 
+    @Test
+    public void testDeleteConcurrentPartitions() throws Exception {
+        final Path container = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.volume));
+        final List<Path> files = new ArrayList<Path>();
+        for(int i = 0; i < 5; i++) {
+            final Path test = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+            new S3TouchFeature(session).touch(test, new TransferStatus());
+            files.add(test);
+        }
+        final String partition = PreferencesFactory.get().getProperty("s3.delete.multiple.partition");
+        PreferencesFactory.get().setProperty("s3.delete.multiple.partition", 2);
+        final AtomicInteger count = new AtomicInteger();
+        try {
+            new S3MultipleDeleteFeature(session, new S3DisabledMultipartService(), 3).delete(files, new DisabledLoginCallback(), new Delete.Callback() {
+                @Override
+                public void delete(final Path file) {
+                    count.incrementAndGet();
+                }
+            });
+        }
+        finally {
+            PreferencesFactory.get().setProperty("s3.delete.multiple.partition", partition);
+        }
+        assertEquals(files.size(), count.get());
+        for(Path file : files) {
+            assertFalse(new S3FindFeature(session).find(file));
+        }
+    }
+
     @Test(expected = NotfoundException.class)
     public void testDeleteNotFoundBucket() throws Exception {
         final Path container = new Path(UUID.randomUUID().toString(), EnumSet.of(Path.Type.volume));
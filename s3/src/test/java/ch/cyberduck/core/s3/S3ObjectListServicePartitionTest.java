@@ -0,0 +1,158 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.jets3t.service.Jets3tProperties;
+import org.jets3t.service.StorageObjectsChunk;
+import org.jets3t.service.model.S3Object;
+import org.jets3t.service.model.StorageObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class S3ObjectListServicePartitionTest {
+
+    private static final List<String> KEYS = Arrays.asList(
+        "dir/0", "dir/1", "dir/A", "dir/B", "dir/a", "dir/b", "dir/z/0", "dir/z/1",
+        "dir/\u00e9", "dir/\uFFFD", "dir/\uD83D\uDE00");
+
+    /**
+     * List keys in memory sorted by UTF-8 binary value
+     */
+    private static final class KeyspaceClient extends RequestEntityRestStorageService {
+        private final TreeSet<String> keys = new TreeSet<String>(new Comparator<String>() {
+            @Override
+            public int compare(final String a, final String b) {
+                return S3ObjectListService.compare(a, b);
+            }
+        });
+
+        public KeyspaceClient(final S3Session session) {
+            super(session, new Jets3tProperties(), HttpClientBuilder.create());
+            keys.addAll(KEYS);
+        }
+
+        @Override
+        public StorageObjectsChunk listObjectsChunked(final String bucketName, final String prefix, final String delimiter,
+                                                      final long maxListingLength, final String priorLastKey) {
+            if("dir/1".equals(priorLastKey) && null == delimiter && maxListingLength > 1) {
+                // Complete first partition last
+                try {
+                    Thread.sleep(500L);
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+            }
+            final List<StorageObject> objects = new ArrayList<StorageObject>();
+            final Set<String> prefixes = new LinkedHashSet<String>();
+            String last = null;
+            for(String key : null == priorLastKey ? keys : keys.tailSet(priorLastKey, false)) {
+                if(!key.startsWith(prefix)) {
+                    continue;
+                }
+                if(objects.size() + prefixes.size() == maxListingLength) {
+                    return new StorageObjectsChunk(prefix, delimiter, objects.toArray(new StorageObject[objects.size()]),
+                        prefixes.toArray(new String[prefixes.size()]), last);
+                }
+                final int index = null == delimiter ? -1 : key.indexOf(delimiter, prefix.length());
+                if(index != -1) {
+                    prefixes.add(key.substring(0, index + 1));
+                }
+                else {
+                    objects.add(new S3Object(key));
+                }
+                last = key;
+            }
+            return new StorageObjectsChunk(prefix, delimiter, objects.toArray(new StorageObject[objects.size()]),
+                prefixes.toArray(new String[prefixes.size()]), null);
+        }
+    }
+
+    private static final class KeyspaceSession extends S3Session {
+        public KeyspaceSession() {
+            super(new Host(new S3Protocol(), new S3Protocol().getDefaultHostname()));
+            this.client = new KeyspaceClient(this);
+        }
+    }
+
+    private final Path bucket = new Path("/bucket", EnumSet.of(Path.Type.directory, Path.Type.volume));
+    private final Path directory = new Path(bucket, "dir", EnumSet.of(Path.Type.directory));
+
+    @Test
+    public void testCompare() {
+        assertEquals(0, S3ObjectListService.compare("dir/a", "dir/a"));
+        assertTrue(S3ObjectListService.compare("A", "a") < 0);
+        assertTrue(S3ObjectListService.compare("a", "a/") < 0);
+        assertTrue(S3ObjectListService.compare("z/0", "za") < 0);
+        assertTrue(S3ObjectListService.compare("z", "\u00e9") < 0);
+        // Supplementary character sorts after any character of the basic multilingual plane in UTF-8
+        assertTrue("\uD83D\uDE00".compareTo("\uFFFD") < 0);
+        assertTrue(S3ObjectListService.compare("\uD83D\uDE00", "\uFFFD") > 0);
+        assertTrue(S3ObjectListService.compare("\uFFFD", "\uD83D\uDE00") < 0);
+    }
+
+    @Test
+    public void testBoundaries() throws Exception {
+        final KeyspaceSession session = new KeyspaceSession();
+        final S3ObjectListService service = new S3ObjectListService(session, 4);
+        final StorageObjectsChunk first = session.getClient().listObjectsChunked("bucket", "dir/", null, 2, null);
+        assertEquals("dir/1", first.getPriorLastKey());
+        final ThreadPool pool = ThreadPoolFactory.get("list", 4);
+        try {
+            // Common prefix after first chunk completed with first key found after sampled characters
+            assertEquals(Arrays.asList("dir/1", "dir/a", "dir/z/", "dir/z/0"),
+                service.boundaries(pool, bucket, "dir/", first));
+        }
+        finally {
+            pool.shutdown(false);
+        }
+    }
+
+    @Test
+    public void testListPartitionedOrder() throws Exception {
+        final KeyspaceSession session = new KeyspaceSession();
+        final AttributedList<Path> list = new S3ObjectListService(session, 4).list(directory, new DisabledListProgressListener(), null, 2);
+        final List<String> keys = new ArrayList<String>();
+        for(Path file : list) {
+            keys.add(new S3PathContainerService().getKey(file));
+        }
+        // Keys in order of listing regardless of completion order of partitions
+        assertEquals(KEYS, keys);
+        final List<String> sequential = new ArrayList<String>();
+        for(Path file : new S3ObjectListService(session, 1).list(directory, new DisabledListProgressListener(), null, 2)) {
+            sequential.add(new S3PathContainerService().getKey(file));
+        }
+        assertEquals(KEYS, sequential);
+    }
+}
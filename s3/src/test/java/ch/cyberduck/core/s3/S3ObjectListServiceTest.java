@@ -35,6 +35,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -248,4 +249,24 @@ public class S3ObjectListServiceTest extends AbstractS3Test {
         new S3ObjectListService(session).list(
             new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.volume, Path.Type.directory)), new DisabledListProgressListener());
     }
+
+    @Test
+    public void testListPartitioned() throws Exception {
+        final Path container = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.volume));
+        container.attributes().setRegion("us-east-1");
+        final Path directory = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(
+            new Path(container, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final List<Path> files = new ArrayList<>();
+        for(String name : new String[]{"0", "1", "A", "B", "a", "b", "z/0", "z/1"}) {
+            files.add(new S3TouchFeature(session).touch(new Path(directory, name, EnumSet.of(Path.Type.file)), new TransferStatus()));
+        }
+        final AttributedList<Path> list = new S3ObjectListService(session, 4).list(directory, new DisabledListProgressListener(), null, 2);
+        assertEquals(files.size(), list.size());
+        for(Path file : files) {
+            assertTrue(list.contains(file));
+        }
+        assertEquals(list.size(), new S3ObjectListService(session, 1).list(directory, new DisabledListProgressListener(), null, 2).size());
+        files.add(directory);
+        new S3DefaultDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
 }
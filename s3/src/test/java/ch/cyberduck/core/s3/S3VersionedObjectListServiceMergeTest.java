@@ -0,0 +1,182 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.jets3t.service.Jets3tProperties;
+import org.jets3t.service.S3ServiceException;
+import org.jets3t.service.StorageObjectsChunk;
+import org.jets3t.service.VersionOrDeleteMarkersChunk;
+import org.jets3t.service.model.BaseVersionOrDeleteMarker;
+import org.jets3t.service.model.S3DeleteMarker;
+import org.jets3t.service.model.S3Version;
+import org.jets3t.service.model.StorageObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class S3VersionedObjectListServiceMergeTest {
+
+    /**
+     * Respond with canned pages of versioned listing, listing of current objects and placeholder versions of folders
+     */
+    private static final class CannedClient extends RequestEntityRestStorageService {
+        private final List<String> current = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> batches = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> folders = Collections.synchronizedList(new ArrayList<String>());
+
+        public CannedClient(final S3Session session) {
+            super(session, new Jets3tProperties(), HttpClientBuilder.create());
+        }
+
+        @Override
+        public VersionOrDeleteMarkersChunk listVersionedObjectsChunked(final String bucketName, final String prefix, final String delimiter,
+                                                                       final long maxListingLength, final String priorLastKey,
+                                                                       final String priorLastVersionId, final boolean completeListing) throws S3ServiceException {
+            if(null == delimiter) {
+                if("dir/".equals(prefix)) {
+                    // Placeholders for page of folders
+                    batches.add(priorLastKey);
+                    switch(priorLastKey) {
+                        case "dir/a.":
+                            return chunk(prefix, new BaseVersionOrDeleteMarker[]{
+                                new S3Version("dir/a/", "va", true, new Date(), null, "e", 0L, null),
+                                new S3Version("dir/a/f", "vf", true, new Date(), null, "e", 1L, null),
+                                // No placeholder
+                                new S3Version("dir/b/f", "vf", false, new Date(), null, "e", 1L, null)}, null);
+                        case "dir/c.":
+                            // Truncated before remaining folders
+                            return chunk(prefix, new BaseVersionOrDeleteMarker[]{
+                                new S3DeleteMarker("dir/c/", "null", true, new Date(), null),
+                                new S3Version("dir/c/", "vc", false, new Date(), null, "e", 0L, null),
+                                new S3Version("dir/c/f", "vf", false, new Date(), null, "e", 1L, null)}, "dir/c/f");
+                        default:
+                            fail();
+                    }
+                }
+                // Latest version in folder not reached in listing of placeholders
+                folders.add(prefix);
+                switch(prefix) {
+                    case "dir/d/":
+                        return chunk(prefix, new BaseVersionOrDeleteMarker[]{
+                            new S3Version("dir/d/", "vd", true, new Date(), null, "e", 0L, null)}, null);
+                    default:
+                        // No placeholder
+                        return chunk(prefix, new BaseVersionOrDeleteMarker[]{
+                            new S3Version(prefix + "f", "ve", false, new Date(), null, "e", 1L, null)}, null);
+                }
+            }
+            assertEquals("dir/", prefix);
+            if(null == priorLastKey) {
+                return new VersionOrDeleteMarkersChunk(prefix, delimiter, new BaseVersionOrDeleteMarker[]{
+                    new S3Version("dir/f", "v2", true, new Date(), null, "e", 2L, null),
+                    new S3Version("dir/f", "v1", false, new Date(), null, "e", 1L, null)},
+                    new String[]{"dir/a/", "dir/b/"}, "dir/b/", null);
+            }
+            assertEquals("dir/b/", priorLastKey);
+            return new VersionOrDeleteMarkersChunk(prefix, delimiter, new BaseVersionOrDeleteMarker[0],
+                new String[]{"dir/c/", "dir/d/", "dir/e/"}, null, null);
+        }
+
+        private static VersionOrDeleteMarkersChunk chunk(final String prefix, final BaseVersionOrDeleteMarker[] items, final String next) {
+            return new VersionOrDeleteMarkersChunk(prefix, null, items, new String[0], next, null);
+        }
+
+        @Override
+        public StorageObjectsChunk listObjectsChunked(final String bucketName, final String prefix, final String delimiter,
+                                                      final long maxListingLength, final String priorLastKey) {
+            assertEquals("dir/", prefix);
+            current.add(String.valueOf(priorLastKey));
+            if(null == priorLastKey) {
+                return new StorageObjectsChunk(prefix, delimiter, new StorageObject[0], new String[]{"dir/a/"}, "dir/a/");
+            }
+            assertEquals("dir/a/", priorLastKey);
+            return new StorageObjectsChunk(prefix, delimiter, new StorageObject[0], new String[]{"dir/d/"}, null);
+        }
+    }
+
+    private static final class CannedSession extends S3Session {
+        public CannedSession() {
+            super(new Host(new S3Protocol(), new S3Protocol().getDefaultHostname()));
+            this.client = new CannedClient(this);
+        }
+    }
+
+    @Test
+    public void testMergeCurrentPrefixes() throws Exception {
+        final CannedSession session = new CannedSession();
+        final Path bucket = new Path("/bucket", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path directory = new Path(bucket, "dir", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new S3VersionedObjectListService(session, 2).list(directory, new DisabledListProgressListener());
+        final Map<String, List<Path>> children = new HashMap<>();
+        for(Path f : list) {
+            if(!children.containsKey(f.getName())) {
+                children.put(f.getName(), new ArrayList<Path>());
+            }
+            children.get(f.getName()).add(f);
+        }
+        assertEquals(7, list.size());
+        assertEquals(2, children.get("f").size());
+        assertEquals("v2", children.get("f").get(0).attributes().getVersionId());
+        assertFalse(children.get("f").get(0).attributes().isDuplicate());
+        assertEquals("v1", children.get("f").get(1).attributes().getVersionId());
+        assertTrue(children.get("f").get(1).attributes().isDuplicate());
+        // Listing of current objects read page by page once only
+        assertEquals(2, ((CannedClient) session.getClient()).current.size());
+        // Single listing of placeholders per page of folders
+        assertEquals(2, ((CannedClient) session.getClient()).batches.size());
+        assertEquals("dir/a.", ((CannedClient) session.getClient()).batches.get(0));
+        assertEquals("dir/c.", ((CannedClient) session.getClient()).batches.get(1));
+        // Only folders not reached in listing of placeholders queried on their own
+        final List<String> queried = new ArrayList<>(((CannedClient) session.getClient()).folders);
+        Collections.sort(queried);
+        assertEquals(2, queried.size());
+        assertEquals("dir/d/", queried.get(0));
+        assertEquals("dir/e/", queried.get(1));
+        final Path a = children.get("a").get(0);
+        assertTrue(a.isDirectory());
+        assertFalse(a.attributes().isDuplicate());
+        assertEquals("va", a.attributes().getVersionId());
+        final Path b = children.get("b").get(0);
+        assertTrue(b.attributes().isDuplicate());
+        assertNull(b.attributes().getVersionId());
+        assertTrue(b.attributes().getCustom().isEmpty());
+        final Path c = children.get("c").get(0);
+        assertTrue(c.attributes().isDuplicate());
+        assertNull(c.attributes().getVersionId());
+        assertEquals(Boolean.TRUE.toString(), c.attributes().getCustom().get(S3VersionedObjectListService.KEY_DELETE_MARKER));
+        final Path d = children.get("d").get(0);
+        assertFalse(d.attributes().isDuplicate());
+        assertEquals("vd", d.attributes().getVersionId());
+        final Path e = children.get("e").get(0);
+        assertTrue(e.attributes().isDuplicate());
+        assertNull(e.attributes().getVersionId());
+        assertTrue(e.attributes().getCustom().isEmpty());
+    }
+}
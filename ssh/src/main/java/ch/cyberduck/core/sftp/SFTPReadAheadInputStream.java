@@ -0,0 +1,154 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import net.schmizz.concurrent.Promise;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPException;
+
+/**
+ * Read file with number of unconfirmed read requests given by transfer window
+ */
+public class SFTPReadAheadInputStream extends InputStream {
+    private static final Logger log = Logger.getLogger(SFTPReadAheadInputStream.class);
+
+    private final SFTPRemoteFile handle;
+    private final SFTPTransferWindow window;
+    /**
+     * Offset to stop reading at or -1 to read until end of file
+     */
+    private final long limit;
+
+    private final Deque<Request> unconfirmed = new ArrayDeque<>();
+    private final byte[] buffer;
+
+    /**
+     * Offset for next read request
+     */
+    private long offset;
+    private boolean eof;
+
+    /**
+     * Position and number of bytes available in buffer
+     */
+    private int position;
+    private int available;
+
+    /**
+     * @param offset Offset in file to start reading from
+     * @param length Number of bytes to read or -1 to read until end of file
+     */
+    public SFTPReadAheadInputStream(final SFTPRemoteFile handle, final SFTPTransferWindow window, final long offset, final long length) {
+        this.handle = handle;
+        this.window = window;
+        this.offset = offset;
+        this.limit = length == -1L ? -1L : offset + length;
+        this.buffer = new byte[window.length()];
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        final int read = this.read(b, 0, 1);
+        if(read == -1) {
+            return -1;
+        }
+        return b[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if(len == 0) {
+            return 0;
+        }
+        while(available == 0) {
+            if(!this.fill()) {
+                return -1;
+            }
+        }
+        final int n = Math.min(len, available);
+        System.arraycopy(buffer, position, b, off, n);
+        position += n;
+        available -= n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return available;
+    }
+
+    /**
+     * Send requests up to window size and wait for reply to oldest request
+     *
+     * @return False when end of file is reached
+     */
+    private boolean fill() throws IOException {
+        while(!eof && unconfirmed.size() < window.size() && (limit == -1L || offset < limit)) {
+            final int length = limit == -1L ? window.length() : (int) Math.min(window.length(), limit - offset);
+            unconfirmed.add(new Request(offset, length, handle.request(offset, length)));
+            offset += length;
+        }
+        final Request request = unconfirmed.poll();
+        if(null == request) {
+            return false;
+        }
+        final int read = handle.retrieve(request.promise, buffer, 0);
+        window.sample(Math.max(0, read), System.nanoTime() - request.time);
+        if(read == -1) {
+            eof = true;
+            unconfirmed.clear();
+            return false;
+        }
+        position = 0;
+        available = read;
+        if(read < request.length) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Short read of %d bytes at offset %d", read, request.offset));
+            }
+            // Discard replies for subsequent requests and continue after last byte received
+            unconfirmed.clear();
+            offset = request.offset + read;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        unconfirmed.clear();
+        super.close();
+    }
+
+    private static final class Request {
+        private final long offset;
+        private final int length;
+        private final Promise<Response, SFTPException> promise;
+        private final long time = System.nanoTime();
+
+        public Request(final long offset, final int length, final Promise<Response, SFTPException> promise) {
+            this.offset = offset;
+            this.length = length;
+            this.promise = promise;
+        }
+    }
+}
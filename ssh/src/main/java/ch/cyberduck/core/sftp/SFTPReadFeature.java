@@ -50,6 +50,31 @@ public class SFTPReadFeature implements Read {
     @Override
     public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
+            if(preferences.getBoolean("sftp.window.adaptive")) {
+                final SFTPRemoteFile handle = SFTPRemoteFile.open(session.sftp(), file.getAbsolute(), EnumSet.of(OpenMode.READ));
+                final SFTPTransferWindow window = this.getWindow(status, session.limits().getRead());
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Using window %s to read from offset %d", window, status.getOffset()));
+                }
+                return new SFTPReadAheadInputStream(handle, window, status.getOffset(), status.getLength() > 0 ? status.getLength() : -1L) {
+                    private final AtomicBoolean close = new AtomicBoolean();
+
+                    @Override
+                    public void close() throws IOException {
+                        if(close.get()) {
+                            log.warn(String.format("Skip double close of stream %s", this));
+                            return;
+                        }
+                        try {
+                            super.close();
+                        }
+                        finally {
+                            handle.close();
+                            close.set(true);
+                        }
+                    }
+                };
+            }
             final RemoteFile handle = session.sftp().open(file.getAbsolute(), EnumSet.of(OpenMode.READ));
             final int maxUnconfirmedReads = this.getMaxUnconfirmedReads(status);
             if(log.isInfoEnabled()) {
@@ -87,6 +112,15 @@ public class SFTPReadFeature implements Read {
                 preferences.getInteger("sftp.read.maxunconfirmed"));
     }
 
+    /**
+     * @param length Length of single read request
+     * @return Window starting with configured number of unconfirmed reads growing up to maximum number of bytes in flight
+     */
+    protected SFTPTransferWindow getWindow(final TransferStatus status, final int length) {
+        return new SFTPTransferWindow(this.getMaxUnconfirmedReads(status), 1,
+                preferences.getInteger("sftp.window.bytes.max") / length, length);
+    }
+
     @Override
     public boolean offset(final Path file) {
         return true;
@@ -0,0 +1,91 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import net.schmizz.concurrent.Promise;
+import net.schmizz.sshj.common.Buffer;
+import net.schmizz.sshj.sftp.FileAttributes;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.PacketType;
+import net.schmizz.sshj.sftp.RemoteFile;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
+import net.schmizz.sshj.sftp.SFTPException;
+
+/**
+ * File handle exposing asynchronous read and write requests to pipeline requests with a window of variable size
+ */
+public class SFTPRemoteFile extends RemoteFile {
+
+    private final SFTPEngine sftp;
+
+    public SFTPRemoteFile(final SFTPEngine sftp, final String path, final byte[] handle) {
+        super(sftp, path, handle);
+        this.sftp = sftp;
+    }
+
+    /**
+     * Open file handle
+     */
+    public static SFTPRemoteFile open(final SFTPEngine sftp, final String path, final Set<OpenMode> modes) throws IOException {
+        final Response response = sftp.request(sftp.newRequest(PacketType.OPEN)
+            .putString(path, sftp.getSubsystem().getRemoteCharset())
+            .putUInt32(OpenMode.toMask(modes))
+            .putFileAttributes(FileAttributes.EMPTY)
+        ).retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        response.ensurePacketTypeIs(PacketType.HANDLE);
+        return new SFTPRemoteFile(sftp, path, response.readBytes());
+    }
+
+    /**
+     * Send read request without waiting for reply
+     */
+    public Promise<Response, SFTPException> request(final long offset, final int length) throws IOException {
+        return this.asyncRead(offset, length);
+    }
+
+    /**
+     * Send write request without waiting for reply
+     */
+    public Promise<Response, SFTPException> request(final long offset, final byte[] data, final int off, final int length) throws IOException {
+        return this.asyncWrite(offset, data, off, length);
+    }
+
+    /**
+     * Wait for reply to read request
+     *
+     * @return Number of bytes copied to buffer or -1 for end of file
+     */
+    public int retrieve(final Promise<Response, SFTPException> promise, final byte[] to, final int off) throws IOException {
+        try {
+            return this.checkReadResponse(promise.retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS), to, off);
+        }
+        catch(Buffer.BufferException e) {
+            throw new SFTPException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Wait for reply to write request
+     */
+    public void confirm(final Promise<Response, SFTPException> promise) throws IOException {
+        promise.retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS).ensureStatusPacketIsOK();
+    }
+}
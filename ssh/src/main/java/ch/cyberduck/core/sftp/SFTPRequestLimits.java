@@ -0,0 +1,104 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
+
+/**
+ * Maximum length of read and write requests. Limits are queried from the server if the limits@openssh.com
+ * extension is supported and otherwise default to the length all servers must support.
+ */
+public final class SFTPRequestLimits {
+    private static final Logger log = Logger.getLogger(SFTPRequestLimits.class);
+
+    /**
+     * Minimum length of read and write requests required to be supported by server
+     */
+    private static final int DEFAULT_LENGTH = 32768;
+
+    private final int read;
+    private final int write;
+
+    public SFTPRequestLimits() {
+        this(DEFAULT_LENGTH, DEFAULT_LENGTH);
+    }
+
+    public SFTPRequestLimits(final int read, final int write) {
+        this.read = read;
+        this.write = write;
+    }
+
+    public static SFTPRequestLimits query(final SFTPEngine sftp) {
+        final int max = PreferencesFactory.get().getInteger("sftp.request.length.max");
+        if(!sftp.supportsServerExtension("limits", "openssh.com")) {
+            return new SFTPRequestLimits();
+        }
+        try {
+            final Response response = sftp.request(sftp.newExtendedRequest("limits@openssh.com"))
+                .retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
+            switch(response.getType()) {
+                case EXTENDED_REPLY:
+                    final long packet = response.readUInt64(); /* max-packet-length */
+                    final long read = response.readUInt64(); /* max-read-length */
+                    final long write = response.readUInt64(); /* max-write-length */
+                    final SFTPRequestLimits limits = new SFTPRequestLimits(
+                        (int) Math.min(max, read > 0 ? read : DEFAULT_LENGTH),
+                        (int) Math.min(max, write > 0 ? write : DEFAULT_LENGTH));
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Server limits %s with maximum packet length %d", limits, packet));
+                    }
+                    return limits;
+                default:
+                    log.warn(String.format("Unexpected response type %s", response.getType()));
+            }
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading server limits. %s", e.getMessage()));
+        }
+        return new SFTPRequestLimits();
+    }
+
+    /**
+     * @return Maximum number of bytes to request with a single read
+     */
+    public int getRead() {
+        return read;
+    }
+
+    /**
+     * @return Maximum number of bytes to send with a single write
+     */
+    public int getWrite() {
+        return write;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SFTPRequestLimits{");
+        sb.append("read=").append(read);
+        sb.append(", write=").append(write);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -97,6 +97,11 @@ public class SFTPSession extends Session<SSHClient> {
 
     private SFTPEngine sftp;
 
+    /**
+     * Maximum length of read and write requests queried lazily from server
+     */
+    private SFTPRequestLimits limits;
+
     private StateDisconnectListener disconnectListener;
 
     private NegotiatedAlgorithms algorithms;
@@ -328,12 +333,20 @@ public class SFTPSession extends Session<SSHClient> {
         return sftp;
     }
 
+    public SFTPRequestLimits limits() throws LoginCanceledException {
+        if(null == limits) {
+            limits = SFTPRequestLimits.query(this.sftp());
+        }
+        return limits;
+    }
+
     @Override
     protected void logout() throws BackgroundException {
         try {
             if(null == sftp) {
                 return;
             }
+            limits = null;
             sftp.close();
         }
         catch(IOException e) {
@@ -0,0 +1,136 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Number of unconfirmed read or write requests sized to twice the bandwidth-delay product measured from replies.
+ * After each round of replies for the current number of requests the delivery rate is multiplied with the minimum
+ * round trip time observed. The window therefore doubles per round while not limited by the link and follows the
+ * delivery rate otherwise.
+ */
+public class SFTPTransferWindow {
+    private static final Logger log = Logger.getLogger(SFTPTransferWindow.class);
+
+    /**
+     * Multiple of bandwidth-delay product to keep in flight
+     */
+    private static final int GAIN = 2;
+
+    /**
+     * Minimum number of unconfirmed requests
+     */
+    private final int min;
+    /**
+     * Maximum number of unconfirmed requests
+     */
+    private final int max;
+    /**
+     * Length of single request
+     */
+    private final int length;
+
+    private int size;
+
+    /**
+     * Minimum round trip time in nanoseconds
+     */
+    private long rtt = Long.MAX_VALUE;
+
+    /**
+     * Start of current round in nanoseconds
+     */
+    private long start = -1L;
+    private long bytes;
+    private int replies;
+
+    /**
+     * @param initial Initial number of unconfirmed requests
+     * @param min     Minimum number of unconfirmed requests
+     * @param max     Maximum number of unconfirmed requests
+     * @param length  Length of single request in bytes
+     */
+    public SFTPTransferWindow(final int initial, final int min, final int max, final int length) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.length = length;
+        this.size = Math.min(this.max, Math.max(this.min, initial));
+    }
+
+    /**
+     * @return Number of requests to keep unconfirmed
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return Length of single request in bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @param bytes   Number of bytes confirmed with reply
+     * @param elapsed Nanoseconds between sending the request and receiving the reply
+     */
+    public void sample(final long bytes, final long elapsed) {
+        this.sample(bytes, elapsed, System.nanoTime());
+    }
+
+    protected synchronized void sample(final long bytes, final long elapsed, final long now) {
+        rtt = Math.min(rtt, Math.max(1L, elapsed));
+        if(start == -1L) {
+            start = now - elapsed;
+        }
+        this.bytes += bytes;
+        replies++;
+        if(replies < size) {
+            return;
+        }
+        final long duration = now - start;
+        if(duration > 0) {
+            // Delivery rate in bytes per second
+            final double rate = this.bytes * (double) TimeUnit.SECONDS.toNanos(1) / duration;
+            final double bdp = rate * rtt / TimeUnit.SECONDS.toNanos(1);
+            final int target = (int) Math.min(max, Math.max(min, Math.ceil(GAIN * bdp / length)));
+            if(target != size) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Resize window from %d to %d requests for rate %.0f bytes/s and round trip time %d ms",
+                        size, target, rate, TimeUnit.NANOSECONDS.toMillis(rtt)));
+                }
+                size = target;
+            }
+        }
+        start = now;
+        this.bytes = 0L;
+        replies = 0;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SFTPTransferWindow{");
+        sb.append("size=").append(size);
+        sb.append(", length=").append(length);
+        sb.append(", rtt=").append(rtt);
+        sb.append('}');
+        return sb.toString();
+    }
+}
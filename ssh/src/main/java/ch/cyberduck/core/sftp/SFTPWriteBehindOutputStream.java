@@ -0,0 +1,104 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import net.schmizz.concurrent.Promise;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPException;
+
+/**
+ * Write file with number of unconfirmed write requests given by transfer window
+ */
+public class SFTPWriteBehindOutputStream extends OutputStream {
+
+    private final SFTPRemoteFile handle;
+    private final SFTPTransferWindow window;
+
+    private final Deque<Request> unconfirmed = new ArrayDeque<>();
+
+    /**
+     * Offset for next write request
+     */
+    private long offset;
+
+    /**
+     * @param offset Offset in file to start writing at
+     */
+    public SFTPWriteBehindOutputStream(final SFTPRemoteFile handle, final SFTPTransferWindow window, final long offset) {
+        this.handle = handle;
+        this.window = window;
+        this.offset = offset;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int written = 0;
+        while(written < len) {
+            while(unconfirmed.size() >= window.size()) {
+                this.confirm();
+            }
+            final int length = Math.min(window.length(), len - written);
+            unconfirmed.add(new Request(length, handle.request(offset, b, off + written, length)));
+            offset += length;
+            written += length;
+        }
+    }
+
+    /**
+     * Wait for reply to oldest request
+     */
+    private void confirm() throws IOException {
+        final Request request = unconfirmed.remove();
+        handle.confirm(request.promise);
+        window.sample(request.length, System.nanoTime() - request.time);
+    }
+
+    /**
+     * Wait for replies to all requests sent
+     */
+    @Override
+    public void flush() throws IOException {
+        while(!unconfirmed.isEmpty()) {
+            this.confirm();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.flush();
+    }
+
+    private static final class Request {
+        private final int length;
+        private final Promise<Response, SFTPException> promise;
+        private final long time = System.nanoTime();
+
+        public Request(final int length, final Promise<Response, SFTPException> promise) {
+            this.length = length;
+            this.promise = promise;
+        }
+    }
+}
@@ -79,6 +79,31 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
                     flags = EnumSet.of(OpenMode.CREAT, OpenMode.TRUNC, OpenMode.WRITE);
                 }
             }
+            if(preferences.getBoolean("sftp.window.adaptive")) {
+                final SFTPRemoteFile handle = SFTPRemoteFile.open(session.sftp(), file.getAbsolute(), flags);
+                final SFTPTransferWindow window = this.getWindow(status, session.limits().getWrite());
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Using window %s to write at offset %d", window, status.getOffset()));
+                }
+                return new VoidStatusOutputStream(new SFTPWriteBehindOutputStream(handle, window, status.getOffset()) {
+                    private final AtomicBoolean close = new AtomicBoolean();
+
+                    @Override
+                    public void close() throws IOException {
+                        if(close.get()) {
+                            log.warn(String.format("Skip double close of stream %s", this));
+                            return;
+                        }
+                        try {
+                            super.close();
+                        }
+                        finally {
+                            handle.close();
+                            close.set(true);
+                        }
+                    }
+                });
+            }
             final RemoteFile handle = session.sftp().open(file.getAbsolute(), flags);
             final int maxUnconfirmedWrites = this.getMaxUnconfirmedWrites(status);
             if(log.isInfoEnabled()) {
@@ -120,6 +145,15 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
                 preferences.getInteger("sftp.write.maxunconfirmed"));
     }
 
+    /**
+     * @param length Length of single write request
+     * @return Window starting with configured number of unconfirmed writes growing up to maximum number of bytes in flight
+     */
+    protected SFTPTransferWindow getWindow(final TransferStatus status, final int length) {
+        return new SFTPTransferWindow(this.getMaxUnconfirmedWrites(status), 1,
+                preferences.getInteger("sftp.window.bytes.max") / length, length);
+    }
+
     @Override
     public boolean temporary() {
         return true;
@@ -129,4 +163,9 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
     public boolean random() {
         return true;
     }
+
+    @Override
+    public boolean segments(final Path file) {
+        return true;
+    }
 }
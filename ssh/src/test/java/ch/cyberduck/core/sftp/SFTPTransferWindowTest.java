@@ -0,0 +1,82 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class SFTPTransferWindowTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    @Test
+    public void testGrowWhileNotLinkLimited() {
+        final SFTPTransferWindow window = new SFTPTransferWindow(4, 1, 1024, 32768);
+        long now = 0L;
+        // All replies of a round arrive after one round trip
+        for(int round = 0; round < 3; round++) {
+            final int size = window.size();
+            now += RTT;
+            for(int i = 0; i < size; i++) {
+                window.sample(32768, RTT, now);
+            }
+            assertEquals(size * 2, window.size());
+        }
+        assertEquals(32, window.size());
+    }
+
+    @Test
+    public void testLimitMaximum() {
+        final SFTPTransferWindow window = new SFTPTransferWindow(64, 1, 100, 32768);
+        long now = 0L;
+        for(int round = 0; round < 5; round++) {
+            final int size = window.size();
+            now += RTT;
+            for(int i = 0; i < size; i++) {
+                window.sample(32768, RTT, now);
+            }
+        }
+        assertEquals(100, window.size());
+    }
+
+    @Test
+    public void testShrinkWhenLinkLimited() {
+        final SFTPTransferWindow window = new SFTPTransferWindow(64, 1, 1024, 32768);
+        // Link delivers 10 requests per round trip with replies queued behind each other
+        final long interval = RTT / 10;
+        long now = 0L;
+        for(int round = 0; round < 5; round++) {
+            final int size = window.size();
+            for(int i = 0; i < size; i++) {
+                now += interval;
+                window.sample(32768, i == 0 ? RTT : RTT + i * interval, now);
+            }
+        }
+        // Twice the bandwidth-delay product of 10 requests
+        assertEquals(20, window.size());
+    }
+
+    @Test
+    public void testMinimum() {
+        final SFTPTransferWindow window = new SFTPTransferWindow(0, 0, 0, 32768);
+        assertEquals(1, window.size());
+        window.sample(0L, RTT, RTT);
+        assertEquals(1, window.size());
+    }
+}
@@ -31,18 +31,24 @@ import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.log4j.Logger;
 
+import javax.xml.namespace.QName;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import com.github.sardine.DavResource;
 import com.github.sardine.impl.SardineImpl;
 import com.github.sardine.impl.handler.VoidResponseHandler;
 import com.github.sardine.impl.methods.HttpPropFind;
+import com.github.sardine.model.Allprop;
 import com.github.sardine.model.Multistatus;
+import com.github.sardine.model.ObjectFactory;
+import com.github.sardine.model.Prop;
 import com.github.sardine.model.Propfind;
 import com.github.sardine.model.Response;
 import com.github.sardine.util.SardineUtil;
@@ -99,6 +105,62 @@ public class DAVClient extends SardineImpl {
         return resources;
     }
 
+    /**
+     * Pass resources to callback while parsing response
+     *
+     * @param depth      Depth of listing or -1 for infinity
+     * @param properties Custom properties to request in addition to the default properties
+     */
+    public void list(final String url, final int depth, final Set<QName> properties, final SaxPropFindResponseHandler.Callback callback) throws IOException {
+        // Same properties as requested by SardineImpl#list
+        final ObjectFactory factory = new ObjectFactory();
+        final Prop prop = new Prop();
+        prop.setGetcontentlength(factory.createGetcontentlength());
+        prop.setGetlastmodified(factory.createGetlastmodified());
+        prop.setCreationdate(factory.createCreationdate());
+        prop.setDisplayname(factory.createDisplayname());
+        prop.setGetcontenttype(factory.createGetcontenttype());
+        prop.setResourcetype(factory.createResourcetype());
+        prop.setGetetag(factory.createGetetag());
+        for(QName property : properties) {
+            prop.getAny().add(SardineUtil.createElement(property));
+        }
+        final Propfind body = new Propfind();
+        body.setProp(prop);
+        this.propfind(url, depth, body, callback);
+    }
+
+    /**
+     * Pass resources to callback while parsing response
+     *
+     * @param depth   Depth of listing or -1 for infinity
+     * @param allProp Request all properties
+     */
+    public void list(final String url, final int depth, final boolean allProp, final SaxPropFindResponseHandler.Callback callback) throws IOException {
+        if(allProp) {
+            final Propfind body = new Propfind();
+            body.setAllprop(new Allprop());
+            this.propfind(url, depth, body, callback);
+        }
+        else {
+            this.list(url, depth, Collections.<QName>emptySet(), callback);
+        }
+    }
+
+    private void propfind(final String url, final int depth, final Propfind body, final SaxPropFindResponseHandler.Callback callback) throws IOException {
+        final HttpPropFind entity = new HttpPropFind(url);
+        entity.setDepth(depth < 0 ? "infinity" : Integer.toString(depth));
+        entity.setEntity(new StringEntity(SardineUtil.toXml(body), StandardCharsets.UTF_8));
+        try {
+            this.execute(entity, new SaxPropFindResponseHandler(callback));
+        }
+        catch(IOException e) {
+            // Do not consume remaining response
+            entity.abort();
+            throw e;
+        }
+    }
+
     @Override
     public ContentLengthStatusInputStream get(final String url, final List<Header> headers) throws IOException {
         HttpGet get = new HttpGet(url);
@@ -24,22 +24,28 @@ import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.RecursiveList;
 import ch.cyberduck.core.http.HttpExceptionMappingService;
 
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.EnumSet;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.github.sardine.DavResource;
 import com.github.sardine.impl.SardineException;
 
-public class DAVListService implements ListService {
+public class DAVListService implements ListService, RecursiveList {
     private static final Logger log = Logger.getLogger(DAVListService.class);
 
     private final DAVSession session;
@@ -56,26 +62,118 @@ public class DAVListService implements ListService {
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
-        try {
-            final AttributedList<Path> children = new AttributedList<Path>();
-            for(final DavResource resource : this.list(directory)) {
+        final AttributedList<Path> children = new AttributedList<Path>();
+        this.propfind(directory, 1, new SaxPropFindResponseHandler.Callback() {
+            @Override
+            public void resource(final DavResource resource) throws IOException {
                 // Try to parse as RFC 2396
                 final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
                 if(href.equals(directory.getAbsolute())) {
                     log.warn(String.format("Ignore resource %s", href));
                     // Do not include self
                     if(resource.isDirectory()) {
-                        continue;
+                        return;
                     }
-                    throw new NotfoundException(directory.getAbsolute());
+                    throw new ListFailure(new NotfoundException(directory.getAbsolute()));
                 }
                 final PathAttributes attr = attributes.toAttributes(resource);
                 final Path file = new Path(directory, PathNormalizer.name(href),
                     resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file), attr);
                 children.add(file);
-                listener.chunk(directory, children);
+                try {
+                    listener.chunk(directory, children);
+                }
+                catch(BackgroundException e) {
+                    throw new ListFailure(e);
+                }
+            }
+        });
+        return children;
+    }
+
+    /**
+     * List tree with a single PROPFIND request with Depth infinity. A refused request is not remembered and the caller
+     * falls back to listing the tree with Depth 1 for this request only.
+     *
+     * @throws AccessDeniedException     Server refuses Depth infinity with propfind-finite-depth precondition
+     * @throws InteroperabilityException Server does not support Depth infinity
+     */
+    @Override
+    public Map<Path, AttributedList<Path>> tree(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final Map<Path, AttributedList<Path>> listings = new HashMap<>();
+        // Directories found by path
+        final Map<String, Path> directories = new HashMap<>();
+        directories.put(directory.getAbsolute(), directory);
+        listings.put(directory, new AttributedList<Path>());
+        this.propfind(directory, -1, new SaxPropFindResponseHandler.Callback() {
+            @Override
+            public void resource(final DavResource resource) throws IOException {
+                final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
+                if(href.equals(directory.getAbsolute())) {
+                    if(resource.isDirectory()) {
+                        return;
+                    }
+                    throw new ListFailure(new NotfoundException(directory.getAbsolute()));
+                }
+                if(!href.startsWith(String.format("%s%s", directory.isRoot() ? "" : directory.getAbsolute(), Path.DELIMITER))) {
+                    log.warn(String.format("Ignore resource %s outside of %s", href, directory));
+                    return;
+                }
+                final Path parent = lookup(directories, listings, PathNormalizer.parent(href, Path.DELIMITER));
+                final AttributedList<Path> children = listings.get(parent);
+                if(resource.isDirectory() && directories.containsKey(href)) {
+                    // Already added to listing of parent before its contents
+                    directories.get(href).setAttributes(attributes.toAttributes(resource));
+                    return;
+                }
+                final Path file = new Path(parent, PathNormalizer.name(href),
+                    resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file),
+                    attributes.toAttributes(resource));
+                if(file.isDirectory()) {
+                    directories.put(file.getAbsolute(), file);
+                    listings.put(file, new AttributedList<Path>());
+                }
+                children.add(file);
+                try {
+                    listener.chunk(parent, children);
+                }
+                catch(BackgroundException e) {
+                    throw new ListFailure(e);
+                }
             }
-            return children;
+        });
+        return listings;
+    }
+
+    /**
+     * @return Directory for path added to listing of its parent when not returned by server before its contents
+     */
+    private static Path lookup(final Map<String, Path> directories, final Map<Path, AttributedList<Path>> listings, final String path) {
+        // Ancestors not yet found ordered from nearest to topmost
+        final Deque<String> missing = new ArrayDeque<>();
+        String current = path;
+        Path parent;
+        while((parent = directories.get(current)) == null) {
+            missing.push(current);
+            current = PathNormalizer.parent(current, Path.DELIMITER);
+        }
+        while(!missing.isEmpty()) {
+            final String next = missing.pop();
+            final Path directory = new Path(parent, PathNormalizer.name(next), EnumSet.of(Path.Type.directory));
+            directories.put(next, directory);
+            listings.put(directory, new AttributedList<Path>());
+            listings.get(parent).add(directory);
+            parent = directory;
+        }
+        return parent;
+    }
+
+    private void propfind(final Path directory, final int depth, final SaxPropFindResponseHandler.Callback callback) throws BackgroundException {
+        try {
+            this.list(directory, depth, callback);
+        }
+        catch(ListFailure e) {
+            throw e.failure;
         }
         catch(SardineException e) {
             throw new DAVExceptionMappingService().map("Listing directory {0} failed", e, directory);
@@ -85,16 +183,32 @@ public class DAVListService implements ListService {
         }
     }
 
-    protected List<DavResource> list(final Path directory) throws IOException {
-        return session.getClient().list(new DAVPathEncoder().encode(directory), 1,
+    /**
+     * @param depth    Depth of listing or -1 for infinity
+     * @param callback Notified with resources while parsing response
+     */
+    protected void list(final Path directory, final int depth, final SaxPropFindResponseHandler.Callback callback) throws IOException {
+        session.getClient().list(new DAVPathEncoder().encode(directory), depth,
             Stream.of(
                 DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE,
                 DAVTimestampFeature.LAST_MODIFIED_SERVER_CUSTOM_NAMESPACE).
-                collect(Collectors.toSet()));
+                collect(Collectors.toSet()), callback);
     }
 
     @Override
     public ListService withCache(final Cache<Path> cache) {
         return this;
     }
+
+    /**
+     * Carry failure from parser callback
+     */
+    private static final class ListFailure extends IOException {
+        private final BackgroundException failure;
+
+        public ListFailure(final BackgroundException failure) {
+            super(failure);
+            this.failure = failure;
+        }
+    }
 }
@@ -94,7 +94,7 @@ public class DAVSession extends HttpSession<DAVClient> {
     private final Preferences preferences
         = PreferencesFactory.get();
 
-    private ListService list = new DAVListService(this, new DAVAttributesFinderFeature(this));
+    private DAVListService list = new DAVListService(this, new DAVAttributesFinderFeature(this));
     private Read read = new DAVReadFeature(this);
     private Timestamp timestamp = new DAVTimestampFeature(this);
     private AttributesFinder attributes = new DAVAttributesFinderFeature(this);
@@ -332,6 +332,12 @@ public class DAVSession extends HttpSession<DAVClient> {
         if(type == ListService.class) {
             return (T) list;
         }
+        if(type == RecursiveList.class) {
+            if(preferences.getBoolean("webdav.list.recursive")) {
+                return (T) list;
+            }
+            return null;
+        }
         if(type == Directory.class) {
             return (T) new DAVDirectoryFeature(this);
         }
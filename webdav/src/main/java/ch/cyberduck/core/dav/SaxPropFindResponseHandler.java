@@ -15,9 +15,11 @@ package ch.cyberduck.core.dav;
  * GNU General Public License for more details.
  */
 
+import org.apache.log4j.Logger;
 import org.w3c.dom.Element;
 import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.DefaultHandler;
 
@@ -26,7 +28,9 @@ import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 
+import com.github.sardine.DavResource;
 import com.github.sardine.impl.handler.MultiStatusResponseHandler;
 import com.github.sardine.model.Collection;
 import com.github.sardine.model.Creationdate;
@@ -43,6 +47,23 @@ import com.github.sardine.model.Response;
 import com.github.sardine.util.SardineUtil;
 
 public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
+    private static final Logger log = Logger.getLogger(SaxPropFindResponseHandler.class);
+
+    /**
+     * Notified for every response element parsed or null to collect all responses in multistatus
+     */
+    private final Callback callback;
+
+    public SaxPropFindResponseHandler() {
+        this(null);
+    }
+
+    /**
+     * @param callback Notified with resources while parsing. Responses are not retained in the returned multistatus.
+     */
+    public SaxPropFindResponseHandler(final Callback callback) {
+        this.callback = callback;
+    }
 
     @Override
     protected Multistatus getMultistatus(final InputStream stream) throws IOException {
@@ -51,18 +72,34 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
         try {
             final SAXParser saxParser = spf.newSAXParser();
             final XMLReader xmlReader = saxParser.getXMLReader();
-            final SaxHandler handler = new SaxHandler();
+            final SaxHandler handler = new SaxHandler(callback);
             xmlReader.setContentHandler(handler);
             xmlReader.parse(new InputSource(stream));
             return handler.getMultistatus();
         }
+        catch(SAXException e) {
+            if(e.getException() instanceof IOException) {
+                // Failure in callback
+                throw (IOException) e.getException();
+            }
+            throw new IOException("Not a valid DAV response", e);
+        }
         catch(Exception e) {
             throw new IOException("Not a valid DAV response", e);
         }
     }
 
+    public interface Callback {
+        /**
+         * @param resource Resource parsed from response element
+         */
+        void resource(DavResource resource) throws IOException;
+    }
+
     private static final class SaxHandler extends DefaultHandler {
 
+        private final Callback callback;
+
         private Multistatus multistatus;
 
         private Response response;
@@ -74,6 +111,10 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
 
         private Element root;
 
+        public SaxHandler(final Callback callback) {
+            this.callback = callback;
+        }
+
         @Override
         public void startDocument() {
             multistatus = new Multistatus();
@@ -85,7 +126,9 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
             switch(localName) {
                 case "response":
                     response = new Response();
-                    multistatus.getResponse().add(response);
+                    if(null == callback) {
+                        multistatus.getResponse().add(response);
+                    }
                     break;
                 case "propstat":
                     propstat = new Propstat();
@@ -112,8 +155,21 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
         }
 
         @Override
-        public void endElement(final String uri, final String localName, final String qName) {
-            if(localName.equals("status")) {
+        public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+            if(localName.equals("response")) {
+                if(callback != null) {
+                    try {
+                        callback.resource(new DavResource(response));
+                    }
+                    catch(URISyntaxException e) {
+                        log.warn(String.format("Ignore resource with invalid URI %s", response.getHref().get(0)));
+                    }
+                    catch(IOException e) {
+                        throw new SAXException(e);
+                    }
+                }
+            }
+            else if(localName.equals("status")) {
                 propstat.setStatus(data.toString());
             }
             else if(localName.equals("creationdate")) {
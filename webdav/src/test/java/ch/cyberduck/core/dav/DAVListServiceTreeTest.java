@@ -0,0 +1,146 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.AccessDeniedException;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Map;
+
+import com.github.sardine.impl.SardineException;
+
+import static org.junit.Assert.*;
+
+public class DAVListServiceTreeTest {
+
+    private static final String TREE = "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+        "<D:multistatus xmlns:D=\"DAV:\">\n" +
+        response("/dav/", true) +
+        response("/dav/a/", true) +
+        response("/dav/a/f1", false) +
+        // Contents of directory returned before directory itself
+        response("/dav/a/b/c/f2", false) +
+        response("/dav/a/b/", true) +
+        response("/dav/a/b/c/", true) +
+        response("/dav/g", false) +
+        response("/other/f", false) +
+        "</D:multistatus>";
+
+    private static String response(final String href, final boolean directory) {
+        return "<D:response>\n" +
+            "<D:href>" + href + "</D:href>\n" +
+            "<D:propstat>\n" +
+            "<D:prop>\n" +
+            (directory ? "<D:resourcetype><D:collection/></D:resourcetype>\n" : "<D:resourcetype/>\n" +
+                "<D:getcontentlength>3</D:getcontentlength>\n") +
+            "<D:getlastmodified>Tue, 15 Oct 2019 10:00:00 GMT</D:getlastmodified>\n" +
+            "</D:prop>\n" +
+            "<D:status>HTTP/1.1 200 OK</D:status>\n" +
+            "</D:propstat>\n" +
+            "</D:response>\n";
+    }
+
+    /**
+     * Parse canned response instead of sending request
+     */
+    private static class CannedDAVListService extends DAVListService {
+        private final String response;
+        protected int requests;
+
+        public CannedDAVListService(final String response) {
+            super(new DAVSession(new Host(new DAVProtocol(), "localhost")));
+            this.response = response;
+        }
+
+        @Override
+        protected void list(final Path directory, final int depth, final SaxPropFindResponseHandler.Callback callback) throws IOException {
+            assertEquals(-1, depth);
+            requests++;
+            new SaxPropFindResponseHandler(callback).getMultistatus(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void testTree() throws Exception {
+        final Path directory = new Path("/dav", EnumSet.of(Path.Type.directory));
+        final Map<Path, AttributedList<Path>> tree = new CannedDAVListService(TREE).tree(directory, new DisabledListProgressListener());
+        assertEquals(4, tree.size());
+        final Path a = new Path(directory, "a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path(a, "b", EnumSet.of(Path.Type.directory));
+        final Path c = new Path(b, "c", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> root = tree.get(directory);
+        assertEquals(2, root.size());
+        assertTrue(root.contains(a));
+        assertTrue(root.contains(new Path(directory, "g", EnumSet.of(Path.Type.file))));
+        assertEquals(3L, root.get(new Path(directory, "g", EnumSet.of(Path.Type.file))).attributes().getSize());
+        assertEquals(2, tree.get(a).size());
+        assertTrue(tree.get(a).contains(new Path(a, "f1", EnumSet.of(Path.Type.file))));
+        assertTrue(tree.get(a).contains(b));
+        // Intermediate directories added once only
+        assertEquals(1, tree.get(b).size());
+        assertTrue(tree.get(b).contains(c));
+        assertEquals(1, tree.get(c).size());
+        assertTrue(tree.get(c).contains(new Path(c, "f2", EnumSet.of(Path.Type.file))));
+    }
+
+    @Test
+    public void testEmptySubdirectories() throws Exception {
+        final Path directory = new Path("/dav", EnumSet.of(Path.Type.directory));
+        final Map<Path, AttributedList<Path>> tree = new CannedDAVListService("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+            "<D:multistatus xmlns:D=\"DAV:\">\n" +
+            response("/dav/", true) +
+            response("/dav/a/", true) +
+            response("/dav/g", false) +
+            "</D:multistatus>").tree(directory, new DisabledListProgressListener());
+        // Not mistaken for server limiting depth
+        assertEquals(2, tree.size());
+        assertEquals(2, tree.get(directory).size());
+        assertTrue(tree.get(new Path(directory, "a", EnumSet.of(Path.Type.directory))).isEmpty());
+    }
+
+    @Test
+    public void testRefusedNotRemembered() throws Exception {
+        final Path directory = new Path("/dav", EnumSet.of(Path.Type.directory));
+        final CannedDAVListService service = new CannedDAVListService(TREE) {
+            @Override
+            protected void list(final Path directory, final int depth, final SaxPropFindResponseHandler.Callback callback) throws IOException {
+                super.list(directory, depth, callback);
+                if(this.requests == 1) {
+                    throw new SardineException("Forbidden", 403, "propfind-finite-depth");
+                }
+            }
+        };
+        try {
+            service.tree(directory, new DisabledListProgressListener());
+            fail();
+        }
+        catch(AccessDeniedException e) {
+            // Refused
+        }
+        // Depth infinity attempted again with next request
+        assertEquals(4, service.tree(directory, new DisabledListProgressListener()).size());
+        assertEquals(2, service.requests);
+    }
+}